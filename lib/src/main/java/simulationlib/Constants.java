@@ -23,6 +23,7 @@ public class Constants {
     public static double kTotalStringLenMeters = 1;
     public static double kCurrentLenSpooled = 0.25;
     public static double kwinchSimGearRatio = 20.0; // 20:1
+    public static double kwinchSpoolDiameterMeters = 0.0254;
 
     // Extender
     public static double kTotalExtenderLenMeters = 0.75;
@@ -44,5 +45,24 @@ public class Constants {
 
     // Grabber
     public static boolean kgrabberInitiallyOpened = false;
+
+    // Charge station (blue alliance side of the 2023 field)
+    public static double kchargeStationCenterXMeters = 3.9;
+    public static double kchargeStationCenterYMeters = 2.75;
+    public static double kchargeStationWidthMeters = 2.47;
+    public static double kchargeStationPlatformLenMeters = 1.22;
+    public static double kchargeStationRampLenMeters = 0.36;
+    public static double kchargeStationPlatformHeightMeters = 0.16;
+    public static double kchargeStationMaxTiltDegrees = 15;
+    public static double kchargeStationMomentOfInertia = 4.0;
+    public static double kchargeStationDamping = 60;
+    public static double kchargeStationFrictionTorque = 20;
+    public static double kchargeStationCenteringStiffness = 550;
+
+    // Robot
+    public static double krobotMassKg = 50;
+
+    // The Pigeon2 is mounted slightly tilted, so it reads this value when the robot is level
+    public static double kgyroRollMountOffsetDegrees = -2.5;
   }
 }
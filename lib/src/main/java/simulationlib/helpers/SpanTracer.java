@@ -0,0 +1,212 @@
+package simulationlib.helpers;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Records timed spans (SimManager stages, subsystem periodic(), command initialize / execute /
+ * end...) and writes them as a Chrome trace, which can be opened in chrome://tracing or
+ * https://ui.perfetto.dev to see exactly what ran when inside each 20ms loop.
+ * <p>
+ * Spans go into arrays that are allocated up front, so recording one doesn't allocate. When
+ * the arrays are full, the oldest spans are overwritten, so the trace always holds the most
+ * recent ones. Span names are registered once with getNameId(), and spans are then recorded
+ * by id.
+ * </p>
+ * <p>
+ * Usage:
+ * </p>
+ * <pre>
+ * int nameId = tracer.getNameId("ArmSystem.periodic");
+ * ...
+ * long start = tracer.now();
+ * doWork();
+ * tracer.record(nameId, start, tracer.now());
+ * </pre>
+ */
+public class SpanTracer {
+  // Enough for about 30 seconds of robot loops
+  public static final int kDefaultCapacity = 1 << 16;
+
+  private static final SpanTracer globalInstance = new SpanTracer(kDefaultCapacity,
+      System::nanoTime);
+
+  private final LongSupplier m_nanoClock;
+  private final long m_originNanos;
+  private final int[] m_nameIds;
+  private final long[] m_startNanos;
+  private final long[] m_durationNanos;
+  private final long[] m_threadIds;
+  private final Map<String, Integer> m_idsByName = new HashMap<String, Integer>();
+  private final List<String> m_names = new ArrayList<String>();
+  private volatile boolean m_isEnabled = true;
+  private int m_nextEvent = 0;
+  private int m_eventCount = 0;
+
+  /**
+   * Constructor.
+   *
+   * @param capacity  number of spans kept
+   * @param nanoClock current time in nanoseconds, e.g. System::nanoTime
+   */
+  public SpanTracer(int capacity, LongSupplier nanoClock) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be >0");
+    }
+
+    if (nanoClock == null) {
+      throw new IllegalArgumentException("nanoClock cannot be null");
+    }
+
+    m_nanoClock = nanoClock;
+    m_originNanos = nanoClock.getAsLong();
+    m_nameIds = new int[capacity];
+    m_startNanos = new long[capacity];
+    m_durationNanos = new long[capacity];
+    m_threadIds = new long[capacity];
+  }
+
+  /**
+   * Returns the tracer shared by the robot program and the simulation.
+   */
+  public static SpanTracer getInstance() {
+    return globalInstance;
+  }
+
+  public void setEnabled(boolean isEnabled) {
+    m_isEnabled = isEnabled;
+  }
+
+  public boolean isEnabled() {
+    return m_isEnabled;
+  }
+
+  /**
+   * Returns the id to record spans of the given name with, registering the name the first
+   * time.
+   */
+  public synchronized int getNameId(String name) {
+    if (name == null || name.isEmpty()) {
+      throw new IllegalArgumentException("name cannot be null or empty");
+    }
+
+    Integer result = m_idsByName.get(name);
+    if (result == null) {
+      result = m_names.size();
+      m_names.add(name);
+      m_idsByName.put(name, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the current time, in the nanoseconds that record() takes.
+   */
+  public long now() {
+    return m_nanoClock.getAsLong();
+  }
+
+  /**
+   * Records a span. Does nothing if the tracer is disabled.
+   *
+   * @param nameId     id from getNameId()
+   * @param startNanos now() when the span started
+   * @param endNanos   now() when the span ended
+   */
+  public void record(int nameId, long startNanos, long endNanos) {
+    if (!m_isEnabled) {
+      return;
+    }
+
+    long threadId = Thread.currentThread().getId();
+    synchronized (this) {
+      m_nameIds[m_nextEvent] = nameId;
+      m_startNanos[m_nextEvent] = startNanos;
+      m_durationNanos[m_nextEvent] = endNanos - startNanos;
+      m_threadIds[m_nextEvent] = threadId;
+      m_nextEvent = (m_nextEvent + 1) % m_nameIds.length;
+      m_eventCount = Math.min(m_eventCount + 1, m_nameIds.length);
+    }
+  }
+
+  /**
+   * Returns the number of spans currently kept.
+   */
+  public synchronized int getEventCount() {
+    return m_eventCount;
+  }
+
+  /**
+   * Forgets every recorded span. Registered names are kept.
+   */
+  public synchronized void clear() {
+    m_nextEvent = 0;
+    m_eventCount = 0;
+  }
+
+  /**
+   * Writes the recorded spans, oldest first, in the Chrome trace event JSON format.
+   */
+  public synchronized void writeChromeTrace(Writer writer) throws IOException {
+    writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+
+    int first = (m_nextEvent - m_eventCount + m_nameIds.length) % m_nameIds.length;
+    for (int i = 0; i < m_eventCount; i++) {
+      int index = (first + i) % m_nameIds.length;
+
+      writer.write((i == 0) ? "\n" : ",\n");
+      writer.write("{\"name\":\"");
+      writer.write(escapeJson(m_names.get(m_nameIds[index])));
+      writer.write("\",\"ph\":\"X\",\"pid\":1,\"tid\":");
+      writer.write(Long.toString(m_threadIds[index]));
+      writer.write(",\"ts\":");
+      writer.write(toMicros(m_startNanos[index] - m_originNanos));
+      writer.write(",\"dur\":");
+      writer.write(toMicros(m_durationNanos[index]));
+      writer.write("}");
+    }
+
+    writer.write("\n]}\n");
+  }
+
+  /**
+   * Writes the recorded spans to a file, e.g. "trace.json".
+   */
+  public void writeChromeTrace(File file) throws IOException {
+    try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+      writeChromeTrace(writer);
+    }
+  }
+
+  // Chrome trace timestamps are in microseconds
+  private static String toMicros(long nanos) {
+    return Long.toString(nanos / 1000) + "." + String.format("%03d", Math.abs(nanos % 1000));
+  }
+
+  private static String escapeJson(String text) {
+    StringBuilder result = new StringBuilder();
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '"' || c == '\\') {
+        result.append('\\').append(c);
+      }
+      else if (c < 0x20) {
+        result.append(String.format("\\u%04x", (int) c));
+      }
+      else {
+        result.append(c);
+      }
+    }
+
+    return result.toString();
+  }
+}
@@ -0,0 +1,56 @@
+package simulationlib.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The simulated arm broke, or got stuck, because it was moved past one of its limits.
+ */
+@Name("simulationlib.ArmLimit")
+@Label("Arm Broken or Stuck")
+@Category({"Robot", "Simulation"})
+@Description("The simulated arm broke or got stuck")
+public class ArmLimitEvent extends jdk.jfr.Event {
+  public static final String kBroken = "Broken";
+  public static final String kStuck = "Stuck";
+
+  @Label("Kind")
+  @Description("Broken or Stuck")
+  public String kind;
+
+  @Label("Reason")
+  public String reason;
+
+  @Label("Old Angle Signed Degrees")
+  public double oldSignedDegrees;
+
+  @Label("New Angle Signed Degrees")
+  @Description("Angle the arm was asked to move to")
+  public double newSignedDegrees;
+
+  @Label("Reset Angle Signed Degrees")
+  @Description("Angle the arm was kept at instead")
+  public double resetSignedDegrees;
+
+  /**
+   * Commits an event right away, if the event is enabled.
+   */
+  public static void commit(String kind,
+      String reason,
+      double oldSignedDegrees,
+      double newSignedDegrees,
+      double resetSignedDegrees) {
+
+    ArmLimitEvent event = new ArmLimitEvent();
+    if (event.shouldCommit()) {
+      event.kind = kind;
+      event.reason = reason;
+      event.oldSignedDegrees = oldSignedDegrees;
+      event.newSignedDegrees = newSignedDegrees;
+      event.resetSignedDegrees = resetSignedDegrees;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package simulationlib.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A command was scheduled (initialized), finished or interrupted.
+ */
+@Name("simulationlib.Command")
+@Label("Command")
+@Category({"Robot", "Commands"})
+@Description("A command was initialized, finished or interrupted")
+@StackTrace(false)
+public class CommandEvent extends jdk.jfr.Event {
+  public static final String kInitialize = "Initialize";
+  public static final String kFinish = "Finish";
+  public static final String kInterrupt = "Interrupt";
+
+  @Label("Command")
+  public String command;
+
+  @Label("Action")
+  @Description("Initialize, Finish or Interrupt")
+  public String action;
+
+  /**
+   * Commits an event right away, if the event is enabled. Since commands also run on the
+   * roboRIO, only call this when JfrSupport.isAvailable().
+   */
+  public static void commit(String command, String action) {
+    CommandEvent event = new CommandEvent();
+    if (event.shouldCommit()) {
+      event.command = command;
+      event.action = action;
+      event.commit();
+    }
+  }
+}
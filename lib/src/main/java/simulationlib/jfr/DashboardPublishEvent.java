@@ -0,0 +1,26 @@
+package simulationlib.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One DeltaPublisher.update(): checking the dashboard properties and publishing the changed
+ * ones.
+ */
+@Name("simulationlib.DashboardPublish")
+@Label("Dashboard Publish")
+@Category({"Robot", "Dashboard"})
+@Description("One DeltaPublisher.update()")
+@StackTrace(false)
+public class DashboardPublishEvent extends jdk.jfr.Event {
+  @Label("Properties")
+  @Description("Properties that have a listener")
+  public int propertyCount;
+
+  @Label("Published")
+  @Description("Properties published by this update")
+  public int publishedCount;
+}
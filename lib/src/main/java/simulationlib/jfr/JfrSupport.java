@@ -0,0 +1,30 @@
+package simulationlib.jfr;
+
+/**
+ * Tells whether Java Flight Recorder can be used in this JVM.
+ * <p>
+ * The desktop JDK the simulator runs on always has JFR, but a trimmed-down JRE might not.
+ * Code that also runs on the roboRIO checks isAvailable() before creating any event, so that
+ * the jdk.jfr classes are never loaded where they don't exist. Code that only runs in
+ * simulation (SimManager, the sim models) can use jdk.jfr directly.
+ * </p>
+ */
+public final class JfrSupport {
+  private static final boolean kIsAvailable = checkAvailable();
+
+  private JfrSupport() {
+  }
+
+  private static boolean checkAvailable() {
+    try {
+      return jdk.jfr.FlightRecorder.isAvailable();
+    }
+    catch (LinkageError e) {
+      return false;
+    }
+  }
+
+  public static boolean isAvailable() {
+    return kIsAvailable;
+  }
+}
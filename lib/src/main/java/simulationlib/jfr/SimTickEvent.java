@@ -0,0 +1,28 @@
+package simulationlib.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One simulationPeriodic() of a SimManager: input, model, output and dashboard update.
+ */
+@Name("simulationlib.SimTick")
+@Label("Sim Tick")
+@Category({"Robot", "Simulation"})
+@Description("One simulationPeriodic() of a SimManager")
+@StackTrace(false)
+public class SimTickEvent extends jdk.jfr.Event {
+  @Label("SimManager")
+  public String simManager;
+
+  @Label("Broken")
+  @Description("Model is broken after this tick")
+  public boolean isBroken;
+
+  @Label("At Rest")
+  @Description("Model was at rest, so its last output was reused")
+  public boolean isAtRest;
+}
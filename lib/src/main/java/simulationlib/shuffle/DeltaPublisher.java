@@ -0,0 +1,227 @@
+package simulationlib.shuffle;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import simulationlib.jfr.DashboardPublishEvent;
+import simulationlib.jfr.JfrSupport;
+
+/**
+ * Publishes dashboard properties from a PrefixedConcurrentMap only when they change, instead
+ * of letting the dashboard poll every supplier every loop.
+ * <p>
+ * Each property that has a listener is checked in update(). If its value changed since the
+ * last publish, its version goes up and the listener gets the new value, but never more
+ * often than the property's min period. If the value hasn't changed for max period, it is
+ * published again anyway, so that a dashboard that connects late still gets it.
+ * </p>
+ * <p>
+ * Periods are set per property with setPeriods(). The pattern is either a full key, e.g.
+ * "DriveSystem/RobotPose", or the last part of a key, e.g. "IsBroken", which then applies to
+ * every property with that name. Full keys win over names.
+ * </p>
+ */
+public class DeltaPublisher {
+  private final PrefixedConcurrentMap<Supplier<MultiType>> m_propertyMap;
+  private final double m_defaultMinPeriodSeconds;
+  private final double m_defaultMaxPeriodSeconds;
+  private final Map<String, double[]> m_periodsByPattern = new LinkedHashMap<>();
+  private final Map<String, Entry> m_entriesByKey = new LinkedHashMap<>();
+  private final List<Entry> m_entries = new ArrayList<>();
+  private long m_publishCount = 0;
+
+  // One published property
+  private static class Entry {
+    final String m_key;
+    final Supplier<MultiType> m_supplier;
+    final List<Consumer<MultiType>> m_listeners = new ArrayList<>();
+    MultiType m_lastValue = null;
+    long m_version = 0;
+    double m_lastPublishSeconds = Double.NEGATIVE_INFINITY;
+    boolean m_isPublishForced = false;
+    double m_minPeriodSeconds;
+    double m_maxPeriodSeconds;
+
+    Entry(String key, Supplier<MultiType> supplier) {
+      m_key = key;
+      m_supplier = supplier;
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param propertyMap             properties to publish
+   * @param defaultMinPeriodSeconds shortest time between publishes of a changing property
+   * @param defaultMaxPeriodSeconds longest time between publishes of an unchanged property.
+   *                                Use Double.POSITIVE_INFINITY to never republish.
+   */
+  public DeltaPublisher(PrefixedConcurrentMap<Supplier<MultiType>> propertyMap,
+      double defaultMinPeriodSeconds,
+      double defaultMaxPeriodSeconds) {
+
+    if (propertyMap == null) {
+      throw new IllegalArgumentException("propertyMap cannot be null");
+    }
+
+    checkPeriods(defaultMinPeriodSeconds, defaultMaxPeriodSeconds);
+
+    m_propertyMap = propertyMap;
+    m_defaultMinPeriodSeconds = defaultMinPeriodSeconds;
+    m_defaultMaxPeriodSeconds = defaultMaxPeriodSeconds;
+  }
+
+  private static void checkPeriods(double minPeriodSeconds, double maxPeriodSeconds) {
+    if (minPeriodSeconds < 0) {
+      throw new IllegalArgumentException("minPeriodSeconds must be >=0");
+    }
+
+    if (maxPeriodSeconds < minPeriodSeconds) {
+      throw new IllegalArgumentException("maxPeriodSeconds must be >=minPeriodSeconds");
+    }
+  }
+
+  /**
+   * Sets the min and max publish periods of a property (full key) or of every property with
+   * the given name (last part of the key).
+   */
+  public void setPeriods(String pattern, double minPeriodSeconds, double maxPeriodSeconds) {
+    if (pattern == null || pattern.isEmpty()) {
+      throw new IllegalArgumentException("pattern cannot be null or empty");
+    }
+
+    checkPeriods(minPeriodSeconds, maxPeriodSeconds);
+    m_periodsByPattern.put(pattern, new double[] {
+        minPeriodSeconds, maxPeriodSeconds
+    });
+
+    for (Entry entry : m_entries) {
+      resolvePeriods(entry);
+    }
+  }
+
+  private void resolvePeriods(Entry entry) {
+    double[] periods = m_periodsByPattern.get(entry.m_key);
+    if (periods == null) {
+      String name = entry.m_key.substring(entry.m_key.lastIndexOf('/') + 1);
+      periods = m_periodsByPattern.get(name);
+    }
+
+    entry.m_minPeriodSeconds = (periods != null) ? periods[0] : m_defaultMinPeriodSeconds;
+    entry.m_maxPeriodSeconds = (periods != null) ? periods[1] : m_defaultMaxPeriodSeconds;
+  }
+
+  /**
+   * Calls listener with the value of the property every time it is published.
+   *
+   * @param key          full key of the property, e.g. "ArmSystem/Arm/IsBroken"
+   * @param expectedType type the property must have, e.g. "Double" (see MultiType.getType())
+   * @param listener     receives the published value. It must not change or keep it.
+   */
+  public void addListener(String key, String expectedType, Consumer<MultiType> listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("listener cannot be null");
+    }
+
+    Supplier<MultiType> supplier = m_propertyMap.get(key);
+    if (supplier == null) {
+      throw new IllegalArgumentException("Key missing: " + key);
+    }
+
+    if (!supplier.get().getType().equals(expectedType)) {
+      throw new IllegalArgumentException("Key wrong type: " + key);
+    }
+
+    Entry entry = m_entriesByKey.get(key);
+    if (entry == null) {
+      entry = new Entry(key, supplier);
+      resolvePeriods(entry);
+      m_entriesByKey.put(key, entry);
+      m_entries.add(entry);
+    }
+
+    entry.m_listeners.add(listener);
+
+    // Listeners added later still get the current value on the next update
+    entry.m_isPublishForced = true;
+  }
+
+  /**
+   * Publishes every property that changed (or is due for a republish). Call once per loop.
+   *
+   * @param nowSeconds current time, e.g. Timer.getFPGATimestamp()
+   * @return number of properties published
+   */
+  public int update(double nowSeconds) {
+    // This also runs on the roboRIO, which may not have JFR
+    DashboardPublishEvent event = null;
+    if (JfrSupport.isAvailable()) {
+      event = new DashboardPublishEvent();
+      event.begin();
+    }
+
+    int result = 0;
+
+    for (int i = 0; i < m_entries.size(); i++) {
+      Entry entry = m_entries.get(i);
+      double sinceLastPublish = nowSeconds - entry.m_lastPublishSeconds;
+
+      // Too soon to publish even if it changed, so don't bother reading it
+      if (sinceLastPublish < entry.m_minPeriodSeconds && !entry.m_isPublishForced) {
+        continue;
+      }
+
+      MultiType value = entry.m_supplier.get();
+      boolean changed = !value.hasSameValue(entry.m_lastValue);
+      if (changed) {
+        entry.m_version++;
+        if (entry.m_lastValue == null) {
+          entry.m_lastValue = value.copy();
+        }
+        else {
+          value.copyTo(entry.m_lastValue);
+        }
+      }
+
+      if (changed || entry.m_isPublishForced
+          || sinceLastPublish >= entry.m_maxPeriodSeconds) {
+        for (int j = 0; j < entry.m_listeners.size(); j++) {
+          entry.m_listeners.get(j).accept(entry.m_lastValue);
+        }
+
+        entry.m_lastPublishSeconds = nowSeconds;
+        entry.m_isPublishForced = false;
+        result++;
+      }
+    }
+
+    m_publishCount += result;
+
+    if (event != null && event.shouldCommit()) {
+      event.propertyCount = m_entries.size();
+      event.publishedCount = result;
+      event.commit();
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns how many times the property's value was seen to change, or 0 if it has no
+   * listener.
+   */
+  public long getVersion(String key) {
+    Entry entry = m_entriesByKey.get(key);
+    return (entry != null) ? entry.m_version : 0;
+  }
+
+  /**
+   * Returns the total number of properties published so far.
+   */
+  public long getPublishCount() {
+    return m_publishCount;
+  }
+}
@@ -1,6 +1,7 @@
 package simulationlib.shuffle;
 
 import edu.wpi.first.math.geometry.Pose2d;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -230,4 +231,27 @@ public class MultiType {
       other.setPose2d(m_poseValue);
     }
   }
+
+  /**
+   * Returns a new MultiType with the same type and value.
+   */
+  public MultiType copy() {
+    return new MultiType(m_booleanValue, m_doubleValue, m_integerValue, m_stringValue,
+        m_poseValue);
+  }
+
+  /**
+   * Returns true if other has the same type and value.
+   */
+  public boolean hasSameValue(MultiType other) {
+    if (other == null) {
+      return false;
+    }
+
+    return Objects.equals(m_booleanValue, other.m_booleanValue)
+        && Objects.equals(m_doubleValue, other.m_doubleValue)
+        && Objects.equals(m_integerValue, other.m_integerValue)
+        && Objects.equals(m_stringValue, other.m_stringValue)
+        && Objects.equals(m_poseValue, other.m_poseValue);
+  }
 }
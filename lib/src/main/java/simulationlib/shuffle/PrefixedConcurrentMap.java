@@ -69,6 +69,13 @@ public class PrefixedConcurrentMap<T> {
     }
   }
 
+  /**
+   * Returns a Client that adds properties to the global map in SupplierMapFactory.
+   *
+   * @deprecated Use SimWorld.createShuffleboardClientForSubsystem(), so that each simulated
+   *     robot gets its own map.
+   */
+  @Deprecated
   public static Client<Supplier<MultiType>> createShuffleboardClientForSubsystem(
       String subsystemName) {
     PrefixedConcurrentMap<Supplier<MultiType>> globalMap = SupplierMapFactory.getGlobalInstance();
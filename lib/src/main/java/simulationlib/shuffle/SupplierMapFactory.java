@@ -11,6 +11,9 @@ import simulationlib.shuffle.PrefixedConcurrentMap.Client;
  * Do not use this singleton in Unit Tests, since the tests should not share
  * global state.
  * </p>
+ * <p>
+ * New code should take a SimWorld instead. SimWorld.getGlobalInstance() wraps this map.
+ * </p>
  */
 public class SupplierMapFactory {
 
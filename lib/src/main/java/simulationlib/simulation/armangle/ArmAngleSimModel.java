@@ -1,15 +1,21 @@
 package simulationlib.simulation.armangle;
 
-import simulationlib.simulation.framework.SimModelInterface;
+import simulationlib.simulation.framework.QuiescentModelInterface;
+import simulationlib.simulation.framework.ReusableOutputModelInterface;
+import simulationlib.simulation.framework.SnapshotModelInterface;
 
 /**
  * Given a string connected to the back of an arm, this class will calculate
  * the ANGLE of the arm.
  */
-public class ArmAngleSimModel implements SimModelInterface<Double, ArmAngleState> {
+public class ArmAngleSimModel implements ReusableOutputModelInterface<Double, ArmAngleState>,
+    QuiescentModelInterface<Double, ArmAngleState>,
+    SnapshotModelInterface<Double, ArmAngleState> {
   private PivotMechanism m_pivotMechanism;
   private double m_angleSignedDegrees;
   private boolean m_isBroken;
+  // Input of the last updateSimulation(), NaN before the first one
+  private double m_lastStringLen = Double.NaN;
 
   /**
    * Constructor.
@@ -30,16 +36,40 @@ public class ArmAngleSimModel implements SimModelInterface<Double, ArmAngleState
     return m_isBroken;
   }
 
+  /**
+   * The angle only depends on the string length, so the arm is at rest while the string
+   * length stays the same.
+   */
+  @Override
+  public boolean isAtRest(Double newStringLen, double inputEpsilon) {
+    return Math.abs(newStringLen - m_lastStringLen) <= inputEpsilon;
+  }
+
   /**
    * Called every 20ms to calculate the new arm angle.
    */
   public ArmAngleState updateSimulation(Double newStringLen) {
-    ArmAngleState armAngleResult = new ArmAngleState();
+    ArmAngleState armAngleResult = createOutput();
+    updateSimulation(newStringLen, armAngleResult);
+    return armAngleResult;
+  }
+
+  @Override
+  public ArmAngleState createOutput() {
+    return new ArmAngleState();
+  }
+
+  /**
+   * Same as updateSimulation(newStringLen), but writes into armAngleResult.
+   */
+  @Override
+  public void updateSimulation(Double newStringLen, ArmAngleState armAngleResult) {
+    m_lastStringLen = newStringLen;
 
     // If the arm-angle-calculator is broken, there's nothing to update
     if (m_isBroken) {
       armAngleResult.setAngleSignedDegrees(m_angleSignedDegrees);
-      return armAngleResult;
+      return;
     }
 
     PivotMechanism.Result resultPair = m_pivotMechanism
@@ -53,7 +83,31 @@ public class ArmAngleSimModel implements SimModelInterface<Double, ArmAngleState
 
     m_angleSignedDegrees = resultPair.m_value;
     armAngleResult.setAngleSignedDegrees(m_angleSignedDegrees);
+  }
+
+  /**
+   * The state is the angle, whether the arm broke, and the last string length.
+   */
+  @Override
+  public int getStateSize() {
+    return 3;
+  }
+
+  @Override
+  public void saveState(double[] state, int offset) {
+    state[offset] = m_angleSignedDegrees;
+    state[offset + 1] = m_isBroken ? 1 : 0;
+    state[offset + 2] = m_lastStringLen;
+  }
 
+  @Override
+  public ArmAngleState restoreState(double[] state, int offset) {
+    m_angleSignedDegrees = state[offset];
+    m_isBroken = state[offset + 1] != 0;
+    m_lastStringLen = state[offset + 2];
+
+    ArmAngleState armAngleResult = createOutput();
+    armAngleResult.setAngleSignedDegrees(m_angleSignedDegrees);
     return armAngleResult;
   }
 }
@@ -132,6 +132,26 @@ public class PivotMechanism {
         -1 * calcAngleOnRightTriangle(m_lengthFromEdgeToPivot, heightArmBackendAbovePivot));
   }
 
+  /**
+   * Same as calcSignedDegreesForStringLength(), but clamped to [-90, 90] instead of returning
+   * a Result. Doesn't allocate or print, so it can run in the robot's control loop.
+   */
+  public double calcClampedSignedDegreesForStringLength(double stringLen) {
+    double heightArmBackendAbovePivot = stringLen - m_lengthFromWinchToPivotPoint;
+    double sine = heightArmBackendAbovePivot / m_lengthFromEdgeToPivot;
+    return -1 * Math.toDegrees(Math.asin(Math.max(-1, Math.min(1, sine))));
+  }
+
+  /**
+   * Same as calcStringLengthForSignedDegrees(), but clamped to [-90, 90] degrees instead of
+   * returning a Result. Doesn't allocate.
+   */
+  public double calcClampedStringLengthForSignedDegrees(double signedDegrees) {
+    double clampedDegrees = Math.max(-90, Math.min(90, signedDegrees));
+    return m_lengthFromWinchToPivotPoint
+        - calcHeightOnRightTriangle(m_lengthFromEdgeToPivot, clampedDegrees);
+  }
+
   // We are calculating the angle of a right triangle at point (0,0). We know the length of the
   // hypotenus, and we know it's other side is exactly H height above the x-axis
   private double calcAngleOnRightTriangle(double lenHypotenuse, double height) {
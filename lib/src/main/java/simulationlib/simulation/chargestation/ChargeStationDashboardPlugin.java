@@ -0,0 +1,34 @@
+package simulationlib.simulation.chargestation;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import simulationlib.shuffle.MultiType;
+import simulationlib.simulation.framework.DashboardItem;
+import simulationlib.simulation.framework.DashboardPluginInterface;
+
+/**
+ * For Charge Station Sim Model, exposes the properties we show on Shuffleboard dashboard.
+ */
+public class ChargeStationDashboardPlugin
+    implements DashboardPluginInterface<Pose2d, ChargeStationState> {
+
+  @Override
+  public DashboardItem[] queryListOfDashboardPropertiesWithInitValues() {
+    return new DashboardItem[] {
+        new DashboardItem("PlatformAngle", MultiType.of(0.0)),
+        new DashboardItem("RobotPitch", MultiType.of(0.0)),
+        new DashboardItem("OnStation", MultiType.of(false))
+    };
+  }
+
+  @Override
+  public MultiType[] getDashboardPropertiesFromInputOutput(Pose2d input,
+      ChargeStationState output) {
+    MultiType[] result = new MultiType[3];
+
+    result[0] = MultiType.of(output.getPlatformAngleDegrees());
+    result[1] = MultiType.of(output.getRobotPitchDegrees());
+    result[2] = MultiType.of(output.getIsRobotOnStation());
+
+    return result;
+  }
+}
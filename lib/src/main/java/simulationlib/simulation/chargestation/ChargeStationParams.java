@@ -0,0 +1,73 @@
+package simulationlib.simulation.chargestation;
+
+/**
+ * Class that holds paramaters for the charge station simulation.
+ * <p>
+ * The charge station is modeled as a platform that pivots around its center, with a ramp
+ * hinged on each edge. The pivot axis runs along the field Y axis, so the platform tilts
+ * up and down along the field X axis.
+ * </p>
+ */
+public class ChargeStationParams {
+  @SuppressWarnings("checkstyle:MemberName")
+  public double centerXMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double centerYMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double widthMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double platformLengthMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double rampLengthMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double platformHeightMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double maxTiltDegrees;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double robotMassKg;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double platformMomentOfInertia;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double dampingCoefficient;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double frictionTorque;
+
+  // Torque per radian that pulls the empty platform back to level. The platform's center of
+  // mass sits below the pivot, so it hangs level when no robot is on it.
+  @SuppressWarnings("checkstyle:MemberName")
+  public double centeringStiffness;
+
+  /**
+   * Constructor with 0 params.
+   */
+  public ChargeStationParams() {
+  }
+
+  /**
+   * Copy constructor.
+   */
+  public ChargeStationParams(ChargeStationParams other) {
+    centerXMeters = other.centerXMeters;
+    centerYMeters = other.centerYMeters;
+    widthMeters = other.widthMeters;
+    platformLengthMeters = other.platformLengthMeters;
+    rampLengthMeters = other.rampLengthMeters;
+    platformHeightMeters = other.platformHeightMeters;
+    maxTiltDegrees = other.maxTiltDegrees;
+    robotMassKg = other.robotMassKg;
+    platformMomentOfInertia = other.platformMomentOfInertia;
+    dampingCoefficient = other.dampingCoefficient;
+    frictionTorque = other.frictionTorque;
+    centeringStiffness = other.centeringStiffness;
+  }
+}
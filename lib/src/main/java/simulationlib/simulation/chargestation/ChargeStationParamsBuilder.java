@@ -0,0 +1,109 @@
+package simulationlib.simulation.chargestation;
+
+import simulationlib.Constants.SimConstants;
+
+/**
+ * Builder class pattern for ChargeStationParams.
+ */
+public class ChargeStationParamsBuilder {
+  @SuppressWarnings("MemberNameCheck")
+  private ChargeStationParams instance;
+
+  /**
+   * Constructor.
+   */
+  public ChargeStationParamsBuilder() {
+    instance = new ChargeStationParams();
+  }
+
+  /**
+   * Constructor that takes defaults as an input parameter.
+   */
+  public ChargeStationParamsBuilder(ChargeStationParams defaults) {
+    instance = new ChargeStationParams(defaults);
+  }
+
+  /**
+   * Returns a builder that is pre-populated with the charge station values from SimConstants.
+   */
+  public static ChargeStationParamsBuilder fromSimConstants() {
+    return new ChargeStationParamsBuilder()
+        .setCenterXMeters(SimConstants.kchargeStationCenterXMeters)
+        .setCenterYMeters(SimConstants.kchargeStationCenterYMeters)
+        .setWidthMeters(SimConstants.kchargeStationWidthMeters)
+        .setPlatformLengthMeters(SimConstants.kchargeStationPlatformLenMeters)
+        .setRampLengthMeters(SimConstants.kchargeStationRampLenMeters)
+        .setPlatformHeightMeters(SimConstants.kchargeStationPlatformHeightMeters)
+        .setMaxTiltDegrees(SimConstants.kchargeStationMaxTiltDegrees)
+        .setRobotMassKg(SimConstants.krobotMassKg)
+        .setPlatformMomentOfInertia(SimConstants.kchargeStationMomentOfInertia)
+        .setDampingCoefficient(SimConstants.kchargeStationDamping)
+        .setFrictionTorque(SimConstants.kchargeStationFrictionTorque)
+        .setCenteringStiffness(SimConstants.kchargeStationCenteringStiffness);
+  }
+
+  public ChargeStationParamsBuilder setCenterXMeters(double value) {
+    instance.centerXMeters = value;
+    return this;
+  }
+
+  public ChargeStationParamsBuilder setCenterYMeters(double value) {
+    instance.centerYMeters = value;
+    return this;
+  }
+
+  public ChargeStationParamsBuilder setWidthMeters(double value) {
+    instance.widthMeters = value;
+    return this;
+  }
+
+  public ChargeStationParamsBuilder setPlatformLengthMeters(double value) {
+    instance.platformLengthMeters = value;
+    return this;
+  }
+
+  public ChargeStationParamsBuilder setRampLengthMeters(double value) {
+    instance.rampLengthMeters = value;
+    return this;
+  }
+
+  public ChargeStationParamsBuilder setPlatformHeightMeters(double value) {
+    instance.platformHeightMeters = value;
+    return this;
+  }
+
+  public ChargeStationParamsBuilder setMaxTiltDegrees(double value) {
+    instance.maxTiltDegrees = value;
+    return this;
+  }
+
+  public ChargeStationParamsBuilder setRobotMassKg(double value) {
+    instance.robotMassKg = value;
+    return this;
+  }
+
+  public ChargeStationParamsBuilder setPlatformMomentOfInertia(double value) {
+    instance.platformMomentOfInertia = value;
+    return this;
+  }
+
+  public ChargeStationParamsBuilder setDampingCoefficient(double value) {
+    instance.dampingCoefficient = value;
+    return this;
+  }
+
+  public ChargeStationParamsBuilder setFrictionTorque(double value) {
+    instance.frictionTorque = value;
+    return this;
+  }
+
+  public ChargeStationParamsBuilder setCenteringStiffness(double value) {
+    instance.centeringStiffness = value;
+    return this;
+  }
+
+  // Return the built instance
+  public ChargeStationParams build() {
+    return instance;
+  }
+}
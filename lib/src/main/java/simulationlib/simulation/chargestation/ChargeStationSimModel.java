@@ -0,0 +1,232 @@
+package simulationlib.simulation.chargestation;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import simulationlib.simulation.framework.SnapshotModelInterface;
+
+/**
+ * Simulates the charge station: a platform that pivots around its center, with a ramp on
+ * each side. The robot's weight tips the platform toward whichever side the robot is on,
+ * and the robot is tilted by whatever surface it is currently driving on.
+ * <p>
+ * Terminology:
+ * Platform angle - Positive means the +X end of the platform is raised
+ * Lever arm - Distance (along field X) from the pivot to where the robot's weight is applied
+ * Robot pitch - Positive means the front of the robot is raised
+ * Robot roll - Positive means the left side of the robot is raised
+ * </p>
+ * <p>
+ * The model only uses plain doubles and Math functions, so it is cheap enough to run
+ * inside batch simulations. Note that the drive simulation doesn't know about the slope,
+ * so the robot doesn't roll down the ramp by itself.
+ * </p>
+ */
+public class ChargeStationSimModel
+    implements SnapshotModelInterface<Pose2d, ChargeStationState> {
+  private static final double kGravity = 9.81;
+  private static final double kTickSeconds = 0.02;
+  private static final int kSubSteps = 4;
+
+  private final ChargeStationParams m_params;
+  private final double m_maxTiltRadians;
+  private double m_angleRadians;
+  private double m_angularVelocity;
+
+  // How the robot sat at the end of the last updateSimulation()
+  private double m_robotPitchDegrees;
+  private double m_robotRollDegrees;
+  private boolean m_isRobotOnStation;
+
+  /**
+   * Constructor.
+   */
+  public ChargeStationSimModel(ChargeStationParams params) {
+    if (params == null) {
+      throw new IllegalArgumentException("params cannot be null");
+    }
+
+    if (params.platformLengthMeters <= 0) {
+      throw new IllegalArgumentException("platformLengthMeters must be >0");
+    }
+
+    if (params.rampLengthMeters <= 0) {
+      throw new IllegalArgumentException("rampLengthMeters must be >0");
+    }
+
+    if (params.widthMeters <= 0) {
+      throw new IllegalArgumentException("widthMeters must be >0");
+    }
+
+    if (params.maxTiltDegrees <= 0 || params.maxTiltDegrees >= 90) {
+      throw new IllegalArgumentException("maxTiltDegrees must be between 0 and 90");
+    }
+
+    if (params.robotMassKg <= 0) {
+      throw new IllegalArgumentException("robotMassKg must be >0");
+    }
+
+    if (params.platformMomentOfInertia <= 0) {
+      throw new IllegalArgumentException("platformMomentOfInertia must be >0");
+    }
+
+    if (params.dampingCoefficient < 0 || params.frictionTorque < 0
+        || params.centeringStiffness < 0) {
+      throw new IllegalArgumentException(
+          "dampingCoefficient, frictionTorque and centeringStiffness must be >=0");
+    }
+
+    m_params = new ChargeStationParams(params);
+    m_maxTiltRadians = Math.toRadians(params.maxTiltDegrees);
+    m_angleRadians = 0;
+    m_angularVelocity = 0;
+  }
+
+  @Override
+  public boolean isModelBroken() {
+    // Charge station doesn't break in this simulation
+    return false;
+  }
+
+  @Override
+  public ChargeStationState updateSimulation(Pose2d robotPose) {
+    return updateSimulation(robotPose.getX(),
+        robotPose.getY(),
+        robotPose.getRotation().getRadians());
+  }
+
+  /**
+   * Same as updateSimulation(Pose2d), but takes the robot position as plain doubles. Batch
+   * simulations call this directly so that they don't have to create a Pose2d every tick.
+   */
+  public ChargeStationState updateSimulation(double robotXMeters,
+      double robotYMeters,
+      double robotHeadingRadians) {
+
+    double offset = robotXMeters - m_params.centerXMeters;
+    double absOffset = Math.abs(offset);
+    double halfPlatform = m_params.platformLengthMeters / 2;
+
+    boolean isWithinWidth = Math
+        .abs(robotYMeters - m_params.centerYMeters) <= m_params.widthMeters / 2;
+    boolean isOnPlatform = isWithinWidth && absOffset <= halfPlatform;
+    boolean isOnRamp = isWithinWidth && !isOnPlatform
+        && absOffset <= halfPlatform + m_params.rampLengthMeters;
+
+    // Where the robot's weight pushes on the platform. While on a ramp, part of the
+    // robot's weight is carried by the ramp's hinge at the platform edge.
+    double leverArm = 0;
+    if (isOnPlatform) {
+      leverArm = offset;
+    }
+    else if (isOnRamp) {
+      double loadShare = 1 - (absOffset - halfPlatform) / m_params.rampLengthMeters;
+      leverArm = Math.signum(offset) * halfPlatform * loadShare;
+    }
+
+    simulatePlatform(leverArm, isOnPlatform || isOnRamp);
+
+    // Slope of the surface under the robot, positive when it rises toward +X
+    double slope = 0;
+    if (isOnPlatform) {
+      slope = m_angleRadians;
+    }
+    else if (isOnRamp) {
+      double edgeHeight = m_params.platformHeightMeters
+          + Math.signum(offset) * halfPlatform * Math.sin(m_angleRadians);
+      double rampSlope = Math.atan2(edgeHeight, m_params.rampLengthMeters);
+      slope = (offset > 0) ? -rampSlope : rampSlope;
+    }
+
+    m_robotPitchDegrees = Math.toDegrees(slope * Math.cos(robotHeadingRadians));
+    m_robotRollDegrees = Math.toDegrees(-slope * Math.sin(robotHeadingRadians));
+    m_isRobotOnStation = isOnPlatform || isOnRamp;
+
+    return createResult();
+  }
+
+  private ChargeStationState createResult() {
+    ChargeStationState result = new ChargeStationState();
+    result.setPlatformAngleDegrees(Math.toDegrees(m_angleRadians));
+    result.setRobotPitchDegrees(m_robotPitchDegrees);
+    result.setRobotRollDegrees(m_robotRollDegrees);
+    result.setIsRobotOnStation(m_isRobotOnStation);
+
+    return result;
+  }
+
+  /**
+   * The state is the platform's angle and speed, and how the robot sat on it after the last
+   * tick.
+   */
+  @Override
+  public int getStateSize() {
+    return 5;
+  }
+
+  @Override
+  public void saveState(double[] state, int offset) {
+    state[offset] = m_angleRadians;
+    state[offset + 1] = m_angularVelocity;
+    state[offset + 2] = m_robotPitchDegrees;
+    state[offset + 3] = m_robotRollDegrees;
+    state[offset + 4] = m_isRobotOnStation ? 1 : 0;
+  }
+
+  @Override
+  public ChargeStationState restoreState(double[] state, int offset) {
+    m_angleRadians = state[offset];
+    m_angularVelocity = state[offset + 1];
+    m_robotPitchDegrees = state[offset + 2];
+    m_robotRollDegrees = state[offset + 3];
+    m_isRobotOnStation = state[offset + 4] != 0;
+
+    return createResult();
+  }
+
+  // Integrates the platform angle over one 20ms tick. The robot's weight creates a torque
+  // around the pivot, and the platform's own weight pulls it back toward level. The hinge
+  // has viscous damping and dry friction, and the platform stops at +/- maxTilt.
+  private void simulatePlatform(double leverArm, boolean isRobotOnStation) {
+    double dt = kTickSeconds / kSubSteps;
+    double inertia = m_params.platformMomentOfInertia;
+    if (isRobotOnStation) {
+      inertia += m_params.robotMassKg * leverArm * leverArm;
+    }
+
+    for (int i = 0; i < kSubSteps; i++) {
+      double gravityTorque = -m_params.robotMassKg * kGravity * leverArm
+          * Math.cos(m_angleRadians)
+          - m_params.centeringStiffness * m_angleRadians;
+
+      // Friction holds the platform still until the robot pushes hard enough
+      if (m_angularVelocity == 0 && Math.abs(gravityTorque) <= m_params.frictionTorque) {
+        continue;
+      }
+
+      double frictionDirection = (m_angularVelocity != 0) ? Math.signum(m_angularVelocity)
+          : Math.signum(gravityTorque);
+      double netTorque = gravityTorque - m_params.dampingCoefficient * m_angularVelocity
+          - m_params.frictionTorque * frictionDirection;
+
+      double newVelocity = m_angularVelocity + netTorque / inertia * dt;
+
+      // Friction can stop the platform, but never reverse it
+      if (m_angularVelocity != 0 && Math.signum(newVelocity) != Math.signum(m_angularVelocity)
+          && Math.abs(gravityTorque) <= m_params.frictionTorque) {
+        newVelocity = 0;
+      }
+
+      m_angularVelocity = newVelocity;
+      m_angleRadians += m_angularVelocity * dt;
+
+      // Check for bounds
+      if (m_angleRadians > m_maxTiltRadians) {
+        m_angleRadians = m_maxTiltRadians;
+        m_angularVelocity = 0;
+      }
+      else if (m_angleRadians < -m_maxTiltRadians) {
+        m_angleRadians = -m_maxTiltRadians;
+        m_angularVelocity = 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package simulationlib.simulation.chargestation;
+
+import simulationlib.simulation.framework.inputoutputs.CopyableInterface;
+
+/**
+ * Holds output state of ChargeStationSimModel.
+ */
+public class ChargeStationState implements CopyableInterface<ChargeStationState> {
+  private double m_platformAngleDegrees;
+  private double m_robotPitchDegrees;
+  private double m_robotRollDegrees;
+  private boolean m_isRobotOnStation;
+
+  /**
+   * Constructor.
+   */
+  public ChargeStationState() {
+    m_platformAngleDegrees = 0;
+    m_robotPitchDegrees = 0;
+    m_robotRollDegrees = 0;
+    m_isRobotOnStation = false;
+  }
+
+  // Implement getters and setters for fields
+
+  /**
+   * Angle of the platform, in degrees. Positive means the +X end of the platform is up.
+   */
+  public double getPlatformAngleDegrees() {
+    return m_platformAngleDegrees;
+  }
+
+  public void setPlatformAngleDegrees(double platformAngleDegrees) {
+    m_platformAngleDegrees = platformAngleDegrees;
+  }
+
+  /**
+   * Pitch of the robot, in degrees. Positive means the front of the robot is up.
+   */
+  public double getRobotPitchDegrees() {
+    return m_robotPitchDegrees;
+  }
+
+  public void setRobotPitchDegrees(double robotPitchDegrees) {
+    m_robotPitchDegrees = robotPitchDegrees;
+  }
+
+  /**
+   * Roll of the robot, in degrees. Positive means the left side of the robot is up.
+   */
+  public double getRobotRollDegrees() {
+    return m_robotRollDegrees;
+  }
+
+  public void setRobotRollDegrees(double robotRollDegrees) {
+    m_robotRollDegrees = robotRollDegrees;
+  }
+
+  public boolean getIsRobotOnStation() {
+    return m_isRobotOnStation;
+  }
+
+  public void setIsRobotOnStation(boolean isRobotOnStation) {
+    m_isRobotOnStation = isRobotOnStation;
+  }
+
+  /**
+   * Copy to another instance of ChargeStationState.
+   */
+  public void copyFrom(ChargeStationState other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+
+    m_platformAngleDegrees = other.m_platformAngleDegrees;
+    m_robotPitchDegrees = other.m_robotPitchDegrees;
+    m_robotRollDegrees = other.m_robotRollDegrees;
+    m_isRobotOnStation = other.m_isRobotOnStation;
+  }
+}
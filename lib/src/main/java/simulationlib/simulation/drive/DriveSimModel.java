@@ -5,15 +5,12 @@
 package simulationlib.simulation.drive;
 
 import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Transform2d;
-import edu.wpi.first.math.kinematics.ChassisSpeeds;
-import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
 import edu.wpi.first.math.kinematics.DifferentialDriveOdometry;
-import edu.wpi.first.math.kinematics.DifferentialDriveWheelSpeeds;
 import edu.wpi.first.math.numbers.N2;
 import edu.wpi.first.math.system.LinearSystem;
 import edu.wpi.first.math.system.plant.DCMotor;
@@ -26,15 +23,33 @@ import edu.wpi.first.wpilibj.motorcontrol.PWMSparkMax;
 import edu.wpi.first.wpilibj.simulation.AnalogGyroSim;
 import edu.wpi.first.wpilibj.simulation.DifferentialDrivetrainSim;
 import edu.wpi.first.wpilibj.simulation.EncoderSim;
-import simulationlib.simulation.framework.SimModelInterface;
+import simulationlib.simulation.framework.MultiFidelityModelInterface;
+import simulationlib.simulation.framework.ReusableOutputModelInterface;
+import simulationlib.simulation.framework.SimFidelity;
+import simulationlib.simulation.framework.SnapshotModelInterface;
 import simulationlib.simulation.framework.customwrappers.RelEncoderWrapper;
 
 /**
  * Simulates a real world drivetrain. E.g. the position of the robot is even shown
  * on the field.
+ * <p>
+ * At FullDynamic fidelity, this runs WPILib's DifferentialDrivetrainSim. At FirstOrder, each
+ * side's speed approaches the wheel speed asked for, with the drivetrain's time constant. At
+ * Kinematic, each side goes at the wheel speed asked for right away. Either way, the
+ * encoders, gyro and odometry are updated the same.
+ * </p>
  */
-public class DriveSimModel implements SimModelInterface<DriveInputState, DriveState> {
+public class DriveSimModel implements ReusableOutputModelInterface<DriveInputState, DriveState>,
+    MultiFidelityModelInterface<DriveInputState, DriveState>,
+    SnapshotModelInterface<DriveInputState, DriveState> {
   private static final double kTrackWidth = 0.381 * 2;
+  private static final double kTickSeconds = 0.02;
+
+  // Drivetrain characterization, in volts per m/s and volts per m/s^2
+  private static final double kLinearKv = 1.98;
+  private static final double kLinearKa = 0.2;
+  private static final double kAngularKv = 1.5;
+  private static final double kAngularKa = 0.3;
   private final double m_wheelRadius;
   private static final int kEncoderResolution = -4096;
 
@@ -56,8 +71,6 @@ public class DriveSimModel implements SimModelInterface<DriveInputState, DriveSt
 
   private final AnalogGyro m_gyro = new AnalogGyro(0);
 
-  private final DifferentialDriveKinematics m_kinematics = new DifferentialDriveKinematics(
-      kTrackWidth);
   private final DifferentialDriveOdometry m_odometry = new DifferentialDriveOdometry(
       m_gyro.getRotation2d(), m_leftEncoder.getDistance(), m_rightEncoder.getDistance());
 
@@ -76,9 +89,24 @@ public class DriveSimModel implements SimModelInterface<DriveInputState, DriveSt
   private final RelEncoderWrapper m_rightEncoderSimWrapper;
 
   private final LinearSystem<N2, N2, N2> m_drivetrainSystem = LinearSystemId
-      .identifyDrivetrainSystem(1.98, 0.2, 1.5, 0.3);
+      .identifyDrivetrainSystem(kLinearKv, kLinearKa, kAngularKv, kAngularKa);
   private final DifferentialDrivetrainSim m_drivetrainSimulator;
 
+  private SimFidelity m_fidelity;
+
+  // Wheel speeds asked for by the last arcadeDrive()
+  private double m_leftTargetSpeed = 0;
+  private double m_rightTargetSpeed = 0;
+
+  // State for the FirstOrder and Kinematic fidelities, same as DifferentialDrivetrainSim's
+  private double m_xMeters = 0;
+  private double m_yMeters = 0;
+  private double m_headingRadians = 0;
+  private double m_leftVelocity = 0;
+  private double m_rightVelocity = 0;
+  private double m_leftPositionMeters = 0;
+  private double m_rightPositionMeters = 0;
+
   // Resets both the absolute-encoders AND the relative-encoders
   private void resetAllEncoders() {
     m_leftEncoder.reset();
@@ -93,7 +121,17 @@ public class DriveSimModel implements SimModelInterface<DriveInputState, DriveSt
 
   /** Subsystem constructor. */
   public DriveSimModel(Pose2d initialPose, double wheelRadiusMeters) {
+    this(initialPose, wheelRadiusMeters, SimFidelity.FullDynamic);
+  }
+
+  /** Subsystem constructor that starts at the given fidelity. */
+  public DriveSimModel(Pose2d initialPose, double wheelRadiusMeters, SimFidelity fidelity) {
+    if (fidelity == null) {
+      throw new IllegalArgumentException("fidelity cannot be null");
+    }
+
     m_wheelRadius = wheelRadiusMeters;
+    m_fidelity = fidelity;
 
     m_drivetrainSimulator = new DifferentialDrivetrainSim(m_drivetrainSystem, DCMotor.getCIM(2), 8,
         kTrackWidth, m_wheelRadius, null);
@@ -119,13 +157,16 @@ public class DriveSimModel implements SimModelInterface<DriveInputState, DriveSt
   }
 
   /** Sets speeds to the drivetrain motors. */
-  private void setSpeeds(DifferentialDriveWheelSpeeds speeds) {
-    var leftFeedforward = m_feedforward.calculate(speeds.leftMetersPerSecond);
-    var rightFeedforward = m_feedforward.calculate(speeds.rightMetersPerSecond);
+  private void setSpeeds(double leftMetersPerSecond, double rightMetersPerSecond) {
+    m_leftTargetSpeed = leftMetersPerSecond;
+    m_rightTargetSpeed = rightMetersPerSecond;
+
+    var leftFeedforward = m_feedforward.calculate(leftMetersPerSecond);
+    var rightFeedforward = m_feedforward.calculate(rightMetersPerSecond);
     double leftOutput = m_leftPidController.calculate(m_leftEncoder.getRate(),
-        speeds.leftMetersPerSecond);
+        leftMetersPerSecond);
     double rightOutput = m_rightPidController.calculate(m_rightEncoder.getRate(),
-        speeds.rightMetersPerSecond);
+        rightMetersPerSecond);
 
     m_leftGroup.setVoltage(leftOutput + leftFeedforward);
     m_rightGroup.setVoltage(rightOutput + rightFeedforward);
@@ -155,7 +196,10 @@ public class DriveSimModel implements SimModelInterface<DriveInputState, DriveSt
       rot = Math.copySign(rot * rot, rot);
     }
 
-    setSpeeds(m_kinematics.toWheelSpeeds(new ChassisSpeeds(xspeed, 0, rot)));
+    // Same as DifferentialDriveKinematics.toWheelSpeeds(new ChassisSpeeds(xspeed, 0, rot)),
+    // without the new objects
+    double sideSpeed = kTrackWidth / 2 * rot;
+    setSpeeds(xspeed - sideSpeed, xspeed + sideSpeed);
   }
 
   /** Update robot odometry. */
@@ -168,20 +212,97 @@ public class DriveSimModel implements SimModelInterface<DriveInputState, DriveSt
     return m_gyroSim.getAngle();
   }
 
-  private Pose2d getPhysicalWorldPose() {
-    // Move initial position by x,y (translation)
-    Pose2d translatedPos = m_initialPose
-        .plus(new Transform2d(m_odometry.getPoseMeters().getTranslation(), new Rotation2d(0)));
+  @Override
+  public boolean supportsFidelity(SimFidelity fidelity) {
+    return fidelity != null;
+  }
+
+  @Override
+  public SimFidelity getFidelity() {
+    return m_fidelity;
+  }
 
-    // Add rotation back
-    Rotation2d newRotation = m_odometry.getPoseMeters().getRotation()
-        .rotateBy(m_initialPose.getRotation());
+  @Override
+  public void setFidelity(SimFidelity fidelity) {
+    if (fidelity == null) {
+      throw new IllegalArgumentException("fidelity cannot be null");
+    }
 
-    return new Pose2d(translatedPos.getTranslation(), newRotation);
+    if (fidelity == m_fidelity) {
+      return;
+    }
+
+    // Carry the pose, speeds and distances over to the new fidelity
+    if (m_fidelity == SimFidelity.FullDynamic) {
+      Pose2d simPose = m_drivetrainSimulator.getPose();
+      m_xMeters = simPose.getX();
+      m_yMeters = simPose.getY();
+      m_headingRadians = simPose.getRotation().getRadians();
+      m_leftVelocity = m_drivetrainSimulator.getLeftVelocityMetersPerSecond();
+      m_rightVelocity = m_drivetrainSimulator.getRightVelocityMetersPerSecond();
+      m_leftPositionMeters = m_drivetrainSimulator.getLeftPositionMeters();
+      m_rightPositionMeters = m_drivetrainSimulator.getRightPositionMeters();
+    }
+    else if (fidelity == SimFidelity.FullDynamic) {
+      m_drivetrainSimulator.setState(VecBuilder.fill(m_xMeters, m_yMeters, m_headingRadians,
+          m_leftVelocity, m_rightVelocity, m_leftPositionMeters, m_rightPositionMeters));
+    }
+
+    m_fidelity = fidelity;
+  }
+
+  // Steps the FirstOrder or Kinematic drivetrain by one tick
+  private void updateSimplifiedDrivetrain() {
+    double oldLeftPosition = m_leftPositionMeters;
+    double oldRightPosition = m_rightPositionMeters;
+
+    if (m_fidelity == SimFidelity.FirstOrder) {
+      // Exact solution of the lag over one tick, so it's stable at any time constant
+      double timeConstant = kLinearKa / kLinearKv;
+      double decay = Math.exp(-kTickSeconds / timeConstant);
+      m_leftPositionMeters += m_leftTargetSpeed * kTickSeconds
+          + (m_leftVelocity - m_leftTargetSpeed) * timeConstant * (1 - decay);
+      m_rightPositionMeters += m_rightTargetSpeed * kTickSeconds
+          + (m_rightVelocity - m_rightTargetSpeed) * timeConstant * (1 - decay);
+      m_leftVelocity = m_leftTargetSpeed + (m_leftVelocity - m_leftTargetSpeed) * decay;
+      m_rightVelocity = m_rightTargetSpeed + (m_rightVelocity - m_rightTargetSpeed) * decay;
+    }
+    else {
+      m_leftVelocity = m_leftTargetSpeed;
+      m_rightVelocity = m_rightTargetSpeed;
+      m_leftPositionMeters += m_leftVelocity * kTickSeconds;
+      m_rightPositionMeters += m_rightVelocity * kTickSeconds;
+    }
+
+    // Move along the arc the wheels drove, heading counter-clockwise positive
+    double leftDistance = m_leftPositionMeters - oldLeftPosition;
+    double rightDistance = m_rightPositionMeters - oldRightPosition;
+    double headingChange = (rightDistance - leftDistance) / kTrackWidth;
+    double midHeading = m_headingRadians + headingChange / 2;
+    double distance = (leftDistance + rightDistance) / 2;
+
+    m_xMeters += distance * Math.cos(midHeading);
+    m_yMeters += distance * Math.sin(midHeading);
+    m_headingRadians += headingChange;
   }
 
   @Override
   public DriveState updateSimulation(DriveInputState input) {
+    DriveState driveState = createOutput();
+    updateSimulation(input, driveState);
+    return driveState;
+  }
+
+  @Override
+  public DriveState createOutput() {
+    return new DriveState();
+  }
+
+  /**
+   * Same as updateSimulation(input), but writes into driveState.
+   */
+  @Override
+  public void updateSimulation(DriveInputState input, DriveState driveState) {
     double leftVoltagePercent = m_leftGroup.get();
     double rightVoltagePercent = m_rightGroup.get();
 
@@ -194,23 +315,118 @@ public class DriveSimModel implements SimModelInterface<DriveInputState, DriveSt
     // simulation, and write the simulated positions and velocities to our
     // simulated encoder and gyro. We negate the right side so that positive
     // voltages make the right side move forward.
-    m_drivetrainSimulator.setInputs(leftVoltagePercent * RobotController.getInputVoltage(),
-        rightVoltagePercent * RobotController.getInputVoltage());
-    m_drivetrainSimulator.update(0.02);
-
-    m_leftEncoderSim.setDistance(m_drivetrainSimulator.getLeftPositionMeters());
-    m_leftEncoderSim.setRate(m_drivetrainSimulator.getLeftVelocityMetersPerSecond());
-    m_rightEncoderSim.setDistance(m_drivetrainSimulator.getRightPositionMeters());
-    m_rightEncoderSim.setRate(m_drivetrainSimulator.getRightVelocityMetersPerSecond());
-    m_gyroSim.setAngle(-m_drivetrainSimulator.getHeading().getDegrees());
+    if (m_fidelity == SimFidelity.FullDynamic) {
+      m_drivetrainSimulator.setInputs(leftVoltagePercent * RobotController.getInputVoltage(),
+          rightVoltagePercent * RobotController.getInputVoltage());
+      m_drivetrainSimulator.update(kTickSeconds);
+    }
+    else {
+      updateSimplifiedDrivetrain();
+    }
+    updateSensors();
     updateOdometry();
+    writeOutput(driveState);
+  }
 
-    DriveState driveState = new DriveState();
-    driveState.setRelativePose(m_odometry.getPoseMeters());
-    driveState.setPhysicalWorldPose(getPhysicalWorldPose());
+  // Writes the simulated positions and velocities to the simulated encoders and gyro
+  private void updateSensors() {
+    if (m_fidelity == SimFidelity.FullDynamic) {
+      m_leftEncoderSim.setDistance(m_drivetrainSimulator.getLeftPositionMeters());
+      m_leftEncoderSim.setRate(m_drivetrainSimulator.getLeftVelocityMetersPerSecond());
+      m_rightEncoderSim.setDistance(m_drivetrainSimulator.getRightPositionMeters());
+      m_rightEncoderSim.setRate(m_drivetrainSimulator.getRightVelocityMetersPerSecond());
+      m_gyroSim.setAngle(-m_drivetrainSimulator.getHeading().getDegrees());
+    }
+    else {
+      m_leftEncoderSim.setDistance(m_leftPositionMeters);
+      m_leftEncoderSim.setRate(m_leftVelocity);
+      m_rightEncoderSim.setDistance(m_rightPositionMeters);
+      m_rightEncoderSim.setRate(m_rightVelocity);
+      m_gyroSim.setAngle(-Math.toDegrees(m_headingRadians));
+    }
+  }
+
+  private void writeOutput(DriveState driveState) {
+    // The physical world pose is the odometry pose, moved and turned by the initial pose
+    Pose2d odometryPose = m_odometry.getPoseMeters();
+    driveState.setRelativePose(odometryPose);
+    driveState.setPhysicalWorldPoseFromRelative(m_initialPose, odometryPose);
     driveState.setGyroHeadingDegrees(getHeading());
     driveState.setLeftRelativeEncoderDistance(m_leftEncoderSimWrapper.getDistance());
     driveState.setRightRelativeEncoderDistance(m_rightEncoderSimWrapper.getDistance());
+    driveState.setVelocities(m_leftEncoderSim.getRate(), m_rightEncoderSim.getRate());
+  }
+
+  /**
+   * The state is the drivetrain's pose, speeds and distances, the motor outputs (which the
+   * next tick reads), the relative encoder offsets and the odometry pose. The PID
+   * controllers only have a P term, so they don't carry anything from one tick to the next.
+   */
+  @Override
+  public int getStateSize() {
+    return 14;
+  }
+
+  @Override
+  public void saveState(double[] state, int offset) {
+    if (m_fidelity == SimFidelity.FullDynamic) {
+      Pose2d simPose = m_drivetrainSimulator.getPose();
+      state[offset] = simPose.getX();
+      state[offset + 1] = simPose.getY();
+      state[offset + 2] = simPose.getRotation().getRadians();
+      state[offset + 3] = m_drivetrainSimulator.getLeftVelocityMetersPerSecond();
+      state[offset + 4] = m_drivetrainSimulator.getRightVelocityMetersPerSecond();
+      state[offset + 5] = m_drivetrainSimulator.getLeftPositionMeters();
+      state[offset + 6] = m_drivetrainSimulator.getRightPositionMeters();
+    }
+    else {
+      state[offset] = m_xMeters;
+      state[offset + 1] = m_yMeters;
+      state[offset + 2] = m_headingRadians;
+      state[offset + 3] = m_leftVelocity;
+      state[offset + 4] = m_rightVelocity;
+      state[offset + 5] = m_leftPositionMeters;
+      state[offset + 6] = m_rightPositionMeters;
+    }
+
+    state[offset + 7] = m_leftGroup.get();
+    state[offset + 8] = m_rightGroup.get();
+    state[offset + 9] = m_leftEncoderSimWrapper.getOffset();
+    state[offset + 10] = m_rightEncoderSimWrapper.getOffset();
+
+    Pose2d odometryPose = m_odometry.getPoseMeters();
+    state[offset + 11] = odometryPose.getX();
+    state[offset + 12] = odometryPose.getY();
+    state[offset + 13] = odometryPose.getRotation().getRadians();
+  }
+
+  @Override
+  public DriveState restoreState(double[] state, int offset) {
+    m_xMeters = state[offset];
+    m_yMeters = state[offset + 1];
+    m_headingRadians = state[offset + 2];
+    m_leftVelocity = state[offset + 3];
+    m_rightVelocity = state[offset + 4];
+    m_leftPositionMeters = state[offset + 5];
+    m_rightPositionMeters = state[offset + 6];
+
+    if (m_fidelity == SimFidelity.FullDynamic) {
+      m_drivetrainSimulator.setState(VecBuilder.fill(m_xMeters, m_yMeters, m_headingRadians,
+          m_leftVelocity, m_rightVelocity, m_leftPositionMeters, m_rightPositionMeters));
+    }
+
+    m_leftGroup.set(state[offset + 7]);
+    m_rightGroup.set(state[offset + 8]);
+    m_leftEncoderSimWrapper.setOffset(state[offset + 9]);
+    m_rightEncoderSimWrapper.setOffset(state[offset + 10]);
+
+    updateSensors();
+    m_odometry.resetPosition(m_gyro.getRotation2d(), m_leftEncoder.getDistance(),
+        m_rightEncoder.getDistance(), new Pose2d(state[offset + 11], state[offset + 12],
+            new Rotation2d(state[offset + 13])));
+
+    DriveState driveState = createOutput();
+    writeOutput(driveState);
     return driveState;
   }
 
@@ -5,46 +5,77 @@ import simulationlib.simulation.framework.inputoutputs.CopyableInterface;
 
 /**
  * Holds output state.
+ * <p>
+ * Poses are kept as MutablePose2d, so that updating them every tick doesn't create
+ * objects. The Pose2d getters create a Pose2d only when the pose has changed.
+ * </p>
  */
 public class DriveState implements CopyableInterface<DriveState> {
-  private Pose2d m_relativePose;
-  private Pose2d m_physicalWorldPose;
+  private final MutablePose2d m_relativePose;
+  private final MutablePose2d m_physicalWorldPose;
   private double m_gyroHeadingDegrees;
   private double m_leftRelativeEncoderDistance;
   private double m_rightRelativeEncoderDistance;
+  private double m_leftVelocity;
+  private double m_rightVelocity;
 
   /**
    * Constructor.
    */
   public DriveState() {
-    m_relativePose = new Pose2d();
-    m_physicalWorldPose = new Pose2d();
+    m_relativePose = new MutablePose2d();
+    m_physicalWorldPose = new MutablePose2d();
     m_gyroHeadingDegrees = 0.0;
     m_leftRelativeEncoderDistance = 0.0;
     m_rightRelativeEncoderDistance = 0.0;
-  }
-
-  private static Pose2d copyPose(Pose2d other) {
-    return new Pose2d(other.getTranslation(), other.getRotation());
+    m_leftVelocity = 0.0;
+    m_rightVelocity = 0.0;
   }
 
   // Implement getters and setters for fields
   public Pose2d getRelativePose() {
+    return m_relativePose.toPose2d();
+  }
+
+  /**
+   * Returns the relative pose as doubles. Change it with the setters, not through this.
+   */
+  public MutablePose2d getRelativeMutablePose() {
     return m_relativePose;
   }
 
   public void setRelativePose(Pose2d newPose) {
-    // Make a copy when initially setting value
-    m_relativePose = copyPose(newPose);
+    m_relativePose.set(newPose);
+  }
+
+  public void setRelativePose(double xMeters, double yMeters, double headingRadians) {
+    m_relativePose.set(xMeters, yMeters, headingRadians);
   }
 
   public Pose2d getPhysicalWorldPose() {
+    return m_physicalWorldPose.toPose2d();
+  }
+
+  /**
+   * Returns the physical world pose as doubles. Change it with the setters, not through this.
+   */
+  public MutablePose2d getPhysicalWorldMutablePose() {
     return m_physicalWorldPose;
   }
 
   public void setPhysicalWorldPose(Pose2d newPose) {
-    // Make a copy when initially setting value
-    m_physicalWorldPose = copyPose(newPose);
+    m_physicalWorldPose.set(newPose);
+  }
+
+  public void setPhysicalWorldPose(double xMeters, double yMeters, double headingRadians) {
+    m_physicalWorldPose.set(xMeters, yMeters, headingRadians);
+  }
+
+  /**
+   * Sets the physical world pose to relativePose, moved and turned by initialPose.
+   */
+  public void setPhysicalWorldPoseFromRelative(Pose2d initialPose, Pose2d relativePose) {
+    m_physicalWorldPose.setRelativeTo(initialPose, relativePose);
   }
 
   public double getGyroHeadingDegrees() {
@@ -71,6 +102,25 @@ public class DriveState implements CopyableInterface<DriveState> {
     m_rightRelativeEncoderDistance = newRightRelativeEncoderDistance;
   }
 
+  /**
+   * Returns how fast the left wheels move along the ground, in meters per second.
+   */
+  public double getLeftVelocity() {
+    return m_leftVelocity;
+  }
+
+  /**
+   * Returns how fast the right wheels move along the ground, in meters per second.
+   */
+  public double getRightVelocity() {
+    return m_rightVelocity;
+  }
+
+  public void setVelocities(double leftMetersPerSecond, double rightMetersPerSecond) {
+    m_leftVelocity = leftMetersPerSecond;
+    m_rightVelocity = rightMetersPerSecond;
+  }
+
   /**
    * Copy to another instance.
    */
@@ -79,10 +129,12 @@ public class DriveState implements CopyableInterface<DriveState> {
       throw new IllegalArgumentException("other cannot be null");
     }
 
-    this.setRelativePose(other.getRelativePose());
-    this.setPhysicalWorldPose(other.getPhysicalWorldPose());
+    this.m_relativePose.copyFrom(other.m_relativePose);
+    this.m_physicalWorldPose.copyFrom(other.m_physicalWorldPose);
     this.m_gyroHeadingDegrees = other.m_gyroHeadingDegrees;
     this.m_leftRelativeEncoderDistance = other.m_leftRelativeEncoderDistance;
     this.m_rightRelativeEncoderDistance = other.m_rightRelativeEncoderDistance;
+    this.m_leftVelocity = other.m_leftVelocity;
+    this.m_rightVelocity = other.m_rightVelocity;
   }
 }
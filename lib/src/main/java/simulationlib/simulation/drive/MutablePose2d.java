@@ -0,0 +1,127 @@
+package simulationlib.simulation.drive;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * A robot pose (x, y and heading) held as plain doubles, so that the drive simulation can
+ * update it every tick without creating Pose2d, Translation2d and Rotation2d objects.
+ * <p>
+ * A Pose2d is only created when toPose2d() is called, e.g. by a dashboard plugin, and is
+ * kept until the pose changes. So a robot that isn't moving doesn't create any.
+ * </p>
+ */
+public class MutablePose2d {
+  private double m_xMeters;
+  private double m_yMeters;
+  private double m_headingRadians;
+
+  // Created by toPose2d(), and forgotten when the pose changes
+  private Pose2d m_pose2d = null;
+
+  /**
+   * Constructor for a pose at the origin, facing +X.
+   */
+  public MutablePose2d() {
+    this(0, 0, 0);
+  }
+
+  /**
+   * Constructor.
+   */
+  public MutablePose2d(double xMeters, double yMeters, double headingRadians) {
+    m_xMeters = xMeters;
+    m_yMeters = yMeters;
+    m_headingRadians = headingRadians;
+  }
+
+  public double getXMeters() {
+    return m_xMeters;
+  }
+
+  public double getYMeters() {
+    return m_yMeters;
+  }
+
+  public double getHeadingRadians() {
+    return m_headingRadians;
+  }
+
+  /**
+   * Sets the pose.
+   */
+  public void set(double xMeters, double yMeters, double headingRadians) {
+    if (xMeters == m_xMeters && yMeters == m_yMeters && headingRadians == m_headingRadians) {
+      return;
+    }
+
+    m_xMeters = xMeters;
+    m_yMeters = yMeters;
+    m_headingRadians = headingRadians;
+    m_pose2d = null;
+  }
+
+  /**
+   * Sets the pose from a Pose2d.
+   */
+  public void set(Pose2d pose) {
+    if (pose == null) {
+      throw new IllegalArgumentException("pose cannot be null");
+    }
+
+    set(pose.getX(), pose.getY(), pose.getRotation().getRadians());
+
+    // Pose2d can't change, so it can be handed out by toPose2d() as is
+    m_pose2d = pose;
+  }
+
+  /**
+   * Sets this pose to other's pose.
+   */
+  public void copyFrom(MutablePose2d other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+
+    set(other.m_xMeters, other.m_yMeters, other.m_headingRadians);
+    if (m_pose2d == null) {
+      m_pose2d = other.m_pose2d;
+    }
+  }
+
+  /**
+   * Sets this pose to relativePose, given relative to origin. E.g. origin is where the robot
+   * started on the field, and relativePose is where odometry says it is now.
+   */
+  public void setRelativeTo(Pose2d origin, Pose2d relativePose) {
+    if (origin == null || relativePose == null) {
+      throw new IllegalArgumentException("origin and relativePose cannot be null");
+    }
+
+    // Same math as Pose2d.plus() and Rotation2d.rotateBy(), without the new objects
+    Rotation2d originRotation = origin.getRotation();
+    Rotation2d relativeRotation = relativePose.getRotation();
+    double cos = originRotation.getCos();
+    double sin = originRotation.getSin();
+    double relativeX = relativePose.getX();
+    double relativeY = relativePose.getY();
+
+    double headingCos = relativeRotation.getCos() * cos - relativeRotation.getSin() * sin;
+    double headingSin = relativeRotation.getCos() * sin + relativeRotation.getSin() * cos;
+
+    set(origin.getX() + relativeX * cos - relativeY * sin,
+        origin.getY() + relativeX * sin + relativeY * cos,
+        Math.atan2(headingSin, headingCos));
+  }
+
+  /**
+   * Returns the pose as a Pose2d. The same Pose2d is returned until the pose changes.
+   */
+  public Pose2d toPose2d() {
+    if (m_pose2d == null) {
+      m_pose2d = new Pose2d(m_xMeters, m_yMeters, new Rotation2d(m_headingRadians));
+    }
+
+    return m_pose2d;
+  }
+}
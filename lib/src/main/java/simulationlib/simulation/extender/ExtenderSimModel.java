@@ -1,6 +1,8 @@
 package simulationlib.simulation.extender;
 
-import simulationlib.simulation.framework.SimModelInterface;
+import simulationlib.simulation.framework.QuiescentModelInterface;
+import simulationlib.simulation.framework.ReusableOutputModelInterface;
+import simulationlib.simulation.framework.SnapshotModelInterface;
 
 /**
  * This class represents a simulation of an extender.
@@ -9,12 +11,16 @@ import simulationlib.simulation.framework.SimModelInterface;
  * total extender length, the current extended length, and whether the extender is broken or not.
  * </p>
  */
-public class ExtenderSimModel implements SimModelInterface<Double, ExtenderState> {
+public class ExtenderSimModel implements ReusableOutputModelInterface<Double, ExtenderState>,
+    QuiescentModelInterface<Double, ExtenderState>,
+    SnapshotModelInterface<Double, ExtenderState> {
   private final ExtenderParams m_extenderParams;
   private boolean m_isBroken;
   private double m_initialMotorRotations = 0;
   private double m_currentExtendedLen = 0;
   private boolean m_initialMotorRotationsSet = false;
+  // Input of the last updateSimulation(), NaN before the first one
+  private double m_lastMotorRotations = Double.NaN;
 
   /**
    * Constructs a new ExtenderSimulation instance with the provided parameters.
@@ -105,12 +111,56 @@ public class ExtenderSimModel implements SimModelInterface<Double, ExtenderState
 
   @Override
   public ExtenderState updateSimulation(Double inputMotorRotations) {
-    double newLen = updateNewExtendedLen(inputMotorRotations);
+    ExtenderState result = createOutput();
+    updateSimulation(inputMotorRotations, result);
+    return result;
+  }
+
+  @Override
+  public ExtenderState createOutput() {
+    return new ExtenderState();
+  }
+
+  @Override
+  public void updateSimulation(Double inputMotorRotations, ExtenderState result) {
+    m_lastMotorRotations = inputMotorRotations;
+    updateNewExtendedLen(inputMotorRotations);
+    writeOutput(result);
+  }
 
-    ExtenderState result = new ExtenderState();
-    result.setExtendedLen(newLen);
-    result.setExtendedPercent(newLen / m_extenderParams.totalExtenderLengthMeters);
+  private void writeOutput(ExtenderState result) {
+    result.setExtendedLen(m_currentExtendedLen);
+    result.setExtendedPercent(m_currentExtendedLen / m_extenderParams.totalExtenderLengthMeters);
+  }
 
+  /**
+   * The state is the extended length, whether it broke, and the motor rotations it started
+   * from.
+   */
+  @Override
+  public int getStateSize() {
+    return 5;
+  }
+
+  @Override
+  public void saveState(double[] state, int offset) {
+    state[offset] = m_currentExtendedLen;
+    state[offset + 1] = m_isBroken ? 1 : 0;
+    state[offset + 2] = m_initialMotorRotations;
+    state[offset + 3] = m_initialMotorRotationsSet ? 1 : 0;
+    state[offset + 4] = m_lastMotorRotations;
+  }
+
+  @Override
+  public ExtenderState restoreState(double[] state, int offset) {
+    m_currentExtendedLen = state[offset];
+    m_isBroken = state[offset + 1] != 0;
+    m_initialMotorRotations = state[offset + 2];
+    m_initialMotorRotationsSet = state[offset + 3] != 0;
+    m_lastMotorRotations = state[offset + 4];
+
+    ExtenderState result = createOutput();
+    writeOutput(result);
     return result;
   }
 
@@ -118,4 +168,13 @@ public class ExtenderSimModel implements SimModelInterface<Double, ExtenderState
   public boolean isModelBroken() {
     return m_isBroken;
   }
+
+  /**
+   * The extender only moves when the motor turns, so it's at rest while the motor rotations
+   * stay the same.
+   */
+  @Override
+  public boolean isAtRest(Double inputMotorRotations, double inputEpsilon) {
+    return Math.abs(inputMotorRotations - m_lastMotorRotations) <= inputEpsilon;
+  }
 }
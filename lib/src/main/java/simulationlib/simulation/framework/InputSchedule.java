@@ -0,0 +1,16 @@
+package simulationlib.simulation.framework;
+
+/**
+ * Inputs for SimManager.stepMany(), one per tick. Tick 0 is the first tick of that call.
+ */
+@FunctionalInterface
+public interface InputSchedule<T> {
+  T getInput(int tick);
+
+  /**
+   * Returns a schedule that gives the same input every tick.
+   */
+  static <T> InputSchedule<T> constant(T input) {
+    return tick -> input;
+  }
+}
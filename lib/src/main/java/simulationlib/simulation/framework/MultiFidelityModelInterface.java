@@ -0,0 +1,20 @@
+package simulationlib.simulation.framework;
+
+/**
+ * A SimModelInterface that can run at more than one SimFidelity, and switch between them
+ * while running. SimManager.setFidelity() and SimWorld.setFidelity() use this.
+ */
+public interface MultiFidelityModelInterface<InputT, OutputT>
+    extends SimModelInterface<InputT, OutputT> {
+
+  boolean supportsFidelity(SimFidelity fidelity);
+
+  SimFidelity getFidelity();
+
+  /**
+   * Switches to the given fidelity. The model's state (positions, speeds...) carries over,
+   * so the simulation continues from where it was. Throws IllegalArgumentException if the
+   * fidelity isn't supported.
+   */
+  void setFidelity(SimFidelity fidelity);
+}
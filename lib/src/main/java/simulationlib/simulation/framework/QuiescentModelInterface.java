@@ -0,0 +1,17 @@
+package simulationlib.simulation.framework;
+
+/**
+ * A SimModelInterface that can tell when it's at rest, so that SimManager can skip its
+ * update and dashboard work while the robot sits idle. See SimManager.enableQuiescence().
+ */
+public interface QuiescentModelInterface<InputT, OutputT>
+    extends SimModelInterface<InputT, OutputT> {
+
+  /**
+   * Returns true if the model is at rest (e.g. not moving), and input is within
+   * inputEpsilon of the input of the last updateSimulation(). Running updateSimulation(input)
+   * must then give the same output as last time, to within inputEpsilon. This is called
+   * every tick, so it must be cheap and must not change the model.
+   */
+  boolean isAtRest(InputT input, double inputEpsilon);
+}
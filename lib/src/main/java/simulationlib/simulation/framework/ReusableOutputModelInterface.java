@@ -0,0 +1,21 @@
+package simulationlib.simulation.framework;
+
+/**
+ * A SimModelInterface that can write its output into an existing object, instead of returning
+ * a new one every tick. SimManager uses this to skip the allocation, and also the copy when
+ * the output goes to a CopySimOutput.
+ */
+public interface ReusableOutputModelInterface<InputT, OutputT>
+    extends SimModelInterface<InputT, OutputT> {
+
+  /**
+   * Returns a new output object, for updateSimulation(input, output) to write into.
+   */
+  OutputT createOutput();
+
+  /**
+   * Same as updateSimulation(input), but sets every field of output instead of returning a
+   * new object.
+   */
+  void updateSimulation(InputT input, OutputT output);
+}
@@ -0,0 +1,35 @@
+package simulationlib.simulation.framework;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Where commands and helpers read the time from, instead of calling Timer, Instant.now() or
+ * System.nanoTime() themselves.
+ * <p>
+ * The robot program uses getFpgaClock(). Headless runs and unit tests pass a SimWorld,
+ * whose time only moves when advanceTick() is called, so a 15 second auto doesn't take 15
+ * seconds, and the same run always sees the same times.
+ * </p>
+ */
+@FunctionalInterface
+public interface SimClock {
+  /**
+   * Returns the time in seconds. Only the difference between two calls means anything.
+   */
+  double getSeconds();
+
+  /**
+   * Returns the clock of WPILib's Timer. On the robot this is the FPGA time, and in
+   * simulation the HAL's time, which SimWorld can step, see SimWorld.setStepsHalTiming().
+   */
+  static SimClock getFpgaClock() {
+    return Timer::getFPGATimestamp;
+  }
+
+  /**
+   * Returns a clock that follows the wall time, for code that must not touch the HAL.
+   */
+  static SimClock getWallClock() {
+    return () -> System.nanoTime() / 1e9;
+  }
+}
@@ -0,0 +1,17 @@
+package simulationlib.simulation.framework;
+
+/**
+ * How much physics a model simulates. Lower levels are cheaper, for batch jobs where the
+ * model's accuracy doesn't matter, e.g. the drivetrain during a Monte Carlo sweep of arm
+ * timing.
+ */
+public enum SimFidelity {
+  // Speeds follow the input instantly, positions are integrated from them
+  Kinematic,
+
+  // Speeds approach the input with a first order lag
+  FirstOrder,
+
+  // The model's full physics, e.g. WPILib's DCMotorSim or DifferentialDrivetrainSim
+  FullDynamic
+}
@@ -2,17 +2,39 @@ package simulationlib.simulation.framework;
 
 import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.RobotState;
+import simulationlib.helpers.SpanTracer;
+import simulationlib.jfr.JfrSupport;
+import simulationlib.jfr.SimTickEvent;
 import simulationlib.shuffle.MultiType;
 import simulationlib.shuffle.PrefixedConcurrentMap.Client;
+import simulationlib.simulation.framework.inputoutputs.CopySimOutput;
 
 import java.util.function.Supplier;
+import jdk.jfr.EventType;
 
 /**
  * Partially implements SimManagerInterface.
  */
 public class SimManager<InputT, OutputT> {
+  // Null without JFR. Checked every tick, so that there's no event object unless a recording
+  // wants it
+  private static final EventType kTickEventType = JfrSupport.isAvailable()
+      ? EventType.getEventType(SimTickEvent.class)
+      : null;
 
   private final SimModelInterface<InputT, OutputT> m_simModelFunc;
+  // Set when the model can write into m_reusableOutput instead of returning a new object
+  private final ReusableOutputModelInterface<InputT, OutputT> m_reusableOutputModel;
+  private OutputT m_reusableOutput = null;
+  // Set when the model can tell that it's at rest, see enableQuiescence()
+  private final QuiescentModelInterface<InputT, OutputT> m_quiescentModel;
+  private boolean m_isQuiescenceEnabled = false;
+  private double m_quiescenceEpsilon = 0;
+  private OutputT m_lastOutput = null;
+  private boolean m_wasLastTickAtRest = false;
+  private long m_restingTickCount = 0;
+  // Set when the model can save and restore its state, see saveState()
+  private final SnapshotModelInterface<InputT, OutputT> m_snapshotModel;
   private final Client<Supplier<MultiType>> m_shuffleClient;
   private final DashboardPluginInterface<InputT, OutputT> m_dashboardPlugin;
   private MultiType[] m_dashboardMultiTypeStorage = null;
@@ -23,6 +45,13 @@ public class SimManager<InputT, OutputT> {
   private SimOutputInterface<OutputT> m_outputHandler = null;
   private boolean m_outputInitialized = false;
   private Supplier<Boolean> m_isRobotEnabled;
+  private final SpanTracer m_tracer = SpanTracer.getInstance();
+  private String m_name;
+  private int m_getInputTraceId;
+  private int m_updateSimulationTraceId;
+  private int m_setOutputTraceId;
+  private int m_dashboardTraceId;
+  private int m_stepManyTraceId;
 
   /**
    * Constructor.
@@ -43,6 +72,24 @@ public class SimManager<InputT, OutputT> {
     }
 
     m_simModelFunc = simModelFunc;
+    if (simModelFunc instanceof ReusableOutputModelInterface) {
+      m_reusableOutputModel = (ReusableOutputModelInterface<InputT, OutputT>) simModelFunc;
+      m_reusableOutput = m_reusableOutputModel.createOutput();
+    }
+    else {
+      m_reusableOutputModel = null;
+    }
+
+    m_quiescentModel = (simModelFunc instanceof QuiescentModelInterface)
+        ? (QuiescentModelInterface<InputT, OutputT>) simModelFunc
+        : null;
+
+    m_snapshotModel = (simModelFunc instanceof SnapshotModelInterface)
+        ? (SnapshotModelInterface<InputT, OutputT>) simModelFunc
+        : null;
+
+    String modelName = simModelFunc.getClass().getSimpleName();
+    setName(modelName.isEmpty() ? "SimManager" : modelName);
     m_shuffleClient = shuffleClient;
     m_dashboardPlugin = dashboardPlugin;
 
@@ -85,13 +132,49 @@ public class SimManager<InputT, OutputT> {
     m_isRobotEnabled = isRobotEnabledFunc;
   }
 
+  /**
+   * Sets the name the stages of this SimManager are traced under in SpanTracer, e.g.
+   * "WinchMotor.updateSimulation". Defaults to the class name of the model.
+   */
+  public void setName(String name) {
+    if (name == null || name.isEmpty()) {
+      throw new IllegalArgumentException("name cannot be null or empty");
+    }
+
+    m_name = name;
+    m_getInputTraceId = m_tracer.getNameId(name + ".getInput");
+    m_updateSimulationTraceId = m_tracer.getNameId(name + ".updateSimulation");
+    m_setOutputTraceId = m_tracer.getNameId(name + ".setOutput");
+    m_dashboardTraceId = m_tracer.getNameId(name + ".dashboard");
+    m_stepManyTraceId = m_tracer.getNameId(name + ".stepMany");
+  }
+
+  public String getName() {
+    return m_name;
+  }
+
   public void setInputHandler(SimInputInterface<InputT> inputHandler) {
     m_inputHandler = inputHandler;
     tryInitializeOutput();
   }
 
+  /**
+   * Sets where the output of each tick goes. If the model supports it and outputHandler is a
+   * CopySimOutput, the model writes straight into the CopySimOutput's target, so there's no
+   * new object and no copy per tick. Otherwise, a handler of a model that supports it gets the
+   * same object every tick, so it shouldn't hold on to it.
+   */
+  @SuppressWarnings("unchecked")
   public void setOutputHandler(SimOutputInterface<OutputT> outputHandler) {
     m_outputHandler = outputHandler;
+    m_lastOutput = null;
+
+    if (m_reusableOutputModel != null) {
+      m_reusableOutput = (outputHandler instanceof CopySimOutput)
+          ? (OutputT) ((CopySimOutput<?>) outputHandler).getTargetState()
+          : m_reusableOutputModel.createOutput();
+    }
+
     tryInitializeOutput();
   }
 
@@ -223,35 +306,180 @@ public class SimManager<InputT, OutputT> {
   private void doSimulationWrapper() {
     if (m_inputHandler != null && m_outputHandler != null) {
       // Step 1: Get the input from the input handler
+      long start = m_tracer.now();
       InputT input = m_inputHandler.getInput();
+      long end = m_tracer.now();
+      m_tracer.record(m_getInputTraceId, start, end);
 
-      // Step 2: Do simulation
-      OutputT output = m_simModelFunc.updateSimulation(input);
+      // Step 2: Do simulation, unless the model is at rest and the last output still holds
+      start = end;
+      OutputT output = updateModel(input);
+      end = m_tracer.now();
+      m_tracer.record(m_updateSimulationTraceId, start, end);
 
       // Step 3: Write the output to the output handler
+      start = end;
       m_outputHandler.setOutput(output);
+      end = m_tracer.now();
+      m_tracer.record(m_setOutputTraceId, start, end);
 
-      // Step 4: Update the dashboard
-      if (m_pluginDashItemsInitialized) {
-        MultiType[] newDashValues = m_dashboardPlugin.getDashboardPropertiesFromInputOutput(input,
-            output);
+      // Step 4: Update the dashboard, which can't have changed if the model was at rest
+      if (!m_wasLastTickAtRest) {
+        updateDashboard(input, output);
+        m_tracer.record(m_dashboardTraceId, end, m_tracer.now());
+      }
+    }
+  }
 
-        if (newDashValues == null) {
-          throw new IllegalStateException("getDashboardPropertiesFromInputOutput() returned null");
-        }
+  // Runs the model, unless it's at rest and the last output still holds
+  private OutputT updateModel(InputT input) {
+    OutputT output;
+    m_wasLastTickAtRest = isModelAtRest(input);
+    if (m_wasLastTickAtRest) {
+      output = m_lastOutput;
+      m_restingTickCount++;
+    }
+    else if (m_reusableOutputModel != null) {
+      m_reusableOutputModel.updateSimulation(input, m_reusableOutput);
+      output = m_reusableOutput;
+    }
+    else {
+      output = m_simModelFunc.updateSimulation(input);
+    }
 
-        if (newDashValues.length != m_dashboardMultiTypeStorage.length) {
-          throw new IllegalStateException(
-              "getDashboardPropertiesFromInputOutput() returned wrong number of items");
-        }
+    m_lastOutput = output;
+    return output;
+  }
+
+  private void updateDashboard(InputT input, OutputT output) {
+    if (m_pluginDashItemsInitialized) {
+      MultiType[] newDashValues = m_dashboardPlugin.getDashboardPropertiesFromInputOutput(input,
+          output);
 
-        updateGlobalDashValues(newDashValues);
+      if (newDashValues == null) {
+        throw new IllegalStateException("getDashboardPropertiesFromInputOutput() returned null");
       }
 
-      if (m_defaultDashItemsInitialized) {
-        // And update the IsBroken value
-        m_defaultDashStorage[0].setBoolean(isBroken());
+      if (newDashValues.length != m_dashboardMultiTypeStorage.length) {
+        throw new IllegalStateException(
+            "getDashboardPropertiesFromInputOutput() returned wrong number of items");
       }
+
+      updateGlobalDashValues(newDashValues);
+    }
+
+    if (m_defaultDashItemsInitialized) {
+      // And update the IsBroken value
+      m_defaultDashStorage[0].setBoolean(isBroken());
+    }
+  }
+
+  private boolean isModelAtRest(InputT input) {
+    return m_isQuiescenceEnabled && m_lastOutput != null
+        && m_quiescentModel.isAtRest(input, m_quiescenceEpsilon);
+  }
+
+  /**
+   * Returns true if the model implements QuiescentModelInterface.
+   */
+  public boolean supportsQuiescence() {
+    return m_quiescentModel != null;
+  }
+
+  /**
+   * Turns on quiescence: on a tick where the model is at rest and its input is within
+   * inputEpsilon of the last one, the model isn't updated and the dashboard isn't refreshed.
+   * The output handler still gets the last output. Saves most of the work while the robot is
+   * enabled but idle.
+   */
+  public void enableQuiescence(double inputEpsilon) {
+    if (m_quiescentModel == null) {
+      throw new IllegalStateException(getName() + " model doesn't support quiescence");
+    }
+
+    if (inputEpsilon < 0) {
+      throw new IllegalArgumentException("inputEpsilon must be >=0");
+    }
+
+    m_isQuiescenceEnabled = true;
+    m_quiescenceEpsilon = inputEpsilon;
+  }
+
+  public void disableQuiescence() {
+    m_isQuiescenceEnabled = false;
+  }
+
+  public boolean isQuiescenceEnabled() {
+    return m_isQuiescenceEnabled;
+  }
+
+  /**
+   * Returns how many ticks reused the last output because the model was at rest.
+   */
+  public long getRestingTickCount() {
+    return m_restingTickCount;
+  }
+
+  /**
+   * Returns true if the model implements SnapshotModelInterface.
+   */
+  public boolean supportsSnapshots() {
+    return m_snapshotModel != null;
+  }
+
+  /**
+   * Returns how many doubles saveState() writes.
+   */
+  public int getStateSize() {
+    checkSupportsSnapshots();
+    return m_snapshotModel.getStateSize();
+  }
+
+  /**
+   * Writes the model's state into state, starting at offset. Call between ticks.
+   */
+  public void saveState(double[] state, int offset) {
+    checkSupportsSnapshots();
+    checkStateBounds(state, offset);
+    m_snapshotModel.saveState(state, offset);
+  }
+
+  /**
+   * Puts the model back in a state written by saveState(), and gives the output of that
+   * state to the output handler, so the robot-side sensors read what they read back then.
+   * Quiescence starts over, so the next tick always runs the model. The plugin's dashboard
+   * items catch up on the next tick.
+   */
+  public void restoreState(double[] state, int offset) {
+    checkSupportsSnapshots();
+    checkStateBounds(state, offset);
+
+    OutputT output = m_snapshotModel.restoreState(state, offset);
+    m_lastOutput = null;
+    m_wasLastTickAtRest = false;
+
+    if (m_outputHandler != null) {
+      m_outputHandler.setOutput(output);
+    }
+
+    if (m_defaultDashItemsInitialized) {
+      m_defaultDashStorage[0].setBoolean(isBroken());
+    }
+  }
+
+  private void checkSupportsSnapshots() {
+    if (m_snapshotModel == null) {
+      throw new IllegalStateException(getName() + " model doesn't support snapshots");
+    }
+  }
+
+  private void checkStateBounds(double[] state, int offset) {
+    if (state == null) {
+      throw new IllegalArgumentException("state cannot be null");
+    }
+
+    if (offset < 0 || offset + m_snapshotModel.getStateSize() > state.length) {
+      throw new IllegalArgumentException("state is too small for offset " + offset);
     }
   }
 
@@ -260,6 +488,43 @@ public class SimManager<InputT, OutputT> {
     return m_simModelFunc.isModelBroken();
   }
 
+  /**
+   * Returns true if the model can run at the given fidelity. Models that don't implement
+   * MultiFidelityModelInterface only run at FullDynamic.
+   */
+  public boolean supportsFidelity(SimFidelity fidelity) {
+    if (m_simModelFunc instanceof MultiFidelityModelInterface) {
+      return ((MultiFidelityModelInterface<?, ?>) m_simModelFunc).supportsFidelity(fidelity);
+    }
+
+    return fidelity == SimFidelity.FullDynamic;
+  }
+
+  /**
+   * Returns the fidelity the model runs at.
+   */
+  public SimFidelity getFidelity() {
+    if (m_simModelFunc instanceof MultiFidelityModelInterface) {
+      return ((MultiFidelityModelInterface<?, ?>) m_simModelFunc).getFidelity();
+    }
+
+    return SimFidelity.FullDynamic;
+  }
+
+  /**
+   * Switches the model to the given fidelity, either right after construction or between
+   * ticks. The model's state carries over, so the simulation continues from where it was.
+   */
+  public void setFidelity(SimFidelity fidelity) {
+    if (!supportsFidelity(fidelity)) {
+      throw new IllegalArgumentException(getName() + " doesn't support fidelity " + fidelity);
+    }
+
+    if (m_simModelFunc instanceof MultiFidelityModelInterface) {
+      ((MultiFidelityModelInterface<?, ?>) m_simModelFunc).setFidelity(fidelity);
+    }
+  }
+
   /**
    * Called every 20ms.
    */
@@ -271,7 +536,91 @@ public class SimManager<InputT, OutputT> {
 
     // When Robot is disabled, the entire simulation freezes
     if (isRobotEnabled()) {
+      SimTickEvent event = null;
+      if (kTickEventType != null && kTickEventType.isEnabled()) {
+        event = new SimTickEvent();
+        event.begin();
+      }
+
       doSimulationWrapper();
+
+      if (event != null && event.shouldCommit()) {
+        event.simManager = m_name;
+        event.isBroken = isBroken();
+        event.isAtRest = m_wasLastTickAtRest;
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * Runs the given number of ticks in a tight loop, for offline experiments. Same as calling
+   * simulationPeriodic() that many times, except that:
+   * <ul>
+   * <li>inputs come from the schedule instead of the input handler</li>
+   * <li>the simulation and enabled checks are done once, up front</li>
+   * <li>the dashboard is only updated after the last tick</li>
+   * <li>ticks aren't traced one by one; the whole call is one "stepMany" span</li>
+   * </ul>
+   * The output handler, if set, still gets every output. Quiescence and reusable outputs work
+   * as usual.
+   *
+   * @param ticks    number of ticks to run
+   * @param schedule input of each tick
+   * @return output of the last tick, or null if ticks is 0 or the robot is disabled
+   */
+  public OutputT stepMany(int ticks, InputSchedule<InputT> schedule) {
+    return stepMany(ticks, schedule, 0);
+  }
+
+  /**
+   * Same as stepMany(ticks, schedule), but also updates the dashboard every
+   * dashboardInterval ticks, so that a dashboard watching a long run still moves. 0 means
+   * only after the last tick.
+   */
+  public OutputT stepMany(int ticks, InputSchedule<InputT> schedule, int dashboardInterval) {
+    if (!RobotBase.isSimulation()) {
+      throw new IllegalStateException("SimManager should only be instantiated when in simulation");
+    }
+
+    if (ticks < 0) {
+      throw new IllegalArgumentException("ticks must be >=0");
+    }
+
+    if (schedule == null) {
+      throw new IllegalArgumentException("schedule cannot be null");
+    }
+
+    if (dashboardInterval < 0) {
+      throw new IllegalArgumentException("dashboardInterval must be >=0");
+    }
+
+    // When Robot is disabled, the entire simulation freezes
+    if (ticks == 0 || !isRobotEnabled()) {
+      return null;
     }
+
+    long start = m_tracer.now();
+    SimOutputInterface<OutputT> outputHandler = m_outputHandler;
+    InputT input = null;
+    OutputT output = null;
+
+    for (int tick = 0; tick < ticks; tick++) {
+      input = schedule.getInput(tick);
+      output = updateModel(input);
+
+      if (outputHandler != null) {
+        outputHandler.setOutput(output);
+      }
+
+      if (dashboardInterval > 0 && (tick + 1) % dashboardInterval == 0
+          && !m_wasLastTickAtRest) {
+        updateDashboard(input, output);
+      }
+    }
+
+    updateDashboard(input, output);
+    m_tracer.record(m_stepManyTraceId, start, m_tracer.now());
+    return output;
   }
 }
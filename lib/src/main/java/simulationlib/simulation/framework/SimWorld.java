@@ -0,0 +1,193 @@
+package simulationlib.simulation.framework;
+
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import simulationlib.shuffle.MultiType;
+import simulationlib.shuffle.PrefixedConcurrentMap;
+import simulationlib.shuffle.PrefixedConcurrentMap.Client;
+import simulationlib.shuffle.SupplierMapFactory;
+
+/**
+ * Everything one simulated robot shares: the map of dashboard properties, the simulation
+ * clock, and the SimManagers of its subsystems.
+ * <p>
+ * Each subsystem *Sim class takes a SimWorld, instead of reaching for the global map in
+ * SupplierMapFactory. That way several simulated robots (e.g. in unit tests, or batch jobs)
+ * can live in the same JVM without their dashboard keys colliding. The robot program itself
+ * uses getGlobalInstance(), which wraps the same map Shuffleboard has always used.
+ * </p>
+ * <p>
+ * The world is also a SimClock, whose time moves one tick per advanceTick(). Pass it to
+ * commands and helpers that take a SimClock, so they see simulated time, not wall time.
+ * </p>
+ */
+public class SimWorld implements SimClock {
+  public static final double kTickSeconds = 0.02;
+
+  private static final SimWorld globalWorld = new SimWorld(
+      SupplierMapFactory.getGlobalInstance());
+
+  private final PrefixedConcurrentMap<Supplier<MultiType>> m_propertyMap;
+  private final List<SimManager<?, ?>> m_simManagers = new ArrayList<SimManager<?, ?>>();
+  private long m_tickCount = 0;
+  private boolean m_isSteppingHalTiming = false;
+
+  /**
+   * Creates a world with its own, empty, property map.
+   */
+  public SimWorld() {
+    this(new PrefixedConcurrentMap<Supplier<MultiType>>());
+  }
+
+  /**
+   * Creates a world that adds its dashboard properties to the given map.
+   */
+  public SimWorld(PrefixedConcurrentMap<Supplier<MultiType>> propertyMap) {
+    if (propertyMap == null) {
+      throw new IllegalArgumentException("propertyMap cannot be null");
+    }
+
+    m_propertyMap = propertyMap;
+  }
+
+  /**
+   * Returns the world used by the robot program, whose properties go to the global map in
+   * SupplierMapFactory. Do not use this in unit tests, since tests should not share global
+   * state.
+   */
+  public static SimWorld getGlobalInstance() {
+    return globalWorld;
+  }
+
+  public PrefixedConcurrentMap<Supplier<MultiType>> getPropertyMap() {
+    return m_propertyMap;
+  }
+
+  /**
+   * Returns a Client that adds properties under the given subsystem name, e.g. "ArmSystem".
+   */
+  public Client<Supplier<MultiType>> createShuffleboardClientForSubsystem(
+      String subsystemName) {
+    return m_propertyMap.getClientWithPrefix(subsystemName);
+  }
+
+  /**
+   * Adds a SimManager to the world, and returns it. Subsystems still decide when and in
+   * which order their managers run; the world only keeps track of them.
+   */
+  public synchronized <InputT, OutputT> SimManager<InputT, OutputT> addSimManager(
+      SimManager<InputT, OutputT> simManager) {
+    if (simManager == null) {
+      throw new IllegalArgumentException("simManager cannot be null");
+    }
+
+    m_simManagers.add(simManager);
+    return simManager;
+  }
+
+  /**
+   * Returns a READ-ONLY list of the SimManagers added so far.
+   */
+  public synchronized List<SimManager<?, ?>> getSimManagers() {
+    return Collections.unmodifiableList(new ArrayList<SimManager<?, ?>>(m_simManagers));
+  }
+
+  /**
+   * Returns true if any SimManager in the world has a broken model.
+   */
+  public synchronized boolean isAnyBroken() {
+    for (SimManager<?, ?> simManager : m_simManagers) {
+      if (simManager.isBroken()) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Switches every SimManager whose model supports it to the given fidelity, e.g. Kinematic
+   * for batch jobs where the physics don't matter. Returns how many SimManagers run at that
+   * fidelity afterwards.
+   */
+  public synchronized int setFidelity(SimFidelity fidelity) {
+    if (fidelity == null) {
+      throw new IllegalArgumentException("fidelity cannot be null");
+    }
+
+    int result = 0;
+    for (SimManager<?, ?> simManager : m_simManagers) {
+      if (simManager.supportsFidelity(fidelity)) {
+        simManager.setFidelity(fidelity);
+        result++;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * When true, pauses the HAL's simulated time, and steps it together with this world's
+   * clock, so WPILib's Timer and WaitCommand see the same time as getSeconds(). When false,
+   * the HAL's time runs on its own again.
+   * <p>
+   * Only for runs where nothing else drives the HAL, e.g. headless runs and unit tests. The
+   * robot program must not turn this on, since TimedRobot waits on the HAL's time to call
+   * simulationPeriodic(), which is what advances this clock.
+   * </p>
+   */
+  public synchronized void setStepsHalTiming(boolean isSteppingHalTiming) {
+    if (isSteppingHalTiming == m_isSteppingHalTiming) {
+      return;
+    }
+
+    if (isSteppingHalTiming) {
+      SimHooks.pauseTiming();
+    }
+    else {
+      SimHooks.resumeTiming();
+    }
+
+    m_isSteppingHalTiming = isSteppingHalTiming;
+  }
+
+  public synchronized boolean isSteppingHalTiming() {
+    return m_isSteppingHalTiming;
+  }
+
+  /**
+   * Advances the simulation clock by one 20ms tick. Call once per simulationPeriodic().
+   */
+  public synchronized void advanceTick() {
+    m_tickCount++;
+
+    if (m_isSteppingHalTiming) {
+      SimHooks.stepTiming(kTickSeconds);
+    }
+  }
+
+  // Lets TimeTravelRecorder move the clock back to the tick it restored. The HAL's time
+  // can't go back, so it keeps running forward from where it was.
+  synchronized void setTickCount(long tickCount) {
+    m_tickCount = tickCount;
+  }
+
+  public synchronized long getTickCount() {
+    return m_tickCount;
+  }
+
+  public synchronized double getElapsedSeconds() {
+    return m_tickCount * kTickSeconds;
+  }
+
+  /**
+   * Same as getElapsedSeconds(), as a SimClock.
+   */
+  @Override
+  public double getSeconds() {
+    return getElapsedSeconds();
+  }
+}
@@ -0,0 +1,30 @@
+package simulationlib.simulation.framework;
+
+/**
+ * A SimModelInterface that can save its state into an array of doubles, and go back to it
+ * later. SimManager and TimeTravelRecorder use this to rewind a simulation to a past tick.
+ * <p>
+ * The state is everything updateSimulation() reads besides its input, so that running the
+ * same inputs from a restored state gives the same outputs as the first time. Settings that
+ * never change after construction (params, fidelity...) aren't part of it.
+ * </p>
+ */
+public interface SnapshotModelInterface<InputT, OutputT>
+    extends SimModelInterface<InputT, OutputT> {
+
+  /**
+   * Returns how many doubles saveState() writes. Must not change while the model runs.
+   */
+  int getStateSize();
+
+  /**
+   * Writes the state into state[offset] to state[offset + getStateSize() - 1].
+   */
+  void saveState(double[] state, int offset);
+
+  /**
+   * Goes back to a state written by saveState(), and returns the output the model had in
+   * that state, so the robot-side sensors can be set back too.
+   */
+  OutputT restoreState(double[] state, int offset);
+}
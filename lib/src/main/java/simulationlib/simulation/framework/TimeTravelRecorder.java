@@ -0,0 +1,313 @@
+package simulationlib.simulation.framework;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records the state of every SimManager in a SimWorld, tick by tick, so the simulation can be
+ * rewound to any recorded tick and run again from there.
+ * <p>
+ * Every keyframeInterval ticks, the full state of all the models is kept (a keyframe). The
+ * ticks in between only keep the values that changed since the tick before, which is little
+ * while most of the robot sits still. seek() starts from the keyframe at or before the tick,
+ * and applies at most keyframeInterval - 1 ticks of changes, so it costs the same anywhere
+ * in the history.
+ * </p>
+ * <p>
+ * Restoring a model also gives its output to the SimManager's output handler, so the
+ * robot-side sensors (encoders, gyro...) read what they read at that tick. The robot code's
+ * own state, like running commands and PID controllers, isn't recorded. Neither is the HAL's
+ * time, which keeps going forward.
+ * </p>
+ */
+public class TimeTravelRecorder {
+  private final SimWorld m_world;
+  private final List<SimManager<?, ?>> m_simManagers;
+  private final int[] m_offsets;
+  private final int m_stateSize;
+  private final int m_keyframeInterval;
+  private final int m_maxSegments;
+
+  // Oldest first. Dropped segments are kept in m_spareSegments and reused.
+  private final ArrayList<Segment> m_segments = new ArrayList<Segment>();
+  private final ArrayList<Segment> m_spareSegments = new ArrayList<Segment>();
+
+  // State of the last recorded tick, and of the one being recorded or restored
+  private double[] m_lastState;
+  private double[] m_currentState;
+
+  // A keyframe, followed by the changes of each of the next ticks
+  private static class Segment {
+    long m_startTick;
+    final double[] m_keyframe;
+    // Ticks in this segment, counting the keyframe
+    int m_tickCount;
+    // The changes of tick m_startTick + i are m_deltaEnds[i - 1] to m_deltaEnds[i] - 1
+    final int[] m_deltaEnds;
+    int[] m_indices = new int[64];
+    double[] m_values = new double[64];
+
+    Segment(int stateSize, int keyframeInterval) {
+      m_keyframe = new double[stateSize];
+      m_deltaEnds = new int[keyframeInterval];
+    }
+
+    int getDeltaCount() {
+      return m_deltaEnds[m_tickCount - 1];
+    }
+  }
+
+  /**
+   * Constructor. Call after all the SimManagers were added to the world, and then call
+   * record() after every tick.
+   *
+   * @param world            world whose SimManagers are recorded. All of them must support
+   *                         snapshots.
+   * @param keyframeInterval ticks from one keyframe to the next
+   * @param maxTicks         how many of the latest ticks to keep, at least. Older ticks are
+   *                         dropped a keyframe at a time.
+   */
+  public TimeTravelRecorder(SimWorld world, int keyframeInterval, int maxTicks) {
+    if (world == null) {
+      throw new IllegalArgumentException("world cannot be null");
+    }
+
+    if (keyframeInterval < 1) {
+      throw new IllegalArgumentException("keyframeInterval must be >=1");
+    }
+
+    if (maxTicks < 1) {
+      throw new IllegalArgumentException("maxTicks must be >=1");
+    }
+
+    m_world = world;
+    m_simManagers = world.getSimManagers();
+    m_offsets = new int[m_simManagers.size()];
+
+    int stateSize = 0;
+    for (int i = 0; i < m_simManagers.size(); i++) {
+      SimManager<?, ?> simManager = m_simManagers.get(i);
+      if (!simManager.supportsSnapshots()) {
+        throw new IllegalStateException(simManager.getName() + " model doesn't support snapshots");
+      }
+
+      m_offsets[i] = stateSize;
+      stateSize += simManager.getStateSize();
+    }
+
+    m_stateSize = stateSize;
+    m_keyframeInterval = keyframeInterval;
+    m_maxSegments = (maxTicks + keyframeInterval - 1) / keyframeInterval + 1;
+    m_lastState = new double[stateSize];
+    m_currentState = new double[stateSize];
+  }
+
+  public int getKeyframeInterval() {
+    return m_keyframeInterval;
+  }
+
+  /**
+   * Returns how many doubles make up the state of all the models.
+   */
+  public int getStateSize() {
+    return m_stateSize;
+  }
+
+  public boolean isEmpty() {
+    return m_segments.isEmpty();
+  }
+
+  /**
+   * Returns the oldest tick that can still be restored.
+   */
+  public long getFirstTick() {
+    checkNotEmpty();
+    return m_segments.get(0).m_startTick;
+  }
+
+  /**
+   * Returns the latest recorded tick.
+   */
+  public long getLastTick() {
+    checkNotEmpty();
+    Segment last = m_segments.get(m_segments.size() - 1);
+    return last.m_startTick + last.m_tickCount - 1;
+  }
+
+  /**
+   * Returns how many changed values are stored between the keyframes.
+   */
+  public int getDeltaCount() {
+    int result = 0;
+    for (Segment segment : m_segments) {
+      result += segment.getDeltaCount();
+    }
+
+    return result;
+  }
+
+  /**
+   * Records the state of the models at the world's current tick. Call once per tick, after
+   * the SimManagers ran and the world's tick advanced.
+   * <p>
+   * Recording a tick that is already recorded, e.g. after seek(), drops that tick and the ones
+   * after it first, so the history follows the new run from there.
+   * </p>
+   */
+  public void record() {
+    long tick = m_world.getTickCount();
+
+    if (!m_segments.isEmpty()) {
+      long lastTick = getLastTick();
+      if (tick <= lastTick) {
+        truncateAfter(tick - 1);
+      }
+      else if (tick != lastTick + 1) {
+        throw new IllegalStateException("Ticks must be recorded one after another, got tick "
+            + tick + " after tick " + lastTick);
+      }
+    }
+
+    saveAll(m_currentState);
+
+    Segment last = m_segments.isEmpty() ? null : m_segments.get(m_segments.size() - 1);
+    if (last == null || last.m_tickCount == m_keyframeInterval) {
+      addKeyframe(tick, m_currentState);
+    }
+    else {
+      addDeltas(last, m_lastState, m_currentState);
+    }
+
+    double[] temp = m_lastState;
+    m_lastState = m_currentState;
+    m_currentState = temp;
+  }
+
+  /**
+   * Puts every SimManager back in the state it had at the given tick, and moves the world's
+   * clock back to it. The tick must be between getFirstTick() and getLastTick().
+   */
+  public void seek(long tick) {
+    checkNotEmpty();
+    if (tick < getFirstTick() || tick > getLastTick()) {
+      throw new IllegalArgumentException("tick must be between " + getFirstTick() + " and "
+          + getLastTick());
+    }
+
+    rebuildState(tick, m_currentState);
+    for (int i = 0; i < m_simManagers.size(); i++) {
+      m_simManagers.get(i).restoreState(m_currentState, m_offsets[i]);
+    }
+
+    m_world.setTickCount(tick);
+  }
+
+  /**
+   * Same as seek(), to the given number of ticks before the world's current tick.
+   */
+  public void rewind(int ticks) {
+    if (ticks < 0) {
+      throw new IllegalArgumentException("ticks must be >=0");
+    }
+
+    seek(m_world.getTickCount() - ticks);
+  }
+
+  /**
+   * Writes the recorded state of all the models at the given tick into state, without
+   * restoring anything. The tick must be between getFirstTick() and getLastTick().
+   */
+  public void getState(long tick, double[] state) {
+    checkNotEmpty();
+    if (tick < getFirstTick() || tick > getLastTick()) {
+      throw new IllegalArgumentException("tick must be between " + getFirstTick() + " and "
+          + getLastTick());
+    }
+
+    if (state == null || state.length < m_stateSize) {
+      throw new IllegalArgumentException("state must hold at least getStateSize() values");
+    }
+
+    rebuildState(tick, state);
+  }
+
+  private void checkNotEmpty() {
+    if (m_segments.isEmpty()) {
+      throw new IllegalStateException("No ticks were recorded");
+    }
+  }
+
+  private void saveAll(double[] state) {
+    for (int i = 0; i < m_simManagers.size(); i++) {
+      m_simManagers.get(i).saveState(state, m_offsets[i]);
+    }
+  }
+
+  private void addKeyframe(long tick, double[] state) {
+    Segment segment;
+    if (m_segments.size() == m_maxSegments) {
+      segment = m_segments.remove(0);
+    }
+    else if (!m_spareSegments.isEmpty()) {
+      segment = m_spareSegments.remove(m_spareSegments.size() - 1);
+    }
+    else {
+      segment = new Segment(m_stateSize, m_keyframeInterval);
+    }
+
+    segment.m_startTick = tick;
+    segment.m_tickCount = 1;
+    segment.m_deltaEnds[0] = 0;
+    System.arraycopy(state, 0, segment.m_keyframe, 0, m_stateSize);
+    m_segments.add(segment);
+  }
+
+  private static void addDeltas(Segment segment, double[] oldState, double[] newState) {
+    int count = segment.getDeltaCount();
+
+    for (int i = 0; i < newState.length; i++) {
+      // Compares the bits, so that NaN (e.g. no input yet) counts as unchanged
+      if (Double.doubleToRawLongBits(newState[i]) != Double.doubleToRawLongBits(oldState[i])) {
+        if (count == segment.m_indices.length) {
+          segment.m_indices = Arrays.copyOf(segment.m_indices, count * 2);
+          segment.m_values = Arrays.copyOf(segment.m_values, count * 2);
+        }
+
+        segment.m_indices[count] = i;
+        segment.m_values[count] = newState[i];
+        count++;
+      }
+    }
+
+    segment.m_deltaEnds[segment.m_tickCount] = count;
+    segment.m_tickCount++;
+  }
+
+  // Starts from the keyframe at or before tick, and applies the changes up to tick
+  private void rebuildState(long tick, double[] state) {
+    int segmentIndex = (int) ((tick - getFirstTick()) / m_keyframeInterval);
+    Segment segment = m_segments.get(segmentIndex);
+    int ticksIn = (int) (tick - segment.m_startTick);
+
+    System.arraycopy(segment.m_keyframe, 0, state, 0, m_stateSize);
+    int end = segment.m_deltaEnds[ticksIn];
+    for (int i = 0; i < end; i++) {
+      state[segment.m_indices[i]] = segment.m_values[i];
+    }
+  }
+
+  // Drops every tick after lastKeptTick, and makes that tick the last recorded state
+  private void truncateAfter(long lastKeptTick) {
+    while (!m_segments.isEmpty()
+        && m_segments.get(m_segments.size() - 1).m_startTick > lastKeptTick) {
+      m_spareSegments.add(m_segments.remove(m_segments.size() - 1));
+    }
+
+    if (!m_segments.isEmpty()) {
+      Segment last = m_segments.get(m_segments.size() - 1);
+      last.m_tickCount = (int) (lastKeptTick - last.m_startTick + 1);
+      rebuildState(lastKeptTick, m_lastState);
+    }
+  }
+}
@@ -21,9 +21,19 @@ public class CopySimOutput<T extends CopyableInterface<T>> implements SimOutputI
     m_targetState = targetState;
   }
 
+  /**
+   * Returns the object outputs are copied into. SimManager has models that support it write
+   * straight into this object, in which case setOutput() has nothing to copy.
+   */
+  public T getTargetState() {
+    return m_targetState;
+  }
+
   @Override
   public void setOutput(T newState) {
-    // Copy from output to target.
-    m_targetState.copyFrom(newState);
+    // Copy from output to target, unless the model already wrote into the target.
+    if (newState != m_targetState) {
+      m_targetState.copyFrom(newState);
+    }
   }
 }
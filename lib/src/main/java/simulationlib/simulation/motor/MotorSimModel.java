@@ -1,21 +1,72 @@
 package simulationlib.simulation.motor;
 
+import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.wpilibj.simulation.DCMotorSim;
-import simulationlib.simulation.framework.SimModelInterface;
+import simulationlib.simulation.framework.MultiFidelityModelInterface;
+import simulationlib.simulation.framework.QuiescentModelInterface;
+import simulationlib.simulation.framework.SimFidelity;
+import simulationlib.simulation.framework.SnapshotModelInterface;
 
 /**
  * Does the real-world simulation for the motor.
+ * <p>
+ * At FullDynamic fidelity, this runs WPILib's DCMotorSim. At FirstOrder, the speed
+ * approaches the speed the voltage would settle at, with the motor's time constant. At
+ * Kinematic, the speed is that settled speed right away.
+ * </p>
  */
-public class MotorSimModel implements SimModelInterface<Double, Double> {
+public class MotorSimModel implements MultiFidelityModelInterface<Double, Double>,
+    QuiescentModelInterface<Double, Double>, SnapshotModelInterface<Double, Double> {
+  private static final double kTickSeconds = 0.02;
+
+  // Moment of inertia of the load, in kg m^2, when none is given
+  public static final double kDefaultMomentOfInertia = 0.0005;
+
   private final DCMotor m_realMotorModel;
   private final DCMotorSim m_realMotorSim;
   private final double m_gearRatio;
 
+  // Output shaft speed per volt once settled, and how quickly it settles
+  private final double m_radPerSecPerVolt;
+  private final double m_timeConstantSeconds;
+
+  private SimFidelity m_fidelity;
+
+  // State for the FirstOrder and Kinematic fidelities, at the output shaft
+  private double m_positionRadians = 0;
+  private double m_velocityRadPerSec = 0;
+
+  // Input of the last updateSimulation(), NaN before the first one
+  private double m_lastPowerPercentage = Double.NaN;
+
   /**
    * Constructor.
    */
   public MotorSimModel(double gearRatio) {
+    this(gearRatio, SimFidelity.FullDynamic);
+  }
+
+  /**
+   * Constructor that starts at the given fidelity.
+   */
+  public MotorSimModel(double gearRatio, SimFidelity fidelity) {
+    this(gearRatio, fidelity, kDefaultMomentOfInertia);
+  }
+
+  /**
+   * Constructor that starts at the given fidelity, with the given moment of inertia (kg m^2)
+   * for the load the motor turns.
+   */
+  public MotorSimModel(double gearRatio, SimFidelity fidelity, double momentOfInertia) {
+    if (fidelity == null) {
+      throw new IllegalArgumentException("fidelity cannot be null");
+    }
+
+    if (momentOfInertia <= 0) {
+      throw new IllegalArgumentException("momentOfInertia must be >0");
+    }
+
     m_gearRatio = gearRatio;
 
     // Model a NEO motor (or any other motor)
@@ -23,8 +74,15 @@ public class MotorSimModel implements SimModelInterface<Double, Double> {
 
     // Create the motor simulation with motor model, gear ratio, and moment of
     // inertia
-    double motorMomentInertia = 0.0005;
-    m_realMotorSim = new DCMotorSim(m_realMotorModel, m_gearRatio, motorMomentInertia);
+    m_realMotorSim = new DCMotorSim(m_realMotorModel, m_gearRatio, momentOfInertia);
+
+    // Same plant as DCMotorSim: J * dw/dt = G * Kt / R * (V - G * w / Kv)
+    m_radPerSecPerVolt = m_realMotorModel.KvRadPerSecPerVolt / m_gearRatio;
+    m_timeConstantSeconds = momentOfInertia * m_realMotorModel.rOhms
+        * m_realMotorModel.KvRadPerSecPerVolt
+        / (m_gearRatio * m_gearRatio * m_realMotorModel.KtNMPerAmp);
+
+    m_fidelity = fidelity;
   }
 
   public boolean isModelBroken() {
@@ -32,19 +90,144 @@ public class MotorSimModel implements SimModelInterface<Double, Double> {
     return false;
   }
 
+  /**
+   * At rest when the power hasn't changed, and the motor turns less than inputEpsilon
+   * rotations per tick, e.g. it was stopped and has slowed down.
+   */
+  @Override
+  public boolean isAtRest(Double motorPowerPercentage, double inputEpsilon) {
+    if (Math.abs(motorPowerPercentage - m_lastPowerPercentage) > inputEpsilon) {
+      return false;
+    }
+
+    double velocityRadPerSec = (m_fidelity == SimFidelity.FullDynamic)
+        ? m_realMotorSim.getAngularVelocityRadPerSec()
+        : m_velocityRadPerSec;
+    return Math.abs(velocityRadPerSec) * kTickSeconds / (2 * Math.PI) <= inputEpsilon;
+  }
+
+  @Override
+  public boolean supportsFidelity(SimFidelity fidelity) {
+    return fidelity != null;
+  }
+
+  @Override
+  public SimFidelity getFidelity() {
+    return m_fidelity;
+  }
+
+  @Override
+  public void setFidelity(SimFidelity fidelity) {
+    if (fidelity == null) {
+      throw new IllegalArgumentException("fidelity cannot be null");
+    }
+
+    if (fidelity == m_fidelity) {
+      return;
+    }
+
+    // Carry the position and speed over to the new fidelity
+    if (m_fidelity == SimFidelity.FullDynamic) {
+      m_positionRadians = m_realMotorSim.getAngularPositionRad();
+      m_velocityRadPerSec = m_realMotorSim.getAngularVelocityRadPerSec();
+    }
+    else if (fidelity == SimFidelity.FullDynamic) {
+      m_realMotorSim.setState(VecBuilder.fill(m_positionRadians, m_velocityRadPerSec));
+    }
+
+    m_fidelity = fidelity;
+  }
+
+  /**
+   * The state is the position and speed at the output shaft, and the last power.
+   */
+  @Override
+  public int getStateSize() {
+    return 3;
+  }
+
+  @Override
+  public void saveState(double[] state, int offset) {
+    if (m_fidelity == SimFidelity.FullDynamic) {
+      state[offset] = m_realMotorSim.getAngularPositionRad();
+      state[offset + 1] = m_realMotorSim.getAngularVelocityRadPerSec();
+    }
+    else {
+      state[offset] = m_positionRadians;
+      state[offset + 1] = m_velocityRadPerSec;
+    }
+    state[offset + 2] = m_lastPowerPercentage;
+  }
+
+  /**
+   * Restores the state, and returns the encoder position (in Rotations) of that state.
+   */
+  @Override
+  public Double restoreState(double[] state, int offset) {
+    m_positionRadians = state[offset];
+    m_velocityRadPerSec = state[offset + 1];
+    m_lastPowerPercentage = state[offset + 2];
+
+    if (m_fidelity == SimFidelity.FullDynamic) {
+      m_realMotorSim.setState(VecBuilder.fill(m_positionRadians, m_velocityRadPerSec));
+    }
+
+    return m_positionRadians / (2 * Math.PI);
+  }
+
+  /**
+   * Puts the output shaft at positionRotations, turning at velocityRotationsPerSecond, e.g.
+   * to predict ahead from a measured speed.
+   */
+  public void setState(double positionRotations, double velocityRotationsPerSecond) {
+    m_positionRadians = positionRotations * 2 * Math.PI;
+    m_velocityRadPerSec = velocityRotationsPerSecond * 2 * Math.PI;
+
+    if (m_fidelity == SimFidelity.FullDynamic) {
+      m_realMotorSim.setState(VecBuilder.fill(m_positionRadians, m_velocityRadPerSec));
+    }
+  }
+
   /**
    * Runs 20ms simulation of the motor, and then returns the new encoder position (in Rotations).
    */
   public Double updateSimulation(Double motorPowerPercentage) {
+    return updateRotations(motorPowerPercentage);
+  }
+
+  /**
+   * Same as updateSimulation(), without boxing. At the FirstOrder and Kinematic fidelities,
+   * this and setState() don't allocate, so they can run in the robot's control loop.
+   */
+  public double updateRotations(double motorPowerPercentage) {
+    m_lastPowerPercentage = motorPowerPercentage;
+
     // Calculate the input voltage for the motor
     double inputVoltageVolts = motorPowerPercentage * 12.0;
 
-    // Update the motor simulation
-    m_realMotorSim.setInput(inputVoltageVolts);
-    m_realMotorSim.update(0.02);
+    if (m_fidelity == SimFidelity.FullDynamic) {
+      // Update the motor simulation
+      m_realMotorSim.setInput(inputVoltageVolts);
+      m_realMotorSim.update(kTickSeconds);
+
+      // Update the Encoder based on the simulation - the units are "number of
+      // rotations"
+      return m_realMotorSim.getAngularPositionRotations();
+    }
+
+    double settledVelocity = inputVoltageVolts * m_radPerSecPerVolt;
+    if (m_fidelity == SimFidelity.FirstOrder) {
+      // Exact solution of the lag over one tick, so it's stable at any time constant
+      double decay = Math.exp(-kTickSeconds / m_timeConstantSeconds);
+      m_positionRadians += settledVelocity * kTickSeconds
+          + (m_velocityRadPerSec - settledVelocity) * m_timeConstantSeconds * (1 - decay);
+      m_velocityRadPerSec = settledVelocity + (m_velocityRadPerSec - settledVelocity) * decay;
+    }
+    else {
+      m_velocityRadPerSec = settledVelocity;
+      m_positionRadians += settledVelocity * kTickSeconds;
+    }
 
-    // Update the Encoder based on the simulation - the units are "number of
-    // rotations"
-    return m_realMotorSim.getAngularPositionRotations();
+    return m_positionRadians / (2 * Math.PI);
   }
 }
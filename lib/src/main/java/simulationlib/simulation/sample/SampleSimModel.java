@@ -1,12 +1,12 @@
 package simulationlib.simulation.sample;
 
 import simulationlib.shuffle.MultiType;
-import simulationlib.simulation.framework.SimModelInterface;
+import simulationlib.simulation.framework.SnapshotModelInterface;
 
 /**
  * Does the real-world simulation for the sample (which just accumulates integer values as a sum).
  */
-public class SampleSimModel implements SimModelInterface<Integer, Integer> {
+public class SampleSimModel implements SnapshotModelInterface<Integer, Integer> {
   private int m_accumulator;
   private final int m_ratio;
   private final MultiType m_dashAccumulator = MultiType.of(0);
@@ -35,4 +35,21 @@ public class SampleSimModel implements SimModelInterface<Integer, Integer> {
 
     return m_accumulator;
   }
+
+  @Override
+  public int getStateSize() {
+    return 1;
+  }
+
+  @Override
+  public void saveState(double[] state, int offset) {
+    state[offset] = m_accumulator;
+  }
+
+  @Override
+  public Integer restoreState(double[] state, int offset) {
+    m_accumulator = (int) state[offset];
+    m_dashAccumulator.setInteger(m_accumulator);
+    return m_accumulator;
+  }
 }
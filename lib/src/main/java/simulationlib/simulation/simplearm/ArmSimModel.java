@@ -2,13 +2,14 @@ package simulationlib.simulation.simplearm;
 
 import edu.wpi.first.math.Pair;
 import simulationlib.helpers.UnitConversions;
-import simulationlib.simulation.framework.SimModelInterface;
+import simulationlib.jfr.ArmLimitEvent;
+import simulationlib.simulation.framework.SnapshotModelInterface;
 
 /**
  * Simulates the arm as-if it were a real-world object. E.g. if the arm
  * is extended too far, it will break.
  */
-public class ArmSimModel implements SimModelInterface<Double, Double> {
+public class ArmSimModel implements SnapshotModelInterface<Double, Double> {
   private double m_currentSignedDegrees;
   private boolean m_isCurrentSignedDegreesSet = false;
   private double m_topSignedDegreesBreak;
@@ -87,12 +88,16 @@ public class ArmSimModel implements SimModelInterface<Double, Double> {
       System.out.println("ARM: Angle is above top break limit of " + m_topSignedDegreesBreak);
       resetPositionTo = m_topSignedDegreesBreak;
       isValid = false;
+      ArmLimitEvent.commit(ArmLimitEvent.kBroken, "Above top break limit", oldSignedDegrees,
+          newSignedDegrees, resetPositionTo);
     }
 
     if (newSignedDegrees < m_bottomSignedDegreesBreak) {
       System.out.println("ARM: Angle is below break limit of " + m_bottomSignedDegreesBreak);
       resetPositionTo = m_bottomSignedDegreesBreak;
       isValid = false;
+      ArmLimitEvent.commit(ArmLimitEvent.kBroken, "Below bottom break limit", oldSignedDegrees,
+          newSignedDegrees, resetPositionTo);
     }
 
     return isValid ? null : new Pair<Boolean, Double>(isValid, resetPositionTo);
@@ -168,10 +173,41 @@ public class ArmSimModel implements SimModelInterface<Double, Double> {
       m_isCurrentSignedDegreesSet = true;
     }
 
-    // Add arm offset position back and convert to rotations units
-    double newAbsoluteEncoderPosition = m_encoderRotationsOffset
-        + UnitConversions.signedDegreesToRotation(newAbsoluteEncoderSignedDegrees);
+    return calcEncoderPosition(newAbsoluteEncoderSignedDegrees);
+  }
+
+  private double calcEncoderPosition(double signedDegrees) {
+    // Add arm offset position back and convert to rotations units. Like the real absolute
+    // encoder, the result wraps around to stay within [0, 1). Otherwise, an arm slightly
+    // below level would read as offset + 0.99 rotations.
+    return UnitConversions.clampRotation(m_encoderRotationsOffset
+        + UnitConversions.signedDegreesToRotation(signedDegrees));
+  }
+
+  /**
+   * The state is the angle, whether it was set yet, and whether the arm broke.
+   */
+  @Override
+  public int getStateSize() {
+    return 3;
+  }
+
+  @Override
+  public void saveState(double[] state, int offset) {
+    state[offset] = m_currentSignedDegrees;
+    state[offset + 1] = m_isCurrentSignedDegreesSet ? 1 : 0;
+    state[offset + 2] = m_isBroken ? 1 : 0;
+  }
+
+  /**
+   * Restores the state, and returns the absolute encoder position of that state.
+   */
+  @Override
+  public Double restoreState(double[] state, int offset) {
+    m_currentSignedDegrees = state[offset];
+    m_isCurrentSignedDegreesSet = state[offset + 1] != 0;
+    m_isBroken = state[offset + 2] != 0;
 
-    return newAbsoluteEncoderPosition;
+    return calcEncoderPosition(m_currentSignedDegrees);
   }
 }
@@ -5,6 +5,7 @@ import edu.wpi.first.wpilibj.simulation.DutyCycleEncoderSim;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 import simulationlib.helpers.UnitConversions;
+import simulationlib.jfr.ArmLimitEvent;
 import simulationlib.shuffle.MultiType;
 import simulationlib.shuffle.PrefixedConcurrentMap.Client;
 import simulationlib.simulation.framework.SimManager;
@@ -92,6 +93,8 @@ public class RamenArmSimLogic implements ExtendArmInterface {
 
       // Note that we don't let the arm move from where it was
       resetPositionTo = oldSignedDegrees;
+      ArmLimitEvent.commit(ArmLimitEvent.kBroken, "Grabber open in breakable range",
+          oldSignedDegrees, newSignedDegrees, resetPositionTo);
     }
 
     return isValid ? null : new Pair<Boolean, Double>(isValid, resetPositionTo);
@@ -119,6 +122,8 @@ public class RamenArmSimLogic implements ExtendArmInterface {
 
       // With grabber open, arm is STUCK and not able to go lower than a certain point
       resetPositionTo = m_grabberBreaksIfOpenBelowSignedDegreesLimit;
+      ArmLimitEvent.commit(ArmLimitEvent.kStuck, "Grabber open entering breakable range",
+          oldSignedDegrees, newSignedDegrees, resetPositionTo);
     }
 
     return isValid ? null : new Pair<Boolean, Double>(isValid, resetPositionTo);
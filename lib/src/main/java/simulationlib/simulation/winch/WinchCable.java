@@ -50,6 +50,16 @@ public class WinchCable {
     return m_windingOrientation;
   }
 
+  // Lets WinchSimModel update its cable every tick without creating a new one
+  void setUnspooledLen(double unspooledLenMeters, WindingOrientation windingOrientation) {
+    if (unspooledLenMeters < 0 || unspooledLenMeters > m_totalLenMeters) {
+      throw new IllegalArgumentException("unspooledLenMeters must be between 0 and totalLenMeters");
+    }
+
+    m_unspooledLenMeters = unspooledLenMeters;
+    m_windingOrientation = windingOrientation;
+  }
+
   public double calcSpooledLenMeters() {
     return m_totalLenMeters - m_unspooledLenMeters;
   }
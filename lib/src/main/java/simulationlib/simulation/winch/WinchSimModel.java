@@ -1,6 +1,8 @@
 package simulationlib.simulation.winch;
 
-import simulationlib.simulation.framework.SimModelInterface;
+import simulationlib.simulation.framework.QuiescentModelInterface;
+import simulationlib.simulation.framework.ReusableOutputModelInterface;
+import simulationlib.simulation.framework.SnapshotModelInterface;
 
 /**
  * Simulates a winch with a spool and a cable. The cable can be extended and retracted,
@@ -19,7 +21,8 @@ import simulationlib.simulation.framework.SimModelInterface;
  * Winding orientation - Whether cable is coming off the top of the spool or the bottom
  * </p>
  */
-public class WinchSimModel implements SimModelInterface<Double, WinchState> {
+public class WinchSimModel implements ReusableOutputModelInterface<Double, WinchState>,
+    QuiescentModelInterface<Double, WinchState>, SnapshotModelInterface<Double, WinchState> {
   /**
    * The WindingOrientation enum represents the orientation of the cable.
    * If the cable is towards the back of the robot, then we represent as BackOfRobot.
@@ -36,6 +39,8 @@ public class WinchSimModel implements SimModelInterface<Double, WinchState> {
   private double m_initialMotorRotations;
   private boolean m_isInitialMotorRotationsSet;
   private double m_motorPolarity;
+  // Input of the last updateSimulation(), NaN before the first one
+  private double m_lastRotations = Double.NaN;
 
   /**
    * Constructs a new WinchSimulation.
@@ -59,7 +64,8 @@ public class WinchSimModel implements SimModelInterface<Double, WinchState> {
     // Initialize fields
     m_spoolDiameterMeters = winchParams.spoolDiameterMeters;
 
-    m_winchCable = winchParams.winchCable;
+    // Copied, since the cable is updated in place every tick
+    m_winchCable = new WinchCable(winchParams.winchCable);
     m_initialWinchCable = new WinchCable(m_winchCable);
 
     m_motorPolarity = winchParams.invertMotor ? -1 : 1;
@@ -82,13 +88,12 @@ public class WinchSimModel implements SimModelInterface<Double, WinchState> {
         : winchCable.calcSpooledLenMeters();
   }
 
-  private WinchCable calcWinchCableFromSignedSpooledLen(double signedSpooledLen) {
+  private void updateWinchCableFromSignedSpooledLen(double signedSpooledLen) {
     WindingOrientation windingOrientation = (signedSpooledLen <= 0) ? WindingOrientation.BackOfRobot
         : WindingOrientation.FrontOfRobot;
     double absSpooledLen = Math.abs(signedSpooledLen);
 
-    return new WinchCable(getTotalLenMeters(), getTotalLenMeters() - absSpooledLen,
-        windingOrientation);
+    m_winchCable.setUnspooledLen(getTotalLenMeters() - absSpooledLen, windingOrientation);
   }
 
   private double getTotalLenMeters() {
@@ -116,22 +121,53 @@ public class WinchSimModel implements SimModelInterface<Double, WinchState> {
     return m_isBroken;
   }
 
+  /**
+   * Returns how many meters of cable unspool per motor rotation, negative if the cable
+   * spools up instead. Holds while the cable stays on the same side of the spool.
+   */
+  public double getUnspooledMetersPerRotation() {
+    double metersPerRotation = m_motorPolarity * Math.PI * m_spoolDiameterMeters;
+    return (getWindingOrientation() == WindingOrientation.BackOfRobot) ? metersPerRotation
+        : -metersPerRotation;
+  }
+
+  /**
+   * The winch only moves when the motor turns, so it's at rest while the motor rotations
+   * stay the same.
+   */
+  @Override
+  public boolean isAtRest(Double currentRotations, double inputEpsilon) {
+    return Math.abs(currentRotations - m_lastRotations) <= inputEpsilon;
+  }
+
   /**
    * Updates the current length of cable spooled. This method is called periodically
    * during simulation to update the state of the winch.
    */
   public WinchState updateSimulation(Double currentRotations) {
-    WinchState winchStateResult = new WinchState();
+    WinchState winchStateResult = createOutput();
+    updateSimulation(currentRotations, winchStateResult);
+    return winchStateResult;
+  }
+
+  @Override
+  public WinchState createOutput() {
+    return new WinchState();
+  }
+
+  /**
+   * Same as updateSimulation(currentRotations), but writes into winchStateResult.
+   */
+  @Override
+  public void updateSimulation(Double currentRotations, WinchState winchStateResult) {
+    m_lastRotations = currentRotations;
     double currentRotationsWithPolarity = currentRotations * m_motorPolarity;
     double deltaRotations;
 
     // If the winch is broken, there's nothing to update
     if (m_isBroken) {
-      winchStateResult.setCableUnspooledLen(getCableUnspooledLen());
-      winchStateResult.setStringUnspooledPercent(getCableUnspooledLen() / getTotalLenMeters());
-      winchStateResult.setWindingOrientation(getWindingOrientation());
-      winchStateResult.setWindingOrientationName(getWindingOrientation().name());
-      return winchStateResult;
+      writeOutput(winchStateResult);
+      return;
     }
 
     // How much has the motor turned since winch initialized?
@@ -152,13 +188,47 @@ public class WinchSimModel implements SimModelInterface<Double, WinchState> {
       m_isBroken = true;
     }
 
-    m_winchCable = calcWinchCableFromSignedSpooledLen(newCurrentSignedLenSpooled);
+    updateWinchCableFromSignedSpooledLen(newCurrentSignedLenSpooled);
+    writeOutput(winchStateResult);
+  }
 
+  private void writeOutput(WinchState winchStateResult) {
     winchStateResult.setCableUnspooledLen(getCableUnspooledLen());
     winchStateResult.setStringUnspooledPercent(getCableUnspooledLen() / getTotalLenMeters());
     winchStateResult.setWindingOrientation(getWindingOrientation());
     winchStateResult.setWindingOrientationName(getWindingOrientation().name());
+  }
+
+  /**
+   * The state is the cable, whether it broke, and the motor rotations it started from.
+   */
+  @Override
+  public int getStateSize() {
+    return 6;
+  }
+
+  @Override
+  public void saveState(double[] state, int offset) {
+    state[offset] = getCableUnspooledLen();
+    state[offset + 1] = (getWindingOrientation() == WindingOrientation.FrontOfRobot) ? 1 : 0;
+    state[offset + 2] = m_isBroken ? 1 : 0;
+    state[offset + 3] = m_initialMotorRotations;
+    state[offset + 4] = m_isInitialMotorRotationsSet ? 1 : 0;
+    state[offset + 5] = m_lastRotations;
+  }
 
+  @Override
+  public WinchState restoreState(double[] state, int offset) {
+    m_winchCable.setUnspooledLen(state[offset],
+        (state[offset + 1] != 0) ? WindingOrientation.FrontOfRobot
+            : WindingOrientation.BackOfRobot);
+    m_isBroken = state[offset + 2] != 0;
+    m_initialMotorRotations = state[offset + 3];
+    m_isInitialMotorRotationsSet = state[offset + 4] != 0;
+    m_lastRotations = state[offset + 5];
+
+    WinchState winchStateResult = createOutput();
+    writeOutput(winchStateResult);
     return winchStateResult;
   }
 }
@@ -0,0 +1,89 @@
+package simulationlib.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the SpanTracer class, with a fake clock.
+ */
+public class SpanTracerTest {
+  private long m_nowNanos;
+  private SpanTracer m_tracer;
+
+  @BeforeEach
+  public void setUp() {
+    m_nowNanos = 1000000;
+    m_tracer = new SpanTracer(3, () -> m_nowNanos);
+  }
+
+  private String writeTrace() throws IOException {
+    StringWriter writer = new StringWriter();
+    m_tracer.writeChromeTrace(writer);
+    return writer.toString();
+  }
+
+  @Test
+  public void sameNameShouldGetSameId() {
+    int armId = m_tracer.getNameId("ArmSystem.periodic");
+    int driveId = m_tracer.getNameId("DriveCommand.execute");
+
+    assertEquals(armId, m_tracer.getNameId("ArmSystem.periodic"));
+    assertNotEquals(armId, driveId);
+  }
+
+  @Test
+  public void spanShouldBeWrittenAsCompleteEvent() throws IOException {
+    int nameId = m_tracer.getNameId("Winch.updateSimulation");
+    long start = m_tracer.now() + 2500;
+    m_tracer.record(nameId, start, start + 1250);
+
+    String trace = writeTrace();
+    assertTrue(trace.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+    assertTrue(trace.contains("\"name\":\"Winch.updateSimulation\",\"ph\":\"X\""));
+    assertTrue(trace.contains("\"ts\":2.500,\"dur\":1.250}"));
+    assertEquals(1, m_tracer.getEventCount());
+  }
+
+  @Test
+  public void fullBufferShouldKeepNewestSpans() throws IOException {
+    for (int i = 0; i < 5; i++) {
+      m_tracer.record(m_tracer.getNameId("Span" + i), m_nowNanos, m_nowNanos + 1000);
+    }
+
+    String trace = writeTrace();
+    assertEquals(3, m_tracer.getEventCount());
+    assertFalse(trace.contains("Span1"));
+    assertTrue(trace.indexOf("Span2") < trace.indexOf("Span3"));
+    assertTrue(trace.indexOf("Span3") < trace.indexOf("Span4"));
+  }
+
+  @Test
+  public void disabledTracerShouldNotRecord() {
+    m_tracer.setEnabled(false);
+    m_tracer.record(m_tracer.getNameId("Span"), m_nowNanos, m_nowNanos + 1000);
+
+    assertEquals(0, m_tracer.getEventCount());
+  }
+
+  @Test
+  public void namesShouldBeEscaped() throws IOException {
+    m_tracer.record(m_tracer.getNameId("Quote\"Back\\slash"), m_nowNanos, m_nowNanos);
+
+    assertTrue(writeTrace().contains("\"name\":\"Quote\\\"Back\\\\slash\""));
+  }
+
+  @Test
+  public void badArgumentsShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> new SpanTracer(0, () -> 0));
+    assertThrows(IllegalArgumentException.class, () -> new SpanTracer(10, null));
+    assertThrows(IllegalArgumentException.class, () -> m_tracer.getNameId(""));
+  }
+}
@@ -0,0 +1,115 @@
+package simulationlib.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import simulationlib.shuffle.DeltaPublisher;
+import simulationlib.shuffle.MultiType;
+import simulationlib.shuffle.PrefixedConcurrentMap;
+import simulationlib.simulation.simplearm.ArmSimModel;
+import simulationlib.simulation.simplearm.ArmSimParams;
+import simulationlib.simulation.simplearm.ramenarmlogic.RamenArmSimLogic;
+
+/**
+ * Records the simulationlib JFR events with the robot-sim.jfc settings, and reads them back.
+ */
+public class JfrEventsTest {
+  private static Configuration loadRobotSimSettings() throws IOException, ParseException {
+    try (Reader reader = new InputStreamReader(
+        JfrEventsTest.class.getResourceAsStream("/simulationlib/jfr/robot-sim.jfc"),
+        StandardCharsets.UTF_8)) {
+      return Configuration.create(reader);
+    }
+  }
+
+  private static List<RecordedEvent> record(Runnable work, String eventName) throws Exception {
+    Path file = Files.createTempFile("robot-sim", ".jfr");
+    try (Recording recording = new Recording(loadRobotSimSettings())) {
+      recording.start();
+      work.run();
+      recording.stop();
+      recording.dump(file);
+
+      return RecordingFile.readAllEvents(file).stream()
+          .filter(event -> event.getEventType().getName().equals(eventName))
+          .collect(Collectors.toList());
+    }
+    finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  public void settingsShouldEnableSimulationEvents() throws Exception {
+    Configuration settings = loadRobotSimSettings();
+
+    assertEquals("true", settings.getSettings().get("simulationlib.SimTick#enabled"));
+    assertEquals("true", settings.getSettings().get("simulationlib.ArmLimit#enabled"));
+    assertEquals("true", settings.getSettings().get("simulationlib.DashboardPublish#enabled"));
+    assertEquals("true", settings.getSettings().get("simulationlib.Command#enabled"));
+  }
+
+  @Test
+  public void armPastTopLimitShouldRecordBrokenEvent() throws Exception {
+    ArmSimParams armParams = new ArmSimParams(45, -45, 0);
+    RamenArmSimLogic ramenArmLogic = new RamenArmSimLogic(-30, armParams);
+    ramenArmLogic.setGrabberOpenSupplier(() -> false);
+    ArmSimModel armModel = new ArmSimModel(armParams, ramenArmLogic);
+
+    List<RecordedEvent> events = record(() -> {
+      armModel.updateSimulation(0.0);
+      armModel.updateSimulation(60.0);
+    }, "simulationlib.ArmLimit");
+
+    assertEquals(1, events.size());
+    assertEquals(ArmLimitEvent.kBroken, events.get(0).getString("kind"));
+    assertEquals(60, events.get(0).getDouble("newSignedDegrees"), 1e-9);
+    assertEquals(45, events.get(0).getDouble("resetSignedDegrees"), 1e-9);
+  }
+
+  @Test
+  public void dashboardUpdateShouldRecordPublishEvent() throws Exception {
+    PrefixedConcurrentMap<Supplier<MultiType>> map = new PrefixedConcurrentMap<>();
+    map.getClientWithPrefix("Arm").addItem("Power", () -> MultiType.of(0.5));
+    DeltaPublisher publisher = new DeltaPublisher(map, 0, 1.0);
+    publisher.addListener("Arm/Power", "Double", value -> {
+    });
+
+    List<RecordedEvent> events = record(() -> publisher.update(0),
+        "simulationlib.DashboardPublish");
+
+    assertEquals(1, events.size());
+    assertEquals(1, events.get(0).getInt("propertyCount"));
+    assertEquals(1, events.get(0).getInt("publishedCount"));
+  }
+
+  @Test
+  public void commandEventShouldBeRecorded() throws Exception {
+    assertTrue(JfrSupport.isAvailable());
+
+    List<RecordedEvent> events = record(
+        () -> CommandEvent.commit("SetWinchToAngle", CommandEvent.kInitialize),
+        "simulationlib.Command");
+
+    assertEquals(1, events.size());
+    assertNotNull(events.get(0).getStartTime());
+    assertEquals("SetWinchToAngle", events.get(0).getString("command"));
+    assertEquals(CommandEvent.kInitialize, events.get(0).getString("action"));
+  }
+}
@@ -0,0 +1,127 @@
+package simulationlib.shuffle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the DeltaPublisher class.
+ */
+public class DeltaPublisherTest {
+  private PrefixedConcurrentMap<Supplier<MultiType>> m_map;
+  private MultiType m_power;
+  private MultiType m_isBroken;
+
+  /**
+   * Runs before each test.
+   */
+  @BeforeEach
+  public void setUp() {
+    m_map = new PrefixedConcurrentMap<>();
+    m_power = MultiType.of(0.0);
+    m_isBroken = MultiType.of(false);
+
+    m_map.getClientWithPrefix("Arm").addItem("Power", () -> m_power);
+    m_map.getClientWithPrefix("Arm").addItem("IsBroken", () -> m_isBroken);
+  }
+
+  @Test
+  public void unchangedValueShouldOnlyBePublishedOnceUntilMaxPeriod() {
+    DeltaPublisher publisher = new DeltaPublisher(m_map, 0, 1.0);
+    List<Double> published = new ArrayList<>();
+    publisher.addListener("Arm/Power", "Double", v -> published.add(v.getDouble().get()));
+
+    for (int i = 0; i < 50; i++) {
+      publisher.update(i * 0.02);
+    }
+
+    assertEquals(1, published.size());
+    assertEquals(1, publisher.getVersion("Arm/Power"));
+
+    // Republished once max period has gone by
+    publisher.update(1.0);
+    assertEquals(2, published.size());
+    assertEquals(1, publisher.getVersion("Arm/Power"));
+  }
+
+  @Test
+  public void changedValueShouldBePublishedAtMostOncePerMinPeriod() {
+    DeltaPublisher publisher = new DeltaPublisher(m_map, 0.1, 1.0);
+    List<Double> published = new ArrayList<>();
+    publisher.addListener("Arm/Power", "Double", v -> published.add(v.getDouble().get()));
+
+    // Changes every 20ms for 1 second
+    for (int i = 0; i < 50; i++) {
+      m_power.setDouble(i * 0.01);
+      publisher.update(i * 0.02);
+    }
+
+    // At t=0, 0.1, ..., 0.9 (give or take floating point rounding)
+    assertEquals(10, published.size(), 1);
+    assertEquals(0.0, published.get(0), 0);
+  }
+
+  @Test
+  public void periodsShouldApplyByNameAndFullKey() {
+    DeltaPublisher publisher = new DeltaPublisher(m_map, 0, 100);
+    publisher.setPeriods("IsBroken", 0.5, 2.0);
+    publisher.setPeriods("Arm/Power", 0, 0.2);
+
+    int[] brokenCount = new int[1];
+    int[] powerCount = new int[1];
+    publisher.addListener("Arm/IsBroken", "Boolean", v -> brokenCount[0]++);
+    publisher.addListener("Arm/Power", "Double", v -> powerCount[0]++);
+
+    for (int i = 0; i <= 200; i++) {
+      m_isBroken.setBoolean(i % 2 == 0);
+      publisher.update(i * 0.02);
+    }
+
+    // IsBroken flips every loop, but only goes out at 2 Hz. Power never changes, but is
+    // republished every 0.2 seconds.
+    assertEquals(9, brokenCount[0], 1);
+    assertEquals(21, powerCount[0], 1);
+  }
+
+  @Test
+  public void lateListenerShouldGetCurrentValue() {
+    DeltaPublisher publisher = new DeltaPublisher(m_map, 0, Double.POSITIVE_INFINITY);
+    List<Double> first = new ArrayList<>();
+    List<Double> second = new ArrayList<>();
+
+    publisher.addListener("Arm/Power", "Double", v -> first.add(v.getDouble().get()));
+    publisher.update(0);
+    publisher.addListener("Arm/Power", "Double", v -> second.add(v.getDouble().get()));
+    publisher.update(0.02);
+
+    assertEquals(1, second.size());
+    assertEquals(1, publisher.getVersion("Arm/Power"));
+  }
+
+  @Test
+  public void missingOrWrongTypeKeyShouldThrow() {
+    DeltaPublisher publisher = new DeltaPublisher(m_map, 0, 1);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> publisher.addListener("Arm/Bogus", "Double", v -> { }));
+    assertThrows(IllegalArgumentException.class,
+        () -> publisher.addListener("Arm/Power", "Boolean", v -> { }));
+    assertThrows(IllegalArgumentException.class, () -> new DeltaPublisher(m_map, 1, 0.5));
+  }
+
+  @Test
+  public void hasSameValueShouldCompareTypeAndValue() {
+    assertTrue(MultiType.of(1.0).hasSameValue(MultiType.of(1.0)));
+    assertFalse(MultiType.of(1.0).hasSameValue(MultiType.of(2.0)));
+    assertFalse(MultiType.of(1).hasSameValue(MultiType.of(1.0)));
+    assertFalse(MultiType.of("a").hasSameValue(null));
+    assertTrue(MultiType.of("a").copy().hasSameValue(MultiType.of("a")));
+  }
+}
@@ -121,4 +121,31 @@ public class PivotMechanismTest {
         getTestingHeightFromWinchToPivotPoint() + getTestingLengthFromEdgeToPivot(),
         false);
   }
+
+  @Test
+  public void clampedCalculationsShouldMatchResultsInRange() {
+    for (double degrees = -90; degrees <= 90; degrees += 15) {
+      double stringLen = m_pivotMechanism.calcStringLengthForSignedDegrees(degrees).m_value;
+
+      assertEquals(stringLen, m_pivotMechanism.calcClampedStringLengthForSignedDegrees(degrees),
+          UnitConversions.kDoubleTolerance);
+      assertEquals(degrees, m_pivotMechanism.calcClampedSignedDegreesForStringLength(stringLen),
+          UnitConversions.kAngleTolerance);
+    }
+  }
+
+  @Test
+  public void clampedCalculationsShouldStopAtStraightUpAndDown() {
+    double minStringLen = getTestingHeightFromWinchToPivotPoint()
+        - getTestingLengthFromEdgeToPivot();
+    double maxStringLen = getTestingHeightFromWinchToPivotPoint()
+        + getTestingLengthFromEdgeToPivot();
+
+    assertEquals(90, m_pivotMechanism.calcClampedSignedDegreesForStringLength(minStringLen - 0.1),
+        UnitConversions.kAngleTolerance);
+    assertEquals(-90, m_pivotMechanism.calcClampedSignedDegreesForStringLength(maxStringLen + 0.1),
+        UnitConversions.kAngleTolerance);
+    assertEquals(minStringLen, m_pivotMechanism.calcClampedStringLengthForSignedDegrees(120),
+        UnitConversions.kDoubleTolerance);
+  }
 }
@@ -0,0 +1,178 @@
+package simulationlib.simulation.chargestation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ChargeStationSimModel class.
+ */
+public class ChargeStationSimModelTest {
+  private final double m_centerX = 4.0;
+  private final double m_centerY = 2.0;
+  private final double m_maxTiltDegrees = 15;
+  private ChargeStationParams m_params;
+
+  /**
+   * Runs before each test.
+   */
+  @BeforeEach
+  public void setUp() {
+    m_params = new ChargeStationParamsBuilder()
+        .setCenterXMeters(m_centerX)
+        .setCenterYMeters(m_centerY)
+        .setWidthMeters(2.5)
+        .setPlatformLengthMeters(1.2)
+        .setRampLengthMeters(0.4)
+        .setPlatformHeightMeters(0.16)
+        .setMaxTiltDegrees(m_maxTiltDegrees)
+        .setRobotMassKg(50)
+        .setPlatformMomentOfInertia(4)
+        .setDampingCoefficient(60)
+        .setFrictionTorque(20)
+        .setCenteringStiffness(550)
+        .build();
+  }
+
+  private ChargeStationState runTicks(ChargeStationSimModel model,
+      double x,
+      double y,
+      double headingRadians,
+      int ticks) {
+
+    ChargeStationState result = null;
+    for (int i = 0; i < ticks; i++) {
+      result = model.updateSimulation(x, y, headingRadians);
+    }
+
+    return result;
+  }
+
+  @Test
+  public void creatingChargeStationShouldSucceed() {
+    ChargeStationSimModel model = new ChargeStationSimModel(m_params);
+    assertTrue(model != null);
+    assertFalse(model.isModelBroken());
+  }
+
+  @Test
+  public void nullParamsShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ChargeStationSimModel(null);
+    });
+  }
+
+  @Test
+  public void invalidMaxTiltShouldThrow() {
+    m_params.maxTiltDegrees = 0;
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ChargeStationSimModel(m_params);
+    });
+  }
+
+  @Test
+  public void robotOffStationShouldStayLevel() {
+    ChargeStationSimModel model = new ChargeStationSimModel(m_params);
+    ChargeStationState state = runTicks(model, m_centerX - 3, m_centerY, 0, 100);
+
+    assertFalse(state.getIsRobotOnStation());
+    assertEquals(0, state.getPlatformAngleDegrees(), 1e-9);
+    assertEquals(0, state.getRobotPitchDegrees(), 1e-9);
+  }
+
+  @Test
+  public void robotBesideStationShouldNotBeOnStation() {
+    ChargeStationSimModel model = new ChargeStationSimModel(m_params);
+    ChargeStationState state = runTicks(model, m_centerX, m_centerY + 2, 0, 10);
+
+    assertFalse(state.getIsRobotOnStation());
+  }
+
+  @Test
+  public void robotPastCenterShouldTipPlatformToMaxTilt() {
+    ChargeStationSimModel model = new ChargeStationSimModel(m_params);
+    ChargeStationState state = runTicks(model, m_centerX + 0.4, m_centerY, 0, 150);
+
+    assertTrue(state.getIsRobotOnStation());
+    assertEquals(-m_maxTiltDegrees, state.getPlatformAngleDegrees(), 1e-6);
+
+    // Facing +X, the robot is driving downhill
+    assertEquals(-m_maxTiltDegrees, state.getRobotPitchDegrees(), 1e-6);
+  }
+
+  @Test
+  public void platformShouldReturnToLevelAfterRobotLeaves() {
+    ChargeStationSimModel model = new ChargeStationSimModel(m_params);
+    runTicks(model, m_centerX + 0.4, m_centerY, 0, 150);
+    ChargeStationState state = runTicks(model, m_centerX + 3, m_centerY, 0, 150);
+
+    // Friction can hold the platform slightly off level
+    double frictionLimitDegrees = Math.toDegrees(m_params.frictionTorque
+        / m_params.centeringStiffness);
+    assertFalse(state.getIsRobotOnStation());
+    assertTrue(Math.abs(state.getPlatformAngleDegrees()) <= frictionLimitDegrees);
+  }
+
+  @Test
+  public void robotNearCenterShouldStayLevel() {
+    ChargeStationSimModel model = new ChargeStationSimModel(m_params);
+
+    // Robot weight torque is less than the hinge friction here
+    ChargeStationState state = runTicks(model, m_centerX + 0.02, m_centerY, 0, 150);
+
+    assertTrue(state.getIsRobotOnStation());
+    assertEquals(0, state.getPlatformAngleDegrees(), 1e-9);
+  }
+
+  @Test
+  public void robotOnRampFacingStationShouldPitchUp() {
+    ChargeStationSimModel model = new ChargeStationSimModel(m_params);
+    ChargeStationState state = model.updateSimulation(m_centerX - 0.8, m_centerY, 0);
+
+    assertTrue(state.getIsRobotOnStation());
+    assertTrue(state.getRobotPitchDegrees() > 0);
+  }
+
+  @Test
+  public void robotFacingOppositeDirectionShouldFlipPitch() {
+    ChargeStationSimModel forwardModel = new ChargeStationSimModel(m_params);
+    ChargeStationSimModel backwardModel = new ChargeStationSimModel(m_params);
+
+    ChargeStationState forwardState = runTicks(forwardModel, m_centerX - 0.4, m_centerY, 0, 50);
+    ChargeStationState backwardState = runTicks(backwardModel,
+        m_centerX - 0.4,
+        m_centerY,
+        Math.PI,
+        50);
+
+    assertEquals(forwardState.getRobotPitchDegrees(),
+        -backwardState.getRobotPitchDegrees(),
+        1e-6);
+    assertTrue(forwardState.getRobotPitchDegrees() != 0);
+  }
+
+  @Test
+  public void restoredStateShouldRunTheSameAgain() {
+    ChargeStationSimModel model = new ChargeStationSimModel(m_params);
+    ChargeStationState savedState = runTicks(model, m_centerX + 0.3, m_centerY, 0.2, 10);
+    double[] state = new double[model.getStateSize() + 1];
+    model.saveState(state, 1);
+
+    // Still tipping, so the platform's speed matters too
+    ChargeStationState firstRun = runTicks(model, m_centerX + 0.3, m_centerY, 0.2, 10);
+
+    ChargeStationState restored = model.restoreState(state, 1);
+    assertEquals(savedState.getPlatformAngleDegrees(), restored.getPlatformAngleDegrees(), 0);
+    assertEquals(savedState.getRobotPitchDegrees(), restored.getRobotPitchDegrees(), 0);
+    assertEquals(savedState.getRobotRollDegrees(), restored.getRobotRollDegrees(), 0);
+    assertTrue(restored.getIsRobotOnStation());
+
+    ChargeStationState secondRun = runTicks(model, m_centerX + 0.3, m_centerY, 0.2, 10);
+    assertEquals(firstRun.getPlatformAngleDegrees(), secondRun.getPlatformAngleDegrees(), 0);
+  }
+}
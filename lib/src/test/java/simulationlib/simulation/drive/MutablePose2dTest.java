@@ -0,0 +1,104 @@
+package simulationlib.simulation.drive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the MutablePose2d class.
+ */
+public class MutablePose2dTest {
+  private static final double kEpsilon = 1e-9;
+
+  @Test
+  public void setRelativeToShouldMoveAndTurnByOrigin() {
+    // Same start as TankDriveSystemSim: facing the grid, so +X relative is -X on the field
+    Pose2d origin = new Pose2d(1.9, 2.75, Rotation2d.fromDegrees(180));
+    Pose2d relativePose = new Pose2d(1, 0.5, Rotation2d.fromDegrees(90));
+
+    MutablePose2d pose = new MutablePose2d();
+    pose.setRelativeTo(origin, relativePose);
+
+    assertEquals(0.9, pose.getXMeters(), kEpsilon);
+    assertEquals(2.25, pose.getYMeters(), kEpsilon);
+    assertEquals(Math.toRadians(-90), pose.getHeadingRadians(), kEpsilon);
+  }
+
+  @Test
+  public void toPose2dShouldOnlyCreatePoseWhenChanged() {
+    MutablePose2d pose = new MutablePose2d(1, 2, 0.5);
+
+    Pose2d first = pose.toPose2d();
+    assertEquals(1, first.getX(), kEpsilon);
+    assertEquals(2, first.getY(), kEpsilon);
+    assertEquals(0.5, first.getRotation().getRadians(), kEpsilon);
+
+    pose.set(1, 2, 0.5);
+    assertSame(first, pose.toPose2d());
+
+    pose.set(1, 2.5, 0.5);
+    Pose2d second = pose.toPose2d();
+    assertNotSame(first, second);
+    assertEquals(2.5, second.getY(), kEpsilon);
+  }
+
+  @Test
+  public void setFromPose2dShouldKeepThatPose() {
+    Pose2d original = new Pose2d(3, 4, new Rotation2d(1));
+    MutablePose2d pose = new MutablePose2d();
+    pose.set(original);
+
+    assertEquals(3, pose.getXMeters(), kEpsilon);
+    assertEquals(4, pose.getYMeters(), kEpsilon);
+    assertEquals(1, pose.getHeadingRadians(), kEpsilon);
+    assertSame(original, pose.toPose2d());
+  }
+
+  @Test
+  public void copyFromShouldCopyValues() {
+    MutablePose2d source = new MutablePose2d(5, 6, -1);
+    MutablePose2d target = new MutablePose2d();
+    target.copyFrom(source);
+
+    assertEquals(5, target.getXMeters(), kEpsilon);
+    assertEquals(6, target.getYMeters(), kEpsilon);
+    assertEquals(-1, target.getHeadingRadians(), kEpsilon);
+
+    // Changing the source afterwards doesn't change the copy
+    source.set(0, 0, 0);
+    assertEquals(5, target.toPose2d().getX(), kEpsilon);
+  }
+
+  @Test
+  public void driveStateCopyFromShouldCopyPoses() {
+    DriveState source = new DriveState();
+    source.setRelativePose(1, 2, 0.25);
+    source.setPhysicalWorldPoseFromRelative(new Pose2d(10, 20, new Rotation2d(0)),
+        source.getRelativePose());
+    source.setVelocities(1.5, -0.5);
+
+    DriveState target = new DriveState();
+    target.copyFrom(source);
+
+    assertEquals(1, target.getRelativePose().getX(), kEpsilon);
+    assertEquals(11, target.getPhysicalWorldMutablePose().getXMeters(), kEpsilon);
+    assertEquals(22, target.getPhysicalWorldPose().getY(), kEpsilon);
+    assertEquals(0.25, target.getPhysicalWorldPose().getRotation().getRadians(), kEpsilon);
+    assertEquals(1.5, target.getLeftVelocity(), kEpsilon);
+    assertEquals(-0.5, target.getRightVelocity(), kEpsilon);
+  }
+
+  @Test
+  public void nullArgumentsShouldThrow() {
+    MutablePose2d pose = new MutablePose2d();
+
+    assertThrows(IllegalArgumentException.class, () -> pose.set(null));
+    assertThrows(IllegalArgumentException.class, () -> pose.copyFrom(null));
+    assertThrows(IllegalArgumentException.class, () -> pose.setRelativeTo(null, new Pose2d()));
+  }
+}
@@ -295,4 +295,47 @@ class ExtenderSimModelTest {
 
     assertEquals(0.231, outputState.getExtendedLen(), 0.001);
   }
+
+  @Test
+  public void simManagerShouldWriteStraightIntoCopySimOutputTarget() {
+    Double[] inputMotorRotations = new Double[] {
+        0.0
+    };
+
+    // Counts copies, to check that SimManager skips them
+    int[] copyCount = new int[] {
+        0
+    };
+    ExtenderState outputState = new ExtenderState() {
+      @Override
+      public void copyFrom(ExtenderState other) {
+        copyCount[0]++;
+        super.copyFrom(other);
+      }
+    };
+    setInputsAndOutputs(m_simManager, inputMotorRotations, outputState);
+
+    inputMotorRotations[0] = 0.1;
+    m_simManager.simulationPeriodic();
+
+    assertEquals(0.231, outputState.getExtendedLen(), 0.001);
+    assertEquals(0, copyCount[0]);
+  }
+
+  @Test
+  public void updateSimulationIntoOutputShouldMatchReturnedOutput() {
+    ExtenderSimModel returningModel = new ExtenderSimModel(0.0,
+        new ExtenderParams(0.1, 0.5, 0.2, false));
+    ExtenderSimModel reusingModel = new ExtenderSimModel(0.0,
+        new ExtenderParams(0.1, 0.5, 0.2, false));
+    ExtenderState reusedState = reusingModel.createOutput();
+
+    for (int i = 0; i < 5; i++) {
+      ExtenderState returnedState = returningModel.updateSimulation(i * 0.05);
+      reusingModel.updateSimulation(i * 0.05, reusedState);
+
+      assertEquals(returnedState.getExtendedLen(), reusedState.getExtendedLen(), 1e-12);
+      assertEquals(returnedState.getExtendedPercent(), reusedState.getExtendedPercent(), 1e-12);
+    }
+  }
 }
@@ -0,0 +1,232 @@
+package simulationlib.simulation.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simulationlib.simulation.framework.inputoutputs.CopySimOutput;
+import simulationlib.simulation.framework.inputoutputs.CopyableInterface;
+import simulationlib.simulation.framework.inputoutputs.LambdaSimInput;
+import simulationlib.simulation.framework.inputoutputs.LambdaSimOutput;
+import simulationlib.simulation.sample.SampleSimModel;
+
+/**
+ * Tests what SimManager does between the input handler, the model and the output handler.
+ */
+public class SimManagerTest {
+  private static final double kInputEpsilon = 0.01;
+
+  // Output of CountingModel, which counts how many times it was copied
+  private static class CountingState implements CopyableInterface<CountingState> {
+    double m_position = 0;
+    int m_copyCount = 0;
+
+    @Override
+    public void copyFrom(CountingState other) {
+      m_position = other.m_position;
+      m_copyCount++;
+    }
+  }
+
+  // A model whose position is twice its input, which counts how many times it was updated
+  private static class CountingModel
+      implements QuiescentModelInterface<Double, CountingState> {
+    int m_updateCount = 0;
+    double m_lastInput = 0;
+
+    @Override
+    public CountingState updateSimulation(Double input) {
+      m_updateCount++;
+      m_lastInput = input;
+
+      CountingState result = new CountingState();
+      result.m_position = 2 * input;
+      return result;
+    }
+
+    @Override
+    public boolean isModelBroken() {
+      return false;
+    }
+
+    @Override
+    public boolean isAtRest(Double input, double inputEpsilon) {
+      return Math.abs(input - m_lastInput) <= inputEpsilon;
+    }
+  }
+
+  // Same, but writes into the output it's given, which it remembers
+  private static class ReusableCountingModel extends CountingModel
+      implements ReusableOutputModelInterface<Double, CountingState> {
+    CountingState m_lastOutput = null;
+
+    @Override
+    public CountingState createOutput() {
+      return new CountingState();
+    }
+
+    @Override
+    public void updateSimulation(Double input, CountingState output) {
+      m_updateCount++;
+      m_lastInput = input;
+      m_lastOutput = output;
+      output.m_position = 2 * input;
+    }
+  }
+
+  private CountingModel m_model;
+  private CountingState m_target;
+  private SimManager<Double, CountingState> m_simManager;
+  private double m_input = 0;
+
+  /**
+   * Runs before each test.
+   */
+  @BeforeEach
+  public void setUp() {
+    m_model = new CountingModel();
+    m_target = new CountingState();
+    m_input = 0.5;
+    m_simManager = new SimManager<Double, CountingState>(m_model, null, null, () -> true);
+
+    // Setting both handlers runs the model once, so the output handler has an output before
+    // the first tick
+    m_simManager.setInputHandler(new LambdaSimInput<Double>(() -> m_input));
+    m_simManager.setOutputHandler(new CopySimOutput<CountingState>(m_target));
+  }
+
+  private void tick(int ticks) {
+    for (int i = 0; i < ticks; i++) {
+      m_simManager.simulationPeriodic();
+    }
+  }
+
+  @Test
+  public void everyTickShouldUpdateModelWithoutQuiescence() {
+    tick(5);
+
+    assertFalse(m_simManager.isQuiescenceEnabled());
+    assertEquals(6, m_model.m_updateCount);
+    assertEquals(0, m_simManager.getRestingTickCount());
+    assertEquals(1.0, m_target.m_position, 1e-9);
+  }
+
+  @Test
+  public void modelAtRestShouldBeSkipped() {
+    m_simManager.enableQuiescence(kInputEpsilon);
+    tick(5);
+
+    assertEquals(1, m_model.m_updateCount);
+    assertEquals(5, m_simManager.getRestingTickCount());
+    assertEquals(1.0, m_target.m_position, 1e-9);
+  }
+
+  @Test
+  public void inputChangeShouldWakeModel() {
+    m_simManager.enableQuiescence(kInputEpsilon);
+    tick(3);
+
+    // Within the epsilon, still at rest
+    m_input = 0.505;
+    tick(1);
+    assertEquals(1, m_model.m_updateCount);
+    assertEquals(4, m_simManager.getRestingTickCount());
+
+    m_input = 0.7;
+    tick(1);
+    assertEquals(2, m_model.m_updateCount);
+    assertEquals(4, m_simManager.getRestingTickCount());
+    assertEquals(1.4, m_target.m_position, 1e-9);
+
+    // And back at rest at the new input
+    tick(2);
+    assertEquals(2, m_model.m_updateCount);
+    assertEquals(6, m_simManager.getRestingTickCount());
+    assertEquals(1.4, m_target.m_position, 1e-9);
+  }
+
+  @Test
+  public void disablingQuiescenceShouldUpdateEveryTick() {
+    m_simManager.enableQuiescence(kInputEpsilon);
+    tick(3);
+    m_simManager.disableQuiescence();
+    tick(3);
+
+    assertEquals(4, m_model.m_updateCount);
+    assertEquals(3, m_simManager.getRestingTickCount());
+  }
+
+  @Test
+  public void reusableModelShouldWriteStraightIntoCopyTarget() {
+    ReusableCountingModel model = new ReusableCountingModel();
+    CountingState target = new CountingState();
+    SimManager<Double, CountingState> simManager = new SimManager<Double, CountingState>(model,
+        null, null, () -> true);
+    simManager.setInputHandler(new LambdaSimInput<Double>(() -> m_input));
+    simManager.setOutputHandler(new CopySimOutput<CountingState>(target));
+
+    for (int i = 1; i <= 5; i++) {
+      m_input = 0.1 * i;
+      simManager.simulationPeriodic();
+
+      assertSame(target, model.m_lastOutput);
+      assertEquals(0.2 * i, target.m_position, 1e-9);
+    }
+
+    assertEquals(6, model.m_updateCount);
+    assertEquals(0, target.m_copyCount);
+  }
+
+  @Test
+  public void otherHandlerShouldGetTheSameOutputEveryTick() {
+    ReusableCountingModel model = new ReusableCountingModel();
+    SimManager<Double, CountingState> simManager = new SimManager<Double, CountingState>(model,
+        null, null, () -> true);
+    // The first output, then the last one
+    CountingState[] outputs = new CountingState[2];
+    simManager.setInputHandler(new LambdaSimInput<Double>(() -> m_input));
+    simManager.setOutputHandler(new LambdaSimOutput<CountingState>(output -> {
+      if (outputs[0] == null) {
+        outputs[0] = output;
+      }
+
+      outputs[1] = output;
+    }));
+
+    for (int i = 1; i <= 5; i++) {
+      m_input = 0.1 * i;
+      simManager.simulationPeriodic();
+
+      assertSame(outputs[0], outputs[1]);
+      assertEquals(0.2 * i, outputs[1].m_position, 1e-9);
+    }
+  }
+
+  @Test
+  public void otherModelShouldBeCopiedIntoTarget() {
+    for (int i = 1; i <= 5; i++) {
+      m_input = 0.1 * i;
+      tick(1);
+
+      assertEquals(0.2 * i, m_target.m_position, 1e-9);
+    }
+
+    // Once more when the handlers were set
+    assertEquals(6, m_target.m_copyCount);
+  }
+
+  @Test
+  public void invalidQuiescenceShouldThrow() {
+    SimManager<Integer, Integer> sampleManager = new SimManager<Integer, Integer>(
+        new SampleSimModel(2), null, null, () -> true);
+
+    assertTrue(m_simManager.supportsQuiescence());
+    assertFalse(sampleManager.supportsQuiescence());
+    assertThrows(IllegalStateException.class, () -> sampleManager.enableQuiescence(0));
+    assertThrows(IllegalArgumentException.class, () -> m_simManager.enableQuiescence(-1));
+  }
+}
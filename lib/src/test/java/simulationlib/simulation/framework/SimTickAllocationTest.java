@@ -0,0 +1,219 @@
+package simulationlib.simulation.framework;
+
+import static simulationlib.testing.AllocationBudget.assertWithinBudget;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simulationlib.shuffle.MultiType;
+import simulationlib.shuffle.PrefixedConcurrentMap;
+import simulationlib.shuffle.PrefixedConcurrentMap.Client;
+import simulationlib.simulation.armangle.ArmAngleSimModel;
+import simulationlib.simulation.armangle.ArmAngleState;
+import simulationlib.simulation.armangle.PivotMechanism;
+import simulationlib.simulation.chargestation.ChargeStationDashboardPlugin;
+import simulationlib.simulation.chargestation.ChargeStationParamsBuilder;
+import simulationlib.simulation.chargestation.ChargeStationSimModel;
+import simulationlib.simulation.chargestation.ChargeStationState;
+import simulationlib.simulation.drive.ArcadeInputParams;
+import simulationlib.simulation.drive.DriveDashboardPlugin;
+import simulationlib.simulation.drive.DriveInputState;
+import simulationlib.simulation.drive.DriveSimModel;
+import simulationlib.simulation.drive.DriveState;
+import simulationlib.simulation.extender.ExtenderDashboardPlugin;
+import simulationlib.simulation.extender.ExtenderParams;
+import simulationlib.simulation.extender.ExtenderSimModel;
+import simulationlib.simulation.extender.ExtenderState;
+import simulationlib.simulation.framework.inputoutputs.CopySimOutput;
+import simulationlib.simulation.framework.inputoutputs.LambdaSimInput;
+import simulationlib.simulation.framework.inputoutputs.LambdaSimOutput;
+import simulationlib.simulation.motor.MotorDashboardPlugin;
+import simulationlib.simulation.motor.MotorSimModel;
+import simulationlib.simulation.simplearm.ArmDashboardPlugin;
+import simulationlib.simulation.simplearm.ArmSimModel;
+import simulationlib.simulation.simplearm.ArmSimParams;
+import simulationlib.simulation.simplearm.ramenarmlogic.RamenArmSimLogic;
+import simulationlib.simulation.winch.WinchCable;
+import simulationlib.simulation.winch.WinchDashboardPlugin;
+import simulationlib.simulation.winch.WinchParams;
+import simulationlib.simulation.winch.WinchSimModel;
+import simulationlib.simulation.winch.WinchSimModel.WindingOrientation;
+import simulationlib.simulation.winch.WinchState;
+import simulationlib.testing.AllocationBudget;
+
+/**
+ * Measures how many bytes each SimManager configuration allocates per simulationPeriodic()
+ * tick, and fails if that goes over its budget. The configurations match the ones in the
+ * robot's subsystem *Sim classes, dashboard plugins included.
+ * <p>
+ * The budgets are per tick, measured after the JIT has warmed up, with some headroom for
+ * other JVMs. When a hot path is made to allocate less, lower its budget here so the
+ * allocations can't creep back in. A test that fails says what it measured.
+ * </p>
+ */
+public class SimTickAllocationTest {
+  private static final int kWarmupTicks = 5000;
+  private static final int kMeasuredTicks = 1000;
+
+  // Budgets, in bytes per tick. The comments say what was measured when each was set.
+  private static final double kWinchBudget = 320; // 216
+  private static final double kExtenderBudget = 176; // 120
+  private static final double kArmAngleBudget = 112; // 72
+  private static final double kArmBudget = 176; // 120
+  private static final double kChargeStationBudget = 384; // 256
+
+  // Motor and drive allocations are mostly WPILib's matrix math, which we don't control, so
+  // these only catch large regressions
+  private static final double kMotorBudget = 32768;
+  private static final double kDriveBudget = 131072;
+
+  // Inputs are boxed up front, so that the test itself doesn't allocate while measuring
+  private static final int kInputCount = 100;
+  private final Double[] m_inputs = new Double[kInputCount];
+  private int m_inputIndex = 0;
+
+  private PrefixedConcurrentMap<Supplier<MultiType>> m_map;
+  private Client<Supplier<MultiType>> m_client;
+
+  /**
+   * Runs before each test.
+   */
+  @BeforeEach
+  public void setUp() {
+    m_map = new PrefixedConcurrentMap<>();
+    m_client = m_map.getClientWithPrefix("AllocationTest");
+    m_inputIndex = 0;
+  }
+
+  // Inputs go smoothly from min to max and back, so that models don't break
+  private void setInputs(double min, double max) {
+    for (int i = 0; i < kInputCount; i++) {
+      double fraction = 1 - Math.abs(1 - 2.0 * i / kInputCount);
+      m_inputs[i] = min + (max - min) * fraction;
+    }
+  }
+
+  private Double nextInput() {
+    Double result = m_inputs[m_inputIndex];
+    m_inputIndex = (m_inputIndex + 1) % kInputCount;
+    return result;
+  }
+
+  private static double measureBytesPerTick(SimManager<?, ?> simManager) {
+    return AllocationBudget.measureBytesPerTick(kWarmupTicks, kMeasuredTicks,
+        tick -> simManager.simulationPeriodic());
+  }
+
+  @Test
+  public void motorTickShouldStayWithinBudget() {
+    setInputs(-0.5, 0.5);
+    SimManager<Double, Double> simManager = new SimManager<Double, Double>(
+        new MotorSimModel(25), m_client.getSubdirectoryClient("Motor"),
+        new MotorDashboardPlugin(), () -> true);
+    simManager.setInputHandler(new LambdaSimInput<Double>(this::nextInput));
+    simManager.setOutputHandler(new LambdaSimOutput<Double>(output -> {
+    }));
+
+    assertWithinBudget("Motor", measureBytesPerTick(simManager), kMotorBudget);
+  }
+
+  @Test
+  public void winchTickShouldStayWithinBudget() {
+    setInputs(-10, 10);
+    WinchState winchState = new WinchState();
+    WinchParams winchParams = new WinchParams(0.0254,
+        new WinchCable(5, 2, WindingOrientation.BackOfRobot), false);
+
+    SimManager<Double, WinchState> simManager = new SimManager<Double, WinchState>(
+        new WinchSimModel(winchParams), m_client.getSubdirectoryClient("Winch"),
+        new WinchDashboardPlugin(), () -> true);
+    simManager.setInputHandler(new LambdaSimInput<Double>(this::nextInput));
+    simManager.setOutputHandler(new CopySimOutput<WinchState>(winchState));
+
+    assertWithinBudget("Winch", measureBytesPerTick(simManager), kWinchBudget);
+  }
+
+  @Test
+  public void extenderTickShouldStayWithinBudget() {
+    setInputs(0, 5);
+    ExtenderState extenderState = new ExtenderState();
+    ExtenderParams extenderParams = new ExtenderParams(0.05, 1, 0.1, false);
+
+    SimManager<Double, ExtenderState> simManager = new SimManager<Double, ExtenderState>(
+        new ExtenderSimModel(0, extenderParams), m_client.getSubdirectoryClient("Extender"),
+        new ExtenderDashboardPlugin(), () -> true);
+    simManager.setInputHandler(new LambdaSimInput<Double>(this::nextInput));
+    simManager.setOutputHandler(new CopySimOutput<ExtenderState>(extenderState));
+
+    assertWithinBudget("Extender", measureBytesPerTick(simManager), kExtenderBudget);
+  }
+
+  @Test
+  public void armAngleTickShouldStayWithinBudget() {
+    setInputs(0.8, 1.2);
+    ArmAngleState armAngleState = new ArmAngleState();
+
+    // Same as ArmSystemSim, the arm angle has no dashboard properties
+    SimManager<Double, ArmAngleState> simManager = new SimManager<Double, ArmAngleState>(
+        new ArmAngleSimModel(new PivotMechanism(1, 0.5)), null, null, () -> true);
+    simManager.setInputHandler(new LambdaSimInput<Double>(this::nextInput));
+    simManager.setOutputHandler(new CopySimOutput<ArmAngleState>(armAngleState));
+
+    assertWithinBudget("ArmAngle", measureBytesPerTick(simManager), kArmAngleBudget);
+  }
+
+  @Test
+  public void armTickShouldStayWithinBudget() {
+    setInputs(-20, 20);
+    ArmSimParams armParams = new ArmSimParams(45, -45, 0);
+    RamenArmSimLogic ramenArmLogic = new RamenArmSimLogic(-30, armParams);
+    ramenArmLogic.setGrabberOpenSupplier(() -> false);
+
+    SimManager<Double, Double> simManager = new SimManager<Double, Double>(
+        new ArmSimModel(armParams, ramenArmLogic), m_client.getSubdirectoryClient("Arm"),
+        new ArmDashboardPlugin(), () -> true);
+    simManager.setInputHandler(new LambdaSimInput<Double>(this::nextInput));
+    simManager.setOutputHandler(new LambdaSimOutput<Double>(output -> {
+    }));
+
+    assertWithinBudget("Arm", measureBytesPerTick(simManager), kArmBudget);
+  }
+
+  @Test
+  public void chargeStationTickShouldStayWithinBudget() {
+    ChargeStationState chargeStationState = new ChargeStationState();
+    Pose2d[] poses = new Pose2d[kInputCount];
+    for (int i = 0; i < kInputCount; i++) {
+      poses[i] = new Pose2d(2 + 2.0 * i / kInputCount, 2.7, new Rotation2d(0));
+    }
+
+    SimManager<Pose2d, ChargeStationState> simManager = new SimManager<Pose2d, ChargeStationState>(
+        new ChargeStationSimModel(ChargeStationParamsBuilder.fromSimConstants().build()),
+        m_client.getSubdirectoryClient("ChargeStation"), new ChargeStationDashboardPlugin(),
+        () -> true);
+    simManager.setInputHandler(new LambdaSimInput<Pose2d>(() -> {
+      m_inputIndex = (m_inputIndex + 1) % kInputCount;
+      return poses[m_inputIndex];
+    }));
+    simManager.setOutputHandler(new CopySimOutput<ChargeStationState>(chargeStationState));
+
+    assertWithinBudget("ChargeStation", measureBytesPerTick(simManager), kChargeStationBudget);
+  }
+
+  @Test
+  public void driveTickShouldStayWithinBudget() {
+    DriveInputState driveInput = new DriveInputState(false, new ArcadeInputParams(0.5, 0.1,
+        false));
+
+    SimManager<DriveInputState, DriveState> simManager =
+        new SimManager<DriveInputState, DriveState>(new DriveSimModel(new Pose2d(), 0.0762),
+            m_client.getSubdirectoryClient("Drive"), new DriveDashboardPlugin(), () -> true);
+    simManager.setInputHandler(new LambdaSimInput<DriveInputState>(() -> driveInput));
+    simManager.setOutputHandler(new LambdaSimOutput<DriveState>(output -> {
+    }));
+
+    assertWithinBudget("Drive", measureBytesPerTick(simManager), kDriveBudget);
+  }
+}
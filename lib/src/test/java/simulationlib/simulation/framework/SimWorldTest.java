@@ -0,0 +1,103 @@
+package simulationlib.simulation.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import simulationlib.shuffle.MultiType;
+import simulationlib.shuffle.PrefixedConcurrentMap.Client;
+import simulationlib.shuffle.SupplierMapFactory;
+import simulationlib.simulation.sample.SampleDashboardPlugin;
+import simulationlib.simulation.sample.SampleSimModel;
+
+/**
+ * Test the SimWorld class.
+ */
+public class SimWorldTest {
+  @Test
+  public void twoWorldsShouldNotShareProperties() {
+    SimWorld world1 = new SimWorld();
+    SimWorld world2 = new SimWorld();
+
+    // Same subsystem and property names in both worlds, which would throw a duplicate key
+    // exception if they shared a map
+    for (SimWorld world : new SimWorld[] {
+        world1, world2
+    }) {
+      Client<Supplier<MultiType>> client = world.createShuffleboardClientForSubsystem("Sample");
+      world.addSimManager(new SimManager<Integer, Integer>(new SampleSimModel(2), client,
+          new SampleDashboardPlugin(), () -> true));
+    }
+
+    assertNotSame(world1.getPropertyMap(), world2.getPropertyMap());
+    assertNotNull(world1.getPropertyMap().get("Sample/Accumulator"));
+    assertNotNull(world2.getPropertyMap().get("Sample/Accumulator"));
+    assertEquals(world1.getPropertyMap().getAllEntries().size(),
+        world2.getPropertyMap().getAllEntries().size());
+  }
+
+  @Test
+  public void globalWorldShouldUseGlobalMap() {
+    assertSame(SupplierMapFactory.getGlobalInstance(),
+        SimWorld.getGlobalInstance().getPropertyMap());
+  }
+
+  @Test
+  public void addSimManagerShouldTrackManagers() {
+    SimWorld world = new SimWorld();
+    SimManager<Integer, Integer> simManager = new SimManager<Integer, Integer>(
+        new SampleSimModel(2), null, null, () -> true);
+
+    assertSame(simManager, world.addSimManager(simManager));
+    assertEquals(1, world.getSimManagers().size());
+    assertSame(simManager, world.getSimManagers().get(0));
+    assertFalse(world.isAnyBroken());
+    assertThrows(UnsupportedOperationException.class, () -> world.getSimManagers().clear());
+  }
+
+  @Test
+  public void brokenModelShouldMakeWorldBroken() {
+    SimWorld world = new SimWorld();
+    world.addSimManager(new SimManager<Integer, Integer>(new SampleSimModel(2), null, null,
+        () -> true));
+    world.addSimManager(new SimManager<Integer, Integer>(new SimModelInterface<>() {
+      @Override
+      public Integer updateSimulation(Integer input) {
+        return input;
+      }
+
+      @Override
+      public boolean isModelBroken() {
+        return true;
+      }
+    }, null, null, () -> true));
+
+    assertTrue(world.isAnyBroken());
+  }
+
+  @Test
+  public void advanceTickShouldMoveClock() {
+    SimWorld world = new SimWorld();
+    assertEquals(0, world.getTickCount());
+
+    for (int i = 0; i < 50; i++) {
+      world.advanceTick();
+    }
+
+    assertEquals(50, world.getTickCount());
+    assertEquals(1.0, world.getElapsedSeconds(), 1e-9);
+    assertEquals(1.0, world.getSeconds(), 1e-9);
+  }
+
+  @Test
+  public void nullArgumentsShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> new SimWorld(null));
+    assertThrows(IllegalArgumentException.class, () -> new SimWorld().addSimManager(null));
+  }
+}
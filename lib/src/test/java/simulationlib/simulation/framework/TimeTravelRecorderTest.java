@@ -0,0 +1,188 @@
+package simulationlib.simulation.framework;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import simulationlib.simulation.framework.inputoutputs.LambdaSimInput;
+import simulationlib.simulation.framework.inputoutputs.LambdaSimOutput;
+import simulationlib.simulation.motor.MotorSimModel;
+import simulationlib.simulation.sample.SampleSimModel;
+
+/**
+ * Tests the TimeTravelRecorder class.
+ */
+public class TimeTravelRecorderTest {
+  private static final double kGearRatio = 25;
+
+  // A world with a motor and a sample model, whose inputs and outputs live in arrays
+  private static class TestWorld {
+    final SimWorld m_world = new SimWorld();
+    final double[] m_power = {
+        0
+    };
+    final double[] m_position = {
+        0
+    };
+    final int[] m_sampleInput = {
+        0
+    };
+    final int[] m_sampleOutput = {
+        0
+    };
+
+    TestWorld() {
+      SimManager<Double, Double> motorManager = m_world.addSimManager(
+          new SimManager<Double, Double>(new MotorSimModel(kGearRatio), null, null, () -> true));
+      motorManager.setInputHandler(new LambdaSimInput<Double>(() -> m_power[0]));
+      motorManager.setOutputHandler(new LambdaSimOutput<Double>(output -> m_position[0] = output));
+
+      SimManager<Integer, Integer> sampleManager = m_world.addSimManager(
+          new SimManager<Integer, Integer>(new SampleSimModel(2), null, null, () -> true));
+      sampleManager.setInputHandler(new LambdaSimInput<Integer>(() -> m_sampleInput[0]));
+      sampleManager.setOutputHandler(
+          new LambdaSimOutput<Integer>(output -> m_sampleOutput[0] = output));
+    }
+
+    // Runs one tick with inputs that depend on the tick, and returns the motor position
+    double step(TimeTravelRecorder recorder) {
+      long tick = m_world.getTickCount();
+      m_power[0] = (tick < 20) ? 0.6 : -0.3;
+      m_sampleInput[0] = (int) (tick % 3);
+
+      for (SimManager<?, ?> simManager : m_world.getSimManagers()) {
+        simManager.simulationPeriodic();
+      }
+      m_world.advanceTick();
+      recorder.record();
+      return m_position[0];
+    }
+  }
+
+  @Test
+  public void seekShouldRestoreOutputsAndClock() {
+    TestWorld testWorld = new TestWorld();
+    TimeTravelRecorder recorder = new TimeTravelRecorder(testWorld.m_world, 8, 1000);
+    recorder.record();
+
+    double[] positions = new double[41];
+    int[] samples = new int[41];
+    for (int tick = 1; tick <= 40; tick++) {
+      positions[tick] = testWorld.step(recorder);
+      samples[tick] = testWorld.m_sampleOutput[0];
+    }
+
+    for (int tick : new int[] {
+        1, 7, 8, 9, 23, 40, 15
+    }) {
+      recorder.seek(tick);
+      assertEquals(tick, testWorld.m_world.getTickCount());
+      assertEquals(positions[tick], testWorld.m_position[0], 0);
+      assertEquals(samples[tick], testWorld.m_sampleOutput[0]);
+    }
+  }
+
+  @Test
+  public void replayAfterSeekShouldMatchFirstRun() {
+    TestWorld testWorld = new TestWorld();
+    TimeTravelRecorder recorder = new TimeTravelRecorder(testWorld.m_world, 5, 1000);
+    recorder.record();
+
+    double[] positions = new double[31];
+    for (int tick = 1; tick <= 30; tick++) {
+      positions[tick] = testWorld.step(recorder);
+    }
+
+    // Going back recorded the new run over the old one, which is the same run again
+    recorder.rewind(18);
+    assertEquals(12, testWorld.m_world.getTickCount());
+    for (int tick = 13; tick <= 30; tick++) {
+      assertEquals(positions[tick], testWorld.step(recorder), 0);
+    }
+    assertEquals(30, recorder.getLastTick());
+  }
+
+  @Test
+  public void recordingAfterSeekShouldDropLaterTicks() {
+    TestWorld testWorld = new TestWorld();
+    TimeTravelRecorder recorder = new TimeTravelRecorder(testWorld.m_world, 4, 1000);
+    recorder.record();
+    for (int tick = 1; tick <= 20; tick++) {
+      testWorld.step(recorder);
+    }
+
+    recorder.seek(5);
+    testWorld.m_power[0] = 0;
+    testWorld.step(recorder);
+
+    assertEquals(0, recorder.getFirstTick());
+    assertEquals(6, recorder.getLastTick());
+    assertThrows(IllegalArgumentException.class, () -> recorder.seek(7));
+  }
+
+  @Test
+  public void idleModelsShouldOnlyStoreKeyframes() {
+    SimWorld world = new SimWorld();
+    SimManager<Integer, Integer> simManager = world.addSimManager(
+        new SimManager<Integer, Integer>(new SampleSimModel(2), null, null, () -> true));
+    simManager.setInputHandler(new LambdaSimInput<Integer>(() -> 0));
+    simManager.setOutputHandler(new LambdaSimOutput<Integer>(output -> {
+    }));
+
+    TimeTravelRecorder recorder = new TimeTravelRecorder(world, 10, 1000);
+    for (int tick = 0; tick < 100; tick++) {
+      simManager.simulationPeriodic();
+      world.advanceTick();
+      recorder.record();
+    }
+
+    assertEquals(0, recorder.getDeltaCount());
+  }
+
+  @Test
+  public void oldTicksShouldBeDropped() {
+    TestWorld testWorld = new TestWorld();
+    TimeTravelRecorder recorder = new TimeTravelRecorder(testWorld.m_world, 4, 10);
+    recorder.record();
+    for (int tick = 1; tick <= 50; tick++) {
+      testWorld.step(recorder);
+    }
+
+    // At least the last 10 ticks, dropped a keyframe at a time
+    long firstTick = recorder.getFirstTick();
+    assertTrue(firstTick <= 40);
+    assertEquals(0, firstTick % 4);
+    assertThrows(IllegalArgumentException.class, () -> recorder.seek(firstTick - 1));
+    recorder.seek(firstTick);
+  }
+
+  @Test
+  public void skippingTicksShouldThrow() {
+    TestWorld testWorld = new TestWorld();
+    TimeTravelRecorder recorder = new TimeTravelRecorder(testWorld.m_world, 4, 10);
+    recorder.record();
+    testWorld.m_world.advanceTick();
+    testWorld.m_world.advanceTick();
+
+    assertThrows(IllegalStateException.class, () -> recorder.record());
+  }
+
+  @Test
+  public void modelWithoutSnapshotsShouldThrow() {
+    SimWorld world = new SimWorld();
+    world.addSimManager(new SimManager<Integer, Integer>(new SimModelInterface<Integer, Integer>() {
+      @Override
+      public Integer updateSimulation(Integer input) {
+        return input;
+      }
+
+      @Override
+      public boolean isModelBroken() {
+        return false;
+      }
+    }, null, null, () -> true));
+
+    assertThrows(IllegalStateException.class, () -> new TimeTravelRecorder(world, 4, 10));
+  }
+}
@@ -0,0 +1,168 @@
+package simulationlib.simulation.motor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import simulationlib.simulation.framework.SimFidelity;
+import simulationlib.simulation.framework.SimManager;
+import simulationlib.simulation.framework.SimWorld;
+import simulationlib.simulation.framework.inputoutputs.LambdaSimInput;
+import simulationlib.simulation.framework.inputoutputs.LambdaSimOutput;
+import simulationlib.simulation.sample.SampleSimModel;
+
+/**
+ * Tests the fidelity levels of the MotorSimModel class.
+ */
+public class MotorSimModelTest {
+  private static final double kGearRatio = 25;
+
+  // Runs the model for the given number of ticks, and returns the last position
+  private static double run(MotorSimModel model, double power, int ticks) {
+    double result = 0;
+    for (int i = 0; i < ticks; i++) {
+      result = model.updateSimulation(power);
+    }
+
+    return result;
+  }
+
+  @Test
+  public void firstOrderShouldMatchFullDynamic() {
+    MotorSimModel fullModel = new MotorSimModel(kGearRatio);
+    MotorSimModel firstOrderModel = new MotorSimModel(kGearRatio, SimFidelity.FirstOrder);
+
+    for (int i = 0; i < 100; i++) {
+      double power = (i < 50) ? 0.5 : -0.2;
+      assertEquals(fullModel.updateSimulation(power), firstOrderModel.updateSimulation(power),
+          0.01);
+    }
+  }
+
+  @Test
+  public void kinematicShouldMoveAtSettledSpeed() {
+    MotorSimModel kinematicModel = new MotorSimModel(kGearRatio, SimFidelity.Kinematic);
+    MotorSimModel fullModel = new MotorSimModel(kGearRatio);
+
+    // After one second, the full model has settled, so both move the same over the next one
+    double kinematicStart = run(kinematicModel, 0.5, 50);
+    double fullStart = run(fullModel, 0.5, 50);
+    double kinematicMoved = run(kinematicModel, 0.5, 50) - kinematicStart;
+    double fullMoved = run(fullModel, 0.5, 50) - fullStart;
+
+    assertTrue(kinematicMoved > 0);
+    assertEquals(fullMoved, kinematicMoved, kinematicMoved * 0.01);
+
+    // ...but the kinematic model got there without accelerating
+    assertTrue(kinematicStart > fullStart);
+  }
+
+  @Test
+  public void switchingFidelityShouldCarryStateOver() {
+    MotorSimModel model = new MotorSimModel(kGearRatio);
+    MotorSimModel reference = new MotorSimModel(kGearRatio, SimFidelity.FirstOrder);
+
+    // Switch while the motor is still speeding up, and back again
+    assertEquals(run(reference, 0.8, 5), run(model, 0.8, 5), 0.001);
+    model.setFidelity(SimFidelity.FirstOrder);
+    assertEquals(SimFidelity.FirstOrder, model.getFidelity());
+    assertEquals(run(reference, 0.8, 5), run(model, 0.8, 5), 0.001);
+    model.setFidelity(SimFidelity.FullDynamic);
+    assertEquals(run(reference, 0.8, 5), run(model, 0.8, 5), 0.001);
+  }
+
+  @Test
+  public void simManagerShouldSwitchFidelity() {
+    SimManager<Double, Double> simManager = new SimManager<Double, Double>(
+        new MotorSimModel(kGearRatio), null, null, () -> true);
+
+    assertEquals(SimFidelity.FullDynamic, simManager.getFidelity());
+    simManager.setFidelity(SimFidelity.Kinematic);
+    assertEquals(SimFidelity.Kinematic, simManager.getFidelity());
+  }
+
+  @Test
+  public void simManagerShouldRejectFidelityModelDoesNotSupport() {
+    SimManager<Integer, Integer> simManager = new SimManager<Integer, Integer>(
+        new SampleSimModel(2), null, null, () -> true);
+
+    assertTrue(simManager.supportsFidelity(SimFidelity.FullDynamic));
+    assertFalse(simManager.supportsFidelity(SimFidelity.Kinematic));
+    assertThrows(IllegalArgumentException.class,
+        () -> simManager.setFidelity(SimFidelity.Kinematic));
+  }
+
+  @Test
+  public void simWorldShouldSwitchManagersThatSupportIt() {
+    SimWorld world = new SimWorld();
+    SimManager<Double, Double> motorManager = world.addSimManager(
+        new SimManager<Double, Double>(new MotorSimModel(kGearRatio), null, null, () -> true));
+    world.addSimManager(new SimManager<Integer, Integer>(new SampleSimModel(2), null, null,
+        () -> true));
+
+    assertEquals(1, world.setFidelity(SimFidelity.FirstOrder));
+    assertEquals(SimFidelity.FirstOrder, motorManager.getFidelity());
+    assertEquals(2, world.setFidelity(SimFidelity.FullDynamic));
+  }
+
+  @Test
+  public void quiescentMotorShouldRestOnlyOnceStopped() {
+    double[] power = {
+        0.5
+    };
+    double[] position = {
+        0
+    };
+    SimManager<Double, Double> simManager = new SimManager<Double, Double>(
+        new MotorSimModel(kGearRatio), null, null, () -> true);
+    simManager.setInputHandler(new LambdaSimInput<Double>(() -> power[0]));
+    simManager.setOutputHandler(new LambdaSimOutput<Double>(output -> position[0] = output));
+    simManager.enableQuiescence(1e-9);
+
+    // Same power, but still turning, so never at rest
+    for (int i = 0; i < 10; i++) {
+      simManager.simulationPeriodic();
+    }
+    assertEquals(0, simManager.getRestingTickCount());
+
+    // Once stopped, the position holds and the updates are skipped
+    power[0] = 0;
+    for (int i = 0; i < 10; i++) {
+      simManager.simulationPeriodic();
+    }
+    double stoppedPosition = position[0];
+    assertTrue(simManager.getRestingTickCount() > 0);
+
+    simManager.simulationPeriodic();
+    assertEquals(stoppedPosition, position[0], 0);
+  }
+
+  @Test
+  public void heavierLoadShouldSpeedUpSlower() {
+    MotorSimModel light = new MotorSimModel(kGearRatio, SimFidelity.FullDynamic, 0.0005);
+    MotorSimModel heavy = new MotorSimModel(kGearRatio, SimFidelity.FullDynamic, 0.005);
+
+    double lightPosition = light.updateSimulation(1.0);
+    double heavyPosition = heavy.updateSimulation(1.0);
+    assertTrue(heavyPosition < lightPosition);
+    assertThrows(IllegalArgumentException.class,
+        () -> new MotorSimModel(kGearRatio, SimFidelity.FullDynamic, 0));
+  }
+
+  @Test
+  public void setStateShouldContinueFromThere() {
+    MotorSimModel original = new MotorSimModel(kGearRatio, SimFidelity.FirstOrder);
+    MotorSimModel copy = new MotorSimModel(kGearRatio, SimFidelity.FirstOrder);
+    run(original, 0.5, 10);
+
+    double[] state = new double[original.getStateSize()];
+    original.saveState(state, 0);
+    copy.setState(state[0] / (2 * Math.PI), state[1] / (2 * Math.PI));
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(original.updateSimulation(-0.3), copy.updateRotations(-0.3), 1e-9);
+    }
+  }
+}
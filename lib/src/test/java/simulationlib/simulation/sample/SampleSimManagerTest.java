@@ -1,11 +1,16 @@
 package simulationlib.simulation.sample;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import simulationlib.shuffle.MultiType;
+import simulationlib.shuffle.PrefixedConcurrentMap;
+import simulationlib.simulation.framework.InputSchedule;
 import simulationlib.simulation.framework.SimManager;
 import simulationlib.simulation.framework.inputoutputs.LambdaSimInput;
 import simulationlib.simulation.framework.inputoutputs.LambdaSimOutput;
@@ -266,4 +271,79 @@ public class SampleSimManagerTest {
 
     assertEquals(expectedVallue, result);
   }
+
+  private static int getDashAccumulator(PrefixedConcurrentMap<Supplier<MultiType>> map) {
+    return map.get("Sample/Accumulator").get().getInteger().get();
+  }
+
+  @Test
+  public void stepManyShouldMatchCallingPeriodicThatManyTimes() {
+    int ratio = 2;
+    final int[] outputVariable = {
+        0
+    };
+    final int[] outputCount = {
+        0
+    };
+
+    SimManager<Integer, Integer> sampleSimManager = new SimManager<Integer, Integer>(
+        new SampleSimModel(ratio), null, null, () -> true);
+    sampleSimManager.setOutputHandler(new LambdaSimOutput<Integer>((numOutput) -> {
+      outputVariable[0] = numOutput;
+      outputCount[0]++;
+    }));
+
+    // Inputs 0, 1, ... 99, so the accumulator ends at 2 * (0 + 1 + ... + 99)
+    int result = sampleSimManager.stepMany(100, tick -> tick);
+
+    assertEquals(9900, result);
+    assertEquals(9900, outputVariable[0]);
+    assertEquals(100, outputCount[0]);
+  }
+
+  @Test
+  public void stepManyShouldOnlyUpdateDashboardAtTheEnd() {
+    PrefixedConcurrentMap<Supplier<MultiType>> map = new PrefixedConcurrentMap<>();
+    SimManager<Integer, Integer> sampleSimManager = new SimManager<Integer, Integer>(
+        new SampleSimModel(1), map.getClientWithPrefix("Sample"), new SampleDashboardPlugin(),
+        () -> true);
+
+    // The schedule sees what the dashboard showed before each tick
+    final int[] dashSeenAtTick50 = {
+        -1
+    };
+    InputSchedule<Integer> schedule = tick -> {
+      if (tick == 50) {
+        dashSeenAtTick50[0] = getDashAccumulator(map);
+      }
+      return 1;
+    };
+
+    sampleSimManager.stepMany(100, schedule);
+    assertEquals(0, dashSeenAtTick50[0]);
+    assertEquals(100, getDashAccumulator(map));
+
+    // Every 10 ticks, the dashboard keeps up during the run
+    sampleSimManager.stepMany(100, schedule, 10);
+    assertEquals(150, dashSeenAtTick50[0]);
+    assertEquals(200, getDashAccumulator(map));
+  }
+
+  @Test
+  public void stepManyShouldDoNothingWhileDisabled() {
+    final int[] outputVariable = {
+        -1
+    };
+    SimManager<Integer, Integer> sampleSimManager = new SimManager<Integer, Integer>(
+        new SampleSimModel(2), null, null, () -> false);
+    sampleSimManager.setOutputHandler(new LambdaSimOutput<Integer>((numOutput) -> {
+      outputVariable[0] = numOutput;
+    }));
+
+    assertNull(sampleSimManager.stepMany(10, InputSchedule.constant(5)));
+    assertEquals(-1, outputVariable[0]);
+    assertThrows(IllegalArgumentException.class,
+        () -> sampleSimManager.stepMany(-1, InputSchedule.constant(5)));
+    assertThrows(IllegalArgumentException.class, () -> sampleSimManager.stepMany(10, null));
+  }
 }
@@ -1,6 +1,7 @@
 package simulationlib.simulation.winch;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.function.Supplier;
@@ -197,4 +198,77 @@ public class WinchSimModelTest {
         expectedResult / getTestingStringLen(),
         UnitConversions.kAngleTolerance);
   }
+
+  @Test
+  public void quiescentWinchShouldSkipUpdatesWhileAtRest() {
+    double[] currentWinchRotations = {
+        0
+    };
+    WinchState winchState = new WinchState();
+    SimManager<Double, WinchState> winchSimManager = createTestSimManager(
+        WindingOrientation.BackOfRobot, false, () -> currentWinchRotations[0], winchState);
+    winchSimManager.enableQuiescence(1e-9);
+
+    // Motor hasn't moved, so the winch is at rest
+    for (int i = 0; i < 10; i++) {
+      winchSimManager.simulationPeriodic();
+    }
+    assertEquals(10, winchSimManager.getRestingTickCount());
+    assertEquals(getTestingStringLen() - getTestingInitialLenSpooled(),
+        winchState.getStringUnspooledLen(), UnitConversions.kAngleTolerance);
+
+    // Moving the motor wakes it up, and gives the same result as without quiescence
+    currentWinchRotations[0] = 10;
+    winchSimManager.simulationPeriodic();
+    assertEquals(10, winchSimManager.getRestingTickCount());
+    double expectedUnspooledLen = getTestingStringLen() - getTestingInitialLenSpooled()
+        + 10 * Math.PI * getTestingSpoolDiameter();
+    assertEquals(expectedUnspooledLen, winchState.getStringUnspooledLen(),
+        UnitConversions.kAngleTolerance);
+
+    winchSimManager.simulationPeriodic();
+    assertEquals(11, winchSimManager.getRestingTickCount());
+    assertFalse(winchSimManager.isBroken());
+  }
+
+  @Test
+  public void restoredStateShouldUnbreakWinch() {
+    double[] currentWinchRotations = {
+        0
+    };
+    WinchState winchState = new WinchState();
+    SimManager<Double, WinchState> winchSimManager = createTestSimManager(
+        WindingOrientation.BackOfRobot, false, () -> currentWinchRotations[0], winchState);
+    double[] state = new double[winchSimManager.getStateSize()];
+    winchSimManager.saveState(state, 0);
+    double savedUnspooledLen = winchState.getStringUnspooledLen();
+
+    // Unspool past the end of the cable
+    currentWinchRotations[0] = 1000;
+    winchSimManager.simulationPeriodic();
+    assertTrue(winchSimManager.isBroken());
+
+    // Going back also sets the output back
+    winchSimManager.restoreState(state, 0);
+    assertFalse(winchSimManager.isBroken());
+    assertEquals(savedUnspooledLen, winchState.getStringUnspooledLen(), 0);
+    assertEquals(WindingOrientation.BackOfRobot, winchState.getWindingOrientation());
+  }
+
+  @Test
+  public void unspooledMetersPerRotationShouldMatchUpdate() {
+    for (WindingOrientation orientation : WindingOrientation.values()) {
+      WinchSimModel winch = new WinchSimModel(new WinchParams(getTestingSpoolDiameter(),
+          new WinchCable(getTestingStringLen(),
+              getTestingStringLen() - getTestingInitialLenSpooled(), orientation),
+          true));
+      WinchState state = winch.createOutput();
+      winch.updateSimulation(0.0, state);
+      double startLen = state.getStringUnspooledLen();
+
+      winch.updateSimulation(3.0, state);
+      assertEquals(state.getStringUnspooledLen() - startLen,
+          3 * winch.getUnspooledMetersPerRotation(), UnitConversions.kDoubleTolerance);
+    }
+  }
 }
@@ -0,0 +1,70 @@
+package simulationlib.testing;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntConsumer;
+
+/**
+ * Measures how many bytes a tick allocates on the current thread, for tests that keep hot
+ * paths within an allocation budget. Shared by the tests of lib and of the robot project, so
+ * they all measure the same way.
+ * <p>
+ * The tick runs for a number of warm-up ticks first, so class loading and the JIT aren't
+ * measured. Tests are skipped on JVMs that can't measure allocated bytes.
+ * </p>
+ */
+public final class AllocationBudget {
+  private AllocationBudget() {
+  }
+
+  /**
+   * Returns the average number of bytes the current thread allocates per call of tick. tick
+   * gets the number of the call, counting from 0 again after the warm-up.
+   */
+  public static double measureBytesPerTick(int warmupTicks, int measuredTicks,
+      IntConsumer tick) {
+    if (warmupTicks < 0) {
+      throw new IllegalArgumentException("warmupTicks must be >=0");
+    }
+
+    if (measuredTicks < 1) {
+      throw new IllegalArgumentException("measuredTicks must be >0");
+    }
+
+    if (tick == null) {
+      throw new IllegalArgumentException("tick cannot be null");
+    }
+
+    assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+        "JVM can't measure allocated bytes");
+    com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threadBean.isThreadAllocatedMemorySupported(),
+        "JVM can't measure allocated bytes");
+    threadBean.setThreadAllocatedMemoryEnabled(true);
+
+    for (int i = 0; i < warmupTicks; i++) {
+      tick.accept(i);
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long startBytes = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < measuredTicks; i++) {
+      tick.accept(i);
+    }
+    long endBytes = threadBean.getThreadAllocatedBytes(threadId);
+
+    assumeTrue(startBytes >= 0 && endBytes >= 0, "JVM can't measure allocated bytes");
+    return (endBytes - startBytes) / (double) measuredTicks;
+  }
+
+  /**
+   * Fails with what was measured if bytesPerTick is over the budget.
+   */
+  public static void assertWithinBudget(String name, double bytesPerTick, double budget) {
+    assertTrue(bytesPerTick <= budget, String.format(
+        "%s allocates %.1f bytes per tick, over its budget of %.0f", name, bytesPerTick, budget));
+  }
+}
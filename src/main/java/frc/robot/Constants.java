@@ -73,12 +73,24 @@ public final class Constants {
     public static double kWinchEncoderUpperLimit = 0.78;
     public static double kWinchEncoderLowerLimit = 0.56;
 
+    // Opening the grabber with the arm below this breaks it, so it's a lower limit for the
+    // winch while the grabber is open
+    public static double kWinchGrabberOpenLowerLimit = 0.60;
+
     public static double kWinchMiddleNodeCone = 0.77;
     public static double kWinchMiddleNodeCube = 0.75;
     public static double kWinchRetractAngle = 0.56;
     public static double kWinchGroundAngle = 0.57;
     public static double kEmergencyAngle = 0.72;
 
+    // Slow the winch down before the limits with ArmLimitPredictor, instead of only stopping
+    // it once it's past them. Off until it's been tried on the real arm.
+    public static boolean kUseArmLimitPredictor = false;
+
+    // Run the arm models next to the real arm with ArmShadow, and show on the dashboard when
+    // the arm stops behaving like them. Off until it's been tried on the real arm.
+    public static boolean kUseArmShadow = false;
+
     public static float kExtenderSoftLimitTurns = (float) -125; // Max is 155
     public static int kHallEffectExtenderChannel = 4;
 
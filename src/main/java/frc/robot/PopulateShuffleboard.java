@@ -2,10 +2,12 @@ package frc.robot;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.networktables.GenericEntry;
 import edu.wpi.first.wpilibj.shuffleboard.BuiltInWidgets;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.commands.ArmExtendFully;
 import frc.robot.commands.ArmToGround;
 import frc.robot.commands.ArmToMiddleNodeCone;
@@ -13,35 +15,74 @@ import frc.robot.commands.RetractArmCommand;
 import frc.robot.helpers.DefaultLayout;
 import frc.robot.helpers.DefaultLayout.Widget;
 import frc.robot.subsystems.ArmSystem;
-import simulationlib.shuffle.ShuffleboardHelpers;
+import simulationlib.shuffle.DeltaPublisher;
+import simulationlib.shuffle.MultiType;
+import simulationlib.shuffle.PrefixedConcurrentMap;
+import simulationlib.simulation.framework.SimClock;
 
 import java.util.Map;
-import java.util.function.BooleanSupplier;
-import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 
 /**
  * Adds Shuffleboard widgets to Simulation tab.
+ * <p>
+ * The widgets don't poll the sim properties. Instead, a DeltaPublisher pushes a property to
+ * its widget only when the value changes, at most as often as that property's rate limit.
+ * </p>
  */
 public class PopulateShuffleboard {
+  // Most properties: at most 10 Hz, and republished every second even if unchanged
+  private static final double kDefaultMinPeriodSeconds = 0.1;
+  private static final double kDefaultMaxPeriodSeconds = 1.0;
+
+  // The robot pose on the field updates every loop (50 Hz)
+  private static final double kPoseMinPeriodSeconds = 0.02;
+
+  // Broken flags rarely change, so 2 Hz is plenty
+  private static final double kIsBrokenMinPeriodSeconds = 0.5;
+  private static final double kIsBrokenMaxPeriodSeconds = 2.0;
+
   private final DefaultLayout m_defaultLayout;
   private ShuffleboardTab m_tab;
-  private ShuffleboardHelpers m_helpers;
+  private final DeltaPublisher m_publisher;
+  private final SimClock m_clock;
   private final Field2d m_fieldSim = new Field2d();
-  private Pose2d m_previousPose = new Pose2d(0, 0, new Rotation2d());
-  private boolean m_previousPoseSet = false;
-  private Supplier<Pose2d> m_poseSupplier = null;
 
   /**
    * Constructor.
+   *
+   * @param publisher publishes the sim properties that the widgets show
+   * @param clock     where the rate limits of the publisher read the time from
    */
-  public PopulateShuffleboard(ShuffleboardHelpers helpers,
+  public PopulateShuffleboard(DeltaPublisher publisher,
       DefaultLayout defaultLayout,
-      ShuffleboardTab tab) {
+      ShuffleboardTab tab,
+      SimClock clock) {
+
+    if (publisher == null) {
+      throw new IllegalArgumentException("publisher cannot be null");
+    }
 
-    m_helpers = helpers;
+    if (clock == null) {
+      throw new IllegalArgumentException("clock cannot be null");
+    }
+
+    m_publisher = publisher;
+    m_clock = clock;
     m_defaultLayout = defaultLayout;
     m_tab = tab;
+
+    m_publisher.setPeriods("DriveSystem/RobotPose", kPoseMinPeriodSeconds,
+        kDefaultMaxPeriodSeconds);
+    m_publisher.setPeriods("IsBroken", kIsBrokenMinPeriodSeconds, kIsBrokenMaxPeriodSeconds);
+  }
+
+  /**
+   * Creates the DeltaPublisher with the default rate limits for the Simulation tab.
+   */
+  public static DeltaPublisher createPublisher(
+      PrefixedConcurrentMap<Supplier<MultiType>> propertyMap) {
+    return new DeltaPublisher(propertyMap, kDefaultMinPeriodSeconds, kDefaultMaxPeriodSeconds);
   }
 
   /**
@@ -62,20 +103,25 @@ public class PopulateShuffleboard {
    * most up-to-date values each cycle.
    */
   public void updateDashOnRobotPeriodic() {
-    if (m_poseSupplier == null) {
-      m_poseSupplier = m_helpers.getPoseSupplier("DriveSystem/RobotPose");
-    }
-
-    Pose2d newPose = m_poseSupplier.get();
-
-    // Only update the pose if it has changed.
-    if (!m_previousPoseSet || !newPose.equals(m_previousPose)) {
-
-      m_fieldSim.setRobotPose(newPose);
+    // Only pushes the properties that changed, e.g. the pose only when the robot moved
+    m_publisher.update(m_clock.getSeconds());
+  }
 
-      m_previousPose = newPose;
-      m_previousPoseSet = true;
-    }
+  /**
+   * Shows the results of the arm's shadow mode on SmartDashboard, from the properties that
+   * ArmSystem.addShadowProperties() added. Only call this when shadow mode is on.
+   */
+  public void addShadowToDash() {
+    publishBooleanToSmartDashboard("ArmSystem/Shadow/WinchMotorOk", "Shadow Winch Motor OK");
+    publishBooleanToSmartDashboard("ArmSystem/Shadow/WinchCableOk", "Shadow Winch Cable OK");
+    publishBooleanToSmartDashboard("ArmSystem/Shadow/ExtenderMotorOk",
+        "Shadow Extender Motor OK");
+    publishDoubleToSmartDashboard("ArmSystem/Shadow/WinchMotorResidual",
+        "Shadow Winch Motor Residual");
+    publishDoubleToSmartDashboard("ArmSystem/Shadow/WinchCableResidual",
+        "Shadow Winch Cable Residual");
+    publishDoubleToSmartDashboard("ArmSystem/Shadow/ExtenderMotorResidual",
+        "Shadow Extender Motor Residual");
   }
 
   private void addDriveToDash() {
@@ -84,6 +130,10 @@ public class PopulateShuffleboard {
     Widget pos = m_defaultLayout.getWidgetPosition("Field");
     Shuffleboard.getTab("Simulation").add("Field", m_fieldSim).withWidget(BuiltInWidgets.kField)
         .withPosition(pos.x, pos.y).withSize(pos.width, pos.height);
+
+    m_publisher.addListener("DriveSystem/RobotPose", "Pose2d",
+        value -> m_fieldSim.setRobotPose(value.getPose2d()
+            .orElse(new Pose2d(0, 0, new Rotation2d()))));
   }
 
   private void addArmToDash() {
@@ -141,12 +191,12 @@ public class PopulateShuffleboard {
       String dashItemKey,
       double min,
       double max) {
-    DoubleSupplier supplier = m_helpers.getDoubleSupplier(dashItemKey);
     Widget pos = m_defaultLayout.getWidgetPosition(layoutId);
 
-    m_tab.addDouble(title, supplier).withWidget(BuiltInWidgets.kNumberBar)
+    GenericEntry entry = m_tab.add(title, 0.0).withWidget(BuiltInWidgets.kNumberBar)
         .withProperties(Map.of("min", min, "max", max, "show text", false))
-        .withPosition(pos.x, pos.y).withSize(pos.width, pos.height);
+        .withPosition(pos.x, pos.y).withSize(pos.width, pos.height).getEntry();
+    publishDouble(dashItemKey, entry);
   }
 
   private void addHeadingWidget(String title,
@@ -154,15 +204,38 @@ public class PopulateShuffleboard {
       String dashItemKey,
       double startingAngle) {
 
-    DoubleSupplier supplier = m_helpers.getDoubleSupplier(dashItemKey);
     Widget pos = m_defaultLayout.getWidgetPosition(layoutId);
 
-    m_tab.addDouble(title, supplier).withWidget(BuiltInWidgets.kGyro).withPosition(pos.x, pos.y)
-        .withSize(pos.width, pos.height).withProperties(Map.of("Starting angle", startingAngle));
+    GenericEntry entry = m_tab.add(title, 0.0).withWidget(BuiltInWidgets.kGyro)
+        .withPosition(pos.x, pos.y).withSize(pos.width, pos.height)
+        .withProperties(Map.of("Starting angle", startingAngle)).getEntry();
+    publishDouble(dashItemKey, entry);
+  }
+
+  private void publishDouble(String dashItemKey, GenericEntry entry) {
+    m_publisher.addListener(dashItemKey, "Double",
+        value -> entry.setDouble(value.getDouble().orElse(0.0)));
+  }
+
+  private void publishBoolean(String dashItemKey, GenericEntry entry, boolean invertBoolValue) {
+    m_publisher.addListener(dashItemKey, "Boolean",
+        value -> entry.setBoolean(value.getBoolean().orElse(false) != invertBoolValue));
+  }
+
+  private void publishDoubleToSmartDashboard(String dashItemKey, String smartDashboardKey) {
+    m_publisher.addListener(dashItemKey, "Double",
+        value -> SmartDashboard.putNumber(smartDashboardKey, value.getDouble().orElse(0.0)));
+  }
+
+  private void publishBooleanToSmartDashboard(String dashItemKey, String smartDashboardKey) {
+    m_publisher.addListener(dashItemKey, "Boolean",
+        value -> SmartDashboard.putBoolean(smartDashboardKey,
+            value.getBoolean().orElse(false)));
   }
 
-  private BooleanSupplier constructSupplier(BooleanSupplier supplier, boolean invertBoolValue) {
-    return invertBoolValue ? () -> !supplier.getAsBoolean() : supplier;
+  private void publishString(String dashItemKey, GenericEntry entry) {
+    m_publisher.addListener(dashItemKey, "String",
+        value -> entry.setString(value.getString().orElse("")));
   }
 
   /**
@@ -173,42 +246,39 @@ public class PopulateShuffleboard {
       String dashItemKey,
       boolean invertBoolValue) {
 
-    BooleanSupplier supplier = constructSupplier(m_helpers.getBooleanSupplier(dashItemKey),
-        invertBoolValue);
-
     Widget pos = m_defaultLayout.getWidgetPosition(layoutId);
-    m_tab.addBoolean(title, supplier).withWidget(BuiltInWidgets.kBooleanBox)
+    GenericEntry entry = m_tab.add(title, false).withWidget(BuiltInWidgets.kBooleanBox)
         .withProperties(Map.of("colorWhenTrue", "#C0FBC0", "colorWhenFalse", "#8B0000"))
-        .withPosition(pos.x, pos.y).withSize(pos.width, pos.height);
+        .withPosition(pos.x, pos.y).withSize(pos.width, pos.height).getEntry();
+    publishBoolean(dashItemKey, entry, invertBoolValue);
   }
 
   private void addStringWidget(String title, String layoutId, String dashItemKey) {
 
-    Supplier<String> supplier = m_helpers.getStringSupplier(dashItemKey);
     Widget pos = m_defaultLayout.getWidgetPosition(layoutId);
 
-    m_tab.addString(title, supplier).withWidget(BuiltInWidgets.kTextView).withPosition(pos.x, pos.y)
-        .withSize(pos.width, pos.height);
+    GenericEntry entry = m_tab.add(title, "").withWidget(BuiltInWidgets.kTextView)
+        .withPosition(pos.x, pos.y).withSize(pos.width, pos.height).getEntry();
+    publishString(dashItemKey, entry);
   }
 
   private void addDoubleAsTextWidget(String title, String layoutId, String dashItemKey) {
 
-    DoubleSupplier supplier = m_helpers.getDoubleSupplier(dashItemKey);
     Widget pos = m_defaultLayout.getWidgetPosition(layoutId);
 
-    m_tab.addDouble(title, supplier).withWidget(BuiltInWidgets.kTextView).withPosition(pos.x, pos.y)
-        .withSize(pos.width, pos.height);
+    GenericEntry entry = m_tab.add(title, 0.0).withWidget(BuiltInWidgets.kTextView)
+        .withPosition(pos.x, pos.y).withSize(pos.width, pos.height).getEntry();
+    publishDouble(dashItemKey, entry);
   }
 
   private void addSwitchDisplay(String title, String layoutId, String dashItemKey) {
 
-    BooleanSupplier supplier = constructSupplier(m_helpers.getBooleanSupplier(dashItemKey), false);
-
     Widget pos = m_defaultLayout.getWidgetPosition(layoutId);
-    Shuffleboard.getTab("Simulation").addBoolean("Extender Sensor", supplier)
+    GenericEntry entry = Shuffleboard.getTab("Simulation").add("Extender Sensor", false)
         .withWidget(BuiltInWidgets.kBooleanBox)
         .withProperties(Map.of("colorWhenTrue", "#C0FBC0", "colorWhenFalse", "#FFFFFF"))
-        .withPosition(pos.x, pos.y).withSize(pos.width, pos.height);
+        .withPosition(pos.x, pos.y).withSize(pos.width, pos.height).getEntry();
+    publishBoolean(dashItemKey, entry, false);
   }
 
   /**
@@ -1,5 +1,6 @@
 package frc.robot;
 
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
@@ -7,19 +8,46 @@ import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import frc.robot.commands.Auto;
 import frc.robot.commands.RetractArmCommand;
+import frc.robot.helpers.DashboardToggles;
 import frc.robot.helpers.DriverStationFunctions;
+import frc.robot.helpers.LoopProfiler;
 import frc.robot.helpers.VerifyJoysticks;
+import frc.robot.match.ControllerRecorder;
+import java.io.File;
+import java.io.IOException;
+import simulationlib.helpers.SpanTracer;
+import simulationlib.jfr.CommandEvent;
+import simulationlib.jfr.JfrSupport;
 
 /**
  * Main Robot class.
  */
 public class Robot extends TimedRobot {
+  private static final String kWriteTraceKey = "Profiler/Write trace.json";
+  private static final String kRecordControllersKey = "Recorder/Record controllers.bin";
+
   private Command m_autonomousCommand;
   private RobotContainer m_robotContainer;
   private VerifyJoysticks m_verifyJoysticks;
   private SendableChooser<String> m_chooser = null;
   private LedLights m_ledLights;
 
+  // Debug toggles on the dashboard, read once a second
+  private final DashboardToggles m_toggles = new DashboardToggles();
+
+  // Recording of the controllers, while the dashboard toggle is set, otherwise null
+  private ControllerRecorder m_controllerRecorder = null;
+
+  private final LoopProfiler m_profiler = LoopProfiler.getInstance();
+  private final LoopProfiler.Section m_schedulerSection = m_profiler
+      .getSection("CommandScheduler.run");
+  private final LoopProfiler.Section m_joysticksSection = m_profiler
+      .getSection("VerifyJoysticks");
+  private final LoopProfiler.Section m_ledsSection = m_profiler
+      .getSection("LedLights.updateLeds");
+  private final LoopProfiler.Section m_dashSection = m_profiler
+      .getSection("RobotContainer.updateDashOnRobotPeriodic");
+
   @Override
   public void robotInit() {
     m_robotContainer = new RobotContainer();
@@ -28,9 +56,15 @@ public class Robot extends TimedRobot {
     m_ledLights = new LedLights();
 
     m_verifyJoysticks = new VerifyJoysticks(VerifyJoysticks.getDefaultJoystickConfigs(),
-        new DriverStationFunctions(), 1);
+        new DriverStationFunctions(), 1, m_robotContainer.getClock());
 
     SmartDashboard.putBoolean("Get Cube", true);
+
+    m_profiler.installCommandHooks(CommandScheduler.getInstance());
+    installJfrCommandHooks(CommandScheduler.getInstance());
+    m_toggles.addButton(kWriteTraceKey, this::writeTrace);
+    m_toggles.addSwitch(kRecordControllersKey, this::setRecordingControllers);
+    m_robotContainer.addDebugToggles(m_toggles);
   }
 
   @Override
@@ -39,17 +73,89 @@ public class Robot extends TimedRobot {
     // should override it.
     // super.robotPeriodic();
 
+    m_profiler.startLoop();
+
+    if (m_controllerRecorder != null) {
+      m_controllerRecorder.recordTick();
+    }
+
+    m_schedulerSection.start();
     CommandScheduler.getInstance().run();
+    m_schedulerSection.stop();
 
+    m_joysticksSection.start();
     m_verifyJoysticks.verifyJoysticksPeriodically();
+    m_joysticksSection.stop();
+
+    m_ledsSection.start();
     m_ledLights.updateLeds();
+    m_ledsSection.stop();
 
     // $TODO - This is wrong, simulationPeriodic is last
     // We update the dashboard LAST in our various periodic loops.
     // This way, teleOpPeriodic() runs first, then simulationPeriodic(), then
     // robotPeriodic(). Since robotPeriodic() runs last, it will display the
     // most up-to-date values each cycle.
+    m_dashSection.start();
     m_robotContainer.updateDashOnRobotPeriodic();
+    m_dashSection.stop();
+
+    m_profiler.endLoop();
+
+    m_toggles.poll();
+  }
+
+  // Records command lifecycles as Java Flight Recorder events, when this JVM has JFR
+  private static void installJfrCommandHooks(CommandScheduler scheduler) {
+    if (!JfrSupport.isAvailable()) {
+      return;
+    }
+
+    scheduler.onCommandInitialize(
+        command -> CommandEvent.commit(command.getName(), CommandEvent.kInitialize));
+    scheduler.onCommandFinish(
+        command -> CommandEvent.commit(command.getName(), CommandEvent.kFinish));
+    scheduler.onCommandInterrupt(
+        command -> CommandEvent.commit(command.getName(), CommandEvent.kInterrupt));
+  }
+
+  // Writes the recent spans to trace.json, when the dashboard toggle is set. Open the file in
+  // chrome://tracing or https://ui.perfetto.dev.
+  private void writeTrace() {
+    File file = new File(Filesystem.getOperatingDirectory(), "trace.json");
+    try {
+      SpanTracer.getInstance().writeChromeTrace(file);
+      System.out.println("Wrote " + file.getAbsolutePath());
+    }
+    catch (IOException e) {
+      System.out.println("WARNING: Could not write " + file + ": " + e.getMessage());
+    }
+  }
+
+  // Records both controllers every tick while the dashboard toggle is set, and writes them to
+  // controllers.bin when it's cleared. Replay the file with ControllerRecording.getScript().
+  private void setRecordingControllers(boolean isRecording) {
+    if (isRecording) {
+      m_controllerRecorder = new ControllerRecorder(
+          Constants.OperatorConstants.kDriverControllerPort1,
+          Constants.OperatorConstants.kDriverControllerPort2);
+      return;
+    }
+
+    if (m_controllerRecorder == null) {
+      return;
+    }
+
+    File file = new File(Filesystem.getOperatingDirectory(), "controllers.bin");
+    try {
+      m_controllerRecorder.getRecording().write(file);
+      System.out.println("Wrote " + file.getAbsolutePath());
+    }
+    catch (IOException e) {
+      System.out.println("WARNING: Could not write " + file + ": " + e.getMessage());
+    }
+
+    m_controllerRecorder = null;
   }
 
   @Override
@@ -122,5 +228,6 @@ public class Robot extends TimedRobot {
 
   @Override
   public void simulationPeriodic() {
+    m_robotContainer.simulationPeriodic();
   }
 }
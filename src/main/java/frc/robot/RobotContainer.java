@@ -4,6 +4,7 @@
 
 package frc.robot;
 
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.XboxController;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
@@ -13,6 +14,7 @@ import frc.robot.commands.Auto;
 import frc.robot.commands.RetractArmCommand;
 import frc.robot.commands.SetSoftLimitCommand;
 import frc.robot.commands.SetWinchToAngle;
+import frc.robot.helpers.DashboardToggles;
 import frc.robot.helpers.DefaultLayout;
 import frc.robot.subsystems.ArmSystem;
 import frc.robot.subsystems.ArmSystemSim;
@@ -20,12 +22,9 @@ import frc.robot.subsystems.GrabberSystem;
 import frc.robot.subsystems.GrabberSystemSim;
 import frc.robot.subsystems.TankDriveSystem;
 import frc.robot.subsystems.TankDriveSystemSim;
-import java.util.function.BooleanSupplier;
-import java.util.function.Supplier;
-import simulationlib.shuffle.MultiType;
-import simulationlib.shuffle.PrefixedConcurrentMap;
-import simulationlib.shuffle.ShuffleboardHelpers;
-import simulationlib.shuffle.SupplierMapFactory;
+import frc.robot.whatif.GrabberWhatIf;
+import simulationlib.simulation.framework.SimClock;
+import simulationlib.simulation.framework.SimWorld;
 
 /**
  * This class is where the bulk of the robot should be declared. Since Command-based is a
@@ -43,6 +42,15 @@ public class RobotContainer {
 
   private final PopulateShuffleboard m_shuffleboardManager;
 
+  // Dashboard properties, clock and SimManagers of the simulated subsystems
+  private final SimWorld m_simWorld = SimWorld.getGlobalInstance();
+
+  // Where every command and helper of the robot program reads the time from
+  private final SimClock m_clock = SimClock.getFpgaClock();
+
+  // Forks the simulated robot into what-if branches, only when simulating, otherwise null
+  private final GrabberWhatIf m_grabberWhatIf;
+
   /**
    * The container for the robot. Contains subsystems, OI devices, and commands.
    * 
@@ -59,27 +67,61 @@ public class RobotContainer {
     m_controller2 = new XboxController(Constants.OperatorConstants.kDriverControllerPort2);
 
     // Crreate all subsystems
-    m_driveSystem = TankDriveSystemSim.createTankDriveSystemInstance(m_controller1);
-    m_armSystem = ArmSystemSim.createArmSystemInstance(m_controller2);
+    if (RobotBase.isSimulation()) {
+      TankDriveSystemSim driveSystemSim = new TankDriveSystemSim(m_controller1, m_simWorld);
+      ArmSystemSim armSystemSim = new ArmSystemSim(m_controller2, m_simWorld);
+
+      m_driveSystem = driveSystemSim;
+      m_armSystem = armSystemSim;
+      m_grabberWhatIf = new GrabberWhatIf(armSystemSim, driveSystemSim, m_clock);
+    }
+    else {
+      m_driveSystem = TankDriveSystemSim.createTankDriveSystemInstance(m_controller1,
+          m_simWorld);
+      m_armSystem = ArmSystemSim.createArmSystemInstance(m_controller2, m_simWorld);
+      m_grabberWhatIf = null;
+    }
     m_grabSystem = GrabberSystemSim.createGrabberSystemInstance(m_controller2);
 
     setDefaultCommands();
 
     setupGrabberNotificationsToArm();
 
+    // Shadow mode results go out with the other dashboard properties
+    if (Constants.OperatorConstants.kUseArmShadow) {
+      m_armSystem.addShadowProperties(
+          m_simWorld.createShuffleboardClientForSubsystem("ArmSystem"));
+    }
+
     // Now that all subsystems are created, print out the list of properties
     // available for display in Shuffleboard.
     printAvailableDashboardProperties();
 
     m_shuffleboardManager = new PopulateShuffleboard(
-        new ShuffleboardHelpers(SupplierMapFactory.getGlobalInstance()), new DefaultLayout(),
-        Shuffleboard.getTab("Simulation"));
+        PopulateShuffleboard.createPublisher(m_simWorld.getPropertyMap()), new DefaultLayout(),
+        Shuffleboard.getTab("Simulation"), m_clock);
   }
 
   private void printAvailableDashboardProperties() {
-    PrefixedConcurrentMap<Supplier<MultiType>> globalMap = SupplierMapFactory.getGlobalInstance();
+    m_simWorld.getPropertyMap().prettyPrint();
+  }
+
+  /**
+   * Called every 20ms when simulating, after the subsystems' simulationPeriodic().
+   */
+  public void simulationPeriodic() {
+    m_simWorld.advanceTick();
+    m_grabberWhatIf.periodic();
+  }
 
-    globalMap.prettyPrint();
+  /**
+   * Adds the debug toggles of the subsystems and sim helpers to the dashboard. The what-if
+   * button is only added when simulating.
+   */
+  public void addDebugToggles(DashboardToggles toggles) {
+    if (m_grabberWhatIf != null) {
+      m_grabberWhatIf.addToggles(toggles);
+    }
   }
 
   /**
@@ -110,7 +152,14 @@ public class RobotContainer {
     }
 
     // System.out.println("Auto command scheduled container");
-    return Auto.getAutoCommand(chooser, m_driveSystem, m_armSystem, m_grabSystem);
+    return Auto.getAutoCommand(chooser, m_driveSystem, m_armSystem, m_grabSystem, m_clock);
+  }
+
+  /**
+   * Returns the clock the robot program reads the time from.
+   */
+  public SimClock getClock() {
+    return m_clock;
   }
 
   /**
@@ -124,6 +173,10 @@ public class RobotContainer {
 
     m_shuffleboardManager.addShuffleboardWidgets();
     m_shuffleboardManager.addMacros(m_armSystem);
+
+    if (Constants.OperatorConstants.kUseArmShadow) {
+      m_shuffleboardManager.addShadowToDash();
+    }
   }
 
   /**
@@ -142,12 +195,10 @@ public class RobotContainer {
     m_armSystem.setDefaultCommand(m_armSystem.getDefaultArmCommand());
   }
 
-  // Stitch together BooleanSupplier from GrabberSystemSim with ArmSystemSim
+  // Stitch together the grabber with the arm. With the ArmLimitPredictor on, ArmSystem keeps
+  // the arm out of the grabber's break range while it's open. ArmSystemSim also breaks the
+  // simulated arm if it isn't.
   private void setupGrabberNotificationsToArm() {
-    if (m_grabSystem instanceof GrabberSystemSim && m_armSystem instanceof ArmSystemSim) {
-
-      BooleanSupplier supplier = ((GrabberSystemSim) m_grabSystem).getGrabberOpenSupplier();
-      ((ArmSystemSim) m_armSystem).setGrabberOpenSupplier(supplier);
-    }
+    m_armSystem.setGrabberOpenSupplier(m_grabSystem::isGrabberOpen);
   }
 }
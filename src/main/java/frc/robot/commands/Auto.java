@@ -2,14 +2,17 @@ package frc.robot.commands;
 
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
-import edu.wpi.first.wpilibj2.command.WaitCommand;
-import frc.robot.Constants;
 import frc.robot.subsystems.ArmSystem;
 import frc.robot.subsystems.GrabberSystem;
 import frc.robot.subsystems.TankDriveSystem;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import simulationlib.simulation.framework.SimClock;
 
 /**
  * This class contains the logic for autonomous.
@@ -60,6 +63,18 @@ public class Auto {
       TankDriveSystem driveSystem,
       ArmSystem armSystem,
       GrabberSystem grabSystem) {
+    return getAutoCommand(chooser, driveSystem, armSystem, grabSystem,
+        SimClock.getFpgaClock());
+  }
+
+  /**
+   * Returns the command to run for autonomous, whose waits read the time from clock.
+   */
+  public static CommandBase getAutoCommand(SendableChooser<String> chooser,
+      TankDriveSystem driveSystem,
+      ArmSystem armSystem,
+      GrabberSystem grabSystem,
+      SimClock clock) {
 
     if (chooser == null) {
       throw new IllegalArgumentException("Chooser cannot be null");
@@ -73,61 +88,91 @@ public class Auto {
     if (grabSystem == null) {
       throw new IllegalArgumentException("Grab system cannot be null");
     }
+    if (clock == null) {
+      throw new IllegalArgumentException("Clock cannot be null");
+    }
 
     String autoMode = chooser.getSelected();
     System.out.println("Auto mode selected: " + autoMode);
 
+    List<AutoStep> steps = getAutoSteps(autoMode);
+    if (steps == null) {
+      System.out.println("UNEXPECTED AUTO MODE - auto mode will do nothing");
+      return new InstantCommand();
+    }
+
+    List<Command> commands = new ArrayList<Command>();
+    for (AutoStep step : steps) {
+      commands.add(step.toCommand(driveSystem, armSystem, grabSystem, clock));
+    }
+
+    return Commands.sequence(commands.toArray(new Command[0]));
+  }
+
+  /**
+   * Returns every auto mode that addAutoModeChooser() offers.
+   */
+  public static List<String> getAllAutoModes() {
+    return Arrays.asList(kDropAndDriveMode,
+        kAutoBalanceMode,
+        kOnlyScore,
+        kScoreLow,
+        kAutoTestSlow,
+        kTestDriveOnly);
+  }
+
+  /**
+   * Returns the steps that make up the given auto mode, or null if the auto mode is unknown.
+   */
+  public static List<AutoStep> getAutoSteps(String autoMode) {
+    if (autoMode == null) {
+      return null;
+    }
+
     // Switch statement to use specific autoroutines based on sendable dropdown
     switch (autoMode) {
       case kDropAndDriveMode:
-        return Commands.sequence(new SetWinchToAngle(armSystem, 0.75, 0.9),
-            new SetExtenderToLength(armSystem, -100, 0.9),
-            new WaitCommand(0.5),
-            new GrabberOpenCommand(grabSystem),
-            new WaitCommand(0.5),
-            new DriveCommand(driveSystem, 15 * 12, Constants.OperatorConstants.kGearBoxRatioDrive,
-                0.5, Constants.OperatorConstants.kWheelCircumferenceInchesDrive));
+        return Arrays.asList(AutoStep.setWinchToAngle(0.75, 0.9),
+            AutoStep.setExtenderToLength(-100, 0.9),
+            AutoStep.waitSeconds(0.5),
+            AutoStep.grabberOpen(),
+            AutoStep.waitSeconds(0.5),
+            AutoStep.drive(15 * 12, 0.5));
 
       case kAutoBalanceMode:
-        return Commands.sequence(new SetWinchToAngle(armSystem, 0.75, 1),
-            new WaitCommand(0.25),
-            new DriveCommand(driveSystem, 8 * 12, Constants.OperatorConstants.kGearBoxRatioDrive,
-                -0.4, Constants.OperatorConstants.kWheelCircumferenceInchesDrive),
-            new AutoBalanceCommand(driveSystem, 0.25));
+        return Arrays.asList(AutoStep.setWinchToAngle(0.75, 1),
+            AutoStep.waitSeconds(0.25),
+            AutoStep.drive(8 * 12, -0.4),
+            AutoStep.autoBalance(0.25));
 
       case kOnlyScore:
-        return Commands.sequence(new SetWinchToAngle(armSystem, 0.75, 0.9),
-            new SetExtenderToLength(armSystem, -100, 0.9),
-            new WaitCommand(0.5),
-            new GrabberOpenCommand(grabSystem));
+        return Arrays.asList(AutoStep.setWinchToAngle(0.75, 0.9),
+            AutoStep.setExtenderToLength(-100, 0.9),
+            AutoStep.waitSeconds(0.5),
+            AutoStep.grabberOpen());
 
       case kAutoTestSlow:
-        return Commands.sequence(new SetWinchToAngle(armSystem, 0.75, 1),
-            new WaitCommand(0.25),
-            new WaitCommand(0.25),
-            new DriveUntilTiltCommand(driveSystem, -0.4),
-            new DriveCommand(driveSystem, 1.5 * 12, Constants.OperatorConstants.kGearBoxRatioDrive,
-                -0.4, Constants.OperatorConstants.kWheelCircumferenceInchesDrive),
-            new AutoBalanceCommand(driveSystem, 0.25));
+        return Arrays.asList(AutoStep.setWinchToAngle(0.75, 1),
+            AutoStep.waitSeconds(0.25),
+            AutoStep.waitSeconds(0.25),
+            AutoStep.driveUntilTilt(-0.4),
+            AutoStep.drive(1.5 * 12, -0.4),
+            AutoStep.autoBalance(0.25));
 
       case kScoreLow:
-        return Commands.sequence(new SetWinchToAngle(armSystem, 0.75, 1),
-            new WaitCommand(0.5),
-            new DriveCommand(driveSystem, 15 * 12, Constants.OperatorConstants.kGearBoxRatioDrive,
-                0.5, Constants.OperatorConstants.kWheelCircumferenceInchesDrive));
+        return Arrays.asList(AutoStep.setWinchToAngle(0.75, 1),
+            AutoStep.waitSeconds(0.5),
+            AutoStep.drive(15 * 12, 0.5));
 
       case kTestDriveOnly:
-        return Commands.sequence(new WaitCommand(0.25),
-            new DriveCommand(driveSystem, 5 * 12, Constants.OperatorConstants.kGearBoxRatioDrive,
-                0.4, Constants.OperatorConstants.kWheelCircumferenceInchesDrive),
-            new TurnDegrees(driveSystem, 0.6, 90),
-            new TurnDegrees(driveSystem, 0.6, -90),
-            new DriveCommand(driveSystem, 5 * 12, Constants.OperatorConstants.kGearBoxRatioDrive,
-                0.4, Constants.OperatorConstants.kWheelCircumferenceInchesDrive));
+        return Arrays.asList(AutoStep.waitSeconds(0.25),
+            AutoStep.drive(5 * 12, 0.4),
+            AutoStep.turnDegrees(0.6, 90),
+            AutoStep.turnDegrees(0.6, -90),
+            AutoStep.drive(5 * 12, 0.4));
 
       default:
-        System.out.println("UNEXPECTED AUTO MODE - auto mode will do nothing");
-        return new InstantCommand();
+        return null;
     }
   }
 }
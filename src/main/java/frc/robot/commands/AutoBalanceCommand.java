@@ -1,9 +1,8 @@
 package frc.robot.commands;
 
-import edu.wpi.first.math.MathUtil;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.subsystems.TankDriveSystem;
+import simulationlib.simulation.framework.SimClock;
 
 /**
  * This class represents a command for an automated balance control system for a tank drive system.
@@ -11,9 +10,9 @@ import frc.robot.subsystems.TankDriveSystem;
  */
 public class AutoBalanceCommand extends CommandBase {
   private TankDriveSystem m_driveSystem;
-  private double m_rate;
-  private Timer m_timer = new Timer();
-  private double m_cycle = 1;
+  private final AutoBalanceController m_controller;
+  private final SimClock m_clock;
+  private double m_prevTimerSeconds;
 
   /**
    * Constructs a new AutoBalanceCommand with the given tank drive system and rate.
@@ -22,14 +21,49 @@ public class AutoBalanceCommand extends CommandBase {
    * @param rate        the rate at which balance corrections should be applied
    */
   public AutoBalanceCommand(TankDriveSystem driveSystem, double rate) {
+    this(driveSystem, createParamsWithRate(rate));
+  }
+
+  /**
+   * Constructs a new AutoBalanceCommand with the given tank drive system and tuning values.
+   *
+   * @param driveSystem the tank drive system to control
+   * @param params      the tuning values, see AutoBalanceParams
+   */
+  public AutoBalanceCommand(TankDriveSystem driveSystem, AutoBalanceParams params) {
+    this(driveSystem, params, SimClock.getFpgaClock());
+  }
+
+  /**
+   * Constructs a new AutoBalanceCommand that reads the time from the given clock.
+   *
+   * @param driveSystem the tank drive system to control
+   * @param params      the tuning values, see AutoBalanceParams
+   * @param clock       where to read the time from, e.g. a SimWorld when simulating
+   */
+  public AutoBalanceCommand(TankDriveSystem driveSystem,
+      AutoBalanceParams params,
+      SimClock clock) {
+    if (clock == null) {
+      throw new IllegalArgumentException("clock cannot be null");
+    }
+
     m_driveSystem = driveSystem;
-    m_rate = rate;
+    m_controller = new AutoBalanceController(params);
+    m_clock = clock;
     addRequirements(driveSystem);
   }
 
+  private static AutoBalanceParams createParamsWithRate(double rate) {
+    AutoBalanceParams params = new AutoBalanceParams();
+    params.rate = rate;
+    return params;
+  }
+
   @Override
   public void initialize() {
-    m_timer.start();
+    m_controller.reset();
+    m_prevTimerSeconds = m_clock.getSeconds();
   }
 
   /*
@@ -37,31 +71,14 @@ public class AutoBalanceCommand extends CommandBase {
    */
   @Override
   public void execute() {
-    double executeRate = m_rate / m_cycle;
-
-    if (MathUtil.applyDeadband(m_driveSystem.getGyroRate(), 3) > 0) {
-      m_driveSystem.tankDrive(0, 0, false);
-      if (m_timer.get() >= 0.5) {
-        m_cycle += 0.5;
-        m_timer.reset();
-      }
-    }
-    else if (MathUtil.applyDeadband(m_driveSystem.getGyroAngle() + 2.5, 2) > 0) {
-      m_driveSystem.tankDrive(executeRate, executeRate, false);
-    }
-    else if (MathUtil.applyDeadband(m_driveSystem.getGyroAngle() + 2.5, 2) < 0) {
-      m_driveSystem.tankDrive(-executeRate, -executeRate, false);
-    }
-    else {
-      m_driveSystem.tankDrive(0, 0, false);
-      if (m_timer.get() >= 0.5) {
-        m_cycle += 0.5; // Changed from 0.5
-        m_timer.reset();
-      }
-    }
+    double timerSeconds = m_clock.getSeconds();
+    double speed = m_controller.calculate(m_driveSystem.getGyroAngle(),
+        m_driveSystem.getGyroRate(),
+        timerSeconds - m_prevTimerSeconds);
+    m_prevTimerSeconds = timerSeconds;
 
+    m_driveSystem.tankDrive(speed, speed, false);
     m_driveSystem.setRate();
-    // new WaitCommand(0.5).schedule();
   }
 
   @Override
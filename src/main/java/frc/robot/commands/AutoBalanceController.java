@@ -0,0 +1,88 @@
+package frc.robot.commands;
+
+import edu.wpi.first.math.MathUtil;
+
+/**
+ * Balances the robot of AutoBalanceCommand on the charge station. The gyro angle, plus
+ * angleOffsetDegrees for how the gyro is mounted, counts as level within angleDeadbandDegrees.
+ * Outside of it, the robot drives at rate / cycle, forward for a positive angle and backward
+ * for a negative one. While the gyro rate is outside rateDeadbandDegrees, the platform is
+ * still tipping, so the robot stops and waits for it.
+ * <p>
+ * Each cyclePeriodSeconds spent level or waiting, the cycle grows by cycleGrowth, so every
+ * correction is gentler than the last. Nothing makes it finish: AutoBalanceCommand keeps
+ * balancing until autonomous ends.
+ * </p>
+ * <p>
+ * Note that MathUtil.applyDeadband() flips the sign of its result when the deadband is larger
+ * than 1, which is the case for the hand-tuned values. The hand-tuning was done with that
+ * behavior, so the logic here keeps it as-is.
+ * </p>
+ */
+public class AutoBalanceController {
+  private final AutoBalanceParams m_params;
+  private double m_cycle;
+  private double m_secondsSinceCycleChange;
+
+  /**
+   * Constructor.
+   */
+  public AutoBalanceController(AutoBalanceParams params) {
+    if (params == null) {
+      throw new IllegalArgumentException("params cannot be null");
+    }
+
+    m_params = new AutoBalanceParams(params);
+    reset();
+  }
+
+  /**
+   * Returns the controller to its initial state.
+   */
+  public void reset() {
+    m_cycle = 1;
+    m_secondsSinceCycleChange = 0;
+  }
+
+  public double getCycle() {
+    return m_cycle;
+  }
+
+  /**
+   * Calculates the percent output to apply to both sides of the drive.
+   *
+   * @param gyroAngle      the raw gyro angle, in degrees
+   * @param gyroRate       how much the gyro angle changed since the previous call
+   * @param elapsedSeconds time since the previous call
+   */
+  public double calculate(double gyroAngle, double gyroRate, double elapsedSeconds) {
+    double executeRate = m_params.rate / m_cycle;
+    double correctedAngle = MathUtil.applyDeadband(gyroAngle + m_params.angleOffsetDegrees,
+        m_params.angleDeadbandDegrees);
+
+    m_secondsSinceCycleChange += elapsedSeconds;
+
+    if (MathUtil.applyDeadband(gyroRate, m_params.rateDeadbandDegrees) > 0) {
+      // Platform is still moving, so wait for it to settle
+      growCycleIfWaitedLongEnough();
+      return 0;
+    }
+    else if (correctedAngle > 0) {
+      return executeRate;
+    }
+    else if (correctedAngle < 0) {
+      return -executeRate;
+    }
+    else {
+      growCycleIfWaitedLongEnough();
+      return 0;
+    }
+  }
+
+  private void growCycleIfWaitedLongEnough() {
+    if (m_secondsSinceCycleChange >= m_params.cyclePeriodSeconds) {
+      m_cycle += m_params.cycleGrowth;
+      m_secondsSinceCycleChange = 0;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package frc.robot.commands;
+
+/**
+ * Holds the tuning values for AutoBalanceCommand. The defaults are the values that were
+ * hand-tuned on the real charge station.
+ */
+public class AutoBalanceParams {
+  // Percent output when the robot starts balancing
+  @SuppressWarnings("checkstyle:MemberName")
+  public double rate = 0.25;
+
+  // While the gyro angle changes faster than this (degrees per 20ms), the robot waits.
+  // Note that only values below 1 have an effect, see AutoBalanceController.
+  @SuppressWarnings("checkstyle:MemberName")
+  public double rateDeadbandDegrees = 3;
+
+  // The robot counts as level when the corrected gyro angle is within this deadband
+  @SuppressWarnings("checkstyle:MemberName")
+  public double angleDeadbandDegrees = 2;
+
+  // Added to the gyro angle to correct for how the gyro is mounted
+  @SuppressWarnings("checkstyle:MemberName")
+  public double angleOffsetDegrees = 2.5;
+
+  // Each time the robot waits for a full cycle period, the output is divided by a larger
+  // number: rate / (1 + cycleGrowth * n)
+  @SuppressWarnings("checkstyle:MemberName")
+  public double cycleGrowth = 0.5;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double cyclePeriodSeconds = 0.5;
+
+  /**
+   * Constructor with 0 params, uses the hand-tuned defaults.
+   */
+  public AutoBalanceParams() {
+  }
+
+  /**
+   * Copy constructor.
+   */
+  public AutoBalanceParams(AutoBalanceParams other) {
+    rate = other.rate;
+    rateDeadbandDegrees = other.rateDeadbandDegrees;
+    angleDeadbandDegrees = other.angleDeadbandDegrees;
+    angleOffsetDegrees = other.angleOffsetDegrees;
+    cycleGrowth = other.cycleGrowth;
+    cyclePeriodSeconds = other.cyclePeriodSeconds;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "rate=%.4f rateDeadband=%.3f angleDeadband=%.3f angleOffset=%.3f cycleGrowth=%.3f"
+            + " cyclePeriod=%.3f",
+        rate,
+        rateDeadbandDegrees,
+        angleDeadbandDegrees,
+        angleOffsetDegrees,
+        cycleGrowth,
+        cyclePeriodSeconds);
+  }
+}
@@ -0,0 +1,161 @@
+package frc.robot.commands;
+
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import frc.robot.Constants;
+import frc.robot.subsystems.ArmSystem;
+import frc.robot.subsystems.GrabberSystem;
+import frc.robot.subsystems.TankDriveSystem;
+import simulationlib.simulation.framework.SimClock;
+
+/**
+ * One step of an auto mode, e.g. "drive 8 feet backwards at 40%". Auto builds its command
+ * sequences from these, and the headless auto runner replays the same steps without the
+ * HAL, so both always agree on what each auto mode does.
+ */
+public class AutoStep {
+  /**
+   * Which command the step turns into.
+   */
+  public enum Type {
+    SetWinchToAngle, SetExtenderToLength, Wait, GrabberOpen, Drive, DriveUntilTilt,
+    TurnDegrees, AutoBalance
+  }
+
+  private final Type m_type;
+  private final double m_value;
+  private final double m_percentOutput;
+
+  private AutoStep(Type type, double value, double percentOutput) {
+    m_type = type;
+    m_value = value;
+    m_percentOutput = percentOutput;
+  }
+
+  /**
+   * Same as SetWinchToAngle(armSystem, angle, speed).
+   */
+  public static AutoStep setWinchToAngle(double angle, double speed) {
+    return new AutoStep(Type.SetWinchToAngle, angle, speed);
+  }
+
+  /**
+   * Same as SetExtenderToLength(armSystem, rotations, speed).
+   */
+  public static AutoStep setExtenderToLength(double rotations, double speed) {
+    return new AutoStep(Type.SetExtenderToLength, rotations, speed);
+  }
+
+  /**
+   * Same as WaitCommand(seconds), see WaitSecondsCommand.
+   */
+  public static AutoStep waitSeconds(double seconds) {
+    if (seconds < 0) {
+      throw new IllegalArgumentException("seconds must be >=0");
+    }
+
+    return new AutoStep(Type.Wait, seconds, 0);
+  }
+
+  public static AutoStep grabberOpen() {
+    return new AutoStep(Type.GrabberOpen, 0, 0);
+  }
+
+  /**
+   * Same as DriveCommand, using the drive gearbox ratio and wheel size from Constants.
+   */
+  public static AutoStep drive(double distanceInches, double percentOutput) {
+    return new AutoStep(Type.Drive, distanceInches, percentOutput);
+  }
+
+  public static AutoStep driveUntilTilt(double percentOutput) {
+    return new AutoStep(Type.DriveUntilTilt, 0, percentOutput);
+  }
+
+  public static AutoStep turnDegrees(double percentOutput, double degrees) {
+    return new AutoStep(Type.TurnDegrees, degrees, percentOutput);
+  }
+
+  /**
+   * Same as AutoBalanceCommand(driveSystem, rate). Note that this step never finishes.
+   */
+  public static AutoStep autoBalance(double rate) {
+    return new AutoStep(Type.AutoBalance, 0, rate);
+  }
+
+  public Type getType() {
+    return m_type;
+  }
+
+  /**
+   * Target of the step: winch angle, extender rotations, wait seconds, drive distance in
+   * inches or turn degrees. Unused by the other step types.
+   */
+  public double getValue() {
+    return m_value;
+  }
+
+  /**
+   * Speed or percent output of the step. For AutoBalance, this is the rate.
+   */
+  public double getPercentOutput() {
+    return m_percentOutput;
+  }
+
+  /**
+   * Creates the command for this step, timed by WPILib's Timer.
+   */
+  public CommandBase toCommand(TankDriveSystem driveSystem,
+      ArmSystem armSystem,
+      GrabberSystem grabSystem) {
+    return toCommand(driveSystem, armSystem, grabSystem, SimClock.getFpgaClock());
+  }
+
+  /**
+   * Creates the command for this step. Wait and AutoBalance read the time from clock.
+   */
+  public CommandBase toCommand(TankDriveSystem driveSystem,
+      ArmSystem armSystem,
+      GrabberSystem grabSystem,
+      SimClock clock) {
+
+    switch (m_type) {
+      case SetWinchToAngle:
+        return new SetWinchToAngle(armSystem, m_value, m_percentOutput);
+
+      case SetExtenderToLength:
+        return new SetExtenderToLength(armSystem, m_value, m_percentOutput);
+
+      case Wait:
+        return new WaitSecondsCommand(m_value, clock);
+
+      case GrabberOpen:
+        return new GrabberOpenCommand(grabSystem);
+
+      case Drive:
+        return new DriveCommand(driveSystem,
+            m_value,
+            Constants.OperatorConstants.kGearBoxRatioDrive,
+            m_percentOutput,
+            Constants.OperatorConstants.kWheelCircumferenceInchesDrive);
+
+      case DriveUntilTilt:
+        return new DriveUntilTiltCommand(driveSystem, m_percentOutput);
+
+      case TurnDegrees:
+        return new TurnDegrees(driveSystem, m_percentOutput, m_value);
+
+      case AutoBalance:
+        AutoBalanceParams params = new AutoBalanceParams();
+        params.rate = m_percentOutput;
+        return new AutoBalanceCommand(driveSystem, params, clock);
+
+      default:
+        throw new IllegalStateException("Unknown auto step type: " + m_type);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s(%.2f, %.2f)", m_type, m_value, m_percentOutput);
+  }
+}
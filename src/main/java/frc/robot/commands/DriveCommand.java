@@ -7,10 +7,7 @@ import frc.robot.subsystems.TankDriveSystem;
  * Command to drive the robot a certain distance.
  */
 public class DriveCommand extends CommandBase {
-  private double m_distance;
-  private double m_gearBoxRatio;
-  private double m_percentOutput;
-  private double m_wheelCircumference;
+  private final DriveDistanceController m_controller;
 
   TankDriveSystem m_drive;
 
@@ -23,10 +20,10 @@ public class DriveCommand extends CommandBase {
       double percentOutput,
       double wheelCircumference) {
 
-    m_distance = distance;
-    m_gearBoxRatio = gearBoxRatio;
-    m_percentOutput = -percentOutput;
-    m_wheelCircumference = wheelCircumference;
+    m_controller = new DriveDistanceController(distance,
+        gearBoxRatio,
+        percentOutput,
+        wheelCircumference);
 
     m_drive = drive;
     addRequirements(drive);
@@ -39,15 +36,12 @@ public class DriveCommand extends CommandBase {
 
   @Override
   public void execute() {
-    m_drive.tankDrive(-m_percentOutput, -m_percentOutput, false);
+    m_drive.tankDrive(m_controller.getOutput(), m_controller.getOutput(), false);
   }
 
   @Override
   public boolean isFinished() {
-    if (m_distance <= m_drive.getAverageEncoderPosition() / m_gearBoxRatio * m_wheelCircumference) {
-      return true;
-    }
-    return false;
+    return m_controller.isFinished(m_drive.getAverageEncoderPosition());
   }
 
   @Override
@@ -0,0 +1,47 @@
+package frc.robot.commands;
+
+/**
+ * Drives both sides of DriveCommand at the same percent output. Finishes once the average of
+ * the drive encoders, which the command resets when it starts, reaches the distance.
+ */
+public class DriveDistanceController {
+  private final double m_distance;
+  private final double m_gearBoxRatio;
+  private final double m_percentOutput;
+  private final double m_wheelCircumference;
+
+  /**
+   * Constructor.
+   *
+   * @param distance           distance to drive, in the units of wheelCircumference
+   * @param gearBoxRatio       motor rotations per wheel rotation
+   * @param percentOutput      percent output of both sides, negative to drive backwards
+   * @param wheelCircumference distance the robot travels per wheel rotation
+   */
+  public DriveDistanceController(double distance,
+      double gearBoxRatio,
+      double percentOutput,
+      double wheelCircumference) {
+    m_distance = distance;
+    m_gearBoxRatio = gearBoxRatio;
+    m_percentOutput = percentOutput;
+    m_wheelCircumference = wheelCircumference;
+  }
+
+  /**
+   * Returns the percent output to give both sides of the drive.
+   */
+  public double getOutput() {
+    return m_percentOutput;
+  }
+
+  /**
+   * Returns true once the robot drove the distance.
+   *
+   * @param averageEncoderPosition average of the absolute drive encoder positions, in motor
+   *                               rotations since the command started
+   */
+  public boolean isFinished(double averageEncoderPosition) {
+    return m_distance <= averageEncoderPosition / m_gearBoxRatio * m_wheelCircumference;
+  }
+}
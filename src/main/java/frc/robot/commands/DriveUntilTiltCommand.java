@@ -1,6 +1,5 @@
 package frc.robot.commands;
 
-import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.subsystems.TankDriveSystem;
 
@@ -10,13 +9,13 @@ import frc.robot.subsystems.TankDriveSystem;
  */
 public class DriveUntilTiltCommand extends CommandBase {
   private TankDriveSystem m_driveSystem;
-  private double m_percentOutput;
+  private final DriveUntilTiltController m_controller;
 
   /**
    * Constructor.
    */
   public DriveUntilTiltCommand(TankDriveSystem driveSystem, double percentOutput) {
-    m_percentOutput = percentOutput;
+    m_controller = new DriveUntilTiltController(percentOutput);
     m_driveSystem = driveSystem;
 
     addRequirements(driveSystem);
@@ -29,16 +28,12 @@ public class DriveUntilTiltCommand extends CommandBase {
 
   @Override
   public void execute() {
-    m_driveSystem.tankDrive(m_percentOutput, m_percentOutput, false);
+    m_driveSystem.tankDrive(m_controller.getOutput(), m_controller.getOutput(), false);
   }
 
   @Override
   public boolean isFinished() {
-    if (MathUtil.applyDeadband(m_driveSystem.getGyroAngle() + 2, 2.5) > 0) {
-      return true;
-    }
-
-    return false;
+    return m_controller.isFinished(m_driveSystem.getGyroAngle());
   }
 
   @Override
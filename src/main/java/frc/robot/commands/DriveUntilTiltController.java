@@ -0,0 +1,37 @@
+package frc.robot.commands;
+
+import edu.wpi.first.math.MathUtil;
+
+/**
+ * Drives both sides of DriveUntilTiltCommand at the same percent output. Finishes once the
+ * gyro angle, plus 2 degrees for how the gyro is mounted, is more than 2.5 degrees, e.g. when
+ * the robot drives onto the charge station.
+ */
+public class DriveUntilTiltController {
+  private final double m_percentOutput;
+
+  /**
+   * Constructor.
+   *
+   * @param percentOutput percent output of both sides, negative to drive backwards
+   */
+  public DriveUntilTiltController(double percentOutput) {
+    m_percentOutput = percentOutput;
+  }
+
+  /**
+   * Returns the percent output to give both sides of the drive.
+   */
+  public double getOutput() {
+    return m_percentOutput;
+  }
+
+  /**
+   * Returns true once the gyro shows the robot tilted, e.g. driving onto the charge station.
+   *
+   * @param gyroAngle the raw gyro angle, in degrees
+   */
+  public boolean isFinished(double gyroAngle) {
+    return MathUtil.applyDeadband(gyroAngle + 2, 2.5) > 0;
+  }
+}
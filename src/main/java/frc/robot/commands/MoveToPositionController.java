@@ -0,0 +1,61 @@
+package frc.robot.commands;
+
+import edu.wpi.first.math.MathUtil;
+import frc.robot.Constants;
+
+/**
+ * Moves the winch (SetWinchToAngle) or the extender (SetExtenderToLength) to a target encoder
+ * position at a fixed speed, in the direction of the target from where the encoder was when
+ * the command started. Finishes once the position reaches or passes the target, or once the
+ * operator moves the stick.
+ */
+public class MoveToPositionController {
+  private final double m_target;
+  private final double m_speed;
+  private int m_inverse = 1;
+
+  /**
+   * Constructor.
+   *
+   * @param target position to move to, in the units of the encoder
+   * @param speed  percent output to move with, 0 to 1
+   */
+  public MoveToPositionController(double target, double speed) {
+    m_target = target;
+    m_speed = speed;
+  }
+
+  /**
+   * Picks the direction from where the encoder is when the command starts.
+   */
+  public void initialize(double position) {
+    m_inverse = (position > m_target) ? -1 : 1;
+  }
+
+  /**
+   * Returns the percent output to set the motor to.
+   */
+  public double getOutput() {
+    return m_inverse * m_speed;
+  }
+
+  /**
+   * Returns true once the position reached or passed the target.
+   */
+  public boolean isFinished(double position) {
+    if (m_inverse == 1) {
+      return position >= m_target;
+    }
+
+    return position <= m_target;
+  }
+
+  /**
+   * Same as isFinished(position), and also true once the operator moves operatorAxis out of
+   * the deadband, which hands the motor back to the joystick.
+   */
+  public boolean isFinished(double position, double operatorAxis) {
+    return MathUtil.applyDeadband(operatorAxis, Constants.OperatorConstants.kDeadband) != 0
+        || isFinished(position);
+  }
+}
@@ -8,9 +8,7 @@ import frc.robot.subsystems.ArmSystem;
  */
 public class SetExtenderToLength extends CommandBase {
   private ArmSystem m_armSystem;
-  private double m_rotations;
-  private double m_speed;
-  private int m_inverse;
+  private final MoveToPositionController m_controller;
 
   /**
    * Constructor.
@@ -19,37 +17,22 @@ public class SetExtenderToLength extends CommandBase {
     m_armSystem = armSystem;
     addRequirements(armSystem);
 
-    m_rotations = rotations;
-    m_speed = speed;
+    m_controller = new MoveToPositionController(rotations, speed);
   }
 
   @Override
   public void initialize() {
-    if (m_armSystem.getExtenderEncoder() > m_rotations) {
-      m_inverse = -1;
-      //System.out.println("inversed");
-    }
-    else {
-      m_inverse = 1;
-      //System.out.println("not inversed");
-    }
+    m_controller.initialize(m_armSystem.getExtenderEncoder());
   }
 
   @Override
   public void execute() {
-    m_armSystem.setExtenderSpeed(m_inverse * m_speed);
+    m_armSystem.setExtenderSpeed(m_controller.getOutput());
   }
 
   @Override
   public boolean isFinished() {
-
-    if (m_inverse == 1 && m_armSystem.getExtenderEncoder() >= m_rotations) {
-      return true;
-    }
-    else if (m_inverse == -1 && m_armSystem.getExtenderEncoder() <= m_rotations) {
-      return true;
-    }
-    return false;
+    return m_controller.isFinished(m_armSystem.getExtenderEncoder());
   }
 
   @Override
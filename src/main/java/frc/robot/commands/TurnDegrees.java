@@ -7,17 +7,14 @@ import frc.robot.subsystems.TankDriveSystem;
  * Command to turn the robot a certain number of degrees.
  */
 public class TurnDegrees extends CommandBase {
-  private double m_percentOutput;
-  private double m_degrees;
-  private double m_initialHeading;
+  private final TurnDegreesController m_controller;
   private TankDriveSystem m_drive;
 
   /**
    * Constructor.
    */
   public TurnDegrees(TankDriveSystem drive, double percentOutput, double degrees) {
-    m_percentOutput = percentOutput;
-    m_degrees = degrees;
+    m_controller = new TurnDegreesController(percentOutput, degrees);
     m_drive = drive;
 
     addRequirements(drive);
@@ -25,28 +22,18 @@ public class TurnDegrees extends CommandBase {
 
   @Override
   public void initialize() {
-    m_initialHeading = m_drive.getGyroYaw();
+    m_controller.initialize(m_drive.getGyroYaw());
   }
 
   @Override
   public void execute() {
-    // Calculate the error
-    double error = m_degrees - (m_drive.getGyroYaw() - m_initialHeading);
-
-    // Wrap error to be within -180 to 180 degrees
-    error = ((error + 180) % 360) - 180;
-    if (error < -180) {
-      error += 360;
-    }
-
-    double direction = Math.signum(error);
-    m_drive.tankDrive(-1 * direction * m_percentOutput, direction * m_percentOutput, true);
+    double rightOutput = m_controller.calculate(m_drive.getGyroYaw());
+    m_drive.tankDrive(-rightOutput, rightOutput, true);
   }
 
   @Override
   public boolean isFinished() {
-    // Check if the robot is within an acceptable error range (e.g., 2 degrees)
-    return Math.abs(m_degrees - (m_drive.getGyroYaw() - m_initialHeading)) < 2;
+    return m_controller.isFinished(m_drive.getGyroYaw());
   }
 
   @Override
@@ -0,0 +1,55 @@
+package frc.robot.commands;
+
+/**
+ * Turns the robot of TurnDegrees in place at a fixed percent output, the short way toward the
+ * heading it started at plus the degrees. Finishes within 2 degrees of that heading.
+ */
+public class TurnDegreesController {
+  // Acceptable error, in degrees
+  private static final double kToleranceDegrees = 2;
+
+  private final double m_percentOutput;
+  private final double m_degrees;
+  private double m_initialHeading;
+
+  /**
+   * Constructor.
+   *
+   * @param percentOutput percent output to turn with, 0 to 1
+   * @param degrees       how far to turn, counter-clockwise positive like the gyro yaw
+   */
+  public TurnDegreesController(double percentOutput, double degrees) {
+    m_percentOutput = percentOutput;
+    m_degrees = degrees;
+  }
+
+  /**
+   * Takes the gyro yaw when the command starts, which the turn is relative to.
+   */
+  public void initialize(double gyroYaw) {
+    m_initialHeading = gyroYaw;
+  }
+
+  /**
+   * Returns the percent output of the right side of the drive. The left side gets the
+   * opposite, so the robot turns in place.
+   */
+  public double calculate(double gyroYaw) {
+    double error = m_degrees - (gyroYaw - m_initialHeading);
+
+    // Wrap error to be within -180 to 180 degrees
+    error = ((error + 180) % 360) - 180;
+    if (error < -180) {
+      error += 360;
+    }
+
+    return Math.signum(error) * m_percentOutput;
+  }
+
+  /**
+   * Returns true once the robot is within the acceptable error of the target heading.
+   */
+  public boolean isFinished(double gyroYaw) {
+    return Math.abs(m_degrees - (gyroYaw - m_initialHeading)) < kToleranceDegrees;
+  }
+}
@@ -0,0 +1,45 @@
+package frc.robot.commands;
+
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import simulationlib.simulation.framework.SimClock;
+
+/**
+ * Same as WaitCommand, but reads the time from a SimClock instead of a Timer, so a
+ * simulated auto waits in simulated time.
+ */
+public class WaitSecondsCommand extends CommandBase {
+  private final double m_seconds;
+  private final SimClock m_clock;
+  private double m_startSeconds;
+
+  /**
+   * Constructor.
+   */
+  public WaitSecondsCommand(double seconds, SimClock clock) {
+    if (seconds < 0) {
+      throw new IllegalArgumentException("seconds must be >=0");
+    }
+
+    if (clock == null) {
+      throw new IllegalArgumentException("clock cannot be null");
+    }
+
+    m_seconds = seconds;
+    m_clock = clock;
+  }
+
+  @Override
+  public void initialize() {
+    m_startSeconds = m_clock.getSeconds();
+  }
+
+  @Override
+  public boolean isFinished() {
+    return m_clock.getSeconds() - m_startSeconds >= m_seconds;
+  }
+
+  @Override
+  public boolean runsWhenDisabled() {
+    return true;
+  }
+}
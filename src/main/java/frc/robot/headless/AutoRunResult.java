@@ -0,0 +1,48 @@
+package frc.robot.headless;
+
+/**
+ * Outcome of running one auto mode with HeadlessAutoRunner.
+ */
+public class AutoRunResult {
+  // True if every step finished before auto ended. An AutoBalance step never finishes, so it
+  // counts as done if the charge station was level for the last part of auto.
+  @SuppressWarnings("checkstyle:MemberName")
+  public boolean isCompleted;
+
+  // Seconds from the start of auto until the last step finished (or the charge station
+  // became level for good). Only meaningful if isCompleted is true.
+  @SuppressWarnings("checkstyle:MemberName")
+  public double completionSeconds;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public int stepsCompleted;
+
+  // Name of the first part that broke, or null if nothing broke
+  @SuppressWarnings("checkstyle:MemberName")
+  public String brokenPartName;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double breakSeconds;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double finalXMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double finalYMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double finalHeadingDegrees;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double finalPlatformAngleDegrees;
+
+  /**
+   * Constructor with 0 params.
+   */
+  public AutoRunResult() {
+  }
+
+  public boolean isBroken() {
+    return brokenPartName != null;
+  }
+}
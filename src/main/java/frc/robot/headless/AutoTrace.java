@@ -0,0 +1,162 @@
+package frc.robot.headless;
+
+import frc.robot.commands.AutoStep;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Downsampled trace of the key properties of the robot during one headless auto run: pose,
+ * arm position and extender position. Saved as CSV, so a golden trace can be checked in and
+ * reviewed like code. See AutoTraceComparator.
+ */
+public class AutoTrace {
+  public static final String[] kSignalNames = {
+      "xMeters", "yMeters", "headingDegrees", "winchAbsoluteEncoder", "extendedPercent"
+  };
+
+  // One sample every 100ms is plenty to see what a command did
+  public static final int kTicksPerSample = 5;
+
+  // Enough digits that rounding stays well below any tolerance. Written with Locale.ROOT, so
+  // the files read back the same everywhere.
+  private static final String kNumberFormat = "%.5f";
+
+  // Each sample is the time, then one value per signal
+  private final List<double[]> m_samples = new ArrayList<double[]>();
+
+  /**
+   * Creates an empty trace.
+   */
+  public AutoTrace() {
+  }
+
+  /**
+   * Runs the steps on a HeadlessAutoRunner, and returns the trace of the run.
+   */
+  public static AutoTrace record(List<AutoStep> steps, HeadlessRobotParams params) {
+    AutoTrace result = new AutoTrace();
+    int[] tickCount = {
+        0
+    };
+
+    new HeadlessAutoRunner(steps).run(params, null, (seconds, robot) -> {
+      tickCount[0]++;
+      if (tickCount[0] % kTicksPerSample == 0) {
+        result.addSample(seconds, robot.getDrivetrain().getXMeters(),
+            robot.getDrivetrain().getYMeters(),
+            Math.toDegrees(robot.getDrivetrain().getHeadingRadians()),
+            robot.getWinchAbsoluteEncoder(),
+            robot.getArm().getExtendedPercent());
+      }
+    });
+
+    return result;
+  }
+
+  /**
+   * Adds a sample, with one value per signal in kSignalNames.
+   */
+  public void addSample(double seconds, double... values) {
+    if (values == null || values.length != kSignalNames.length) {
+      throw new IllegalArgumentException("need one value per signal");
+    }
+
+    double[] sample = new double[values.length + 1];
+    sample[0] = seconds;
+    System.arraycopy(values, 0, sample, 1, values.length);
+    m_samples.add(sample);
+  }
+
+  public int getSampleCount() {
+    return m_samples.size();
+  }
+
+  public double getSeconds(int sampleIndex) {
+    return m_samples.get(sampleIndex)[0];
+  }
+
+  public double getValue(int sampleIndex, int signalIndex) {
+    return m_samples.get(sampleIndex)[signalIndex + 1];
+  }
+
+  /**
+   * Writes the trace as CSV, with a header row.
+   */
+  public void write(Writer writer) throws IOException {
+    writer.write("seconds," + String.join(",", kSignalNames) + "\n");
+
+    for (double[] sample : m_samples) {
+      StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%.2f", sample[0]));
+      for (int i = 1; i < sample.length; i++) {
+        line.append(',').append(String.format(Locale.ROOT, kNumberFormat, sample[i]));
+      }
+
+      writer.write(line.append('\n').toString());
+    }
+  }
+
+  /**
+   * Writes the trace to a CSV file.
+   */
+  public void write(File file) throws IOException {
+    try (Writer writer = new BufferedWriter(new FileWriter(file))) {
+      write(writer);
+    }
+  }
+
+  /**
+   * Reads a trace written by write().
+   */
+  public static AutoTrace read(Reader reader) throws IOException {
+    BufferedReader lines = new BufferedReader(reader);
+    String header = lines.readLine();
+    if (header == null || !header.equals("seconds," + String.join(",", kSignalNames))) {
+      throw new IOException("Not an auto trace, or its signals have changed: " + header);
+    }
+
+    AutoTrace result = new AutoTrace();
+    String line;
+    while ((line = lines.readLine()) != null) {
+      if (line.isEmpty()) {
+        continue;
+      }
+
+      String[] fields = line.split(",");
+      if (fields.length != kSignalNames.length + 1) {
+        throw new IOException("Wrong number of values in line: " + line);
+      }
+
+      double[] values = new double[kSignalNames.length];
+      try {
+        for (int i = 0; i < values.length; i++) {
+          values[i] = Double.parseDouble(fields[i + 1]);
+        }
+
+        result.addSample(Double.parseDouble(fields[0]), values);
+      }
+      catch (NumberFormatException e) {
+        throw new IOException("Bad number in line: " + line, e);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Reads a trace from a CSV file written by write().
+   */
+  public static AutoTrace read(File file) throws IOException {
+    try (Reader reader = new FileReader(file)) {
+      return read(reader);
+    }
+  }
+}
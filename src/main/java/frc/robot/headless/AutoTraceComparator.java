@@ -0,0 +1,273 @@
+package frc.robot.headless;
+
+/**
+ * Compares an auto trace with its golden trace, signal by signal.
+ * <p>
+ * The traces are aligned with dynamic time warping first: every sample of each trace is
+ * paired with one or more samples of the other, in order, and no more than warpSeconds
+ * apart. All the signals share the alignment, which keeps the largest difference relative
+ * to each tolerance as small as it can. So a command that finishes a tick or two later
+ * doesn't fail the comparison, while a different path or arm position does, and so does a
+ * motion that only one of the traces has, or that happens in a different order.
+ * </p>
+ */
+public class AutoTraceComparator {
+  public static final double kDefaultWarpSeconds = 0.2;
+
+  // Same order as AutoTrace.kSignalNames
+  private static final double[] kDefaultTolerances = {
+      0.05, // xMeters
+      0.05, // yMeters
+      2.0, // headingDegrees
+      0.005, // winchAbsoluteEncoder
+      0.02 // extendedPercent
+  };
+
+  private final double m_warpSeconds;
+  private final double[] m_tolerances;
+
+  /**
+   * Result of comparing one signal.
+   */
+  public static class SignalDiff {
+    @SuppressWarnings("checkstyle:MemberName")
+    public String signalName;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double tolerance;
+
+    // Largest difference between the traces, along the alignment
+    @SuppressWarnings("checkstyle:MemberName")
+    public double maxDifference;
+
+    // Where the largest difference was, and the value of each trace there
+    @SuppressWarnings("checkstyle:MemberName")
+    public double maxDifferenceSeconds;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double goldenValue;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double actualValue;
+
+    public boolean isWithinTolerance() {
+      return maxDifference <= tolerance;
+    }
+  }
+
+  /**
+   * Constructor with the default time warp and tolerances.
+   */
+  public AutoTraceComparator() {
+    this(kDefaultWarpSeconds, kDefaultTolerances);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param warpSeconds how far apart in time two aligned samples may be
+   * @param tolerances  largest allowed difference, one per signal in AutoTrace.kSignalNames
+   */
+  public AutoTraceComparator(double warpSeconds, double... tolerances) {
+    if (warpSeconds < 0) {
+      throw new IllegalArgumentException("warpSeconds must be >=0");
+    }
+
+    if (tolerances == null || tolerances.length != AutoTrace.kSignalNames.length) {
+      throw new IllegalArgumentException("need one tolerance per signal");
+    }
+
+    for (double tolerance : tolerances) {
+      if (tolerance <= 0) {
+        throw new IllegalArgumentException("tolerances must be >0");
+      }
+    }
+
+    m_warpSeconds = warpSeconds;
+    m_tolerances = tolerances.clone();
+  }
+
+  /**
+   * Compares every signal, and returns one SignalDiff per signal.
+   */
+  public SignalDiff[] compare(AutoTrace golden, AutoTrace actual) {
+    if (golden == null || actual == null) {
+      throw new IllegalArgumentException("traces cannot be null");
+    }
+
+    SignalDiff[] result = new SignalDiff[AutoTrace.kSignalNames.length];
+    for (int signal = 0; signal < result.length; signal++) {
+      result[signal] = new SignalDiff();
+      result[signal].signalName = AutoTrace.kSignalNames[signal];
+      result[signal].tolerance = m_tolerances[signal];
+    }
+
+    int[][] path = findWarpingPath(golden, actual);
+    if (path == null) {
+      // The traces can't be aligned, e.g. one of them is empty or ends much later
+      for (SignalDiff diff : result) {
+        diff.maxDifference = Double.POSITIVE_INFINITY;
+        diff.maxDifferenceSeconds = Double.NaN;
+        diff.goldenValue = Double.NaN;
+        diff.actualValue = Double.NaN;
+      }
+
+      return result;
+    }
+
+    for (int[] pair : path) {
+      for (int signal = 0; signal < result.length; signal++) {
+        SignalDiff diff = result[signal];
+        double goldenValue = golden.getValue(pair[0], signal);
+        double actualValue = actual.getValue(pair[1], signal);
+        double difference = Math.abs(actualValue - goldenValue);
+
+        if (difference > diff.maxDifference) {
+          diff.maxDifference = difference;
+          diff.maxDifferenceSeconds = golden.getSeconds(pair[0]);
+          diff.goldenValue = goldenValue;
+          diff.actualValue = actualValue;
+        }
+      }
+    }
+
+    return result;
+  }
+
+  // Dynamic time warping: returns the pairs {goldenIndex, actualIndex} of the alignment, from
+  // the first samples to the last ones, or null if there is none within the warp. Each step
+  // of the path moves forward in one trace or both. The cost of a pair is its largest
+  // difference relative to the tolerance of the signal, and the path keeps the largest cost
+  // along it as small as it can, with ties going to the smallest total cost.
+  private int[][] findWarpingPath(AutoTrace golden, AutoTrace actual) {
+    int goldenCount = golden.getSampleCount();
+    int actualCount = actual.getSampleCount();
+    if (goldenCount == 0 || actualCount == 0) {
+      return null;
+    }
+
+    double[][] largestCost = new double[goldenCount][actualCount];
+    double[][] totalCost = new double[goldenCount][actualCount];
+    for (int i = 0; i < goldenCount; i++) {
+      for (int j = 0; j < actualCount; j++) {
+        largestCost[i][j] = Double.POSITIVE_INFINITY;
+        totalCost[i][j] = Double.POSITIVE_INFINITY;
+        if (Math.abs(golden.getSeconds(i) - actual.getSeconds(j)) > m_warpSeconds + 1e-9) {
+          continue;
+        }
+
+        double cost = getCost(golden, i, actual, j);
+        if (i == 0 && j == 0) {
+          largestCost[i][j] = cost;
+          totalCost[i][j] = cost;
+          continue;
+        }
+
+        int[] previous = getBestPrevious(largestCost, totalCost, i, j);
+        if (previous != null) {
+          largestCost[i][j] = Math.max(cost, largestCost[previous[0]][previous[1]]);
+          totalCost[i][j] = cost + totalCost[previous[0]][previous[1]];
+        }
+      }
+    }
+
+    if (largestCost[goldenCount - 1][actualCount - 1] == Double.POSITIVE_INFINITY) {
+      return null;
+    }
+
+    // Walk back from the last samples
+    int[][] reversed = new int[goldenCount + actualCount - 1][];
+    int length = 0;
+    int[] pair = {
+        goldenCount - 1, actualCount - 1
+    };
+    while (pair != null) {
+      reversed[length++] = pair;
+      pair = getBestPrevious(largestCost, totalCost, pair[0], pair[1]);
+    }
+
+    int[][] result = new int[length][];
+    for (int k = 0; k < length; k++) {
+      result[k] = reversed[length - 1 - k];
+    }
+
+    return result;
+  }
+
+  // The cheapest of the pairs a path can come from, or null if none of them is reachable
+  private static int[] getBestPrevious(double[][] largestCost,
+      double[][] totalCost,
+      int i,
+      int j) {
+    int[] result = null;
+
+    // Forward in both traces, then in the golden one, then in the actual one
+    for (int move = 0; move < 3; move++) {
+      int previousI = move == 2 ? i : i - 1;
+      int previousJ = move == 1 ? j : j - 1;
+      if (previousI < 0 || previousJ < 0
+          || largestCost[previousI][previousJ] == Double.POSITIVE_INFINITY) {
+        continue;
+      }
+
+      if (result == null
+          || largestCost[previousI][previousJ] < largestCost[result[0]][result[1]]
+          || (largestCost[previousI][previousJ] == largestCost[result[0]][result[1]]
+              && totalCost[previousI][previousJ] < totalCost[result[0]][result[1]])) {
+        result = new int[] {
+            previousI, previousJ
+        };
+      }
+    }
+
+    return result;
+  }
+
+  // Largest difference of the two samples, relative to the tolerance of each signal
+  private double getCost(AutoTrace golden, int goldenIndex, AutoTrace actual, int actualIndex) {
+    double result = 0;
+    for (int signal = 0; signal < m_tolerances.length; signal++) {
+      double difference = Math.abs(golden.getValue(goldenIndex, signal)
+          - actual.getValue(actualIndex, signal));
+      result = Math.max(result, difference / m_tolerances[signal]);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns true if every signal is within its tolerance.
+   */
+  public static boolean isMatch(SignalDiff[] diffs) {
+    for (SignalDiff diff : diffs) {
+      if (!diff.isWithinTolerance()) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Returns a short report: one line if every signal matches, otherwise one more line per
+   * signal that doesn't.
+   */
+  public static String formatReport(String traceName, SignalDiff[] diffs) {
+    StringBuilder result = new StringBuilder();
+    result.append(String.format("%-42s %s%n", traceName, isMatch(diffs) ? "OK" : "CHANGED"));
+
+    for (SignalDiff diff : diffs) {
+      if (Double.isNaN(diff.maxDifferenceSeconds)) {
+        result.append(String.format("  %-22s can't be aligned within the time warp%n",
+            diff.signalName));
+      }
+      else if (!diff.isWithinTolerance()) {
+        result.append(String.format("  %-22s off by %.4f (tolerance %.4f) at %.2fs: "
+            + "golden %.4f, now %.4f%n", diff.signalName, diff.maxDifference, diff.tolerance,
+            diff.maxDifferenceSeconds, diff.goldenValue, diff.actualValue));
+      }
+    }
+
+    return result.toString();
+  }
+}
@@ -0,0 +1,223 @@
+package frc.robot.headless;
+
+import simulationlib.Constants.SimConstants;
+import simulationlib.simulation.armangle.ArmAngleSimModel;
+import simulationlib.simulation.armangle.ArmAngleState;
+import simulationlib.simulation.extender.ExtenderSimModel;
+import simulationlib.simulation.extender.ExtenderState;
+import simulationlib.simulation.motor.MotorSimModel;
+import simulationlib.simulation.simplearm.ArmSimModel;
+import simulationlib.simulation.simplearm.ArmSimParams;
+import simulationlib.simulation.simplearm.ramenarmlogic.RamenArmSimLogic;
+import simulationlib.simulation.winch.WinchSimModel;
+import simulationlib.simulation.winch.WinchState;
+
+/**
+ * Same model chain as ArmSystemSim (winch motor, winch, arm angle, arm, and extender motor,
+ * extender), but calling the models directly instead of through SimManagers. That means it
+ * doesn't need the HAL, so many arms can be simulated at the same time on different threads.
+ */
+public class HeadlessArm {
+  private final double m_voltageScale;
+
+  private final MotorSimModel m_winchMotorModel;
+  private final WinchSimModel m_winchModel;
+  private final ArmAngleSimModel m_armAngleModel;
+  private final ArmSimModel m_armModel;
+  private final MotorSimModel m_extenderMotorModel;
+  private final ExtenderSimModel m_extenderModel;
+
+  // Models write into these every step, instead of returning new ones
+  private final WinchState m_winchState;
+  private final ExtenderState m_extenderState;
+  private final ArmAngleState m_armAngleState;
+
+  private double m_winchSpeed;
+  private double m_extenderSpeed;
+  private double m_winchEncoderRotations;
+  private double m_extenderEncoderRotations;
+  private double m_absoluteEncoderRotations;
+  private double m_extendedPercent;
+  private boolean m_isGrabberOpen;
+
+  /**
+   * Constructor.
+   *
+   * @param simParams                 physical constants of the arm
+   * @param winchInitialSpooledMeters how much of the winch cable starts spooled
+   * @param batteryVoltage            motor output scales with battery voltage
+   */
+  public HeadlessArm(RobotSimParams simParams,
+      double winchInitialSpooledMeters,
+      double batteryVoltage) {
+
+    if (simParams == null) {
+      throw new IllegalArgumentException("simParams cannot be null");
+    }
+
+    if (batteryVoltage <= 0) {
+      throw new IllegalArgumentException("batteryVoltage must be >0");
+    }
+
+    m_voltageScale = batteryVoltage / 12.0;
+    m_isGrabberOpen = SimConstants.kgrabberInitiallyOpened;
+
+    m_winchMotorModel = new MotorSimModel(simParams.winchSimGearRatio,
+        simParams.motorFidelity,
+        simParams.motorMomentOfInertia);
+    m_winchModel = new WinchSimModel(simParams.createWinchParams(winchInitialSpooledMeters));
+    m_armAngleModel = new ArmAngleSimModel(simParams.createPivotMechanism());
+
+    ArmSimParams armParams = simParams.createArmSimParams();
+    RamenArmSimLogic ramenArmSimLogic = new RamenArmSimLogic(
+        simParams.getGrabberBreakSignedDegrees(),
+        armParams);
+    ramenArmSimLogic.setGrabberOpenSupplier(() -> m_isGrabberOpen);
+    m_armModel = new ArmSimModel(armParams, ramenArmSimLogic);
+
+    m_extenderMotorModel = new MotorSimModel(simParams.extenderSimGearRatio,
+        simParams.motorFidelity,
+        simParams.motorMomentOfInertia);
+    m_extenderModel = new ExtenderSimModel(0.0, simParams.createExtenderParams());
+
+    m_winchState = m_winchModel.createOutput();
+    m_extenderState = m_extenderModel.createOutput();
+    m_armAngleState = m_armAngleModel.createOutput();
+
+    // Like SimManager, run the models once so that the encoders start out with valid values
+    step();
+  }
+
+  public void setWinchSpeed(double speed) {
+    m_winchSpeed = speed;
+  }
+
+  public void setExtenderSpeed(double speed) {
+    m_extenderSpeed = speed;
+  }
+
+  public void openGrabber() {
+    m_isGrabberOpen = true;
+  }
+
+  public void closeGrabber() {
+    m_isGrabberOpen = false;
+  }
+
+  public boolean isGrabberOpen() {
+    return m_isGrabberOpen;
+  }
+
+  /**
+   * Runs 20ms of simulation, in the same order as ArmSystemSim.simulationPeriodic().
+   */
+  public void step() {
+    m_winchEncoderRotations = m_winchMotorModel.updateSimulation(m_winchSpeed * m_voltageScale);
+    m_extenderEncoderRotations = m_extenderMotorModel
+        .updateSimulation(m_extenderSpeed * m_voltageScale);
+
+    m_winchModel.updateSimulation(m_winchEncoderRotations, m_winchState);
+    m_extenderModel.updateSimulation(m_extenderEncoderRotations, m_extenderState);
+    m_extendedPercent = m_extenderState.getExtendedPercent();
+
+    m_armAngleModel.updateSimulation(m_winchState.getStringUnspooledLen(), m_armAngleState);
+    m_absoluteEncoderRotations = m_armModel
+        .updateSimulation(m_armAngleState.getAngleSignedDegrees());
+  }
+
+  public double getWinchSpeed() {
+    return m_winchSpeed;
+  }
+
+  public double getExtenderSpeed() {
+    return m_extenderSpeed;
+  }
+
+  /**
+   * Returns how many doubles saveState() writes: the state of each model, in the order
+   * step() runs them (winch motor, extender motor, winch, extender, arm angle, arm). That's
+   * also the order ArmSystemSim.getSimManagersInStepOrder() returns its SimManagers in, so
+   * their states can be restored here.
+   */
+  public int getStateSize() {
+    return m_winchMotorModel.getStateSize() + m_extenderMotorModel.getStateSize()
+        + m_winchModel.getStateSize() + m_extenderModel.getStateSize()
+        + m_armAngleModel.getStateSize() + m_armModel.getStateSize();
+  }
+
+  /**
+   * Writes the state of the models into state, starting at offset. The motor speeds and
+   * the grabber aren't part of it.
+   */
+  public void saveState(double[] state, int offset) {
+    m_winchMotorModel.saveState(state, offset);
+    offset += m_winchMotorModel.getStateSize();
+    m_extenderMotorModel.saveState(state, offset);
+    offset += m_extenderMotorModel.getStateSize();
+    m_winchModel.saveState(state, offset);
+    offset += m_winchModel.getStateSize();
+    m_extenderModel.saveState(state, offset);
+    offset += m_extenderModel.getStateSize();
+    m_armAngleModel.saveState(state, offset);
+    offset += m_armAngleModel.getStateSize();
+    m_armModel.saveState(state, offset);
+  }
+
+  /**
+   * Puts the models back in a state written by saveState(), and the encoders with them.
+   */
+  public void restoreState(double[] state, int offset) {
+    if (state == null || offset < 0 || offset + getStateSize() > state.length) {
+      throw new IllegalArgumentException("state is too small for offset " + offset);
+    }
+
+    m_winchEncoderRotations = m_winchMotorModel.restoreState(state, offset);
+    offset += m_winchMotorModel.getStateSize();
+    m_extenderEncoderRotations = m_extenderMotorModel.restoreState(state, offset);
+    offset += m_extenderMotorModel.getStateSize();
+    m_winchState.copyFrom(m_winchModel.restoreState(state, offset));
+    offset += m_winchModel.getStateSize();
+    m_extenderState.copyFrom(m_extenderModel.restoreState(state, offset));
+    m_extendedPercent = m_extenderState.getExtendedPercent();
+    offset += m_extenderModel.getStateSize();
+    m_armAngleState.copyFrom(m_armAngleModel.restoreState(state, offset));
+    offset += m_armAngleModel.getStateSize();
+    m_absoluteEncoderRotations = m_armModel.restoreState(state, offset);
+  }
+
+  public double getWinchEncoder() {
+    return m_winchEncoderRotations;
+  }
+
+  public double getExtenderEncoder() {
+    return m_extenderEncoderRotations;
+  }
+
+  public double getWinchAbsoluteEncoder() {
+    return m_absoluteEncoderRotations;
+  }
+
+  public double getExtendedPercent() {
+    return m_extendedPercent;
+  }
+
+  /**
+   * Returns the name of the first broken part ("Winch", "Extender" or "Arm"), or null if
+   * nothing is broken.
+   */
+  public String getBrokenPartName() {
+    if (m_winchModel.isModelBroken()) {
+      return "Winch";
+    }
+
+    if (m_extenderModel.isModelBroken()) {
+      return "Extender";
+    }
+
+    if (m_armModel.isModelBroken()) {
+      return "Arm";
+    }
+
+    return null;
+  }
+}
@@ -0,0 +1,70 @@
+package frc.robot.headless;
+
+import edu.wpi.first.math.MathUtil;
+import frc.robot.Constants;
+
+/**
+ * What the arm and grabber do in teleop with the operator's controller, without the HAL:
+ * the same stick mapping and limits as ArmSystem.processJoystickInputForArm(), and the same
+ * bumpers as GrabberSystem.periodic(). The buttons that start commands (A, B, X, Y) aren't
+ * handled, and neither is ArmSystem's ArmLimitPredictor, which is off by default
+ * (Constants.OperatorConstants.kUseArmLimitPredictor), so the arm stops only once it's past a
+ * limit.
+ */
+public final class HeadlessArmTeleop {
+  private HeadlessArmTeleop() {
+  }
+
+  /**
+   * Sets the winch and extender speeds from the sticks, and opens or closes the grabber when
+   * a bumper was released this tick. Call before arm.step().
+   *
+   * @param leftY               left stick Y, -1 (pushed forward) to 1. Forward raises the arm.
+   * @param rightY              right stick Y, -1 to 1. Forward extends.
+   * @param leftBumperReleased  opens the grabber
+   * @param rightBumperReleased closes the grabber, unless the left bumper was released too
+   */
+  public static void apply(HeadlessArm arm,
+      double leftY,
+      double rightY,
+      boolean leftBumperReleased,
+      boolean rightBumperReleased) {
+    double winchOutput = MathUtil.applyDeadband(-leftY, Constants.OperatorConstants.kDeadband);
+    double extenderOutput = MathUtil.applyDeadband(rightY,
+        Constants.OperatorConstants.kDeadband);
+
+    winchOutput = winchOutput * Math.abs(winchOutput);
+    extenderOutput = extenderOutput * Math.abs(extenderOutput);
+
+    double winchUpperLimit = Constants.OperatorConstants.kWinchEncoderUpperLimit;
+    double winchLowerLimit = Constants.OperatorConstants.kWinchEncoderLowerLimit;
+    double absoluteEncoder = arm.getWinchAbsoluteEncoder();
+
+    if (absoluteEncoder != 0.0
+        && ((absoluteEncoder >= winchUpperLimit && winchOutput > 0)
+            || (absoluteEncoder <= winchLowerLimit && winchOutput < 0))) {
+      arm.setWinchSpeed(0);
+    }
+    else {
+      arm.setWinchSpeed(winchOutput * Constants.OperatorConstants.kMaxOutputWinch);
+    }
+
+    if (arm.getExtenderEncoder() <= Constants.OperatorConstants.kExtenderSoftLimitTurns
+        && extenderOutput < 0) {
+      arm.setExtenderSpeed(0);
+    }
+    else if (arm.getExtenderEncoder() > 0 && extenderOutput > 0) {
+      arm.setExtenderSpeed(0);
+    }
+    else {
+      arm.setExtenderSpeed(extenderOutput);
+    }
+
+    if (leftBumperReleased) {
+      arm.openGrabber();
+    }
+    else if (rightBumperReleased) {
+      arm.closeGrabber();
+    }
+  }
+}
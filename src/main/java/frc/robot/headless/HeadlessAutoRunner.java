@@ -0,0 +1,466 @@
+package frc.robot.headless;
+
+import frc.robot.Constants;
+import frc.robot.commands.AutoBalanceController;
+import frc.robot.commands.AutoBalanceParams;
+import frc.robot.commands.AutoStep;
+import frc.robot.commands.DriveDistanceController;
+import frc.robot.commands.DriveUntilTiltController;
+import frc.robot.commands.MoveToPositionController;
+import frc.robot.commands.TurnDegreesController;
+import frc.robot.commands.WaitSecondsCommand;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import simulationlib.simulation.framework.SimClock;
+import simulationlib.simulation.framework.SimWorld;
+
+/**
+ * Runs the steps of an auto mode against a HeadlessRobot, the same way the command scheduler
+ * runs the commands that Auto builds from those steps. Every 20ms tick, the robot is
+ * simulated first (like simulationPeriodic), then the current step executes and checks if
+ * it is finished. When it finishes, its end() and the next step's initialize() run in the
+ * same tick, like in a SequentialCommandGroup.
+ * <p>
+ * Each step runs the same controller as its command class (MoveToPositionController,
+ * DriveDistanceController, DriveUntilTiltController, TurnDegreesController and
+ * AutoBalanceController), so a change to how a command decides its outputs or when it's
+ * finished changes the headless runs too. Only the few lines that read the sensors into the
+ * controller and write its output to the motors are repeated here, and have to stay the
+ * same as in the command.
+ * </p>
+ * <p>
+ * Each run has its own SimWorld as its clock, which advances one tick at a time. Waits run
+ * WaitSecondsCommand itself on that clock, and AutoBalance reads its elapsed time from it,
+ * the same as on the robot with the FPGA clock.
+ * </p>
+ */
+public class HeadlessAutoRunner {
+  public static final double kTickSeconds = HeadlessDrivetrain.kTickSeconds;
+  public static final double kAutoSeconds = 15.0;
+
+  // Charge station has to stay level for this long at the end of auto to count as balanced
+  private static final double kLevelToleranceDegrees = 2.5;
+  private static final double kLevelHoldSeconds = 2.0;
+
+  private final List<AutoStep> m_steps;
+
+  /**
+   * Constructor.
+   *
+   * @param steps the auto mode to run, e.g. from Auto.getAutoSteps()
+   */
+  public HeadlessAutoRunner(List<AutoStep> steps) {
+    if (steps == null) {
+      throw new IllegalArgumentException("steps cannot be null");
+    }
+
+    m_steps = new ArrayList<AutoStep>(steps);
+  }
+
+  /**
+   * Called every tick of a run, right after the robot is simulated, e.g. to record a trace.
+   */
+  @FunctionalInterface
+  public interface TickListener {
+    void onTick(double seconds, HeadlessRobot robot);
+  }
+
+  /**
+   * Runs the whole 15 seconds of auto on a new robot. Safe to call from multiple threads at
+   * the same time, as long as each call gets its own Random.
+   *
+   * @param params start conditions
+   * @param random source of sensor noise. May be null if params has no noise.
+   */
+  public AutoRunResult run(HeadlessRobotParams params, Random random) {
+    return run(params, random, null);
+  }
+
+  /**
+   * Same as run(params, random), and calls listener every tick.
+   *
+   * @param params   start conditions
+   * @param random   source of sensor noise. May be null if params has no noise.
+   * @param listener called every tick, or null
+   */
+  public AutoRunResult run(HeadlessRobotParams params, Random random, TickListener listener) {
+    HeadlessRobot robot = new HeadlessRobot(params, random);
+    AutoRunResult result = new AutoRunResult();
+
+    // The clock of this run, which the time based steps read like the commands read theirs
+    SimWorld world = new SimWorld();
+
+    int stepIndex = 0;
+    StepRunner current = null;
+    if (!m_steps.isEmpty()) {
+      current = createStepRunner(m_steps.get(0), robot, world);
+      current.initialize();
+    }
+
+    int tickCount = (int) Math.round(kAutoSeconds / kTickSeconds);
+    double levelSince = -1;
+
+    for (int tick = 1; tick <= tickCount; tick++) {
+      world.advanceTick();
+      double time = world.getSeconds();
+      robot.step();
+
+      if (result.brokenPartName == null && robot.getArm().getBrokenPartName() != null) {
+        result.brokenPartName = robot.getArm().getBrokenPartName();
+        result.breakSeconds = time;
+      }
+
+      if (listener != null) {
+        listener.onTick(time, robot);
+      }
+
+      if (current == null) {
+        continue;
+      }
+
+      current.execute();
+      if (current.isFinished()) {
+        current.end();
+        stepIndex++;
+        result.stepsCompleted = stepIndex;
+
+        if (stepIndex < m_steps.size()) {
+          current = createStepRunner(m_steps.get(stepIndex), robot, world);
+          current.initialize();
+        }
+        else {
+          current = null;
+          result.isCompleted = true;
+          result.completionSeconds = time;
+        }
+      }
+      else if (current.isBalancing()) {
+        boolean isLevel = robot.getChargeStationState().getIsRobotOnStation()
+            && Math.abs(robot.getChargeStationState()
+                .getPlatformAngleDegrees()) <= kLevelToleranceDegrees;
+        if (!isLevel) {
+          levelSince = -1;
+        }
+        else if (levelSince < 0) {
+          levelSince = time;
+        }
+      }
+    }
+
+    // AutoBalance never finishes by itself, so check where it left the charge station
+    if (current != null && current.isBalancing() && stepIndex == m_steps.size() - 1
+        && levelSince >= 0 && (kAutoSeconds - levelSince) >= kLevelHoldSeconds) {
+      result.isCompleted = true;
+      result.completionSeconds = levelSince;
+      result.stepsCompleted = m_steps.size();
+    }
+
+    result.finalXMeters = robot.getDrivetrain().getXMeters();
+    result.finalYMeters = robot.getDrivetrain().getYMeters();
+    result.finalHeadingDegrees = Math.toDegrees(robot.getDrivetrain().getHeadingRadians());
+    result.finalPlatformAngleDegrees = robot.getChargeStationState().getPlatformAngleDegrees();
+    return result;
+  }
+
+  // Mirrors the Command lifecycle for one step
+  private abstract static class StepRunner {
+    void initialize() {
+    }
+
+    abstract void execute();
+
+    abstract boolean isFinished();
+
+    void end() {
+    }
+
+    boolean isBalancing() {
+      return false;
+    }
+  }
+
+  private static StepRunner createStepRunner(AutoStep step, HeadlessRobot robot,
+      SimClock clock) {
+    switch (step.getType()) {
+      case SetWinchToAngle:
+        return new SetWinchToAngleRunner(robot, step.getValue(), step.getPercentOutput());
+
+      case SetExtenderToLength:
+        return new SetExtenderToLengthRunner(robot, step.getValue(), step.getPercentOutput());
+
+      case Wait:
+        return new WaitRunner(step.getValue(), clock);
+
+      case GrabberOpen:
+        return new GrabberOpenRunner(robot);
+
+      case Drive:
+        return new DriveRunner(robot, step.getValue(), step.getPercentOutput());
+
+      case DriveUntilTilt:
+        return new DriveUntilTiltRunner(robot, step.getPercentOutput());
+
+      case TurnDegrees:
+        return new TurnDegreesRunner(robot, step.getPercentOutput(), step.getValue());
+
+      case AutoBalance:
+        return new AutoBalanceRunner(robot, step.getPercentOutput(), clock);
+
+      default:
+        throw new IllegalStateException("Unknown auto step type: " + step.getType());
+    }
+  }
+
+  // Same as SetWinchToAngle. The left stick reads 0, since nobody is driving.
+  private static class SetWinchToAngleRunner extends StepRunner {
+    private final HeadlessRobot m_robot;
+    private final MoveToPositionController m_controller;
+
+    SetWinchToAngleRunner(HeadlessRobot robot, double angle, double speed) {
+      m_robot = robot;
+      m_controller = new MoveToPositionController(angle, speed);
+    }
+
+    @Override
+    void initialize() {
+      m_controller.initialize(m_robot.getWinchAbsoluteEncoder());
+    }
+
+    @Override
+    void execute() {
+      m_robot.setWinchSpeed(m_controller.getOutput());
+    }
+
+    @Override
+    boolean isFinished() {
+      return m_controller.isFinished(m_robot.getWinchAbsoluteEncoder(), m_robot.getLeftAxis());
+    }
+
+    @Override
+    void end() {
+      m_robot.setWinchSpeed(0);
+    }
+  }
+
+  // Same as SetExtenderToLength
+  private static class SetExtenderToLengthRunner extends StepRunner {
+    private final HeadlessRobot m_robot;
+    private final MoveToPositionController m_controller;
+
+    SetExtenderToLengthRunner(HeadlessRobot robot, double rotations, double speed) {
+      m_robot = robot;
+      m_controller = new MoveToPositionController(rotations, speed);
+    }
+
+    @Override
+    void initialize() {
+      m_controller.initialize(m_robot.getExtenderEncoder());
+    }
+
+    @Override
+    void execute() {
+      m_robot.setExtenderSpeed(m_controller.getOutput());
+    }
+
+    @Override
+    boolean isFinished() {
+      return m_controller.isFinished(m_robot.getExtenderEncoder());
+    }
+
+    @Override
+    void end() {
+      m_robot.setExtenderSpeed(0);
+    }
+  }
+
+  // Runs WaitSecondsCommand itself, which reads the time from the run's SimWorld
+  private static class WaitRunner extends StepRunner {
+    private final WaitSecondsCommand m_command;
+
+    WaitRunner(double seconds, SimClock clock) {
+      m_command = new WaitSecondsCommand(seconds, clock);
+    }
+
+    @Override
+    void initialize() {
+      m_command.initialize();
+    }
+
+    @Override
+    void execute() {
+      m_command.execute();
+    }
+
+    @Override
+    boolean isFinished() {
+      return m_command.isFinished();
+    }
+
+    @Override
+    void end() {
+      m_command.end(false);
+    }
+  }
+
+  // Same as GrabberOpenCommand
+  private static class GrabberOpenRunner extends StepRunner {
+    private final HeadlessRobot m_robot;
+
+    GrabberOpenRunner(HeadlessRobot robot) {
+      m_robot = robot;
+    }
+
+    @Override
+    void execute() {
+      m_robot.openGrabber();
+    }
+
+    @Override
+    boolean isFinished() {
+      return true;
+    }
+  }
+
+  // Same as DriveCommand, with the drive gearbox ratio and wheel size from Constants
+  private static class DriveRunner extends StepRunner {
+    private final HeadlessRobot m_robot;
+    private final DriveDistanceController m_controller;
+
+    DriveRunner(HeadlessRobot robot, double distanceInches, double percentOutput) {
+      m_robot = robot;
+      m_controller = new DriveDistanceController(distanceInches,
+          Constants.OperatorConstants.kGearBoxRatioDrive,
+          percentOutput,
+          Constants.OperatorConstants.kWheelCircumferenceInchesDrive);
+    }
+
+    @Override
+    void initialize() {
+      m_robot.resetEncoders();
+    }
+
+    @Override
+    void execute() {
+      m_robot.tankDrive(m_controller.getOutput(), m_controller.getOutput(), false);
+    }
+
+    @Override
+    boolean isFinished() {
+      return m_controller.isFinished(m_robot.getAverageEncoderPosition());
+    }
+
+    @Override
+    void end() {
+      m_robot.tankDrive(0, 0, false);
+    }
+  }
+
+  // Same as DriveUntilTiltCommand
+  private static class DriveUntilTiltRunner extends StepRunner {
+    private final HeadlessRobot m_robot;
+    private final DriveUntilTiltController m_controller;
+
+    DriveUntilTiltRunner(HeadlessRobot robot, double percentOutput) {
+      m_robot = robot;
+      m_controller = new DriveUntilTiltController(percentOutput);
+    }
+
+    @Override
+    void execute() {
+      m_robot.tankDrive(m_controller.getOutput(), m_controller.getOutput(), false);
+    }
+
+    @Override
+    boolean isFinished() {
+      return m_controller.isFinished(m_robot.getGyroAngle());
+    }
+
+    @Override
+    void end() {
+      m_robot.tankDrive(0, 0, false);
+    }
+  }
+
+  // Same as TurnDegrees
+  private static class TurnDegreesRunner extends StepRunner {
+    private final HeadlessRobot m_robot;
+    private final TurnDegreesController m_controller;
+
+    TurnDegreesRunner(HeadlessRobot robot, double percentOutput, double degrees) {
+      m_robot = robot;
+      m_controller = new TurnDegreesController(percentOutput, degrees);
+    }
+
+    @Override
+    void initialize() {
+      m_controller.initialize(m_robot.getGyroYaw());
+    }
+
+    @Override
+    void execute() {
+      double rightOutput = m_controller.calculate(m_robot.getGyroYaw());
+      m_robot.tankDrive(-rightOutput, rightOutput, true);
+    }
+
+    @Override
+    boolean isFinished() {
+      return m_controller.isFinished(m_robot.getGyroYaw());
+    }
+
+    @Override
+    void end() {
+      m_robot.tankDrive(0, 0, false);
+    }
+  }
+
+  // Same as AutoBalanceCommand
+  private static class AutoBalanceRunner extends StepRunner {
+    private final HeadlessRobot m_robot;
+    private final AutoBalanceController m_controller;
+    private final SimClock m_clock;
+    private double m_prevTimerSeconds;
+
+    AutoBalanceRunner(HeadlessRobot robot, double rate, SimClock clock) {
+      AutoBalanceParams params = new AutoBalanceParams();
+      params.rate = rate;
+
+      m_robot = robot;
+      m_controller = new AutoBalanceController(params);
+      m_clock = clock;
+    }
+
+    @Override
+    void initialize() {
+      m_controller.reset();
+      m_prevTimerSeconds = m_clock.getSeconds();
+    }
+
+    @Override
+    void execute() {
+      double timerSeconds = m_clock.getSeconds();
+      double speed = m_controller.calculate(m_robot.getGyroAngle(),
+          m_robot.getGyroRate(),
+          timerSeconds - m_prevTimerSeconds);
+      m_prevTimerSeconds = timerSeconds;
+
+      m_robot.tankDrive(speed, speed, false);
+      m_robot.setRate();
+    }
+
+    @Override
+    boolean isFinished() {
+      return false;
+    }
+
+    @Override
+    void end() {
+      m_robot.tankDrive(0, 0, false);
+    }
+
+    @Override
+    boolean isBalancing() {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package frc.robot.headless;
+
+import edu.wpi.first.math.MathUtil;
+import frc.robot.Constants;
+
+/**
+ * Differential drivetrain without the HAL, for batch simulations. Percent output is turned
+ * into wheel speed the way the real robot does it (DifferentialDrive deadband, squaring and
+ * max output, then NEO free speed through the gearbox), and each side lags behind its
+ * commanded speed with a first order time constant.
+ * <p>
+ * Heading is counter-clockwise positive, like the Pigeon2 yaw. Encoders count motor
+ * rotations, like the SparkMax encoders.
+ * </p>
+ */
+public class HeadlessDrivetrain {
+  public static final double kTickSeconds = 0.02;
+
+  private static final double kNeoFreeSpeedRpm = 5676;
+  private static final double kMetersPerSecondAtFullOutput = kNeoFreeSpeedRpm / 60
+      / Constants.OperatorConstants.kGearBoxRatioDrive
+      * Math.PI * Constants.OperatorConstants.kWheelDiameterMetersDrive;
+  private static final double kMotorRotationsPerMeter = Constants.OperatorConstants
+      .kGearBoxRatioDrive / (Math.PI * Constants.OperatorConstants.kWheelDiameterMetersDrive);
+  private static final double kTimeConstantSeconds = 0.15;
+  private static final double kTrackWidthMeters = 0.762;
+
+  private final double m_voltageScale;
+  private double m_xMeters;
+  private double m_yMeters;
+  private double m_headingRadians;
+  private double m_leftVelocity;
+  private double m_rightVelocity;
+  private double m_leftTargetVelocity;
+  private double m_rightTargetVelocity;
+  private double m_leftRotations;
+  private double m_rightRotations;
+
+  /**
+   * Constructor.
+   *
+   * @param xMeters        starting field X
+   * @param yMeters        starting field Y
+   * @param headingRadians starting heading, counter-clockwise positive
+   * @param batteryVoltage top speed scales with battery voltage
+   */
+  public HeadlessDrivetrain(double xMeters,
+      double yMeters,
+      double headingRadians,
+      double batteryVoltage) {
+
+    if (batteryVoltage <= 0) {
+      throw new IllegalArgumentException("batteryVoltage must be >0");
+    }
+
+    m_xMeters = xMeters;
+    m_yMeters = yMeters;
+    m_headingRadians = headingRadians;
+    m_voltageScale = batteryVoltage / 12.0;
+  }
+
+  /**
+   * Same as DifferentialDrive.tankDrive() with the deadband and max output from Constants.
+   * The new speeds take effect on the next step().
+   */
+  public void tankDrive(double leftSpeed, double rightSpeed, boolean squareInputs) {
+    m_leftTargetVelocity = toVelocity(leftSpeed, squareInputs);
+    m_rightTargetVelocity = toVelocity(rightSpeed, squareInputs);
+  }
+
+  private double toVelocity(double speed, boolean squareInputs) {
+    speed = MathUtil.applyDeadband(MathUtil.clamp(speed, -1.0, 1.0),
+        Constants.OperatorConstants.kDeadband);
+    if (squareInputs) {
+      speed = Math.copySign(speed * speed, speed);
+    }
+
+    return speed * Constants.OperatorConstants.kMaxOutputDrive * m_voltageScale
+        * kMetersPerSecondAtFullOutput;
+  }
+
+  /**
+   * Runs 20ms of simulation.
+   */
+  public void step() {
+    double alpha = kTickSeconds / (kTimeConstantSeconds + kTickSeconds);
+    m_leftVelocity += (m_leftTargetVelocity - m_leftVelocity) * alpha;
+    m_rightVelocity += (m_rightTargetVelocity - m_rightVelocity) * alpha;
+
+    double velocity = (m_leftVelocity + m_rightVelocity) / 2;
+    m_xMeters += velocity * Math.cos(m_headingRadians) * kTickSeconds;
+    m_yMeters += velocity * Math.sin(m_headingRadians) * kTickSeconds;
+    m_headingRadians += (m_rightVelocity - m_leftVelocity) / kTrackWidthMeters * kTickSeconds;
+
+    m_leftRotations += m_leftVelocity * kTickSeconds * kMotorRotationsPerMeter;
+    m_rightRotations += m_rightVelocity * kTickSeconds * kMotorRotationsPerMeter;
+  }
+
+  /**
+   * Moves the drivetrain to the given pose and wheel speeds, e.g. to continue from where the
+   * simulator's drivetrain is. Each side keeps its speed until the next tankDrive().
+   */
+  public void setState(double xMeters,
+      double yMeters,
+      double headingRadians,
+      double leftVelocity,
+      double rightVelocity) {
+    m_xMeters = xMeters;
+    m_yMeters = yMeters;
+    m_headingRadians = headingRadians;
+    m_leftVelocity = leftVelocity;
+    m_rightVelocity = rightVelocity;
+    m_leftTargetVelocity = leftVelocity;
+    m_rightTargetVelocity = rightVelocity;
+  }
+
+  public void resetEncoders() {
+    m_leftRotations = 0;
+    m_rightRotations = 0;
+  }
+
+  public double getLeftEncoder() {
+    return m_leftRotations;
+  }
+
+  public double getRightEncoder() {
+    return m_rightRotations;
+  }
+
+  public double getXMeters() {
+    return m_xMeters;
+  }
+
+  public double getYMeters() {
+    return m_yMeters;
+  }
+
+  public double getHeadingRadians() {
+    return m_headingRadians;
+  }
+
+  public double getLeftVelocity() {
+    return m_leftVelocity;
+  }
+
+  public double getRightVelocity() {
+    return m_rightVelocity;
+  }
+
+  /**
+   * Forward speed of the robot, in meters per second.
+   */
+  public double getVelocity() {
+    return (m_leftVelocity + m_rightVelocity) / 2;
+  }
+}
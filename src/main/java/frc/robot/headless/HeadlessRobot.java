@@ -0,0 +1,217 @@
+package frc.robot.headless;
+
+import java.util.Random;
+import simulationlib.Constants.SimConstants;
+import simulationlib.simulation.chargestation.ChargeStationSimModel;
+import simulationlib.simulation.chargestation.ChargeStationState;
+
+/**
+ * The whole robot without the HAL: drivetrain, arm, grabber and the charge station it may be
+ * driving on. The getters and setters mirror the ones on TankDriveSystem, ArmSystem and
+ * GrabberSystem that the auto commands use, and return the same values the simulator would,
+ * plus whatever sensor noise HeadlessRobotParams asks for.
+ * <p>
+ * Everything is owned by the instance, so separate instances can run on separate threads.
+ * </p>
+ */
+public class HeadlessRobot {
+  private final HeadlessRobotParams m_params;
+  private final Random m_random;
+  private final HeadlessDrivetrain m_drivetrain;
+  private final HeadlessArm m_arm;
+  private final ChargeStationSimModel m_chargeStation;
+  private ChargeStationState m_chargeStationState;
+  private double m_prevRate = 0;
+
+  /**
+   * Constructor.
+   *
+   * @param params start conditions
+   * @param random source of sensor noise. May be null if params has no noise.
+   */
+  public HeadlessRobot(HeadlessRobotParams params, Random random) {
+    if (params == null) {
+      throw new IllegalArgumentException("params cannot be null");
+    }
+
+    if (random == null && (params.driveEncoderNoiseRotations != 0
+        || params.absoluteEncoderNoiseRotations != 0)) {
+      throw new IllegalArgumentException("random cannot be null when noise is enabled");
+    }
+
+    m_params = new HeadlessRobotParams(params);
+    m_random = random;
+    m_drivetrain = new HeadlessDrivetrain(params.startXMeters,
+        params.startYMeters,
+        Math.toRadians(params.startHeadingDegrees),
+        params.batteryVoltage);
+    m_arm = new HeadlessArm(params.simParams,
+        params.winchInitialSpooledMeters,
+        params.batteryVoltage);
+    m_chargeStation = new ChargeStationSimModel(params.simParams.chargeStation);
+    m_chargeStationState = m_chargeStation.updateSimulation(params.startXMeters,
+        params.startYMeters,
+        Math.toRadians(params.startHeadingDegrees));
+  }
+
+  /**
+   * Runs 20ms of simulation for every part of the robot.
+   */
+  public void step() {
+    m_drivetrain.step();
+    m_chargeStationState = m_chargeStation.updateSimulation(m_drivetrain.getXMeters(),
+        m_drivetrain.getYMeters(),
+        m_drivetrain.getHeadingRadians());
+    m_arm.step();
+  }
+
+  /**
+   * Returns the state of the robot, to continue from later or in another HeadlessRobot.
+   */
+  public RobotSnapshot saveSnapshot() {
+    RobotSnapshot result = new RobotSnapshot();
+    result.xMeters = m_drivetrain.getXMeters();
+    result.yMeters = m_drivetrain.getYMeters();
+    result.headingRadians = m_drivetrain.getHeadingRadians();
+    result.leftVelocity = m_drivetrain.getLeftVelocity();
+    result.rightVelocity = m_drivetrain.getRightVelocity();
+    result.armState = new double[m_arm.getStateSize()];
+    m_arm.saveState(result.armState, 0);
+    result.winchSpeed = m_arm.getWinchSpeed();
+    result.extenderSpeed = m_arm.getExtenderSpeed();
+    result.isGrabberOpen = m_arm.isGrabberOpen();
+    result.chargeStationState = new double[m_chargeStation.getStateSize()];
+    m_chargeStation.saveState(result.chargeStationState, 0);
+    return result;
+  }
+
+  /**
+   * Continues from the given snapshot. Only the drive encoders start over from 0, like
+   * after resetEncoders().
+   */
+  public void restoreSnapshot(RobotSnapshot snapshot) {
+    if (snapshot == null) {
+      throw new IllegalArgumentException("snapshot cannot be null");
+    }
+
+    if (snapshot.armState == null || snapshot.armState.length != m_arm.getStateSize()) {
+      throw new IllegalArgumentException("armState must hold HeadlessArm.getStateSize() values");
+    }
+
+    if (snapshot.chargeStationState == null
+        || snapshot.chargeStationState.length != m_chargeStation.getStateSize()) {
+      throw new IllegalArgumentException(
+          "chargeStationState must hold ChargeStationSimModel.getStateSize() values");
+    }
+
+    m_drivetrain.setState(snapshot.xMeters,
+        snapshot.yMeters,
+        snapshot.headingRadians,
+        snapshot.leftVelocity,
+        snapshot.rightVelocity);
+    m_drivetrain.resetEncoders();
+    m_arm.restoreState(snapshot.armState, 0);
+    m_arm.setWinchSpeed(snapshot.winchSpeed);
+    m_arm.setExtenderSpeed(snapshot.extenderSpeed);
+    if (snapshot.isGrabberOpen) {
+      m_arm.openGrabber();
+    }
+    else {
+      m_arm.closeGrabber();
+    }
+    m_chargeStationState = m_chargeStation.restoreState(snapshot.chargeStationState, 0);
+    m_prevRate = getGyroAngle();
+  }
+
+  private double noise(double standardDeviation) {
+    return (standardDeviation == 0) ? 0 : m_random.nextGaussian() * standardDeviation;
+  }
+
+  public HeadlessDrivetrain getDrivetrain() {
+    return m_drivetrain;
+  }
+
+  public HeadlessArm getArm() {
+    return m_arm;
+  }
+
+  public ChargeStationState getChargeStationState() {
+    return m_chargeStationState;
+  }
+
+  // Same as TankDriveSystem
+
+  public void tankDrive(double leftSpeed, double rightSpeed, boolean squareInputs) {
+    m_drivetrain.tankDrive(leftSpeed, rightSpeed, squareInputs);
+  }
+
+  public void resetEncoders() {
+    m_drivetrain.resetEncoders();
+  }
+
+  public double getLeftEncoder() {
+    return m_drivetrain.getLeftEncoder() + noise(m_params.driveEncoderNoiseRotations);
+  }
+
+  public double getRightEncoder() {
+    return m_drivetrain.getRightEncoder() + noise(m_params.driveEncoderNoiseRotations);
+  }
+
+  public double getAverageEncoderPosition() {
+    return (Math.abs(getLeftEncoder()) + Math.abs(getRightEncoder())) / 2;
+  }
+
+  /**
+   * Same reading as TankDriveSystemSim.getGyroAngle().
+   */
+  public double getGyroAngle() {
+    return SimConstants.kgyroRollMountOffsetDegrees - m_chargeStationState.getRobotPitchDegrees();
+  }
+
+  public double getGyroYaw() {
+    return Math.toDegrees(m_drivetrain.getHeadingRadians());
+  }
+
+  public double getGyroRate() {
+    return Math.abs(m_prevRate - getGyroAngle());
+  }
+
+  public void setRate() {
+    m_prevRate = getGyroAngle();
+  }
+
+  // Same as ArmSystem
+
+  public void setWinchSpeed(double speed) {
+    m_arm.setWinchSpeed(speed);
+  }
+
+  public void setExtenderSpeed(double speed) {
+    m_arm.setExtenderSpeed(speed);
+  }
+
+  public double getWinchAbsoluteEncoder() {
+    return m_arm.getWinchAbsoluteEncoder() + noise(m_params.absoluteEncoderNoiseRotations);
+  }
+
+  public double getExtenderEncoder() {
+    return m_arm.getExtenderEncoder();
+  }
+
+  /**
+   * Same as ArmSystem.getLeftAxis(). Always 0, since nobody holds the joystick during auto.
+   */
+  public double getLeftAxis() {
+    return 0;
+  }
+
+  // Same as GrabberSystem
+
+  public void openGrabber() {
+    m_arm.openGrabber();
+  }
+
+  public void closeGrabber() {
+    m_arm.closeGrabber();
+  }
+}
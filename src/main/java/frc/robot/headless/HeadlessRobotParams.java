@@ -0,0 +1,63 @@
+package frc.robot.headless;
+
+import simulationlib.Constants.SimConstants;
+
+/**
+ * Start conditions for one HeadlessRobot run. The defaults match the simulator: the robot
+ * starts where TankDriveSystemSim puts it, on a full battery, with perfect sensors, and
+ * with the physical constants from SimConstants.
+ */
+public class HeadlessRobotParams {
+  @SuppressWarnings("checkstyle:MemberName")
+  public double startXMeters = 1.9;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double startYMeters = 2.75;
+
+  // 180 means facing the grid (-X)
+  @SuppressWarnings("checkstyle:MemberName")
+  public double startHeadingDegrees = 180;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double batteryVoltage = 12.0;
+
+  // Standard deviation of the noise added to each drive encoder read, in motor rotations
+  @SuppressWarnings("checkstyle:MemberName")
+  public double driveEncoderNoiseRotations = 0;
+
+  // Standard deviation of the noise added to each winch absolute encoder read, in rotations
+  @SuppressWarnings("checkstyle:MemberName")
+  public double absoluteEncoderNoiseRotations = 0;
+
+  // How much of the winch cable starts spooled, in meters. Same as kCurrentLenSpooled.
+  @SuppressWarnings("checkstyle:MemberName")
+  public double winchInitialSpooledMeters = SimConstants.kCurrentLenSpooled;
+
+  // Physical constants of the robot
+  @SuppressWarnings("checkstyle:MemberName")
+  public RobotSimParams simParams = new RobotSimParams();
+
+  /**
+   * Constructor with 0 params.
+   */
+  public HeadlessRobotParams() {
+  }
+
+  /**
+   * Copy constructor.
+   */
+  public HeadlessRobotParams(HeadlessRobotParams other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+
+    startXMeters = other.startXMeters;
+    startYMeters = other.startYMeters;
+    startHeadingDegrees = other.startHeadingDegrees;
+    batteryVoltage = other.batteryVoltage;
+    driveEncoderNoiseRotations = other.driveEncoderNoiseRotations;
+    absoluteEncoderNoiseRotations = other.absoluteEncoderNoiseRotations;
+    winchInitialSpooledMeters = other.winchInitialSpooledMeters;
+    simParams = new RobotSimParams(other.simParams);
+  }
+}
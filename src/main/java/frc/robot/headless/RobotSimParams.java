@@ -0,0 +1,161 @@
+package frc.robot.headless;
+
+import frc.robot.Constants;
+import simulationlib.Constants.SimConstants;
+import simulationlib.helpers.UnitConversions;
+import simulationlib.simulation.armangle.PivotMechanism;
+import simulationlib.simulation.chargestation.ChargeStationParams;
+import simulationlib.simulation.chargestation.ChargeStationParamsBuilder;
+import simulationlib.simulation.extender.ExtenderParams;
+import simulationlib.simulation.framework.SimFidelity;
+import simulationlib.simulation.motor.MotorSimModel;
+import simulationlib.simulation.simplearm.ArmSimParams;
+import simulationlib.simulation.winch.WinchCable;
+import simulationlib.simulation.winch.WinchParams;
+import simulationlib.simulation.winch.WinchSimModel.WindingOrientation;
+
+/**
+ * Physical constants of the simulated robot, as an instance instead of the mutable statics
+ * in SimConstants. Every HeadlessRobot gets its own copy, so experiments that change these
+ * values can run side by side on different threads.
+ * <p>
+ * The defaults are read from SimConstants (and the winch limits from Constants) when the
+ * instance is created. Field names follow SimConstants, without the "k" prefix.
+ * </p>
+ */
+public class RobotSimParams {
+  // Winch
+  @SuppressWarnings("checkstyle:MemberName")
+  public double totalStringLenMeters = SimConstants.kTotalStringLenMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double winchSpoolDiameterMeters = SimConstants.kwinchSpoolDiameterMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double winchSimGearRatio = SimConstants.kwinchSimGearRatio;
+
+  // Extender
+  @SuppressWarnings("checkstyle:MemberName")
+  public double totalExtenderLenMeters = SimConstants.kTotalExtenderLenMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double initialExtendedLen = SimConstants.kInitialExtendedLen;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double extenderSimGearRatio = SimConstants.kextenderSimGearRatio;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double cylinderDiameterMeters = SimConstants.kcylinderDiameterMeters;
+
+  // Arm
+  @SuppressWarnings("checkstyle:MemberName")
+  public double armLengthFromEdgeToPivot = SimConstants.karmLengthFromEdgeToPivot;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double armHeightFromWinchToPivotPoint = SimConstants.karmHeightFromWinchToPivotPoint;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double armEncoderRotationsOffset = SimConstants.karmEncoderRotationsOffset;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double deltaRotationsBeforeBroken = SimConstants.kdeltaRotationsBeforeBroken;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double grabberBreaksIfOpenBelowThisLimit = SimConstants
+      .kgrabberBreaksIfOpenBelowThisLimit;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double winchEncoderUpperLimit = Constants.OperatorConstants.kWinchEncoderUpperLimit;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double winchEncoderLowerLimit = Constants.OperatorConstants.kWinchEncoderLowerLimit;
+
+  // Winch and extender motors. Kinematic is enough when motor dynamics don't matter, and is
+  // much cheaper than DCMotorSim.
+  @SuppressWarnings("checkstyle:MemberName")
+  public SimFidelity motorFidelity = SimFidelity.FullDynamic;
+
+  // Moment of inertia of what the winch and extender motors turn, in kg m^2
+  @SuppressWarnings("checkstyle:MemberName")
+  public double motorMomentOfInertia = MotorSimModel.kDefaultMomentOfInertia;
+
+  // Charge station, including the robot's mass
+  @SuppressWarnings("checkstyle:MemberName")
+  public ChargeStationParams chargeStation = ChargeStationParamsBuilder.fromSimConstants()
+      .build();
+
+  /**
+   * Constructor with 0 params.
+   */
+  public RobotSimParams() {
+  }
+
+  /**
+   * Copy constructor.
+   */
+  public RobotSimParams(RobotSimParams other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+
+    totalStringLenMeters = other.totalStringLenMeters;
+    winchSpoolDiameterMeters = other.winchSpoolDiameterMeters;
+    winchSimGearRatio = other.winchSimGearRatio;
+    totalExtenderLenMeters = other.totalExtenderLenMeters;
+    initialExtendedLen = other.initialExtendedLen;
+    extenderSimGearRatio = other.extenderSimGearRatio;
+    cylinderDiameterMeters = other.cylinderDiameterMeters;
+    armLengthFromEdgeToPivot = other.armLengthFromEdgeToPivot;
+    armHeightFromWinchToPivotPoint = other.armHeightFromWinchToPivotPoint;
+    armEncoderRotationsOffset = other.armEncoderRotationsOffset;
+    deltaRotationsBeforeBroken = other.deltaRotationsBeforeBroken;
+    grabberBreaksIfOpenBelowThisLimit = other.grabberBreaksIfOpenBelowThisLimit;
+    winchEncoderUpperLimit = other.winchEncoderUpperLimit;
+    winchEncoderLowerLimit = other.winchEncoderLowerLimit;
+    motorFidelity = other.motorFidelity;
+    motorMomentOfInertia = other.motorMomentOfInertia;
+    chargeStation = new ChargeStationParams(other.chargeStation);
+  }
+
+  /**
+   * Same WinchParams as ArmSystemSim uses, with the given length of cable spooled.
+   */
+  public WinchParams createWinchParams(double initialSpooledMeters) {
+    return new WinchParams(winchSpoolDiameterMeters,
+        new WinchCable(totalStringLenMeters,
+            totalStringLenMeters - initialSpooledMeters,
+            WindingOrientation.BackOfRobot),
+        true);
+  }
+
+  public ExtenderParams createExtenderParams() {
+    return new ExtenderParams(cylinderDiameterMeters,
+        totalExtenderLenMeters,
+        initialExtendedLen,
+        true);
+  }
+
+  public PivotMechanism createPivotMechanism() {
+    return new PivotMechanism(armHeightFromWinchToPivotPoint, armLengthFromEdgeToPivot);
+  }
+
+  /**
+   * Same break limits as ArmSystemSim: just past the winch encoder limits.
+   */
+  public ArmSimParams createArmSimParams() {
+    return new ArmSimParams(
+        UnitConversions.rotationToSignedDegrees(winchEncoderUpperLimit
+            - armEncoderRotationsOffset + deltaRotationsBeforeBroken),
+        UnitConversions.rotationToSignedDegrees(winchEncoderLowerLimit
+            - armEncoderRotationsOffset - deltaRotationsBeforeBroken),
+        armEncoderRotationsOffset);
+  }
+
+  /**
+   * Arm angle below which the arm breaks if the grabber is open, in signed degrees.
+   */
+  public double getGrabberBreakSignedDegrees() {
+    return UnitConversions.rotationToSignedDegrees(grabberBreaksIfOpenBelowThisLimit
+        - armEncoderRotationsOffset);
+  }
+}
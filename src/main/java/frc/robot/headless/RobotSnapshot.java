@@ -0,0 +1,79 @@
+package frc.robot.headless;
+
+/**
+ * Everything a HeadlessRobot needs to continue from a moment of a run: where the drivetrain
+ * is and how fast it goes, the state of the arm models and the charge station, and what the
+ * robot code last asked of the motors and the grabber.
+ * <p>
+ * It can come from another HeadlessRobot (HeadlessRobot.saveSnapshot()), or from the
+ * simulator (WhatIfBrancher.capture()). It is only plain values, so copying it is cheap.
+ * </p>
+ */
+public class RobotSnapshot {
+  // Seconds on the clock of the run it was taken from
+  @SuppressWarnings("checkstyle:MemberName")
+  public double seconds;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double xMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double yMeters;
+
+  // Counter-clockwise positive
+  @SuppressWarnings("checkstyle:MemberName")
+  public double headingRadians;
+
+  // Wheel speeds, in meters per second
+  @SuppressWarnings("checkstyle:MemberName")
+  public double leftVelocity;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double rightVelocity;
+
+  // Laid out as HeadlessArm.saveState() writes it
+  @SuppressWarnings("checkstyle:MemberName")
+  public double[] armState;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double winchSpeed;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double extenderSpeed;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public boolean isGrabberOpen;
+
+  // Laid out as ChargeStationSimModel.saveState() writes it
+  @SuppressWarnings("checkstyle:MemberName")
+  public double[] chargeStationState;
+
+  /**
+   * Constructor with 0 params.
+   */
+  public RobotSnapshot() {
+  }
+
+  /**
+   * Copy constructor.
+   */
+  public RobotSnapshot(RobotSnapshot other) {
+    if (other == null) {
+      throw new IllegalArgumentException("other cannot be null");
+    }
+
+    seconds = other.seconds;
+    xMeters = other.xMeters;
+    yMeters = other.yMeters;
+    headingRadians = other.headingRadians;
+    leftVelocity = other.leftVelocity;
+    rightVelocity = other.rightVelocity;
+    armState = (other.armState != null) ? other.armState.clone() : null;
+    winchSpeed = other.winchSpeed;
+    extenderSpeed = other.extenderSpeed;
+    isGrabberOpen = other.isGrabberOpen;
+    chargeStationState = (other.chargeStationState != null)
+        ? other.chargeStationState.clone()
+        : null;
+  }
+}
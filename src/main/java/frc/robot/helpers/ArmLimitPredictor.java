@@ -0,0 +1,219 @@
+package frc.robot.helpers;
+
+import frc.robot.Constants;
+import simulationlib.Constants.SimConstants;
+import simulationlib.helpers.UnitConversions;
+import simulationlib.simulation.armangle.PivotMechanism;
+import simulationlib.simulation.framework.SimFidelity;
+import simulationlib.simulation.motor.MotorSimModel;
+import simulationlib.simulation.winch.WinchCable;
+import simulationlib.simulation.winch.WinchParams;
+import simulationlib.simulation.winch.WinchSimModel;
+import simulationlib.simulation.winch.WinchSimModel.WindingOrientation;
+
+/**
+ * Protects the arm on the real robot by looking a few ticks ahead. ArmSystem only stops the
+ * winch once the absolute encoder is already past a limit, and with the motor still turning
+ * and the encoder reading a tick late, the arm overshoots. This predicts where the arm will
+ * be with the same models the simulation uses (the winch motor, the winch and the pivot),
+ * starting from the measured position and speed, and scales the winch output down just
+ * enough that the prediction stays within the winch encoder limits. While the grabber is
+ * open, kWinchGrabberOpenLowerLimit, below which opening it breaks the arm, is a lower limit
+ * too.
+ * <p>
+ * The limits come from Constants.OperatorConstants, and the arm's dimensions from the
+ * SimConstants the models are built with, the same ones ArmSystemSim uses.
+ * </p>
+ * <p>
+ * The speed is the change of the measured position over the last few ticks, since the change
+ * over a single tick is mostly encoder noise, and the prediction would swing with it.
+ * </p>
+ * <p>
+ * Usage: call addMeasurement() with the absolute encoder every tick, e.g. in periodic(), and
+ * pass the winch output through limitWinchSpeed() before setting it. Neither allocates, and
+ * a tick costs a few dozen model steps of plain arithmetic, so this runs well under 1ms on
+ * the roboRIO.
+ * </p>
+ * <p>
+ * The motor runs at the FirstOrder fidelity, assuming a full 12V battery. A lower battery
+ * only makes the arm slower than predicted, so the protection errs on the safe side.
+ * </p>
+ */
+public class ArmLimitPredictor {
+  // 100ms, enough to cover the motor spinning down and the encoder being a tick late
+  public static final int kDefaultLookaheadTicks = 5;
+
+  // 60ms, long enough to average out the encoder noise, short enough to follow the arm
+  private static final int kSpeedWindowTicks = 3;
+
+  private static final double kTickSeconds = 0.02;
+
+  // Halvings when searching for the largest output that stays within the limits
+  private static final int kScaleSearchSteps = 6;
+
+  private final MotorSimModel m_winchMotorModel;
+  private final PivotMechanism m_pivotMechanism;
+  private final double m_unspooledMetersPerRotation;
+  private final double m_encoderRotationsOffset;
+  private final double m_upperLimit;
+  private final double m_lowerLimit;
+  private final double m_grabberBreakLimit;
+  private final int m_lookaheadTicks;
+
+  // Last measurement, and the winch motor speed the recent ones imply
+  private boolean m_hasMeasurement = false;
+  private double m_absoluteEncoder;
+  private double m_stringLen;
+  private double m_motorRotationsPerSecond;
+
+  // String lengths of the last kSpeedWindowTicks + 1 measurements, oldest first from
+  // m_oldestIndex, as a ring
+  private final double[] m_recentStringLens = new double[kSpeedWindowTicks + 1];
+  private int m_recentCount = 0;
+  private int m_oldestIndex = 0;
+
+  /**
+   * Constructor.
+   *
+   * @param lookaheadTicks how many 20ms ticks to predict ahead
+   */
+  public ArmLimitPredictor(int lookaheadTicks) {
+    if (lookaheadTicks < 1) {
+      throw new IllegalArgumentException("lookaheadTicks must be >0");
+    }
+
+    m_winchMotorModel = new MotorSimModel(SimConstants.kwinchSimGearRatio,
+        SimFidelity.FirstOrder, MotorSimModel.kDefaultMomentOfInertia);
+    m_pivotMechanism = new PivotMechanism(SimConstants.karmHeightFromWinchToPivotPoint,
+        SimConstants.karmLengthFromEdgeToPivot);
+    m_unspooledMetersPerRotation = new WinchSimModel(new WinchParams(
+        SimConstants.kwinchSpoolDiameterMeters,
+        new WinchCable(SimConstants.kTotalStringLenMeters,
+            SimConstants.kTotalStringLenMeters - SimConstants.kCurrentLenSpooled,
+            WindingOrientation.BackOfRobot),
+        true)).getUnspooledMetersPerRotation();
+    m_encoderRotationsOffset = SimConstants.karmEncoderRotationsOffset;
+    m_upperLimit = Constants.OperatorConstants.kWinchEncoderUpperLimit;
+    m_lowerLimit = Constants.OperatorConstants.kWinchEncoderLowerLimit;
+    m_grabberBreakLimit = Constants.OperatorConstants.kWinchGrabberOpenLowerLimit;
+    m_lookaheadTicks = lookaheadTicks;
+  }
+
+  /**
+   * Constructor predicting kDefaultLookaheadTicks ahead.
+   */
+  public ArmLimitPredictor() {
+    this(kDefaultLookaheadTicks);
+  }
+
+  /**
+   * Takes the absolute encoder reading of this tick. 0 means the encoder isn't connected
+   * (like in ArmSystem), and turns the prediction off until the next valid reading.
+   */
+  public void addMeasurement(double absoluteEncoder) {
+    if (absoluteEncoder == 0.0) {
+      m_hasMeasurement = false;
+      m_recentCount = 0;
+      m_oldestIndex = 0;
+      return;
+    }
+
+    double stringLen = m_pivotMechanism.calcClampedStringLengthForSignedDegrees(
+        UnitConversions.rotationToSignedDegrees(absoluteEncoder - m_encoderRotationsOffset));
+
+    if (m_recentCount < m_recentStringLens.length) {
+      m_recentStringLens[m_recentCount] = stringLen;
+      m_recentCount++;
+    }
+    else {
+      m_recentStringLens[m_oldestIndex] = stringLen;
+      m_oldestIndex = (m_oldestIndex + 1) % m_recentStringLens.length;
+    }
+
+    int spanTicks = m_recentCount - 1;
+    m_motorRotationsPerSecond = spanTicks > 0
+        ? (stringLen - m_recentStringLens[m_oldestIndex]) / m_unspooledMetersPerRotation
+            / (spanTicks * kTickSeconds)
+        : 0;
+    m_absoluteEncoder = absoluteEncoder;
+    m_stringLen = stringLen;
+    m_hasMeasurement = true;
+  }
+
+  /**
+   * Returns the winch motor speed the recent measurements imply, in rotations per second, or
+   * 0 without at least two valid ones.
+   */
+  public double getMotorRotationsPerSecond() {
+    return m_hasMeasurement ? m_motorRotationsPerSecond : 0;
+  }
+
+  /**
+   * Returns winchSpeed, scaled down if needed so the arm is predicted to stop within the
+   * limits. Moving back from beyond a limit is allowed. Without a valid measurement, returns
+   * winchSpeed unchanged.
+   */
+  public double limitWinchSpeed(double winchSpeed, boolean isGrabberOpen) {
+    if (!m_hasMeasurement || winchSpeed == 0 || staysWithinLimits(winchSpeed, isGrabberOpen)) {
+      return winchSpeed;
+    }
+
+    // Largest share of winchSpeed that's still safe. If even stopping isn't, stop anyway.
+    double safeScale = 0;
+    double unsafeScale = 1;
+    for (int step = 0; step < kScaleSearchSteps; step++) {
+      double scale = (safeScale + unsafeScale) / 2;
+      if (staysWithinLimits(winchSpeed * scale, isGrabberOpen)) {
+        safeScale = scale;
+      }
+      else {
+        unsafeScale = scale;
+      }
+    }
+
+    return winchSpeed * safeScale;
+  }
+
+  /**
+   * Returns where the absolute encoder is predicted to be after holding winchSpeed for the
+   * lookahead, or NaN without a valid measurement.
+   */
+  public double predictAbsoluteEncoder(double winchSpeed) {
+    if (!m_hasMeasurement) {
+      return Double.NaN;
+    }
+
+    m_winchMotorModel.setState(0, m_motorRotationsPerSecond);
+    double motorRotations = 0;
+    for (int tick = 0; tick < m_lookaheadTicks; tick++) {
+      motorRotations = m_winchMotorModel.updateRotations(winchSpeed);
+    }
+
+    return calcAbsoluteEncoder(motorRotations);
+  }
+
+  // Checks every tick of the lookahead, since the arm can overshoot and come back
+  private boolean staysWithinLimits(double winchSpeed, boolean isGrabberOpen) {
+    double lowerLimit = isGrabberOpen ? Math.max(m_lowerLimit, m_grabberBreakLimit)
+        : m_lowerLimit;
+
+    m_winchMotorModel.setState(0, m_motorRotationsPerSecond);
+    for (int tick = 0; tick < m_lookaheadTicks; tick++) {
+      double absoluteEncoder = calcAbsoluteEncoder(m_winchMotorModel.updateRotations(winchSpeed));
+
+      if ((absoluteEncoder > m_upperLimit && absoluteEncoder > m_absoluteEncoder)
+          || (absoluteEncoder < lowerLimit && absoluteEncoder < m_absoluteEncoder)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private double calcAbsoluteEncoder(double motorRotations) {
+    double signedDegrees = m_pivotMechanism.calcClampedSignedDegreesForStringLength(
+        m_stringLen + motorRotations * m_unspooledMetersPerRotation);
+    return UnitConversions.clampRotation(m_encoderRotationsOffset
+        + UnitConversions.signedDegreesToRotation(signedDegrees));
+  }
+}
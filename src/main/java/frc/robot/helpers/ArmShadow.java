@@ -0,0 +1,272 @@
+package frc.robot.helpers;
+
+import frc.robot.headless.RobotSimParams;
+import simulationlib.Constants.SimConstants;
+import simulationlib.helpers.UnitConversions;
+import simulationlib.simulation.armangle.PivotMechanism;
+import simulationlib.simulation.framework.SimFidelity;
+import simulationlib.simulation.motor.MotorSimModel;
+import simulationlib.simulation.winch.WinchSimModel;
+
+/**
+ * Runs the arm's simulation models in shadow mode next to the real arm: driven by the real
+ * motor outputs, and compared with the real encoders, to flag when the arm stops behaving
+ * like the model says it should. Three things are checked:
+ * <ul>
+ * <li>Winch motor: the winch encoder turns about as far as the winch motor model predicts,
+ * e.g. not when the winch is jammed.</li>
+ * <li>Winch cable: given how far the winch encoder actually turned, the absolute encoder
+ * follows as the winch and pivot models predict, e.g. not when the cable slips.</li>
+ * <li>Extender motor: the extender encoder turns about as far as its model predicts, e.g. not
+ * when the extender stalls.</li>
+ * </ul>
+ * <p>
+ * ArmSystem only runs it when Constants.OperatorConstants.kUseArmShadow is set, and
+ * publishes the results with the other dashboard properties (addShadowProperties()).
+ * </p>
+ * <p>
+ * The models don't run through SimManagers, which only exist in simulation, but directly like
+ * in HeadlessArm. The work is decimated: every tick only stores the outputs, and every
+ * kTicksPerCheck ticks (10 Hz), each motor model is restarted from the measured position and
+ * speed, and runs over the outputs stored since. The winch and extender checks run on
+ * different ticks. So a tick costs at most kTicksPerCheck motor model steps and a few
+ * conversions, whatever the arm does, and nothing allocates.
+ * </p>
+ * <p>
+ * A part is diverging after kChecksToFlag checks in a row with a difference larger than its
+ * tolerance, and stops diverging at the first check within tolerance. Encoders are in the
+ * units the simulation gives them (rotations of the motor model), and the motors are modeled
+ * at a full 12V battery.
+ * </p>
+ */
+public class ArmShadow {
+  // 100ms, so checks run at 10 Hz
+  public static final int kTicksPerCheck = 5;
+  public static final int kChecksToFlag = 3;
+
+  private static final double kTickSeconds = 0.02;
+
+  // A difference is within tolerance when it's below the absolute tolerance plus this share
+  // of the predicted motion. The models don't include the load, so real motion only roughly
+  // matches.
+  private static final double kRelativeTolerance = 0.5;
+  private static final double kMotorToleranceRotations = 0.02;
+  private static final double kCableToleranceRotations = 0.002;
+
+  /**
+   * One motor model, and the outputs it was given since the last check.
+   */
+  private static class MotorShadow {
+    private final MotorSimModel m_model;
+    private final double[] m_outputs = new double[kTicksPerCheck];
+    private int m_outputCount = 0;
+    // Samples to skip before the first check, which staggers the checks of several motors
+    private int m_skipSamples;
+
+    private boolean m_hasPosition = false;
+    private double m_lastPosition;
+    private double m_startPosition;
+    private double m_startVelocity;
+
+    // Results of the last check
+    private double m_predictedDelta;
+    private double m_measuredDelta;
+    private int m_divergentChecks = 0;
+
+    MotorShadow(double gearRatio, double momentOfInertia, int skipSamples) {
+      m_model = new MotorSimModel(gearRatio, SimFidelity.FirstOrder, momentOfInertia);
+      m_skipSamples = skipSamples;
+    }
+
+    /**
+     * Takes the output the motor had during the last tick, and where its encoder got to.
+     * Returns true if this ran a check.
+     */
+    boolean addSample(double output, double position) {
+      double velocity = m_hasPosition ? (position - m_lastPosition) / kTickSeconds : 0;
+      m_lastPosition = position;
+      m_hasPosition = true;
+
+      if (m_skipSamples > 0) {
+        m_skipSamples--;
+        startInterval(position, velocity);
+        return false;
+      }
+
+      m_outputs[m_outputCount++] = output;
+      if (m_outputCount < kTicksPerCheck) {
+        return false;
+      }
+
+      m_model.setState(m_startPosition, m_startVelocity);
+      double predictedPosition = m_startPosition;
+      for (int i = 0; i < kTicksPerCheck; i++) {
+        predictedPosition = m_model.updateRotations(m_outputs[i]);
+      }
+
+      m_predictedDelta = predictedPosition - m_startPosition;
+      m_measuredDelta = position - m_startPosition;
+      m_divergentChecks = isWithinTolerance(m_measuredDelta, m_predictedDelta,
+          kMotorToleranceRotations) ? 0 : m_divergentChecks + 1;
+
+      startInterval(position, velocity);
+      return true;
+    }
+
+    private void startInterval(double position, double velocity) {
+      m_startPosition = position;
+      m_startVelocity = velocity;
+      m_outputCount = 0;
+    }
+  }
+
+  private final MotorShadow m_winchMotor;
+  private final MotorShadow m_extenderMotor;
+  private final PivotMechanism m_pivotMechanism;
+  private final double m_unspooledMetersPerRotation;
+  private final double m_encoderRotationsOffset;
+
+  // Absolute encoder where the current winch interval started, NaN if it wasn't connected
+  private double m_cableStartAbsoluteEncoder = Double.NaN;
+  private double m_cableResidual = 0;
+  private int m_cableDivergentChecks = 0;
+  private long m_checkCount = 0;
+
+  /**
+   * Constructor.
+   *
+   * @param simParams physical constants of the arm, the same the simulation uses
+   */
+  public ArmShadow(RobotSimParams simParams) {
+    if (simParams == null) {
+      throw new IllegalArgumentException("simParams cannot be null");
+    }
+
+    m_winchMotor = new MotorShadow(simParams.winchSimGearRatio, simParams.motorMomentOfInertia,
+        1);
+    m_extenderMotor = new MotorShadow(simParams.extenderSimGearRatio,
+        simParams.motorMomentOfInertia, 1 + kTicksPerCheck / 2);
+    m_pivotMechanism = simParams.createPivotMechanism();
+    m_unspooledMetersPerRotation = new WinchSimModel(
+        simParams.createWinchParams(SimConstants.kCurrentLenSpooled))
+        .getUnspooledMetersPerRotation();
+    m_encoderRotationsOffset = simParams.armEncoderRotationsOffset;
+  }
+
+  /**
+   * Constructor with the robot's constants.
+   */
+  public ArmShadow() {
+    this(new RobotSimParams());
+  }
+
+  /**
+   * Takes this tick's measurements. Call every tick, before the motors get new outputs
+   * (e.g. in periodic()), so the outputs are the ones the motors had while the encoders
+   * moved to where they are now.
+   *
+   * @param winchOutput       winch motor output of the last tick, -1 to 1
+   * @param winchEncoder      winch encoder, in rotations
+   * @param extenderOutput    extender motor output of the last tick, -1 to 1
+   * @param extenderEncoder   extender encoder, in rotations
+   * @param absoluteEncoder   winch absolute encoder, 0 if it isn't connected (like in
+   *                          ArmSystem), which skips the cable check
+   */
+  public void addSample(double winchOutput,
+      double winchEncoder,
+      double extenderOutput,
+      double extenderEncoder,
+      double absoluteEncoder) {
+    if (m_winchMotor.addSample(winchOutput, winchEncoder)) {
+      checkCable(absoluteEncoder);
+      m_checkCount++;
+    }
+    else if (m_winchMotor.m_outputCount == 0) {
+      // Skipped sample, which starts the first interval
+      m_cableStartAbsoluteEncoder = (absoluteEncoder != 0.0) ? absoluteEncoder : Double.NaN;
+    }
+
+    if (m_extenderMotor.addSample(extenderOutput, extenderEncoder)) {
+      m_checkCount++;
+    }
+  }
+
+  // Predicts where the absolute encoder should be after the winch turned as far as it was
+  // measured to, from where it was when the interval started
+  private void checkCable(double absoluteEncoder) {
+    double startAbsoluteEncoder = m_cableStartAbsoluteEncoder;
+    m_cableStartAbsoluteEncoder = (absoluteEncoder != 0.0) ? absoluteEncoder : Double.NaN;
+
+    if (Double.isNaN(startAbsoluteEncoder) || absoluteEncoder == 0.0) {
+      m_cableResidual = 0;
+      m_cableDivergentChecks = 0;
+      return;
+    }
+
+    double startStringLen = m_pivotMechanism.calcClampedStringLengthForSignedDegrees(
+        UnitConversions.rotationToSignedDegrees(startAbsoluteEncoder - m_encoderRotationsOffset));
+    double signedDegrees = m_pivotMechanism.calcClampedSignedDegreesForStringLength(
+        startStringLen + m_winchMotor.m_measuredDelta * m_unspooledMetersPerRotation);
+    double predictedAbsoluteEncoder = UnitConversions.clampRotation(m_encoderRotationsOffset
+        + UnitConversions.signedDegreesToRotation(signedDegrees));
+
+    m_cableResidual = absoluteEncoder - predictedAbsoluteEncoder;
+    m_cableDivergentChecks = isWithinTolerance(absoluteEncoder - startAbsoluteEncoder,
+        predictedAbsoluteEncoder - startAbsoluteEncoder, kCableToleranceRotations)
+            ? 0
+            : m_cableDivergentChecks + 1;
+  }
+
+  private static boolean isWithinTolerance(double measuredDelta, double predictedDelta,
+      double absoluteTolerance) {
+    return Math.abs(measuredDelta - predictedDelta) <= absoluteTolerance
+        + kRelativeTolerance * Math.abs(predictedDelta);
+  }
+
+  public boolean isWinchMotorDiverging() {
+    return m_winchMotor.m_divergentChecks >= kChecksToFlag;
+  }
+
+  public boolean isWinchCableDiverging() {
+    return m_cableDivergentChecks >= kChecksToFlag;
+  }
+
+  public boolean isExtenderMotorDiverging() {
+    return m_extenderMotor.m_divergentChecks >= kChecksToFlag;
+  }
+
+  public boolean isDiverging() {
+    return isWinchMotorDiverging() || isWinchCableDiverging() || isExtenderMotorDiverging();
+  }
+
+  /**
+   * Returns how much further the winch encoder turned than predicted at the last check, in
+   * rotations.
+   */
+  public double getWinchMotorResidual() {
+    return m_winchMotor.m_measuredDelta - m_winchMotor.m_predictedDelta;
+  }
+
+  /**
+   * Returns how far the absolute encoder was from its prediction at the last check, in
+   * rotations.
+   */
+  public double getWinchCableResidual() {
+    return m_cableResidual;
+  }
+
+  /**
+   * Returns how much further the extender encoder turned than predicted at the last check,
+   * in rotations.
+   */
+  public double getExtenderMotorResidual() {
+    return m_extenderMotor.m_measuredDelta - m_extenderMotor.m_predictedDelta;
+  }
+
+  /**
+   * Returns how many checks ran so far, of the winch and the extender together.
+   */
+  public long getCheckCount() {
+    return m_checkCount;
+  }
+}
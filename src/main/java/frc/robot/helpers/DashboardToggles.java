@@ -0,0 +1,157 @@
+package frc.robot.helpers;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Debug toggles on SmartDashboard, e.g. to write a trace file or record the controllers.
+ * They're flipped a few times per session, so instead of each one reading NetworkTables every
+ * tick, poll() reads all of them once every few loops (once a second by default), and calls
+ * the action of each toggle that changed.
+ * <p>
+ * A button runs its action once when it's set, and clears itself. A switch calls its
+ * listener with the new value each time it changes.
+ * </p>
+ */
+public class DashboardToggles {
+  // Read the toggles once a second
+  public static final int kDefaultPollEveryLoops = 50;
+
+  /**
+   * Where the toggles are read from and written to. SmartDashboard on the robot.
+   */
+  public interface Dashboard {
+    boolean getBoolean(String key, boolean defaultValue);
+
+    void putBoolean(String key, boolean value);
+  }
+
+  /**
+   * Called when a switch changes.
+   */
+  @FunctionalInterface
+  public interface SwitchListener {
+    void onChanged(boolean isSet);
+  }
+
+  private static class Toggle {
+    private final String m_key;
+    private final Runnable m_buttonAction;
+    private final SwitchListener m_switchListener;
+    private boolean m_isSet = false;
+
+    Toggle(String key, Runnable buttonAction, SwitchListener switchListener) {
+      m_key = key;
+      m_buttonAction = buttonAction;
+      m_switchListener = switchListener;
+    }
+  }
+
+  private final int m_pollEveryLoops;
+  private final Dashboard m_dashboard;
+  private final List<Toggle> m_toggles = new ArrayList<Toggle>();
+  private int m_loopsUntilPoll = 0;
+
+  /**
+   * Constructor.
+   *
+   * @param pollEveryLoops how many calls to poll() it takes to read the toggles once
+   * @param dashboard      where the toggles live
+   */
+  public DashboardToggles(int pollEveryLoops, Dashboard dashboard) {
+    if (pollEveryLoops < 1) {
+      throw new IllegalArgumentException("pollEveryLoops must be >0");
+    }
+
+    if (dashboard == null) {
+      throw new IllegalArgumentException("dashboard cannot be null");
+    }
+
+    m_pollEveryLoops = pollEveryLoops;
+    m_dashboard = dashboard;
+  }
+
+  /**
+   * Constructor for the robot: SmartDashboard, read once a second.
+   */
+  public DashboardToggles() {
+    this(kDefaultPollEveryLoops, new Dashboard() {
+      @Override
+      public boolean getBoolean(String key, boolean defaultValue) {
+        return SmartDashboard.getBoolean(key, defaultValue);
+      }
+
+      @Override
+      public void putBoolean(String key, boolean value) {
+        SmartDashboard.putBoolean(key, value);
+      }
+    });
+  }
+
+  /**
+   * Adds a toggle that runs action once each time it's set, then clears itself.
+   */
+  public void addButton(String key, Runnable action) {
+    if (action == null) {
+      throw new IllegalArgumentException("action cannot be null");
+    }
+
+    addToggle(new Toggle(key, action, null));
+  }
+
+  /**
+   * Adds a toggle that calls listener each time it's set or cleared.
+   */
+  public void addSwitch(String key, SwitchListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("listener cannot be null");
+    }
+
+    addToggle(new Toggle(key, null, listener));
+  }
+
+  private void addToggle(Toggle toggle) {
+    if (toggle.m_key == null) {
+      throw new IllegalArgumentException("key cannot be null");
+    }
+
+    for (Toggle existing : m_toggles) {
+      if (existing.m_key.equals(toggle.m_key)) {
+        throw new IllegalArgumentException("key is already a toggle: " + toggle.m_key);
+      }
+    }
+
+    m_dashboard.putBoolean(toggle.m_key, false);
+    m_toggles.add(toggle);
+  }
+
+  /**
+   * Call every loop, e.g. in robotPeriodic(). Reads the toggles only every pollEveryLoops
+   * calls, starting with the first.
+   */
+  public void poll() {
+    if (m_loopsUntilPoll > 0) {
+      m_loopsUntilPoll--;
+      return;
+    }
+
+    m_loopsUntilPoll = m_pollEveryLoops - 1;
+
+    for (int i = 0; i < m_toggles.size(); i++) {
+      Toggle toggle = m_toggles.get(i);
+      boolean isSet = m_dashboard.getBoolean(toggle.m_key, false);
+
+      if (toggle.m_buttonAction != null) {
+        if (isSet) {
+          m_dashboard.putBoolean(toggle.m_key, false);
+          toggle.m_buttonAction.run();
+        }
+      }
+      else if (isSet != toggle.m_isSet) {
+        toggle.m_isSet = isSet;
+        toggle.m_switchListener.onChanged(isSet);
+      }
+    }
+  }
+}
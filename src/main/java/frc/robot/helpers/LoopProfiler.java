@@ -0,0 +1,439 @@
+package frc.robot.helpers;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.LongSupplier;
+import simulationlib.helpers.SpanTracer;
+
+/**
+ * Times the parts of robotPeriodic() (the command scheduler, each subsystem's periodic() and
+ * simulationPeriodic(), each command's execute(), LEDs, dashboard...), keeps the last few
+ * seconds of timings for each, and publishes the worst offenders to SmartDashboard.
+ * <p>
+ * Sections can be nested, e.g. subsystem periodic() inside CommandScheduler.run(). Each
+ * section is charged only for its own time, not its children's, so the times add up to the
+ * whole loop. Recording a timing doesn't allocate, so this can stay on for the real robot.
+ * </p>
+ * <p>
+ * Usage: call startLoop() and endLoop() around robotPeriodic(), and start() / stop() on a
+ * Section around each part to time. installCommandHooks() times command initialize(),
+ * execute() and end() through the CommandScheduler hooks: a command is charged for the time
+ * since the previous timing mark, which also includes button polling or the previous
+ * command's isFinished().
+ * </p>
+ * <p>
+ * If a SpanTracer is set, every timing is also recorded there as a span, so that the loop
+ * can be looked at as a timeline.
+ * </p>
+ */
+public class LoopProfiler {
+  public static final double kDefaultLoopBudgetSeconds = 0.02;
+
+  // 5 seconds of 20ms loops
+  public static final int kDefaultWindowSize = 250;
+
+  // Publish to SmartDashboard once a second
+  private static final int kPublishEveryLoops = 50;
+  private static final int kPublishedOffenderCount = 5;
+  private static final int kMaxNestingDepth = 16;
+
+  private static final LoopProfiler globalInstance = new LoopProfiler(kDefaultWindowSize,
+      kDefaultLoopBudgetSeconds, System::nanoTime);
+
+  static {
+    globalInstance.setTracer(SpanTracer.getInstance());
+  }
+
+  private final int m_windowSize;
+  private final long m_loopBudgetNanos;
+  private final LongSupplier m_nanoClock;
+  private final Map<String, Section> m_sectionsByName = new HashMap<String, Section>();
+  private final List<Section> m_sections = new ArrayList<Section>();
+  // Weak, since a new set of auto commands is created every time auto starts
+  private final Map<Command, CommandSections> m_sectionsByCommand = new WeakHashMap<>();
+  private final Section[] m_openSections = new Section[kMaxNestingDepth];
+  private final long[] m_scratch;
+  private int m_depth = 0;
+  private long m_lastMarkNanos;
+  private long m_loopStartNanos;
+  private long m_lastLoopNanos;
+  private long m_loopCount = 0;
+  private long m_overrunCount = 0;
+  private SpanTracer m_tracer = null;
+
+  /**
+   * Timings of one part of the loop.
+   */
+  public static class Section {
+    private final LoopProfiler m_profiler;
+    private final String m_name;
+    private final long[] m_samples;
+    private int m_nextSample = 0;
+    private int m_sampleCount = 0;
+    private long m_maxNanos = 0;
+    private long m_startNanos;
+    private long m_childNanos;
+    private long m_thisLoopNanos = 0;
+    private long m_overrunBlameCount = 0;
+    private int m_traceId = -1;
+
+    private Section(LoopProfiler profiler, String name, int windowSize) {
+      m_profiler = profiler;
+      m_name = name;
+      m_samples = new long[windowSize];
+    }
+
+    public void start() {
+      m_profiler.push(this);
+    }
+
+    public void stop() {
+      m_profiler.pop(this);
+    }
+
+    private void record(long nanos) {
+      m_samples[m_nextSample] = nanos;
+      m_nextSample = (m_nextSample + 1) % m_samples.length;
+      m_sampleCount = Math.min(m_sampleCount + 1, m_samples.length);
+      m_maxNanos = Math.max(m_maxNanos, nanos);
+      m_thisLoopNanos += nanos;
+    }
+
+    public String getName() {
+      return m_name;
+    }
+
+    public int getSampleCount() {
+      return m_sampleCount;
+    }
+
+    /**
+     * Returns the given percentile (0 to 100) of the recent timings, in milliseconds, or 0
+     * if there are none.
+     */
+    public double getPercentileMillis(double percentile) {
+      if (m_sampleCount == 0) {
+        return 0;
+      }
+
+      long[] sorted = m_profiler.m_scratch;
+      System.arraycopy(m_samples, 0, sorted, 0, m_sampleCount);
+      Arrays.sort(sorted, 0, m_sampleCount);
+
+      // Nearest rank
+      int rank = (int) Math.ceil(percentile / 100 * m_sampleCount);
+      return sorted[Math.max(0, Math.min(m_sampleCount - 1, rank - 1))] / 1e6;
+    }
+
+    /**
+     * Returns the longest timing since the profiler started, in milliseconds.
+     */
+    public double getMaxMillis() {
+      return m_maxNanos / 1e6;
+    }
+
+    /**
+     * Returns how many overrun loops this section took the most time in.
+     */
+    public long getOverrunBlameCount() {
+      return m_overrunBlameCount;
+    }
+  }
+
+  // The sections of one command
+  private static class CommandSections {
+    final Section m_initialize;
+    final Section m_execute;
+    final Section m_end;
+
+    CommandSections(LoopProfiler profiler, String commandName) {
+      m_initialize = profiler.getSection(commandName + ".initialize");
+      m_execute = profiler.getSection(commandName + ".execute");
+      m_end = profiler.getSection(commandName + ".end");
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param windowSize        number of recent timings kept per section for percentiles
+   * @param loopBudgetSeconds robotPeriodic() taking longer than this counts as an overrun
+   * @param nanoClock         current time in nanoseconds, e.g. System::nanoTime
+   */
+  public LoopProfiler(int windowSize, double loopBudgetSeconds, LongSupplier nanoClock) {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("windowSize must be >0");
+    }
+
+    if (loopBudgetSeconds <= 0) {
+      throw new IllegalArgumentException("loopBudgetSeconds must be >0");
+    }
+
+    if (nanoClock == null) {
+      throw new IllegalArgumentException("nanoClock cannot be null");
+    }
+
+    m_windowSize = windowSize;
+    m_loopBudgetNanos = (long) (loopBudgetSeconds * 1e9);
+    m_nanoClock = nanoClock;
+    m_scratch = new long[windowSize];
+    m_lastMarkNanos = nanoClock.getAsLong();
+  }
+
+  /**
+   * Returns the profiler for the robot's main loop.
+   */
+  public static LoopProfiler getInstance() {
+    return globalInstance;
+  }
+
+  /**
+   * Also records every timing as a span in the given tracer, which must use the same clock.
+   * Null stops tracing.
+   */
+  public void setTracer(SpanTracer tracer) {
+    m_tracer = tracer;
+    for (int i = 0; i < m_sections.size(); i++) {
+      Section section = m_sections.get(i);
+      section.m_traceId = (tracer != null) ? tracer.getNameId(section.m_name) : -1;
+    }
+  }
+
+  /**
+   * Returns the section with the given name, creating it the first time.
+   */
+  public Section getSection(String name) {
+    if (name == null || name.isEmpty()) {
+      throw new IllegalArgumentException("name cannot be null or empty");
+    }
+
+    Section result = m_sectionsByName.get(name);
+    if (result == null) {
+      result = new Section(this, name, m_windowSize);
+      if (m_tracer != null) {
+        result.m_traceId = m_tracer.getNameId(name);
+      }
+
+      m_sectionsByName.put(name, result);
+      m_sections.add(result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Times each scheduled command's initialize(), execute() and end(), as
+   * "CommandName.initialize", "CommandName.execute" and "CommandName.end".
+   */
+  public void installCommandHooks(CommandScheduler scheduler) {
+    scheduler.onCommandInitialize(this::commandInitialized);
+    scheduler.onCommandExecute(this::commandExecuted);
+    scheduler.onCommandFinish(this::commandEnded);
+    scheduler.onCommandInterrupt(this::commandEnded);
+  }
+
+  private CommandSections getCommandSections(Command command) {
+    CommandSections result = m_sectionsByCommand.get(command);
+    if (result == null) {
+      result = new CommandSections(this, command.getName());
+      m_sectionsByCommand.put(command, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Charges the time since the previous mark to the command's initialize section.
+   */
+  public void commandInitialized(Command command) {
+    recordSinceMark(getCommandSections(command).m_initialize);
+  }
+
+  /**
+   * Charges the time since the previous mark to the command's execute section.
+   */
+  public void commandExecuted(Command command) {
+    recordSinceMark(getCommandSections(command).m_execute);
+  }
+
+  /**
+   * Charges the time since the previous mark to the command's end section.
+   */
+  public void commandEnded(Command command) {
+    recordSinceMark(getCommandSections(command).m_end);
+  }
+
+  private void recordSinceMark(Section section) {
+    long now = m_nanoClock.getAsLong();
+    long elapsed = now - m_lastMarkNanos;
+    section.record(elapsed);
+    trace(section, m_lastMarkNanos, now);
+    if (m_depth > 0) {
+      m_openSections[m_depth - 1].m_childNanos += elapsed;
+    }
+
+    m_lastMarkNanos = now;
+  }
+
+  private void trace(Section section, long startNanos, long endNanos) {
+    if (m_tracer != null) {
+      m_tracer.record(section.m_traceId, startNanos, endNanos);
+    }
+  }
+
+  // Never throws: a profiler must not take the robot down. If a section is nested too
+  // deep it isn't timed, and if one is left open (e.g. by an exception) it's dropped.
+  private void push(Section section) {
+    long now = m_nanoClock.getAsLong();
+    m_lastMarkNanos = now;
+    if (m_depth == kMaxNestingDepth) {
+      return;
+    }
+
+    section.m_startNanos = now;
+    section.m_childNanos = 0;
+    m_openSections[m_depth++] = section;
+  }
+
+  private void pop(Section section) {
+    long now = m_nanoClock.getAsLong();
+    m_lastMarkNanos = now;
+
+    int index = m_depth - 1;
+    while (index >= 0 && m_openSections[index] != section) {
+      index--;
+    }
+
+    if (index < 0) {
+      return;
+    }
+
+    while (m_depth > index) {
+      m_openSections[--m_depth] = null;
+    }
+
+    long elapsed = now - section.m_startNanos;
+    section.record(elapsed - section.m_childNanos);
+    trace(section, section.m_startNanos, now);
+    if (m_depth > 0) {
+      m_openSections[m_depth - 1].m_childNanos += elapsed;
+    }
+  }
+
+  /**
+   * Call at the start of robotPeriodic().
+   */
+  public void startLoop() {
+    m_loopStartNanos = m_nanoClock.getAsLong();
+    m_lastMarkNanos = m_loopStartNanos;
+    while (m_depth > 0) {
+      m_openSections[--m_depth] = null;
+    }
+
+    for (int i = 0; i < m_sections.size(); i++) {
+      m_sections.get(i).m_thisLoopNanos = 0;
+    }
+  }
+
+  /**
+   * Call at the end of robotPeriodic(). If the loop overran its budget, the section that
+   * took the most time in it gets the blame. Publishes to SmartDashboard once a second.
+   *
+   * @return true if this loop overran
+   */
+  public boolean endLoop() {
+    m_lastLoopNanos = m_nanoClock.getAsLong() - m_loopStartNanos;
+    m_loopCount++;
+
+    boolean isOverrun = m_lastLoopNanos > m_loopBudgetNanos;
+    if (isOverrun) {
+      m_overrunCount++;
+
+      Section worst = null;
+      for (int i = 0; i < m_sections.size(); i++) {
+        Section section = m_sections.get(i);
+        if (worst == null || section.m_thisLoopNanos > worst.m_thisLoopNanos) {
+          worst = section;
+        }
+      }
+
+      if (worst != null && worst.m_thisLoopNanos > 0) {
+        worst.m_overrunBlameCount++;
+      }
+    }
+
+    if (m_loopCount % kPublishEveryLoops == 0) {
+      publish();
+    }
+
+    return isOverrun;
+  }
+
+  public long getLoopCount() {
+    return m_loopCount;
+  }
+
+  public long getOverrunCount() {
+    return m_overrunCount;
+  }
+
+  public double getLastLoopMillis() {
+    return m_lastLoopNanos / 1e6;
+  }
+
+  /**
+   * Returns up to count sections, worst 95th percentile first.
+   */
+  public List<Section> getTopOffenders(int count) {
+    List<Section> sorted = new ArrayList<Section>(m_sections);
+    double[] p95 = new double[sorted.size()];
+    for (int i = 0; i < sorted.size(); i++) {
+      p95[i] = sorted.get(i).getPercentileMillis(95);
+    }
+
+    Integer[] order = new Integer[sorted.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(p95[b], p95[a]));
+
+    List<Section> result = new ArrayList<Section>();
+    for (int i = 0; i < Math.min(count, order.length); i++) {
+      result.add(sorted.get(order[i]));
+    }
+
+    return result;
+  }
+
+  /**
+   * Puts the loop time, overrun count and worst sections on SmartDashboard, under
+   * "Profiler/".
+   */
+  public void publish() {
+    SmartDashboard.putNumber("Profiler/Last Loop ms", getLastLoopMillis());
+    SmartDashboard.putNumber("Profiler/Overruns", m_overrunCount);
+
+    List<Section> offenders = getTopOffenders(kPublishedOffenderCount);
+    for (int i = 0; i < kPublishedOffenderCount; i++) {
+      String text = "";
+      if (i < offenders.size()) {
+        Section section = offenders.get(i);
+        text = String.format("%s p50 %.2f p95 %.2f max %.2f ms, blamed %d",
+            section.getName(),
+            section.getPercentileMillis(50),
+            section.getPercentileMillis(95),
+            section.getMaxMillis(),
+            section.getOverrunBlameCount());
+      }
+
+      SmartDashboard.putString("Profiler/Top " + (i + 1), text);
+    }
+  }
+}
@@ -2,8 +2,8 @@ package frc.robot.helpers;
 
 import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
-import java.time.Instant;
 import java.util.function.Supplier;
+import simulationlib.simulation.framework.SimClock;
 
 /**
  * VerifyJoysticks class is used to verify that the joysticks are connected and have the expected
@@ -71,17 +71,28 @@ public class VerifyJoysticks {
   private DriverStationFunctions m_driverStationFunctions;
   private boolean m_lastResult;
   private boolean m_firstCall;
-  private Instant m_recordedTime = Instant.now();
+  private final SimClock m_clock;
+  private double m_recordedSeconds;
   private final JoystickConfig[] m_joystickConfigs;
   private JoystickTest[][] m_tests;
   private final int m_periodSeconds;
 
   /**
-   * Constructor.
+   * Constructor that checks every periodSeconds of wall time.
    */
   public VerifyJoysticks(JoystickConfig[] joystickConfigs,
       DriverStationFunctions driverStationFunctions,
       int periodSeconds) {
+    this(joystickConfigs, driverStationFunctions, periodSeconds, SimClock.getWallClock());
+  }
+
+  /**
+   * Constructor that checks every periodSeconds, as read from clock.
+   */
+  public VerifyJoysticks(JoystickConfig[] joystickConfigs,
+      DriverStationFunctions driverStationFunctions,
+      int periodSeconds,
+      SimClock clock) {
     // Check params
     if (joystickConfigs == null) {
       throw new IllegalArgumentException("joystickConfigs cannot be null");
@@ -91,6 +102,12 @@ public class VerifyJoysticks {
       throw new IllegalArgumentException("driverStationFunctions cannot be null");
     }
 
+    if (clock == null) {
+      throw new IllegalArgumentException("clock cannot be null");
+    }
+
+    m_clock = clock;
+    m_recordedSeconds = clock.getSeconds();
     m_periodSeconds = periodSeconds;
 
     m_driverStationFunctions = driverStationFunctions;
@@ -229,11 +246,10 @@ public class VerifyJoysticks {
    * the joysticks are connected and have the expected number of axes, buttons, and POVs.
    */
   public boolean verifyJoysticksPeriodically() {
-    Instant currentTime = Instant.now();
+    double currentSeconds = m_clock.getSeconds();
     boolean allSuccess = true;
 
-    if (m_firstCall
-        || (currentTime.getEpochSecond() - m_recordedTime.getEpochSecond()) >= m_periodSeconds) {
+    if (m_firstCall || (currentSeconds - m_recordedSeconds) >= m_periodSeconds) {
 
       for (int i = 0; i < m_joystickConfigs.length; i++) {
         if (!verifySingleJoystick(m_joystickConfigs[i].m_port,
@@ -249,7 +265,7 @@ public class VerifyJoysticks {
       }
 
       m_lastResult = allSuccess;
-      m_recordedTime = currentTime;
+      m_recordedSeconds = currentSeconds;
       m_firstCall = false;
 
       // We only update the dashboard every few seconds
@@ -0,0 +1,46 @@
+package frc.robot.match;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Records the controllers on the given ports into a ControllerRecording, one tick per call to
+ * recordTick(). Reads the driver station directly, so it sees the same values as
+ * TankDriveSystem and ArmSystem, whether they come from a real controller or a simulated one.
+ */
+public class ControllerRecorder {
+  private final ControllerRecording m_recording;
+
+  /**
+   * Constructor.
+   */
+  public ControllerRecorder(int... ports) {
+    m_recording = new ControllerRecording(ports);
+  }
+
+  /**
+   * Records every controller once. Call every 20ms, e.g. from robotPeriodic().
+   */
+  public void recordTick() {
+    int tick = m_recording.addTick();
+
+    for (int i = 0; i < m_recording.getControllerCount(); i++) {
+      int port = m_recording.getPort(i);
+
+      // Only read what the controller has, since the driver station warns about the rest
+      int axisCount = Math.min(DriverStation.getStickAxisCount(port),
+          ControllerRecording.kAxisCount);
+      for (int axis = 0; axis < axisCount; axis++) {
+        m_recording.setAxis(tick, i, axis, DriverStation.getStickAxis(port, axis));
+      }
+
+      m_recording.setButtons(tick, i, DriverStation.getStickButtons(port));
+      if (DriverStation.getStickPOVCount(port) > 0) {
+        m_recording.setPov(tick, i, DriverStation.getStickPOV(port, 0));
+      }
+    }
+  }
+
+  public ControllerRecording getRecording() {
+    return m_recording;
+  }
+}
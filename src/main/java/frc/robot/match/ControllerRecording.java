@@ -0,0 +1,252 @@
+package frc.robot.match;
+
+import edu.wpi.first.wpilibj.simulation.XboxControllerSim;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import simulationlib.simulation.framework.SimWorld;
+
+/**
+ * Every axis, button and POV of one or more Xbox controllers, once per 20ms tick, e.g. a
+ * driver's practice session recorded by ControllerRecorder.
+ * <p>
+ * Each controller takes 16 bytes per tick: the 6 axes as 16 bit fixed point, the buttons as
+ * a bit mask, and the POV angle. A whole match of two controllers is about 240KB.
+ * </p>
+ * <p>
+ * getScript() plays a controller back as a ControllerScript, e.g. in a MatchDriver running
+ * as fast as possible, so a recorded session can be replayed against new code in seconds.
+ * </p>
+ */
+public class ControllerRecording {
+  public static final int kAxisCount = 6;
+  public static final int kButtonCount = 10;
+  public static final double kTickSeconds = SimWorld.kTickSeconds;
+
+  private static final int kMagic = 0x43524543; // "CREC"
+  private static final int kVersion = 1;
+
+  // Per controller and tick: the axes, then the buttons, then the POV
+  private static final int kShortsPerController = kAxisCount + 2;
+  private static final int kButtonsOffset = kAxisCount;
+  private static final int kPovOffset = kAxisCount + 1;
+  private static final double kAxisScale = Short.MAX_VALUE;
+
+  private final int[] m_ports;
+  private short[] m_data;
+  private int m_tickCount = 0;
+
+  /**
+   * Creates an empty recording of the controllers on the given ports.
+   */
+  public ControllerRecording(int... ports) {
+    if (ports == null || ports.length == 0) {
+      throw new IllegalArgumentException("ports cannot be null or empty");
+    }
+
+    m_ports = ports.clone();
+    m_data = new short[m_ports.length * kShortsPerController * 64];
+  }
+
+  public int getControllerCount() {
+    return m_ports.length;
+  }
+
+  /**
+   * Returns the driver station port the controller was recorded from.
+   */
+  public int getPort(int controllerIndex) {
+    return m_ports[controllerIndex];
+  }
+
+  public int getTickCount() {
+    return m_tickCount;
+  }
+
+  /**
+   * Adds a tick where nothing is pressed and the sticks are centered, and returns its index.
+   */
+  public int addTick() {
+    int stride = m_ports.length * kShortsPerController;
+    if ((m_tickCount + 1) * stride > m_data.length) {
+      m_data = Arrays.copyOf(m_data, m_data.length * 2);
+    }
+
+    int tick = m_tickCount++;
+    for (int i = 0; i < m_ports.length; i++) {
+      setPov(tick, i, -1);
+    }
+
+    return tick;
+  }
+
+  /**
+   * Sets an axis, from -1 to 1. Values outside of that are clamped.
+   */
+  public void setAxis(int tick, int controllerIndex, int axis, double value) {
+    if (axis < 0 || axis >= kAxisCount) {
+      throw new IllegalArgumentException("axis is out of range");
+    }
+
+    double clamped = Math.max(-1, Math.min(1, value));
+    m_data[getIndex(tick, controllerIndex) + axis] = (short) Math.round(clamped * kAxisScale);
+  }
+
+  public double getAxis(int tick, int controllerIndex, int axis) {
+    if (axis < 0 || axis >= kAxisCount) {
+      throw new IllegalArgumentException("axis is out of range");
+    }
+
+    return m_data[getIndex(tick, controllerIndex) + axis] / kAxisScale;
+  }
+
+  /**
+   * Sets the buttons as a bit mask, where bit 0 is button 1, like
+   * DriverStation.getStickButtons().
+   */
+  public void setButtons(int tick, int controllerIndex, int buttons) {
+    m_data[getIndex(tick, controllerIndex) + kButtonsOffset] = (short) buttons;
+  }
+
+  public int getButtons(int tick, int controllerIndex) {
+    return m_data[getIndex(tick, controllerIndex) + kButtonsOffset] & 0xFFFF;
+  }
+
+  /**
+   * Sets the POV angle in degrees, or -1 when it isn't pressed.
+   */
+  public void setPov(int tick, int controllerIndex, int pov) {
+    m_data[getIndex(tick, controllerIndex) + kPovOffset] = (short) pov;
+  }
+
+  public int getPov(int tick, int controllerIndex) {
+    return m_data[getIndex(tick, controllerIndex) + kPovOffset];
+  }
+
+  /**
+   * Returns a ControllerScript that plays the controller back, starting at startSeconds of
+   * the match, e.g. the start of teleop. Before and after the recording, the controller is
+   * left alone.
+   */
+  public ControllerScript getScript(int controllerIndex, double startSeconds) {
+    if (controllerIndex < 0 || controllerIndex >= m_ports.length) {
+      throw new IllegalArgumentException("controllerIndex is out of range");
+    }
+
+    return (matchSeconds, controller) -> apply(controllerIndex,
+        (int) Math.round((matchSeconds - startSeconds) / kTickSeconds), controller);
+  }
+
+  private void apply(int controllerIndex, int tick, XboxControllerSim controller) {
+    boolean isRecorded = tick >= 0 && tick < m_tickCount;
+
+    for (int axis = 0; axis < kAxisCount; axis++) {
+      controller.setRawAxis(axis, isRecorded ? getAxis(tick, controllerIndex, axis) : 0);
+    }
+
+    int buttons = isRecorded ? getButtons(tick, controllerIndex) : 0;
+    for (int button = 1; button <= kButtonCount; button++) {
+      controller.setRawButton(button, (buttons & (1 << (button - 1))) != 0);
+    }
+
+    controller.setPOV(isRecorded ? getPov(tick, controllerIndex) : -1);
+  }
+
+  private int getIndex(int tick, int controllerIndex) {
+    if (tick < 0 || tick >= m_tickCount) {
+      throw new IllegalArgumentException("tick is out of range");
+    }
+
+    if (controllerIndex < 0 || controllerIndex >= m_ports.length) {
+      throw new IllegalArgumentException("controllerIndex is out of range");
+    }
+
+    return (tick * m_ports.length + controllerIndex) * kShortsPerController;
+  }
+
+  /**
+   * Writes the recording in its binary format.
+   */
+  public void write(OutputStream stream) throws IOException {
+    DataOutputStream output = new DataOutputStream(stream);
+    output.writeInt(kMagic);
+    output.writeShort(kVersion);
+    output.writeByte(m_ports.length);
+    for (int port : m_ports) {
+      output.writeByte(port);
+    }
+
+    output.writeInt(m_tickCount);
+    int shortCount = m_tickCount * m_ports.length * kShortsPerController;
+    for (int i = 0; i < shortCount; i++) {
+      output.writeShort(m_data[i]);
+    }
+
+    output.flush();
+  }
+
+  /**
+   * Writes the recording to a file, e.g. "controllers.bin".
+   */
+  public void write(File file) throws IOException {
+    try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(file))) {
+      write(stream);
+    }
+  }
+
+  /**
+   * Reads a recording written by write().
+   */
+  public static ControllerRecording read(InputStream stream) throws IOException {
+    DataInputStream input = new DataInputStream(stream);
+    if (input.readInt() != kMagic) {
+      throw new IOException("Not a controller recording");
+    }
+
+    int version = input.readUnsignedShort();
+    if (version != kVersion) {
+      throw new IOException("Unsupported controller recording version " + version);
+    }
+
+    int[] ports = new int[input.readUnsignedByte()];
+    if (ports.length == 0) {
+      throw new IOException("Controller recording has no controllers");
+    }
+
+    for (int i = 0; i < ports.length; i++) {
+      ports[i] = input.readUnsignedByte();
+    }
+
+    int tickCount = input.readInt();
+    if (tickCount < 0) {
+      throw new IOException("Controller recording has a negative tick count");
+    }
+
+    ControllerRecording result = new ControllerRecording(ports);
+    int stride = ports.length * kShortsPerController;
+    result.m_data = new short[Math.max(tickCount, 1) * stride];
+    for (int i = 0; i < tickCount * stride; i++) {
+      result.m_data[i] = input.readShort();
+    }
+
+    result.m_tickCount = tickCount;
+    return result;
+  }
+
+  /**
+   * Reads a recording from a file written by write().
+   */
+  public static ControllerRecording read(File file) throws IOException {
+    try (InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+      return read(stream);
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package frc.robot.match;
+
+import edu.wpi.first.wpilibj.simulation.XboxControllerSim;
+
+/**
+ * Inputs of one driver controller during a match, e.g. a TimedControllerScript.
+ */
+@FunctionalInterface
+public interface ControllerScript {
+  /**
+   * Sets every input of controller to what the driver does at matchSeconds. Called once per
+   * 20ms tick, before the robot's periodic functions.
+   */
+  void apply(double matchSeconds, XboxControllerSim controller);
+}
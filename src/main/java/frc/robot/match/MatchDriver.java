@@ -0,0 +1,306 @@
+package frc.robot.match;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.XboxControllerSim;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants;
+import frc.robot.Robot;
+import frc.robot.commands.Auto;
+import simulationlib.simulation.framework.SimWorld;
+
+/**
+ * Runs a whole match against the simulated robot: auto, the disabled transition, then teleop
+ * with scripted driver inputs, faster than real time.
+ * <p>
+ * Instead of starting TimedRobot's loop, this calls the robot's init and periodic functions
+ * itself, in the same order TimedRobot does, and switches DriverStationSim's mode when the
+ * MatchTimeline says so. The HAL's time is stepped by the global SimWorld (see
+ * SimWorld.setStepsHalTiming()), so Timer and WaitCommand see match time, not wall time.
+ * </p>
+ * <p>
+ * Only runs in simulation, and only on a Robot whose startCompetition() was never called.
+ * </p>
+ */
+public class MatchDriver {
+  public static final double kTickSeconds = SimWorld.kTickSeconds;
+
+  // Speed multiplier that doesn't wait at all between ticks
+  public static final double kAsFastAsPossible = Double.POSITIVE_INFINITY;
+
+  private final MatchTimeline m_timeline;
+  private final ControllerScript m_controller1Script;
+  private final ControllerScript m_controller2Script;
+  private final double m_speedMultiplier;
+  private String m_autoMode = null;
+
+  // Report of the match that is running, or null. Read by the scheduler hook.
+  private MatchReport m_report = null;
+  private double m_matchSeconds;
+  private MatchPhase m_phase;
+  private boolean m_isHookInstalled = false;
+
+  /**
+   * Constructor.
+   *
+   * @param timeline           how long each phase lasts
+   * @param controller1Script  inputs of the driver controller (m_controller1)
+   * @param controller2Script  inputs of the operator controller (m_controller2)
+   * @param speedMultiplier    how many times faster than real time to run, e.g. 10, or
+   *                           kAsFastAsPossible
+   */
+  public MatchDriver(MatchTimeline timeline,
+      ControllerScript controller1Script,
+      ControllerScript controller2Script,
+      double speedMultiplier) {
+    if (timeline == null) {
+      throw new IllegalArgumentException("timeline cannot be null");
+    }
+
+    if (controller1Script == null || controller2Script == null) {
+      throw new IllegalArgumentException("controller scripts cannot be null");
+    }
+
+    if (!(speedMultiplier > 0)) {
+      throw new IllegalArgumentException("speedMultiplier must be >0");
+    }
+
+    m_timeline = timeline;
+    m_controller1Script = controller1Script;
+    m_controller2Script = controller2Script;
+    m_speedMultiplier = speedMultiplier;
+  }
+
+  /**
+   * Selects the auto mode, e.g. Auto.kAutoBalanceMode. Null keeps the chooser's default.
+   */
+  public void setAutoMode(String autoMode) {
+    m_autoMode = autoMode;
+  }
+
+  /**
+   * Runs the match on robot, and returns what happened.
+   */
+  public MatchReport run(Robot robot) {
+    if (robot == null) {
+      throw new IllegalArgumentException("robot cannot be null");
+    }
+
+    if (!RobotBase.isSimulation()) {
+      throw new IllegalStateException("MatchDriver only runs in simulation");
+    }
+
+    HAL.initialize(500, 0);
+
+    SimWorld world = SimWorld.getGlobalInstance();
+    XboxControllerSim controller1 = new XboxControllerSim(
+        Constants.OperatorConstants.kDriverControllerPort1);
+    XboxControllerSim controller2 = new XboxControllerSim(
+        Constants.OperatorConstants.kDriverControllerPort2);
+
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+
+    robot.robotInit();
+    robot.simulationInit();
+    selectAutoMode();
+    installSchedulerHook();
+
+    MatchReport report = new MatchReport();
+    int tickCount = (int) Math.round(m_timeline.getTotalSeconds() / kTickSeconds);
+    MatchPhase lastPhase = null;
+    long startNanos = System.nanoTime();
+
+    world.setStepsHalTiming(true);
+    m_report = report;
+    try {
+      for (int tick = 0; tick < tickCount; tick++) {
+        m_matchSeconds = tick * kTickSeconds;
+        m_phase = m_timeline.getPhaseAt(m_matchSeconds);
+
+        DriverStationSim.setAutonomous(m_phase == MatchPhase.Autonomous);
+        DriverStationSim.setEnabled(m_phase != MatchPhase.Transition);
+        DriverStationSim.setMatchTime(m_timeline.getPhaseSecondsRemaining(m_matchSeconds));
+        DriverStationSim.notifyNewData();
+
+        m_controller1Script.apply(m_matchSeconds, controller1);
+        m_controller2Script.apply(m_matchSeconds, controller2);
+        controller1.notifyNewData();
+        controller2.notifyNewData();
+
+        if (m_phase != lastPhase) {
+          if (lastPhase != null) {
+            exitPhase(robot, lastPhase);
+          }
+
+          initPhase(robot, m_phase);
+          lastPhase = m_phase;
+        }
+
+        // Same order as IterativeRobotBase.loopFunc()
+        periodicPhase(robot, m_phase);
+        robot.robotPeriodic();
+        SmartDashboard.updateValues();
+        Shuffleboard.update();
+        robot.simulationPeriodic();
+
+        report.ticks++;
+        report.matchSeconds = (tick + 1) * kTickSeconds;
+        if (world.isAnyBroken()) {
+          report.isBroken = true;
+        }
+
+        if (!waitForWallTime(startNanos, report.matchSeconds)) {
+          break;
+        }
+      }
+
+      report.isCompleted = (report.ticks == tickCount);
+
+      // The field disables the robot when the match ends
+      if (lastPhase != null) {
+        exitPhase(robot, lastPhase);
+      }
+      DriverStationSim.setEnabled(false);
+      DriverStationSim.notifyNewData();
+      robot.disabledInit();
+    }
+    finally {
+      m_report = null;
+      world.setStepsHalTiming(false);
+    }
+
+    report.wallSeconds = (System.nanoTime() - startNanos) / 1e9;
+    return report;
+  }
+
+  // Picks the auto mode the same way the dashboard does, through the chooser's NT entry
+  private void selectAutoMode() {
+    if (m_autoMode == null) {
+      return;
+    }
+
+    NetworkTableInstance.getDefault().getTable("SmartDashboard").getSubTable(Auto.kAutoModeKey)
+        .getEntry("selected").setString(m_autoMode);
+    SmartDashboard.updateValues();
+  }
+
+  // The scheduler can't remove hooks, so the hook is installed once, and only records while
+  // a match is running
+  private void installSchedulerHook() {
+    if (m_isHookInstalled) {
+      return;
+    }
+
+    CommandScheduler.getInstance().onCommandInitialize(command -> {
+      MatchReport report = m_report;
+      if (report != null) {
+        report.scheduledCommands.add(new MatchReport.ScheduledCommand(m_matchSeconds, m_phase,
+            command.getName()));
+      }
+    });
+    m_isHookInstalled = true;
+  }
+
+  // Sleeps until matchSeconds / speedMultiplier of wall time has passed since startNanos.
+  // Returns false if the thread was interrupted.
+  private boolean waitForWallTime(long startNanos, double matchSeconds) {
+    if (m_speedMultiplier == kAsFastAsPossible) {
+      return true;
+    }
+
+    long sleepNanos = startNanos + (long) (matchSeconds / m_speedMultiplier * 1e9)
+        - System.nanoTime();
+    if (sleepNanos <= 0) {
+      return true;
+    }
+
+    try {
+      Thread.sleep(sleepNanos / 1000000, (int) (sleepNanos % 1000000));
+      return true;
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static void initPhase(Robot robot, MatchPhase phase) {
+    switch (phase) {
+      case Autonomous:
+        robot.autonomousInit();
+        break;
+
+      case Transition:
+        robot.disabledInit();
+        break;
+
+      case Teleop:
+        robot.teleopInit();
+        break;
+
+      default:
+        throw new IllegalStateException("Unknown match phase: " + phase);
+    }
+  }
+
+  private static void periodicPhase(Robot robot, MatchPhase phase) {
+    switch (phase) {
+      case Autonomous:
+        robot.autonomousPeriodic();
+        break;
+
+      case Transition:
+        robot.disabledPeriodic();
+        break;
+
+      case Teleop:
+        robot.teleopPeriodic();
+        break;
+
+      default:
+        throw new IllegalStateException("Unknown match phase: " + phase);
+    }
+  }
+
+  private static void exitPhase(Robot robot, MatchPhase phase) {
+    switch (phase) {
+      case Autonomous:
+        robot.autonomousExit();
+        break;
+
+      case Transition:
+        robot.disabledExit();
+        break;
+
+      case Teleop:
+        robot.teleopExit();
+        break;
+
+      default:
+        throw new IllegalStateException("Unknown match phase: " + phase);
+    }
+  }
+
+  /**
+   * Runs a standard match without driver inputs, and prints the summary.
+   * Optional arguments: auto mode (default: the chooser's default), speed multiplier
+   * (default: as fast as possible).
+   */
+  public static void main(String[] args) {
+    double speedMultiplier = (args.length > 1) ? Double.parseDouble(args[1])
+        : kAsFastAsPossible;
+    MatchDriver driver = new MatchDriver(MatchTimeline.createStandard(),
+        new TimedControllerScript(), new TimedControllerScript(), speedMultiplier);
+    if (args.length > 0) {
+      driver.setAutoMode(args[0]);
+    }
+
+    System.out.print(driver.run(new Robot()).formatSummary());
+  }
+}
@@ -0,0 +1,13 @@
+package frc.robot.match;
+
+/**
+ * Part of a match, see MatchTimeline.
+ */
+public enum MatchPhase {
+  Autonomous,
+
+  // Robot is disabled between auto and teleop
+  Transition,
+
+  Teleop
+}
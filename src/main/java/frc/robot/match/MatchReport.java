@@ -0,0 +1,98 @@
+package frc.robot.match;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of running one match with MatchDriver.
+ */
+public class MatchReport {
+  /**
+   * A command that the scheduler initialized during the match.
+   */
+  public static class ScheduledCommand {
+    @SuppressWarnings("checkstyle:MemberName")
+    public final double matchSeconds;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public final MatchPhase phase;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public final String commandName;
+
+    /**
+     * Constructor.
+     */
+    public ScheduledCommand(double matchSeconds, MatchPhase phase, String commandName) {
+      this.matchSeconds = matchSeconds;
+      this.phase = phase;
+      this.commandName = commandName;
+    }
+  }
+
+  // False if the match was stopped early, e.g. its thread was interrupted
+  @SuppressWarnings("checkstyle:MemberName")
+  public boolean isCompleted;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public int ticks;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double matchSeconds;
+
+  // Wall time the match took to run
+  @SuppressWarnings("checkstyle:MemberName")
+  public double wallSeconds;
+
+  // True if any simulated part of the robot broke during the match
+  @SuppressWarnings("checkstyle:MemberName")
+  public boolean isBroken;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public final List<ScheduledCommand> scheduledCommands = new ArrayList<ScheduledCommand>();
+
+  /**
+   * Constructor with 0 params.
+   */
+  public MatchReport() {
+  }
+
+  /**
+   * Returns how many times faster than real time the match ran.
+   */
+  public double getSpeedup() {
+    return (wallSeconds > 0) ? matchSeconds / wallSeconds : Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Returns true if a command with the given name was scheduled during the phase.
+   */
+  public boolean wasScheduled(String commandName, MatchPhase phase) {
+    for (ScheduledCommand command : scheduledCommands) {
+      if (command.phase == phase && command.commandName.equals(commandName)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Returns a summary to print at the end of the match.
+   */
+  public String formatSummary() {
+    StringBuilder result = new StringBuilder();
+    result.append(String.format("Match %s: %.2f match seconds (%d ticks) in %.2f wall seconds, "
+        + "%.1fx real time%n", isCompleted ? "completed" : "STOPPED EARLY", matchSeconds, ticks,
+        wallSeconds, getSpeedup()));
+    result.append(String.format("Broken parts: %s%n", isBroken ? "YES" : "none"));
+
+    result.append(String.format("%d commands scheduled%n", scheduledCommands.size()));
+    for (ScheduledCommand command : scheduledCommands) {
+      result.append(String.format("  %7.2f  %-10s %s%n", command.matchSeconds, command.phase,
+          command.commandName));
+    }
+
+    return result.toString();
+  }
+}
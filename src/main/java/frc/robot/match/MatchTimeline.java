@@ -0,0 +1,116 @@
+package frc.robot.match;
+
+/**
+ * How long each phase of a match lasts: autonomous, then a short disabled transition, then
+ * teleop.
+ */
+public class MatchTimeline {
+  public static final double kAutoSeconds = 15.0;
+  public static final double kTransitionSeconds = 3.0;
+  public static final double kTeleopSeconds = 135.0;
+
+  // Times that are only off by floating point noise count as the same time
+  private static final double kEpsilon = 1e-9;
+
+  private final double m_autoSeconds;
+  private final double m_transitionSeconds;
+  private final double m_teleopSeconds;
+
+  /**
+   * Constructor.
+   */
+  public MatchTimeline(double autoSeconds, double transitionSeconds, double teleopSeconds) {
+    if (autoSeconds < 0 || transitionSeconds < 0 || teleopSeconds < 0) {
+      throw new IllegalArgumentException("phase lengths must be >=0");
+    }
+
+    m_autoSeconds = autoSeconds;
+    m_transitionSeconds = transitionSeconds;
+    m_teleopSeconds = teleopSeconds;
+  }
+
+  /**
+   * Returns the timeline of a real match.
+   */
+  public static MatchTimeline createStandard() {
+    return new MatchTimeline(kAutoSeconds, kTransitionSeconds, kTeleopSeconds);
+  }
+
+  public double getTotalSeconds() {
+    return m_autoSeconds + m_transitionSeconds + m_teleopSeconds;
+  }
+
+  /**
+   * Returns the seconds since the start of the match when the phase starts.
+   */
+  public double getPhaseStartSeconds(MatchPhase phase) {
+    if (phase == null) {
+      throw new IllegalArgumentException("phase cannot be null");
+    }
+
+    switch (phase) {
+      case Autonomous:
+        return 0;
+
+      case Transition:
+        return m_autoSeconds;
+
+      case Teleop:
+        return m_autoSeconds + m_transitionSeconds;
+
+      default:
+        throw new IllegalStateException("Unknown match phase: " + phase);
+    }
+  }
+
+  /**
+   * Returns how long the phase lasts.
+   */
+  public double getPhaseSeconds(MatchPhase phase) {
+    if (phase == null) {
+      throw new IllegalArgumentException("phase cannot be null");
+    }
+
+    switch (phase) {
+      case Autonomous:
+        return m_autoSeconds;
+
+      case Transition:
+        return m_transitionSeconds;
+
+      case Teleop:
+        return m_teleopSeconds;
+
+      default:
+        throw new IllegalStateException("Unknown match phase: " + phase);
+    }
+  }
+
+  /**
+   * Returns the phase at the given seconds since the start of the match. Phases that last 0
+   * seconds are skipped.
+   */
+  public MatchPhase getPhaseAt(double matchSeconds) {
+    if (matchSeconds < -kEpsilon || matchSeconds >= getTotalSeconds() - kEpsilon) {
+      throw new IllegalArgumentException("matchSeconds is outside the match");
+    }
+
+    if (matchSeconds < m_autoSeconds - kEpsilon) {
+      return MatchPhase.Autonomous;
+    }
+
+    if (matchSeconds < m_autoSeconds + m_transitionSeconds - kEpsilon) {
+      return MatchPhase.Transition;
+    }
+
+    return MatchPhase.Teleop;
+  }
+
+  /**
+   * Returns the seconds left in the phase at matchSeconds, like the match timer shows.
+   */
+  public double getPhaseSecondsRemaining(double matchSeconds) {
+    MatchPhase phase = getPhaseAt(matchSeconds);
+    return getPhaseStartSeconds(phase) + getPhaseSeconds(phase) - matchSeconds;
+  }
+}
@@ -0,0 +1,105 @@
+package frc.robot.match;
+
+import edu.wpi.first.wpilibj.XboxController;
+import edu.wpi.first.wpilibj.simulation.XboxControllerSim;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A ControllerScript written as a list of timed actions, e.g. "hold the left stick forward
+ * from 20s to 25s" and "press A at 30s". Outside of the actions, the controller is left
+ * alone: sticks and triggers centered, nothing pressed.
+ */
+public class TimedControllerScript implements ControllerScript {
+  // How long press() holds a button, so commands bound to the release see it
+  public static final double kPressSeconds = 0.1;
+
+  private static class TimedAction {
+    private final double m_startSeconds;
+    private final double m_endSeconds;
+    private final Consumer<XboxControllerSim> m_action;
+
+    TimedAction(double startSeconds, double endSeconds, Consumer<XboxControllerSim> action) {
+      m_startSeconds = startSeconds;
+      m_endSeconds = endSeconds;
+      m_action = action;
+    }
+  }
+
+  private final List<TimedAction> m_actions = new ArrayList<TimedAction>();
+
+  /**
+   * Runs action every tick from startSeconds until endSeconds (since the start of the
+   * match). Returns this, so calls can be chained.
+   */
+  public TimedControllerScript during(double startSeconds,
+      double endSeconds,
+      Consumer<XboxControllerSim> action) {
+    if (endSeconds < startSeconds) {
+      throw new IllegalArgumentException("endSeconds must be >= startSeconds");
+    }
+
+    if (action == null) {
+      throw new IllegalArgumentException("action cannot be null");
+    }
+
+    m_actions.add(new TimedAction(startSeconds, endSeconds, action));
+    return this;
+  }
+
+  /**
+   * Holds the axis at value from startSeconds until endSeconds.
+   */
+  public TimedControllerScript holdAxis(double startSeconds,
+      double endSeconds,
+      XboxController.Axis axis,
+      double value) {
+    if (axis == null) {
+      throw new IllegalArgumentException("axis cannot be null");
+    }
+
+    return during(startSeconds, endSeconds, controller -> controller.setRawAxis(axis.value,
+        value));
+  }
+
+  /**
+   * Holds the button down from startSeconds until endSeconds.
+   */
+  public TimedControllerScript holdButton(double startSeconds,
+      double endSeconds,
+      XboxController.Button button) {
+    if (button == null) {
+      throw new IllegalArgumentException("button cannot be null");
+    }
+
+    return during(startSeconds, endSeconds, controller -> controller.setRawButton(button.value,
+        true));
+  }
+
+  /**
+   * Presses and releases the button at seconds.
+   */
+  public TimedControllerScript press(double seconds, XboxController.Button button) {
+    return holdButton(seconds, seconds + kPressSeconds, button);
+  }
+
+  @Override
+  public void apply(double matchSeconds, XboxControllerSim controller) {
+    for (XboxController.Axis axis : XboxController.Axis.values()) {
+      controller.setRawAxis(axis.value, 0);
+    }
+
+    for (XboxController.Button button : XboxController.Button.values()) {
+      controller.setRawButton(button.value, false);
+    }
+
+    controller.setPOV(-1);
+
+    for (TimedAction action : m_actions) {
+      if (matchSeconds >= action.m_startSeconds && matchSeconds < action.m_endSeconds) {
+        action.m_action.accept(controller);
+      }
+    }
+  }
+}
@@ -12,6 +12,13 @@ import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
+import frc.robot.helpers.ArmLimitPredictor;
+import frc.robot.helpers.ArmShadow;
+import frc.robot.helpers.LoopProfiler;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import simulationlib.shuffle.MultiType;
+import simulationlib.shuffle.PrefixedConcurrentMap.Client;
 
 /**
  * The class is responsible for managing the arm subsystem
@@ -20,6 +27,15 @@ import frc.robot.Constants;
 public class ArmSystem extends SubsystemBase {
   private XboxController m_controller;
   private double m_maxOutputWinch;
+  private final LoopProfiler.Section m_periodicSection = LoopProfiler.getInstance()
+      .getSection("ArmSystem.periodic");
+  // Only when Constants.OperatorConstants.kUseArmLimitPredictor is set, otherwise null
+  private final ArmLimitPredictor m_limitPredictor =
+      Constants.OperatorConstants.kUseArmLimitPredictor ? new ArmLimitPredictor() : null;
+  // Only when Constants.OperatorConstants.kUseArmShadow is set, otherwise null
+  private final ArmShadow m_shadow =
+      Constants.OperatorConstants.kUseArmShadow ? new ArmShadow() : null;
+  private BooleanSupplier m_grabberOpenSupplier = () -> false;
 
   // Devices
   protected CANSparkMax m_armWinch;
@@ -73,6 +89,30 @@ public class ArmSystem extends SubsystemBase {
     m_maxOutputWinch = SmartDashboard.getNumber("Winch Max Output", m_maxOutputWinch);
   }
 
+  /**
+   * Adds the results of shadow mode to the dashboard properties, under "Shadow", so they're
+   * published with the others, only when they change. Does nothing when shadow mode is off.
+   */
+  public void addShadowProperties(Client<Supplier<MultiType>> shuffleClient) {
+    if (m_shadow == null) {
+      return;
+    }
+
+    Client<Supplier<MultiType>> shadowClient = shuffleClient.getSubdirectoryClient("Shadow");
+    shadowClient.addItem("WinchMotorOk",
+        () -> MultiType.of(!m_shadow.isWinchMotorDiverging()));
+    shadowClient.addItem("WinchCableOk",
+        () -> MultiType.of(!m_shadow.isWinchCableDiverging()));
+    shadowClient.addItem("ExtenderMotorOk",
+        () -> MultiType.of(!m_shadow.isExtenderMotorDiverging()));
+    shadowClient.addItem("WinchMotorResidual",
+        () -> MultiType.of(m_shadow.getWinchMotorResidual()));
+    shadowClient.addItem("WinchCableResidual",
+        () -> MultiType.of(m_shadow.getWinchCableResidual()));
+    shadowClient.addItem("ExtenderMotorResidual",
+        () -> MultiType.of(m_shadow.getExtenderMotorResidual()));
+  }
+
   public double getWinchAbsoluteEncoder() {
     return m_winchAbsoluteEncoder.getAbsolutePosition();
   }
@@ -102,9 +142,25 @@ public class ArmSystem extends SubsystemBase {
 
   @Override
   public void periodic() {
+    m_periodicSection.start();
+
     Double winchAbsoluteEncoder = Double.valueOf(getWinchAbsoluteEncoder());
 
     SmartDashboard.putBoolean("Winch Absolute Encoder", !(winchAbsoluteEncoder == 0.0));
+
+    // Runs before the commands, so the joystick sees this tick's prediction
+    if (m_limitPredictor != null) {
+      m_limitPredictor.addMeasurement(winchAbsoluteEncoder);
+    }
+
+    // The motors still have the outputs the commands set last tick, which moved the encoders
+    // to where they are now
+    if (m_shadow != null) {
+      m_shadow.addSample(m_armWinch.get(), m_winchEncoder.getPosition(), m_armExtender.get(),
+          m_extenderEncoder.getPosition(), winchAbsoluteEncoder);
+    }
+
+    m_periodicSection.stop();
   }
 
   public void resetEncoders() {
@@ -158,6 +214,19 @@ public class ArmSystem extends SubsystemBase {
     return m_sensor.get();
   }
 
+  /**
+   * Tells the arm whether the grabber is open. With the ArmLimitPredictor on, the joystick
+   * can't lower the arm below kWinchGrabberOpenLowerLimit while it is, since opening the
+   * grabber there breaks the arm. Assumed closed until this is called.
+   */
+  public void setGrabberOpenSupplier(BooleanSupplier grabberOpenSupplier) {
+    if (grabberOpenSupplier == null) {
+      throw new IllegalArgumentException("grabberOpenSupplier cannot be null");
+    }
+
+    m_grabberOpenSupplier = grabberOpenSupplier;
+  }
+
   /**
    * Set the soft limits for the arm extender.
    */
@@ -188,6 +257,11 @@ public class ArmSystem extends SubsystemBase {
       else if (getWinchAbsoluteEncoder() <= winchLowerLimit && winchOutput < 0) {
         m_armWinch.set(0);
       }
+      else if (m_limitPredictor != null) {
+        // Also slows down before the limits, instead of overshooting them
+        setWinchSpeed(m_limitPredictor.limitWinchSpeed(winchOutput * m_maxOutputWinch,
+            m_grabberOpenSupplier.getAsBoolean()));
+      }
       else {
         setWinchSpeed(winchOutput * m_maxOutputWinch);
       }
@@ -8,13 +8,14 @@ import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.simulation.DIOSim;
 import edu.wpi.first.wpilibj.simulation.DutyCycleEncoderSim;
 import frc.robot.Constants;
+import frc.robot.helpers.LoopProfiler;
+import java.util.List;
 import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 import simulationlib.Constants.SimConstants;
 import simulationlib.Constants.WidgetConstants;
 import simulationlib.helpers.UnitConversions;
 import simulationlib.shuffle.MultiType;
-import simulationlib.shuffle.PrefixedConcurrentMap;
 import simulationlib.shuffle.PrefixedConcurrentMap.Client;
 import simulationlib.shuffle.SendableArmPosition;
 import simulationlib.simulation.armangle.ArmAngleSimModel;
@@ -25,6 +26,7 @@ import simulationlib.simulation.extender.ExtenderParams;
 import simulationlib.simulation.extender.ExtenderSimModel;
 import simulationlib.simulation.extender.ExtenderState;
 import simulationlib.simulation.framework.SimManager;
+import simulationlib.simulation.framework.SimWorld;
 import simulationlib.simulation.framework.customwrappers.DutyCycleEncoderSim2;
 import simulationlib.simulation.framework.customwrappers.RelativeEncoderSim;
 import simulationlib.simulation.framework.inputoutputs.CopySimOutput;
@@ -48,6 +50,10 @@ import simulationlib.simulation.winch.WinchState;
  * the robot is not running in simulation mode.
  */
 public class ArmSystemSim extends ArmSystem {
+  // While the arm sits still, these SimManagers reuse their last output instead of running
+  // their models. Inputs are rotations or meters, so this is far below anything visible.
+  private static final double kQuiescenceEpsilon = 1e-9;
+
   private DutyCycleEncoderSim m_winchAbsoluteEncoderSim;
 
   private RelativeEncoderSim m_winchEncoderSim;
@@ -68,14 +74,20 @@ public class ArmSystemSim extends ArmSystem {
   private SimManager<Double, Double> m_armSimManager;
   private RamenArmSimLogic m_ramenArmSimLogic;
 
+  private final SimWorld m_simWorld;
+  private final LoopProfiler.Section m_simulationSection = LoopProfiler.getInstance()
+      .getSection("ArmSystemSim.simulationPeriodic");
+
   /**
-   * Creates an instance of the ArmSystem or ArmSystemSim class.
+   * Creates an instance of the ArmSystem or ArmSystemSim class. When simulating, the
+   * dashboard properties and SimManagers go into the given SimWorld.
    */
-  public static ArmSystem createArmSystemInstance(XboxController controller) {
+  public static ArmSystem createArmSystemInstance(XboxController controller,
+      SimWorld simWorld) {
     ArmSystem result;
 
     if (RobotBase.isSimulation()) {
-      result = new ArmSystemSim(controller);
+      result = new ArmSystemSim(controller, simWorld);
 
       // System.out.println("ARMSYSTEM: **** Simulation ****");
 
@@ -92,11 +104,17 @@ public class ArmSystemSim extends ArmSystem {
   /**
    * Constructor.
    */
-  public ArmSystemSim(XboxController controller) {
+  public ArmSystemSim(XboxController controller, SimWorld simWorld) {
 
     // FIRST, we call superclass
     super(controller);
 
+    if (simWorld == null) {
+      throw new IllegalArgumentException("simWorld cannot be null");
+    }
+
+    m_simWorld = simWorld;
+
     // This entire class should only be instantiated when we're under simulation.
     // But just in-case someone tries to instantiate it otherwise, we do an extra
     // check here.
@@ -104,7 +122,7 @@ public class ArmSystemSim extends ArmSystem {
       return;
     }
 
-    Client<Supplier<MultiType>> shuffleClient = PrefixedConcurrentMap
+    Client<Supplier<MultiType>> shuffleClient = m_simWorld
         .createShuffleboardClientForSubsystem("ArmSystem");
 
     createWinchSimParts(shuffleClient);
@@ -141,7 +159,7 @@ public class ArmSystemSim extends ArmSystem {
                 - SimConstants.karmEncoderRotationsOffset),
             false);
 
-    m_armSimManager = createResult.getFirst();
+    m_armSimManager = m_simWorld.addSimManager(createResult.getFirst());
     m_ramenArmSimLogic = createResult.getSecond();
   }
 
@@ -156,10 +174,11 @@ public class ArmSystemSim extends ArmSystem {
     PivotMechanism pivotMechanism = new PivotMechanism(SimConstants.karmHeightFromWinchToPivotPoint,
         SimConstants.karmLengthFromEdgeToPivot);
 
-    m_angleSimManager = new SimManager<Double, ArmAngleState>(new ArmAngleSimModel(pivotMechanism),
-        null, null, false);
+    m_angleSimManager = m_simWorld.addSimManager(new SimManager<Double, ArmAngleState>(
+        new ArmAngleSimModel(pivotMechanism), null, null, false));
     m_angleSimManager.setInputHandler(new LambdaSimInput<Double>(stringUnspooledLenSupplier));
     m_angleSimManager.setOutputHandler(new CopySimOutput<ArmAngleState>(m_armAngleState));
+    m_angleSimManager.enableQuiescence(kQuiescenceEpsilon);
   }
 
   private void createWinchSimParts(Client<Supplier<MultiType>> shuffleClient) {
@@ -169,23 +188,27 @@ public class ArmSystemSim extends ArmSystem {
     m_winchState = new WinchState();
 
     // Create the motor simulation for the winch motor
-    m_winchMotorSimManager = new SimManager<Double, Double>(
+    m_winchMotorSimManager = m_simWorld.addSimManager(new SimManager<Double, Double>(
         new MotorSimModel(SimConstants.kwinchSimGearRatio),
-        shuffleClient.getSubdirectoryClient("WinchMotor"), new MotorDashboardPlugin(), false);
+        shuffleClient.getSubdirectoryClient("WinchMotor"), new MotorDashboardPlugin(), false));
+    m_winchMotorSimManager.setName("WinchMotor");
     m_winchMotorSimManager.setInputHandler(new MotorSparkMaxSimInput(m_armWinch));
     m_winchMotorSimManager.setOutputHandler(new RelEncoderSimOutput(m_winchEncoderSim));
+    m_winchMotorSimManager.enableQuiescence(kQuiescenceEpsilon);
 
     // Create the winch simulation
-    WinchParams winchParams = new WinchParams(0.0254,
+    WinchParams winchParams = new WinchParams(SimConstants.kwinchSpoolDiameterMeters,
         new WinchCable(SimConstants.kTotalStringLenMeters,
             SimConstants.kTotalStringLenMeters - SimConstants.kCurrentLenSpooled,
             WindingOrientation.BackOfRobot),
         true);
 
-    m_winchSimManager = new SimManager<Double, WinchState>(new WinchSimModel(winchParams),
-        shuffleClient.getSubdirectoryClient("Winch"), new WinchDashboardPlugin(), false);
+    m_winchSimManager = m_simWorld.addSimManager(new SimManager<Double, WinchState>(
+        new WinchSimModel(winchParams),
+        shuffleClient.getSubdirectoryClient("Winch"), new WinchDashboardPlugin(), false));
     m_winchSimManager.setInputHandler(new RelEncoderSimInput(m_winchEncoderSim));
     m_winchSimManager.setOutputHandler(new CopySimOutput<WinchState>(m_winchState));
+    m_winchSimManager.enableQuiescence(kQuiescenceEpsilon);
   }
 
   private void createExtenderSimParts(Client<Supplier<MultiType>> shuffleClient) {
@@ -193,11 +216,13 @@ public class ArmSystemSim extends ArmSystem {
     m_extenderEncoderSim = new RelativeEncoderSim(m_extenderEncoder);
 
     // Create the motor simulation for the extender motor
-    m_extenderMotorSimManager = new SimManager<Double, Double>(
+    m_extenderMotorSimManager = m_simWorld.addSimManager(new SimManager<Double, Double>(
         new MotorSimModel(SimConstants.kextenderSimGearRatio),
-        shuffleClient.getSubdirectoryClient("ExtenderMotor"), new MotorDashboardPlugin(), false);
+        shuffleClient.getSubdirectoryClient("ExtenderMotor"), new MotorDashboardPlugin(), false));
+    m_extenderMotorSimManager.setName("ExtenderMotor");
     m_extenderMotorSimManager.setInputHandler(new MotorSparkMaxSimInput(m_armExtender));
     m_extenderMotorSimManager.setOutputHandler(new RelEncoderSimOutput(m_extenderEncoderSim));
+    m_extenderMotorSimManager.enableQuiescence(kQuiescenceEpsilon);
 
     // Create the extender simulation
     m_extenderState = new ExtenderState();
@@ -205,12 +230,13 @@ public class ArmSystemSim extends ArmSystem {
     ExtenderParams extenderParams = new ExtenderParams(SimConstants.kcylinderDiameterMeters,
         SimConstants.kTotalExtenderLenMeters, SimConstants.kInitialExtendedLen, true);
 
-    m_extenderSimManager = new SimManager<Double, ExtenderState>(
+    m_extenderSimManager = m_simWorld.addSimManager(new SimManager<Double, ExtenderState>(
         new ExtenderSimModel(m_extenderEncoderSim.getPosition(), extenderParams),
-        shuffleClient.getSubdirectoryClient("Extender"), new ExtenderDashboardPlugin(), false);
+        shuffleClient.getSubdirectoryClient("Extender"), new ExtenderDashboardPlugin(), false));
 
     m_extenderSimManager.setInputHandler(new RelEncoderSimInput(m_extenderEncoderSim));
     m_extenderSimManager.setOutputHandler(new CopySimOutput<ExtenderState>(m_extenderState));
+    m_extenderSimManager.enableQuiescence(kQuiescenceEpsilon);
   }
 
   // $LATER Get rid of isRobotEnabled
@@ -218,10 +244,45 @@ public class ArmSystemSim extends ArmSystem {
     return RobotState.isEnabled();
   }
 
+  /**
+   * Also tells the arm simulation whether the grabber is open, so it can break the arm.
+   */
+  @Override
   public void setGrabberOpenSupplier(BooleanSupplier grabberOpenSupplier) {
+    super.setGrabberOpenSupplier(grabberOpenSupplier);
     m_ramenArmSimLogic.setGrabberOpenSupplier(grabberOpenSupplier);
   }
 
+  /**
+   * Returns true if the simulated grabber is physically open, as the arm simulation sees it.
+   */
+  public boolean isGrabberOpen() {
+    return m_ramenArmSimLogic.getGrabberOpen();
+  }
+
+  /**
+   * Returns the last speed the winch motor was set to.
+   */
+  public double getWinchSpeed() {
+    return m_armWinch.get();
+  }
+
+  /**
+   * Returns the last speed the extender motor was set to.
+   */
+  public double getExtenderSpeed() {
+    return m_armExtender.get();
+  }
+
+  /**
+   * Returns the SimManagers of the arm, in the order simulationPeriodic() runs them. Same
+   * order as the models in HeadlessArm.saveState().
+   */
+  public List<SimManager<?, ?>> getSimManagersInStepOrder() {
+    return List.of(m_winchMotorSimManager, m_extenderMotorSimManager, m_winchSimManager,
+        m_extenderSimManager, m_angleSimManager, m_armSimManager);
+  }
+
   // $LATER - This is temporary until we combine string and arm simulation
   private void simulatePeriodicStringAndArm(SimManager<Double, ArmAngleState> angleSimulation,
       SimManager<Double, Double> armSimManager) {
@@ -239,6 +300,8 @@ public class ArmSystemSim extends ArmSystem {
   public void simulationPeriodic() {
     super.simulationPeriodic();
 
+    m_simulationSection.start();
+
     // When Robot is disabled, the entire simulation freezes
     if (isRobotEnabled()) {
 
@@ -253,6 +316,8 @@ public class ArmSystemSim extends ArmSystem {
           .getExtendedLen() <= SimConstants.kextenderFullyRetractedLen;
       m_sensorSim.setValue(!isExtenderSensorOn);
     }
+
+    m_simulationSection.stop();
   }
 
   private double getArmPercentRaised() {
@@ -9,12 +9,15 @@ import edu.wpi.first.wpilibj.RobotState;
 import edu.wpi.first.wpilibj.XboxController;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
+import frc.robot.helpers.LoopProfiler;
 
 /**
  * The class is responsible for managing the grabber subsystem.
  */
 public class GrabberSystem extends SubsystemBase {
   private XboxController m_controller;
+  private final LoopProfiler.Section m_periodicSection = LoopProfiler.getInstance()
+      .getSection("GrabberSystem.periodic");
   private final Compressor m_compressor = new Compressor(PneumaticsModuleType.REVPH);
   protected PneumaticHub m_pneumaticHub;
   protected DoubleSolenoid m_solenoid;
@@ -41,6 +44,8 @@ public class GrabberSystem extends SubsystemBase {
 
   @Override
   public void periodic() {
+    m_periodicSection.start();
+
     if (!RobotState.isAutonomous()) {
       if (m_controller.getLeftBumperReleased()) {
         m_solenoid.set(Value.kForward);
@@ -49,6 +54,8 @@ public class GrabberSystem extends SubsystemBase {
         m_solenoid.set(Value.kReverse);
       }
     }
+
+    m_periodicSection.stop();
   }
 
   @Override
@@ -62,4 +69,11 @@ public class GrabberSystem extends SubsystemBase {
   public void closeGrabber() {
     m_solenoid.set(Value.kReverse);
   }
+
+  /**
+   * Returns true if the solenoid was last set to open the grabber.
+   */
+  public boolean isGrabberOpen() {
+    return m_solenoid.get() == Value.kForward;
+  }
 }
@@ -13,6 +13,7 @@ import frc.robot.commands.CloseGrabberCommand;
 import frc.robot.commands.GrabberOpenCommand;
 import frc.robot.helpers.DefaultLayout;
 import frc.robot.helpers.DefaultLayout.Widget;
+import frc.robot.helpers.LoopProfiler;
 import java.util.Map;
 import java.util.function.BooleanSupplier;
 import simulationlib.Constants.SimConstants;
@@ -27,6 +28,8 @@ public class GrabberSystemSim extends GrabberSystem {
   private REVPHSim m_penumaticSim;
   private DoubleSolenoidSim m_solenoidSim;
   private DefaultLayout m_defaultLayout = new DefaultLayout();
+  private final LoopProfiler.Section m_simulationSection = LoopProfiler.getInstance()
+      .getSection("GrabberSystemSim.simulationPeriodic");
 
   /**
    * Factory method to create a GrabberSystemSim or GrabberSystem object.
@@ -99,6 +102,14 @@ public class GrabberSystemSim extends GrabberSystem {
     return () -> m_grabberPhysicallyOpened;
   }
 
+  /**
+   * Returns true if the simulated grabber is physically open.
+   */
+  @Override
+  public boolean isGrabberOpen() {
+    return m_grabberPhysicallyOpened;
+  }
+
   private String getGrabberStatusText() {
     String solenoidStatusText;
     String physicalGrabberText;
@@ -159,6 +170,8 @@ public class GrabberSystemSim extends GrabberSystem {
   public void simulationPeriodic() {
     super.simulationPeriodic();
 
+    m_simulationSection.start();
+
     // When Robot is disabled, the entire simulation freezes
     if (isRobotEnabled()) {
       m_solenoidStatus = m_solenoidSim.get();
@@ -171,5 +184,7 @@ public class GrabberSystemSim extends GrabberSystem {
         m_grabberPhysicallyOpened = false;
       }
     }
+
+    m_simulationSection.stop();
   }
 }
@@ -186,10 +186,10 @@ public class TankDriveSystem extends SubsystemBase {
   }
 
   public double getGyroRate() {
-    return Math.abs(m_prevRate - m_gyro.getRoll());
+    return Math.abs(m_prevRate - getGyroAngle());
   }
 
   public void setRate() {
-    m_prevRate = m_gyro.getRoll();
+    m_prevRate = getGyroAngle();
   }
 }
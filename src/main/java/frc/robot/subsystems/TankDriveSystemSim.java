@@ -6,35 +6,51 @@ import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.RobotState;
 import edu.wpi.first.wpilibj.XboxController;
 import frc.robot.Constants;
+import frc.robot.helpers.LoopProfiler;
+import java.util.function.Supplier;
+import simulationlib.Constants.SimConstants;
+import simulationlib.shuffle.MultiType;
 import simulationlib.shuffle.PrefixedConcurrentMap;
+import simulationlib.simulation.chargestation.ChargeStationDashboardPlugin;
+import simulationlib.simulation.chargestation.ChargeStationParamsBuilder;
+import simulationlib.simulation.chargestation.ChargeStationSimModel;
+import simulationlib.simulation.chargestation.ChargeStationState;
 import simulationlib.simulation.drive.ArcadeInputParams;
 import simulationlib.simulation.drive.DriveDashboardPlugin;
 import simulationlib.simulation.drive.DriveInputState;
 import simulationlib.simulation.drive.DriveSimModel;
 import simulationlib.simulation.drive.DriveState;
 import simulationlib.simulation.framework.SimManager;
+import simulationlib.simulation.framework.SimWorld;
+import simulationlib.simulation.framework.inputoutputs.CopySimOutput;
 import simulationlib.simulation.framework.inputoutputs.LambdaSimInput;
-import simulationlib.simulation.framework.inputoutputs.LambdaSimOutput;
 
 /**
  * Subclass of TankDriveSystem that is used for simulation. Note that this code isn't run if
  * the robot is not running in simulation mode.
  */
 public class TankDriveSystemSim extends TankDriveSystem {
-  private final Pose2d m_initialPosition = new Pose2d(2, 2, new Rotation2d());
+  // Start in front of the blue grid, facing the grid, lined up with the charge station
+  private final Pose2d m_initialPosition = new Pose2d(1.9, 2.75, Rotation2d.fromDegrees(180));
   private SimManager<DriveInputState, DriveState> m_driveSimManager;
-  private DriveState m_driveState = new DriveState();
+  private SimManager<Pose2d, ChargeStationState> m_chargeStationSimManager;
+  private final DriveState m_driveState = new DriveState();
+  private final ChargeStationState m_chargeStationState = new ChargeStationState();
   private final DriveInputState m_driveInputState = new DriveInputState(false,
       new ArcadeInputParams(0, 0, false));
+  private final LoopProfiler.Section m_simulationSection = LoopProfiler.getInstance()
+      .getSection("TankDriveSystemSim.simulationPeriodic");
 
   /**
-   * Factory method to create a TankDriveSystemSim or TankDriveSystem object.
+   * Factory method to create a TankDriveSystemSim or TankDriveSystem object. When simulating,
+   * the dashboard properties and SimManagers go into the given SimWorld.
    */
-  public static TankDriveSystem createTankDriveSystemInstance(XboxController controller) {
+  public static TankDriveSystem createTankDriveSystemInstance(XboxController controller,
+      SimWorld simWorld) {
     TankDriveSystem result;
 
     if (RobotBase.isSimulation()) {
-      result = new TankDriveSystemSim(controller);
+      result = new TankDriveSystemSim(controller, simWorld);
 
       // System.out.println("TANKDRIVESYSTEM: **** Simulation ****");
 
@@ -51,20 +67,38 @@ public class TankDriveSystemSim extends TankDriveSystem {
   /**
    * Constructor.
    */
-  public TankDriveSystemSim(XboxController controller) {
+  public TankDriveSystemSim(XboxController controller, SimWorld simWorld) {
     // FIRST, we call superclass
     super(controller);
 
-    m_driveSimManager = new SimManager<DriveInputState, DriveState>(
+    if (simWorld == null) {
+      throw new IllegalArgumentException("simWorld cannot be null");
+    }
+
+    PrefixedConcurrentMap.Client<Supplier<MultiType>> shuffleClient = simWorld
+        .createShuffleboardClientForSubsystem("DriveSystem");
+
+    m_driveSimManager = simWorld.addSimManager(new SimManager<DriveInputState, DriveState>(
         new DriveSimModel(m_initialPosition,
             Constants.OperatorConstants.kWheelDiameterMetersDrive / 2),
-        PrefixedConcurrentMap.createShuffleboardClientForSubsystem("DriveSystem"),
-        new DriveDashboardPlugin(), false);
+        shuffleClient,
+        new DriveDashboardPlugin(), false));
 
     m_driveSimManager.setInputHandler(new LambdaSimInput<DriveInputState>(() -> m_driveInputState));
-    m_driveSimManager.setOutputHandler(new LambdaSimOutput<DriveState>((stateOutput) -> {
-      m_driveState = stateOutput;
-    }));
+    // DriveSimModel writes straight into m_driveState, see SimManager.setOutputHandler()
+    m_driveSimManager.setOutputHandler(new CopySimOutput<DriveState>(m_driveState));
+
+    m_chargeStationSimManager = simWorld.addSimManager(
+        new SimManager<Pose2d, ChargeStationState>(
+            new ChargeStationSimModel(ChargeStationParamsBuilder.fromSimConstants().build()),
+            shuffleClient.getSubdirectoryClient("ChargeStation"),
+            new ChargeStationDashboardPlugin(), false));
+
+    // Only creates a Pose2d when the robot has moved
+    m_chargeStationSimManager
+        .setInputHandler(new LambdaSimInput<Pose2d>(() -> m_driveState.getPhysicalWorldPose()));
+    m_chargeStationSimManager
+        .setOutputHandler(new CopySimOutput<ChargeStationState>(m_chargeStationState));
   }
 
   private boolean isRobotEnabled() {
@@ -80,12 +114,30 @@ public class TankDriveSystemSim extends TankDriveSystem {
   public void simulationPeriodic() {
     super.simulationPeriodic();
 
+    m_simulationSection.start();
+
     if (isRobotEnabled()) {
       m_driveSimManager.simulationPeriodic();
 
+      // Charge station reads the pose that the drive simulation just produced
+      m_chargeStationSimManager.simulationPeriodic();
+
       // Reset one-shot
       m_driveInputState.resetRelativeEncoders = false;
     }
+
+    m_simulationSection.stop();
+  }
+
+  /**
+   * Returns the output of the drive simulation. READ-ONLY, it is updated every tick.
+   */
+  public DriveState getDriveState() {
+    return m_driveState;
+  }
+
+  public SimManager<Pose2d, ChargeStationState> getChargeStationSimManager() {
+    return m_chargeStationSimManager;
   }
 
   @Override
@@ -95,6 +147,15 @@ public class TankDriveSystemSim extends TankDriveSystem {
     m_driveInputState.resetRelativeEncoders = true;
   }
 
+  // RETURN SIMULATED VALUE: The Pigeon2 sim collection can't set roll, so we return the
+  // robot pitch from the charge station simulation, as the physically mounted gyro would
+  // report it. The Pigeon2 is mounted so that its roll goes up when the front of the robot
+  // goes down.
+  @Override
+  public double getGyroAngle() {
+    return SimConstants.kgyroRollMountOffsetDegrees - m_chargeStationState.getRobotPitchDegrees();
+  }
+
   @Override
   public double getGyroYaw() {
     return m_driveState.getGyroHeadingDegrees();
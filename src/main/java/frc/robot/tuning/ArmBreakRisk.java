@@ -0,0 +1,707 @@
+package frc.robot.tuning;
+
+import frc.robot.headless.HeadlessArm;
+import frc.robot.headless.HeadlessArmTeleop;
+import frc.robot.headless.HeadlessDrivetrain;
+import frc.robot.headless.HeadlessRobotParams;
+import frc.robot.match.ControllerRecording;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Estimates how likely an operator input stream, e.g. a recorded driver macro, is to break
+ * the arm when the operator doesn't follow it exactly. The usual way to break it is the one
+ * RamenArmSimLogic checks for: opening the grabber while the arm is below
+ * grabberBreaksIfOpenBelowThisLimit.
+ * <p>
+ * The stream is the operator's controller (winch, extender and grabber, see
+ * HeadlessArmTeleop) in a ControllerRecording. Every run adds noise to it, see
+ * OperatorNoise: the sticks wander around the recorded values, and the bumpers are pressed a
+ * little early or late.
+ * </p>
+ * <p>
+ * Breaking is rare, so plain Monte Carlo (estimateMonteCarlo()) needs a huge number of runs
+ * to see it at all. estimateSplitting() uses adaptive multilevel splitting instead (Cerou
+ * and Guyader 2007, with ties handled as in Brehier et al. 2016). Each run gets a score, the
+ * highest "danger" it reached: going up while the grabber is closed, the operator is about to
+ * open it and the arm is low (the arm only breaks if it's already in the break range when the
+ * grabber opens), and 1 once something broke. The runs with the lowest scores are replaced
+ * by copies of higher scoring runs, taken from the tick where they first got more dangerous
+ * than the replaced ones, and continued with new noise. The samples end up concentrated near
+ * the break, and the probability is the product of the fractions kept at each level. Other
+ * breaks (e.g. raising the arm past its top limit) still count, but the score doesn't lead
+ * the runs towards them.
+ * </p>
+ * <p>
+ * Both methods give a 95% confidence interval. For splitting, it comes from independent
+ * repetitions, which run in parallel. Results only depend on the seed, not on the thread
+ * count.
+ * </p>
+ * <p>
+ * Run from the command line with: ./gradlew runArmBreakRisk
+ * </p>
+ */
+public class ArmBreakRisk {
+  // XboxController axes, and buttons as bits of ControllerRecording.getButtons()
+  private static final int kLeftYAxis = 1;
+  private static final int kRightYAxis = 5;
+  private static final int kLeftBumperBit = 1 << 4;
+  private static final int kRightBumperBit = 1 << 5;
+
+  private static final double kTickSeconds = HeadlessDrivetrain.kTickSeconds;
+
+  // Scale of the arm's distance to the break limit, in absolute encoder rotations, over which
+  // the danger of a closed grabber goes from low to high. Kept below 1 until something
+  // actually breaks.
+  private static final double kDangerMarginRotations = 0.01;
+  private static final double kMaxDangerUnbroken = 0.999;
+  // Ticks before the grabber opens, in the stream, that its danger starts ramping up from 0.
+  // Most of what decides whether the arm breaks happens before then, so splitting can pick
+  // the runs heading for a break early.
+  private static final int kLookaheadTicks = 25;
+  // Never reached: runs go on to the end, or until they break
+  private static final double kNoStopScore = 2;
+
+  // Share of the runs replaced at each splitting level
+  private static final double kSplittingKillFraction = 0.1;
+  private static final int kMaxSplittingLevels = 100000;
+
+  // Monte Carlo runs per task submitted to the thread pool
+  private static final int kRunsPerTask = 500;
+
+  // z-score for 95% confidence intervals
+  private static final double kConfidenceZ = 1.96;
+
+  private final ControllerRecording m_recording;
+  private final int m_controllerIndex;
+  private final HeadlessRobotParams m_params;
+  private final OperatorNoise m_noise;
+  private final int m_threadCount;
+  private final double m_stickNoiseCorrelation;
+  private final double m_stickNoiseInnovation;
+  // For each tick of the stream, ticks until the left bumper is next released
+  private final int[] m_ticksToOpen;
+
+  /**
+   * How far the operator strays from the input stream.
+   */
+  public static class OperatorNoise {
+    // Standard deviation of what is added to each stick axis, from -1 to 1
+    @SuppressWarnings("checkstyle:MemberName")
+    public double stickStdDev = 0.1;
+
+    // How long the stick noise takes to change, as the time constant of a first order
+    // (AR(1)) process
+    @SuppressWarnings("checkstyle:MemberName")
+    public double stickCorrelationSeconds = 0.5;
+
+    // Standard deviation of when the buttons are pressed, compared to the stream. The same
+    // shift for the whole run, rounded to ticks.
+    @SuppressWarnings("checkstyle:MemberName")
+    public double buttonTimingStdDevSeconds = 0.1;
+  }
+
+  /**
+   * Break probability estimated by one method, and what it cost.
+   */
+  public static class Estimate {
+    @SuppressWarnings("checkstyle:MemberName")
+    public String method;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double probability;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double standardError;
+
+    // 95% confidence interval
+    @SuppressWarnings("checkstyle:MemberName")
+    public double confidenceLow;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double confidenceHigh;
+
+    // Runs, or repetitions for splitting
+    @SuppressWarnings("checkstyle:MemberName")
+    public int sampleCount;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public long simulatedTicks;
+
+    /**
+     * Returns how many ticks plain Monte Carlo would need for the same standard error, given
+     * how long the stream is. Infinite if nothing broke.
+     */
+    public double getMonteCarloTicksForSameError(int streamTicks) {
+      if (probability <= 0 || standardError <= 0) {
+        return Double.POSITIVE_INFINITY;
+      }
+
+      double runs = probability * (1 - probability) / (standardError * standardError);
+      return runs * streamTicks;
+    }
+  }
+
+  // Everything a run needs to continue from a tick: the arm, the grabber, the operator's
+  // noise and where its random numbers are
+  private static class RunState {
+    final double[] m_armState;
+    boolean m_isGrabberOpen;
+    int m_tick;
+    int m_buttonOffsetTicks;
+    int m_lastButtons;
+    double m_leftNoise;
+    double m_rightNoise;
+    long m_random;
+    // Highest danger so far
+    double m_score;
+
+    RunState(int armStateSize) {
+      m_armState = new double[armStateSize];
+    }
+
+    RunState(RunState other) {
+      m_armState = other.m_armState.clone();
+      copyFrom(other);
+    }
+
+    void copyFrom(RunState other) {
+      System.arraycopy(other.m_armState, 0, m_armState, 0, m_armState.length);
+      m_isGrabberOpen = other.m_isGrabberOpen;
+      m_tick = other.m_tick;
+      m_buttonOffsetTicks = other.m_buttonOffsetTicks;
+      m_lastButtons = other.m_lastButtons;
+      m_leftNoise = other.m_leftNoise;
+      m_rightNoise = other.m_rightNoise;
+      m_random = other.m_random;
+      m_score = other.m_score;
+    }
+  }
+
+  // The arm that runs are simulated on, one per thread
+  private class Simulator {
+    final HeadlessArm m_arm = new HeadlessArm(m_params.simParams,
+        m_params.winchInitialSpooledMeters,
+        m_params.batteryVoltage);
+    final double[] m_initialArmState = new double[m_arm.getStateSize()];
+    final boolean m_isGrabberInitiallyOpen = m_arm.isGrabberOpen();
+    long m_tickCount = 0;
+
+    Simulator() {
+      m_arm.saveState(m_initialArmState, 0);
+    }
+
+    RunState createInitialState(long seed) {
+      RunState result = new RunState(m_initialArmState.length);
+      System.arraycopy(m_initialArmState, 0, result.m_armState, 0, m_initialArmState.length);
+      result.m_isGrabberOpen = m_isGrabberInitiallyOpen;
+      result.m_random = seed;
+      result.m_leftNoise = m_noise.stickStdDev * nextGaussian(result);
+      result.m_rightNoise = m_noise.stickStdDev * nextGaussian(result);
+      result.m_buttonOffsetTicks = (int) Math.round(
+          m_noise.buttonTimingStdDevSeconds / kTickSeconds * nextGaussian(result));
+      result.m_score = 0;
+      return result;
+    }
+
+    /**
+     * Runs from state until the end of the stream, a break, or the score goes above
+     * stopAbove. state is left at the tick it stopped at. Returns the score.
+     */
+    double run(RunState state, double stopAbove) {
+      m_arm.restoreState(state.m_armState, 0);
+      if (state.m_isGrabberOpen) {
+        m_arm.openGrabber();
+      }
+      else {
+        m_arm.closeGrabber();
+      }
+
+      int tickCount = m_recording.getTickCount();
+      double breakLimit = m_params.simParams.grabberBreaksIfOpenBelowThisLimit;
+
+      while (state.m_tick < tickCount && state.m_score < 1) {
+        int tick = state.m_tick;
+        state.m_leftNoise = m_stickNoiseCorrelation * state.m_leftNoise
+            + m_stickNoiseInnovation * nextGaussian(state);
+        state.m_rightNoise = m_stickNoiseCorrelation * state.m_rightNoise
+            + m_stickNoiseInnovation * nextGaussian(state);
+
+        int buttonTick = tick - state.m_buttonOffsetTicks;
+        int buttons = (buttonTick >= 0 && buttonTick < tickCount)
+            ? m_recording.getButtons(buttonTick, m_controllerIndex)
+            : 0;
+        int released = state.m_lastButtons & ~buttons;
+        state.m_lastButtons = buttons;
+
+        HeadlessArmTeleop.apply(m_arm,
+            m_recording.getAxis(tick, m_controllerIndex, kLeftYAxis) + state.m_leftNoise,
+            m_recording.getAxis(tick, m_controllerIndex, kRightYAxis) + state.m_rightNoise,
+            (released & kLeftBumperBit) != 0,
+            (released & kRightBumperBit) != 0);
+        m_arm.step();
+        m_tickCount++;
+        state.m_tick++;
+
+        double danger;
+        if (m_arm.getBrokenPartName() != null) {
+          danger = 1;
+        }
+        else if (m_arm.isGrabberOpen()) {
+          // An open grabber only gets stuck at the limit, the arm has to be in the break
+          // range already when it opens
+          danger = 0;
+        }
+        else {
+          // Ramps up while the operator is about to open the grabber, the lower the arm is
+          double margin = m_arm.getWinchAbsoluteEncoder() - breakLimit;
+          int ticksToOpen = getTicksToOpen(state.m_tick - state.m_buttonOffsetTicks);
+          danger = kMaxDangerUnbroken / (1 + Math.exp(margin / kDangerMarginRotations))
+              * Math.max(0, 1 - (double) ticksToOpen / (kLookaheadTicks + 1));
+        }
+
+        if (danger > state.m_score) {
+          state.m_score = danger;
+          if (danger > stopAbove) {
+            break;
+          }
+        }
+      }
+
+      m_arm.saveState(state.m_armState, 0);
+      state.m_isGrabberOpen = m_arm.isGrabberOpen();
+      return state.m_score;
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param recording       operator input stream
+   * @param controllerIndex which of the recording's controllers is the operator's
+   * @param params          physical constants and battery voltage. The start pose and
+   *                        sensor noise aren't used.
+   * @param noise           how far the operator strays from the stream
+   * @param threadCount     number of runs to simulate at the same time
+   */
+  public ArmBreakRisk(ControllerRecording recording,
+      int controllerIndex,
+      HeadlessRobotParams params,
+      OperatorNoise noise,
+      int threadCount) {
+    if (recording == null || recording.getTickCount() == 0) {
+      throw new IllegalArgumentException("recording cannot be null or empty");
+    }
+
+    if (controllerIndex < 0 || controllerIndex >= recording.getControllerCount()) {
+      throw new IllegalArgumentException("controllerIndex is out of range");
+    }
+
+    if (params == null || noise == null) {
+      throw new IllegalArgumentException("params and noise cannot be null");
+    }
+
+    if (noise.stickStdDev < 0 || noise.stickCorrelationSeconds <= 0
+        || noise.buttonTimingStdDevSeconds < 0) {
+      throw new IllegalArgumentException("stickStdDev and buttonTimingStdDevSeconds must be "
+          + ">=0, and stickCorrelationSeconds >0");
+    }
+
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("threadCount must be >0");
+    }
+
+    m_recording = recording;
+    m_controllerIndex = controllerIndex;
+    m_params = new HeadlessRobotParams(params);
+    m_noise = new OperatorNoise();
+    m_noise.stickStdDev = noise.stickStdDev;
+    m_noise.stickCorrelationSeconds = noise.stickCorrelationSeconds;
+    m_noise.buttonTimingStdDevSeconds = noise.buttonTimingStdDevSeconds;
+    m_threadCount = threadCount;
+
+    int tickCount = recording.getTickCount();
+    m_ticksToOpen = new int[tickCount + 1];
+    m_ticksToOpen[tickCount] = Integer.MAX_VALUE;
+    for (int tick = tickCount - 1; tick >= 0; tick--) {
+      boolean isReleasedNextTick = (recording.getButtons(tick, controllerIndex) & kLeftBumperBit)
+          != 0 && (tick + 1 == tickCount
+              || (recording.getButtons(tick + 1, controllerIndex) & kLeftBumperBit) == 0);
+      if (isReleasedNextTick) {
+        m_ticksToOpen[tick] = 1;
+      }
+      else {
+        m_ticksToOpen[tick] = (m_ticksToOpen[tick + 1] == Integer.MAX_VALUE)
+            ? Integer.MAX_VALUE
+            : m_ticksToOpen[tick + 1] + 1;
+      }
+    }
+
+    // Keeps the stick noise's standard deviation the same at every tick
+    m_stickNoiseCorrelation = Math.exp(-kTickSeconds / noise.stickCorrelationSeconds);
+    m_stickNoiseInnovation = noise.stickStdDev
+        * Math.sqrt(1 - m_stickNoiseCorrelation * m_stickNoiseCorrelation);
+  }
+
+  // Ticks from the given tick of the stream until the left bumper is released
+  private int getTicksToOpen(int streamTick) {
+    if (streamTick < 0) {
+      return (m_ticksToOpen[0] == Integer.MAX_VALUE)
+          ? Integer.MAX_VALUE
+          : m_ticksToOpen[0] - streamTick;
+    }
+
+    return (streamTick < m_ticksToOpen.length) ? m_ticksToOpen[streamTick] : Integer.MAX_VALUE;
+  }
+
+  /**
+   * A driver macro to score a game piece: raise the arm for raiseSeconds with the left stick
+   * at 80%, open the grabber, close it half a second later, then lower the arm again. The
+   * shorter raiseSeconds, the closer the grabber opens to the break limit.
+   */
+  public static ControllerRecording createScoreMacro(double raiseSeconds) {
+    if (raiseSeconds <= 0) {
+      throw new IllegalArgumentException("raiseSeconds must be >0");
+    }
+
+    int raiseTicks = (int) Math.round(raiseSeconds / kTickSeconds);
+    int settleTicks = 15;
+    int pressTicks = 5;
+    int holdOpenTicks = 25;
+
+    ControllerRecording result = new ControllerRecording(1);
+    for (int tick = 0; tick < raiseTicks; tick++) {
+      result.setAxis(result.addTick(), 0, kLeftYAxis, -0.8);
+    }
+
+    for (int tick = 0; tick < settleTicks; tick++) {
+      result.addTick();
+    }
+
+    for (int tick = 0; tick < pressTicks; tick++) {
+      result.setButtons(result.addTick(), 0, kLeftBumperBit);
+    }
+
+    for (int tick = 0; tick < holdOpenTicks; tick++) {
+      result.addTick();
+    }
+
+    for (int tick = 0; tick < pressTicks; tick++) {
+      result.setButtons(result.addTick(), 0, kRightBumperBit);
+    }
+
+    for (int tick = 0; tick < settleTicks + raiseTicks; tick++) {
+      int index = result.addTick();
+      if (tick >= settleTicks) {
+        result.setAxis(index, 0, kLeftYAxis, 0.8);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Plain Monte Carlo: runs the stream runCount times with independent noise, and counts
+   * the breaks. The interval is the Wilson score interval.
+   */
+  public Estimate estimateMonteCarlo(int runCount, long seed) {
+    if (runCount < 1) {
+      throw new IllegalArgumentException("runCount must be >0");
+    }
+
+    List<long[]> taskResults = runTasks((runCount + kRunsPerTask - 1) / kRunsPerTask, task -> {
+      Simulator simulator = new Simulator();
+      long breakCount = 0;
+      int end = Math.min(runCount, (task + 1) * kRunsPerTask);
+      for (int i = task * kRunsPerTask; i < end; i++) {
+        RunState state = simulator.createInitialState(mixSeed(seed * 1000003 + i));
+        if (simulator.run(state, kNoStopScore) >= 1) {
+          breakCount++;
+        }
+      }
+
+      return new long[] {
+          breakCount, simulator.m_tickCount
+      };
+    });
+
+    int breakCount = 0;
+    Estimate result = new Estimate();
+    for (long[] taskResult : taskResults) {
+      breakCount += (int) taskResult[0];
+      result.simulatedTicks += taskResult[1];
+    }
+
+    double[] interval = AutoMonteCarlo.wilsonInterval(breakCount, runCount);
+    result.method = "Monte Carlo";
+    result.probability = (double) breakCount / runCount;
+    result.standardError = Math.sqrt(result.probability * (1 - result.probability) / runCount);
+    result.confidenceLow = interval[0];
+    result.confidenceHigh = interval[1];
+    result.sampleCount = runCount;
+    return result;
+  }
+
+  /**
+   * Adaptive multilevel splitting with particleCount runs at a time, repeated repetitions
+   * times independently. The estimate is the mean of the repetitions, and the interval
+   * comes from their spread.
+   */
+  public Estimate estimateSplitting(int particleCount, int repetitions, long seed) {
+    if (particleCount < 2) {
+      throw new IllegalArgumentException("particleCount must be >1");
+    }
+
+    if (repetitions < 2) {
+      throw new IllegalArgumentException("repetitions must be >1");
+    }
+
+    List<double[]> taskResults = runTasks(repetitions,
+        repetition -> runSplitting(particleCount, mixSeed(seed * 1000003 + repetition)));
+
+    double[] estimates = new double[repetitions];
+    Estimate result = new Estimate();
+    for (int r = 0; r < repetitions; r++) {
+      estimates[r] = taskResults.get(r)[0];
+      result.simulatedTicks += (long) taskResults.get(r)[1];
+    }
+
+    double mean = Arrays.stream(estimates).average().orElse(Double.NaN);
+    double sumSquares = 0;
+    for (double estimate : estimates) {
+      sumSquares += (estimate - mean) * (estimate - mean);
+    }
+
+    result.method = "Splitting";
+    result.probability = mean;
+    result.standardError = Math.sqrt(sumSquares / (repetitions - 1) / repetitions);
+    result.confidenceLow = Math.max(0, mean - kConfidenceZ * result.standardError);
+    result.confidenceHigh = Math.min(1, mean + kConfidenceZ * result.standardError);
+    result.sampleCount = repetitions;
+    return result;
+  }
+
+  // One repetition of splitting. Returns {estimate, simulated ticks}.
+  private double[] runSplitting(int particleCount, long seed) {
+    Simulator simulator = new Simulator();
+    RunState[] starts = new RunState[particleCount];
+    double[] scores = new double[particleCount];
+    RunState work = null;
+    long[] random = {
+        seed
+    };
+
+    for (int i = 0; i < particleCount; i++) {
+      starts[i] = simulator.createInitialState(nextLong(random));
+      work = new RunState(starts[i]);
+      scores[i] = simulator.run(work, kNoStopScore);
+    }
+
+    int killCount = Math.max(1, (int) (particleCount * kSplittingKillFraction));
+    double[] sortedScores = new double[particleCount];
+    int[] survivors = new int[particleCount];
+    double probability = 1;
+
+    for (int level = 0; level < kMaxSplittingLevels; level++) {
+      System.arraycopy(scores, 0, sortedScores, 0, particleCount);
+      Arrays.sort(sortedScores);
+      double threshold = sortedScores[killCount - 1];
+      if (threshold >= 1) {
+        break;
+      }
+
+      // Every run at or below the threshold goes, even if that's more than killCount
+      int survivorCount = 0;
+      for (int i = 0; i < particleCount; i++) {
+        if (scores[i] > threshold) {
+          survivors[survivorCount++] = i;
+        }
+      }
+
+      if (survivorCount == 0) {
+        return new double[] {
+            0, simulator.m_tickCount
+        };
+      }
+
+      probability *= (double) survivorCount / particleCount;
+
+      for (int i = 0; i < particleCount; i++) {
+        if (scores[i] > threshold) {
+          continue;
+        }
+
+        // Replays the survivor to where it first went above the threshold, and continues
+        // from there with new noise. If it started above it, it got there at its start.
+        int parent = survivors[(int) Math.floorMod(nextLong(random), (long) survivorCount)];
+        RunState start = new RunState(starts[parent]);
+        if (start.m_score <= threshold) {
+          simulator.run(start, threshold);
+        }
+        start.m_random = nextLong(random);
+
+        starts[i] = start;
+        work.copyFrom(start);
+        scores[i] = simulator.run(work, kNoStopScore);
+      }
+    }
+
+    int brokenCount = 0;
+    for (double score : scores) {
+      if (score >= 1) {
+        brokenCount++;
+      }
+    }
+
+    return new double[] {
+        probability * brokenCount / particleCount, simulator.m_tickCount
+    };
+  }
+
+  @FunctionalInterface
+  private interface Task<T> {
+    T run(int taskIndex);
+  }
+
+  private <T> List<T> runTasks(int taskCount, Task<T> task) {
+    ExecutorService executor = Executors.newFixedThreadPool(m_threadCount);
+    List<T> result = new ArrayList<T>();
+
+    try {
+      List<Future<T>> futures = new ArrayList<Future<T>>();
+      for (int i = 0; i < taskCount; i++) {
+        int taskIndex = i;
+        futures.add(executor.submit(() -> task.run(taskIndex)));
+      }
+
+      for (Future<T> future : futures) {
+        result.add(future.get());
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Break risk estimate was interrupted", e);
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException("Simulation failed", e.getCause());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    return result;
+  }
+
+  // SplitMix64, whose whole state is one long, so a run's noise can be saved and replayed
+  private static long nextLong(long[] state) {
+    state[0] += 0x9E3779B97F4A7C15L;
+    return mixSeed(state[0]);
+  }
+
+  private static long nextLong(RunState state) {
+    state.m_random += 0x9E3779B97F4A7C15L;
+    return mixSeed(state.m_random);
+  }
+
+  // Box-Muller, without keeping the second value, so the state stays one long
+  private static double nextGaussian(RunState state) {
+    double u1 = ((nextLong(state) >>> 11) + 1) * 0x1.0p-53;
+    double u2 = (nextLong(state) >>> 11) * 0x1.0p-53;
+    return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+  }
+
+  // SplitMix64 finalizer, same as AutoMonteCarlo's
+  private static long mixSeed(long seed) {
+    long z = seed + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Formats the estimates as a table, with what plain Monte Carlo would have cost for the
+   * same error.
+   */
+  public static String formatReport(List<Estimate> estimates, int streamTicks) {
+    StringBuilder result = new StringBuilder();
+    result.append(String.format("%-12s %12s %27s %10s %14s %16s%n", "method", "P(break)",
+        "95% interval", "samples", "ticks", "MC ticks needed"));
+
+    for (Estimate estimate : estimates) {
+      result.append(String.format("%-12s %12.3e [%11.3e, %11.3e] %10d %14d %16.3e%n",
+          estimate.method,
+          estimate.probability,
+          estimate.confidenceLow,
+          estimate.confidenceHigh,
+          estimate.sampleCount,
+          estimate.simulatedTicks,
+          estimate.getMonteCarloTicksForSameError(streamTicks)));
+    }
+
+    return result.toString();
+  }
+
+  /**
+   * Estimates the break risk of a recorded stream, or of createScoreMacro(0.5), and prints
+   * the report. Arguments: optionally a ControllerRecording file, then --controller=N
+   * (default: 0), --particles=N (default: 1000), --repetitions=N (default: 20),
+   * --mc-runs=N (default: 0, no Monte Carlo) and --threads=N.
+   */
+  public static void main(String[] args) throws IOException {
+    ControllerRecording recording = null;
+    int controllerIndex = 0;
+    int particleCount = 1000;
+    int repetitions = 20;
+    int monteCarloRuns = 0;
+    int threadCount = Runtime.getRuntime().availableProcessors();
+
+    for (String arg : args) {
+      if (arg.startsWith("--controller=")) {
+        controllerIndex = Integer.parseInt(arg.substring("--controller=".length()));
+      }
+      else if (arg.startsWith("--particles=")) {
+        particleCount = Integer.parseInt(arg.substring("--particles=".length()));
+      }
+      else if (arg.startsWith("--repetitions=")) {
+        repetitions = Integer.parseInt(arg.substring("--repetitions=".length()));
+      }
+      else if (arg.startsWith("--mc-runs=")) {
+        monteCarloRuns = Integer.parseInt(arg.substring("--mc-runs=".length()));
+      }
+      else if (arg.startsWith("--threads=")) {
+        threadCount = Integer.parseInt(arg.substring("--threads=".length()));
+      }
+      else {
+        recording = ControllerRecording.read(new File(arg));
+      }
+    }
+
+    if (recording == null) {
+      recording = createScoreMacro(0.5);
+    }
+
+    ArmBreakRisk risk = new ArmBreakRisk(recording, controllerIndex, new HeadlessRobotParams(),
+        new OperatorNoise(), threadCount);
+    List<Estimate> estimates = new ArrayList<Estimate>();
+
+    long startTime = System.nanoTime();
+    estimates.add(risk.estimateSplitting(particleCount, repetitions, 9036));
+    if (monteCarloRuns > 0) {
+      estimates.add(risk.estimateMonteCarlo(monteCarloRuns, 9036));
+    }
+    double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+    System.out.print(formatReport(estimates, recording.getTickCount()));
+    System.out.println(String.format("%.1f seconds of stream, on %d threads in %.1f seconds",
+        recording.getTickCount() * kTickSeconds,
+        threadCount,
+        elapsedSeconds));
+  }
+}
@@ -0,0 +1,281 @@
+package frc.robot.tuning;
+
+import frc.robot.commands.AutoBalanceParams;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tunes AutoBalanceParams by running BalanceScenario many times with SepCmaEs. Candidates
+ * in a generation are evaluated in parallel, one scenario set per task.
+ * <p>
+ * Score (lower is better) is the average over all scenarios of the time until the platform
+ * is balanced, plus a penalty per degree of overshoot. A scenario that never balances
+ * counts as twice its time limit, plus its average platform angle, so that the optimizer
+ * can still tell which of two failed attempts got closer.
+ * </p>
+ * <p>
+ * Run from the command line with: ./gradlew runAutoBalanceOptimizer
+ * </p>
+ */
+public class AutoBalanceOptimizer {
+  private static final double kOvershootSecondsPerDegree = 0.1;
+
+  private static final String[] kParamNames = {
+      "rate", "rateDb", "angleDb", "offset", "cycGrow", "cycPer"
+  };
+  private static final double[] kLowerBounds = {
+      0.15, 0.2, 1.1, 0.0, 0.0, 0.1
+  };
+  private static final double[] kUpperBounds = {
+      0.6, 6.0, 6.0, 5.0, 2.0, 2.0
+  };
+
+  private final List<BalanceScenario> m_scenarios;
+  private final int m_threadCount;
+  private final long m_seed;
+
+  /**
+   * Holds a set of tuning values, and how well they did.
+   */
+  public static class Candidate {
+    @SuppressWarnings("checkstyle:MemberName")
+    public AutoBalanceParams params;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double score;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public int balancedCount;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double meanTimeToBalancedSeconds;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double maxOvershootDegrees;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public boolean isHandTuned;
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param scenarios   every candidate is scored on all of these
+   * @param threadCount number of scenarios to simulate at the same time
+   * @param seed        random seed, so that runs are repeatable
+   */
+  public AutoBalanceOptimizer(List<BalanceScenario> scenarios, int threadCount, long seed) {
+    if (scenarios == null || scenarios.isEmpty()) {
+      throw new IllegalArgumentException("scenarios cannot be null or empty");
+    }
+
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("threadCount must be >0");
+    }
+
+    m_scenarios = new ArrayList<BalanceScenario>(scenarios);
+    m_threadCount = threadCount;
+    m_seed = seed;
+  }
+
+  /**
+   * Returns the scenarios used by main(): the "Auto Balance" auto mode, with the robot
+   * starting at a few different distances from the charge station.
+   */
+  public static List<BalanceScenario> createDefaultScenarios() {
+    List<BalanceScenario> result = new ArrayList<BalanceScenario>();
+    for (double offset : new double[] {-0.3, -0.15, 0, 0.15, 0.3}) {
+      result.add(BalanceScenario.createWithStartOffset(offset));
+    }
+
+    return result;
+  }
+
+  /**
+   * Scores one set of tuning values on all scenarios.
+   */
+  public Candidate evaluate(AutoBalanceParams params) {
+    Candidate result = new Candidate();
+    result.params = new AutoBalanceParams(params);
+
+    double totalScore = 0;
+    double totalTime = 0;
+    for (BalanceScenario scenario : m_scenarios) {
+      BalanceResult scenarioResult = scenario.run(params);
+
+      double time = scenarioResult.timeToBalancedSeconds;
+      if (scenarioResult.isBalanced) {
+        result.balancedCount++;
+      }
+      else {
+        time = 2 * scenario.getBalanceSeconds();
+        totalScore += scenarioResult.meanAbsPlatformAngleDegrees;
+      }
+
+      totalTime += time;
+      totalScore += time + kOvershootSecondsPerDegree * scenarioResult.overshootDegrees;
+      result.maxOvershootDegrees = Math.max(result.maxOvershootDegrees,
+          scenarioResult.overshootDegrees);
+    }
+
+    result.score = totalScore / m_scenarios.size();
+    result.meanTimeToBalancedSeconds = totalTime / m_scenarios.size();
+    return result;
+  }
+
+  /**
+   * Runs the optimizer, starting from the hand-tuned values. Returns every evaluated
+   * candidate, best first. The hand-tuned values are included, with isHandTuned set.
+   *
+   * @param generations    number of SepCmaEs generations
+   * @param populationSize candidates per generation, or 0 for the CMA-ES default
+   */
+  public List<Candidate> optimize(int generations, int populationSize) {
+    AutoBalanceParams handTuned = new AutoBalanceParams();
+    SepCmaEs cmaEs = new SepCmaEs(toNormalized(handTuned), 0.3, populationSize, m_seed);
+
+    List<Candidate> allCandidates = new ArrayList<Candidate>();
+    ExecutorService executor = Executors.newFixedThreadPool(m_threadCount);
+
+    try {
+      Candidate baseline = evaluate(handTuned);
+      baseline.isHandTuned = true;
+      allCandidates.add(baseline);
+
+      for (int g = 0; g < generations; g++) {
+        double[][] samples = cmaEs.ask();
+
+        List<Future<Candidate>> futures = new ArrayList<Future<Candidate>>();
+        for (double[] sample : samples) {
+          AutoBalanceParams params = fromNormalized(sample);
+          futures.add(executor.submit(() -> evaluate(params)));
+        }
+
+        double[] fitness = new double[samples.length];
+        for (int k = 0; k < samples.length; k++) {
+          Candidate candidate = futures.get(k).get();
+          fitness[k] = candidate.score;
+          allCandidates.add(candidate);
+        }
+
+        cmaEs.tell(samples, fitness);
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Optimizer was interrupted", e);
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException("Simulation failed", e.getCause());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    Collections.sort(allCandidates, Comparator.comparingDouble((Candidate c) -> c.score));
+    return allCandidates;
+  }
+
+  /**
+   * Formats the best candidates as a ranked, fixed-width table. The hand-tuned values are
+   * always shown, even if they didn't make the cut.
+   */
+  public static String formatTable(List<Candidate> ranked, int maxRows) {
+    StringBuilder result = new StringBuilder();
+    result.append(String.format("%-5s %8s %9s %8s %9s", "rank", "score", "balanced", "time(s)",
+        "overshoot"));
+    for (String name : kParamNames) {
+      result.append(String.format(" %8s", name));
+    }
+    result.append('\n');
+
+    for (int i = 0; i < ranked.size(); i++) {
+      Candidate candidate = ranked.get(i);
+      if (i >= maxRows && !candidate.isHandTuned) {
+        continue;
+      }
+
+      result.append(String.format("%-5s %8.3f %9d %8.2f %9.2f",
+          (i + 1) + (candidate.isHandTuned ? "*" : ""),
+          candidate.score,
+          candidate.balancedCount,
+          candidate.meanTimeToBalancedSeconds,
+          candidate.maxOvershootDegrees));
+      for (double value : toArray(candidate.params)) {
+        result.append(String.format(" %8.3f", value));
+      }
+      result.append('\n');
+    }
+
+    result.append("* = current hand-tuned values\n");
+    return result.toString();
+  }
+
+  private static double[] toArray(AutoBalanceParams params) {
+    return new double[] {
+        params.rate,
+        params.rateDeadbandDegrees,
+        params.angleDeadbandDegrees,
+        params.angleOffsetDegrees,
+        params.cycleGrowth,
+        params.cyclePeriodSeconds
+    };
+  }
+
+  private static double[] toNormalized(AutoBalanceParams params) {
+    double[] values = toArray(params);
+    for (int i = 0; i < values.length; i++) {
+      double normalized = (values[i] - kLowerBounds[i]) / (kUpperBounds[i] - kLowerBounds[i]);
+      values[i] = Math.max(0, Math.min(1, normalized));
+    }
+
+    return values;
+  }
+
+  private static AutoBalanceParams fromNormalized(double[] normalized) {
+    double[] values = new double[normalized.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = kLowerBounds[i] + normalized[i] * (kUpperBounds[i] - kLowerBounds[i]);
+    }
+
+    AutoBalanceParams result = new AutoBalanceParams();
+    result.rate = values[0];
+    result.rateDeadbandDegrees = values[1];
+    result.angleDeadbandDegrees = values[2];
+    result.angleOffsetDegrees = values[3];
+    result.cycleGrowth = values[4];
+    result.cyclePeriodSeconds = values[5];
+    return result;
+  }
+
+  /**
+   * Runs the optimizer and prints a ranked table.
+   * Optional arguments: generations, population size, thread count.
+   */
+  public static void main(String[] args) {
+    int generations = (args.length > 0) ? Integer.parseInt(args[0]) : 40;
+    int populationSize = (args.length > 1) ? Integer.parseInt(args[1]) : 16;
+    int threadCount = (args.length > 2) ? Integer.parseInt(args[2])
+        : Runtime.getRuntime().availableProcessors();
+
+    long startTime = System.nanoTime();
+    AutoBalanceOptimizer optimizer = new AutoBalanceOptimizer(createDefaultScenarios(),
+        threadCount,
+        9036);
+    List<Candidate> ranked = optimizer.optimize(generations, populationSize);
+    double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+    System.out.print(formatTable(ranked, 15));
+    System.out.println(String.format("Evaluated %d candidates on %d threads in %.1f seconds",
+        ranked.size(),
+        threadCount,
+        elapsedSeconds));
+    System.out.println("Best: " + ranked.get(0).params);
+  }
+}
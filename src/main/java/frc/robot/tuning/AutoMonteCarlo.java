@@ -0,0 +1,409 @@
+package frc.robot.tuning;
+
+import frc.robot.commands.Auto;
+import frc.robot.headless.AutoRunResult;
+import frc.robot.headless.HeadlessAutoRunner;
+import frc.robot.headless.HeadlessRobotParams;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs every auto mode many times with HeadlessAutoRunner, each time with randomized start
+ * conditions, and summarizes how often it completes, how long it takes, how often something
+ * breaks and where the robot ends up.
+ * <p>
+ * Randomized per run: start pose, battery voltage, drive and winch absolute encoder noise,
+ * and how much winch cable starts spooled (kCurrentLenSpooled). Each run gets its own seed,
+ * derived from the mode and run number, so results don't depend on the thread count.
+ * </p>
+ * <p>
+ * Run from the command line with: ./gradlew runAutoMonteCarlo
+ * </p>
+ */
+public class AutoMonteCarlo {
+  private static final double kStartPositionStdDevMeters = 0.05;
+  private static final double kStartHeadingStdDevDegrees = 2.0;
+  private static final double kMinBatteryVoltage = 11.5;
+  private static final double kMaxBatteryVoltage = 12.8;
+  private static final double kDriveEncoderNoiseRotations = 0.05;
+  private static final double kAbsoluteEncoderNoiseRotations = 0.001;
+  private static final double kMinWinchSpooledMeters = 0.24;
+  private static final double kMaxWinchSpooledMeters = 0.26;
+
+  // Runs per task submitted to the thread pool
+  private static final int kRunsPerTask = 100;
+
+  // z-score for 95% confidence intervals
+  private static final double kConfidenceZ = 1.96;
+
+  private final int m_threadCount;
+  private final long m_seed;
+
+  /**
+   * One run: its randomized start conditions, and what happened.
+   */
+  public static class Run {
+    @SuppressWarnings("checkstyle:MemberName")
+    public int runIndex;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public HeadlessRobotParams params;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public AutoRunResult result;
+  }
+
+  /**
+   * Statistics over all runs of one auto mode.
+   */
+  public static class ModeSummary {
+    @SuppressWarnings("checkstyle:MemberName")
+    public String autoMode;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public List<Run> runs = new ArrayList<Run>();
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public int completedCount;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public int brokenCount;
+
+    // Number of runs in which each part broke first
+    @SuppressWarnings("checkstyle:MemberName")
+    public Map<String, Integer> brokenPartCounts = new TreeMap<String, Integer>();
+
+    // Completion times of the completed runs, sorted
+    @SuppressWarnings("checkstyle:MemberName")
+    public double[] completionSeconds = new double[0];
+
+    public double getCompletionRate() {
+      return (double) completedCount / runs.size();
+    }
+
+    public double getBreakRate() {
+      return (double) brokenCount / runs.size();
+    }
+
+    /**
+     * Returns the given percentile (0 to 100) of the completion times, or NaN if no run
+     * completed.
+     */
+    public double getCompletionPercentile(double percentile) {
+      return percentile(completionSeconds, percentile);
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param threadCount number of runs to simulate at the same time
+   * @param seed        random seed, so that results are repeatable
+   */
+  public AutoMonteCarlo(int threadCount, long seed) {
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("threadCount must be >0");
+    }
+
+    m_threadCount = threadCount;
+    m_seed = seed;
+  }
+
+  /**
+   * Returns randomized start conditions around the simulator defaults.
+   */
+  public static HeadlessRobotParams createRandomParams(Random random) {
+    HeadlessRobotParams result = new HeadlessRobotParams();
+    result.startXMeters += random.nextGaussian() * kStartPositionStdDevMeters;
+    result.startYMeters += random.nextGaussian() * kStartPositionStdDevMeters;
+    result.startHeadingDegrees += random.nextGaussian() * kStartHeadingStdDevDegrees;
+    result.batteryVoltage = kMinBatteryVoltage
+        + random.nextDouble() * (kMaxBatteryVoltage - kMinBatteryVoltage);
+    result.driveEncoderNoiseRotations = kDriveEncoderNoiseRotations;
+    result.absoluteEncoderNoiseRotations = kAbsoluteEncoderNoiseRotations;
+    result.winchInitialSpooledMeters = kMinWinchSpooledMeters
+        + random.nextDouble() * (kMaxWinchSpooledMeters - kMinWinchSpooledMeters);
+    return result;
+  }
+
+  /**
+   * Runs the given auto modes runsPerMode times each, spread over the thread pool.
+   */
+  public List<ModeSummary> simulate(List<String> autoModes, int runsPerMode) {
+    if (autoModes == null || autoModes.isEmpty()) {
+      throw new IllegalArgumentException("autoModes cannot be null or empty");
+    }
+
+    if (runsPerMode < 1) {
+      throw new IllegalArgumentException("runsPerMode must be >0");
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(m_threadCount);
+    List<ModeSummary> result = new ArrayList<ModeSummary>();
+
+    try {
+      List<List<Future<List<Run>>>> futuresPerMode = new ArrayList<List<Future<List<Run>>>>();
+      for (int m = 0; m < autoModes.size(); m++) {
+        String autoMode = autoModes.get(m);
+        if (Auto.getAutoSteps(autoMode) == null) {
+          throw new IllegalArgumentException("Unknown auto mode: " + autoMode);
+        }
+
+        HeadlessAutoRunner runner = new HeadlessAutoRunner(Auto.getAutoSteps(autoMode));
+        long modeSeed = m_seed * 31 + m;
+
+        List<Future<List<Run>>> futures = new ArrayList<Future<List<Run>>>();
+        for (int first = 0; first < runsPerMode; first += kRunsPerTask) {
+          int start = first;
+          int end = Math.min(runsPerMode, first + kRunsPerTask);
+          futures.add(executor.submit(() -> runRange(runner, modeSeed, start, end)));
+        }
+        futuresPerMode.add(futures);
+      }
+
+      for (int m = 0; m < autoModes.size(); m++) {
+        ModeSummary summary = new ModeSummary();
+        summary.autoMode = autoModes.get(m);
+        for (Future<List<Run>> future : futuresPerMode.get(m)) {
+          summary.runs.addAll(future.get());
+        }
+
+        summarize(summary);
+        result.add(summary);
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Monte Carlo was interrupted", e);
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException("Simulation failed", e.getCause());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    return result;
+  }
+
+  private static List<Run> runRange(HeadlessAutoRunner runner, long modeSeed, int start,
+      int end) {
+    List<Run> result = new ArrayList<Run>();
+    for (int i = start; i < end; i++) {
+      Random random = new Random(mixSeed(modeSeed * 1000003 + i));
+
+      Run run = new Run();
+      run.runIndex = i;
+      run.params = createRandomParams(random);
+      run.result = runner.run(run.params, random);
+      result.add(run);
+    }
+
+    return result;
+  }
+
+  // java.util.Random gives correlated first values for consecutive seeds, so scramble the
+  // seed first (SplitMix64 finalizer)
+  private static long mixSeed(long seed) {
+    long z = seed + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private static void summarize(ModeSummary summary) {
+    List<Double> times = new ArrayList<Double>();
+    for (Run run : summary.runs) {
+      if (run.result.isCompleted) {
+        summary.completedCount++;
+        times.add(run.result.completionSeconds);
+      }
+
+      if (run.result.isBroken()) {
+        summary.brokenCount++;
+        summary.brokenPartCounts.merge(run.result.brokenPartName, 1, Integer::sum);
+      }
+    }
+
+    summary.completionSeconds = new double[times.size()];
+    for (int i = 0; i < times.size(); i++) {
+      summary.completionSeconds[i] = times.get(i);
+    }
+    Arrays.sort(summary.completionSeconds);
+  }
+
+  /**
+   * Returns the given percentile (0 to 100) of sorted values, interpolating between
+   * neighbors. Returns NaN if there are no values.
+   */
+  public static double percentile(double[] sortedValues, double percentile) {
+    if (sortedValues.length == 0) {
+      return Double.NaN;
+    }
+
+    double position = percentile / 100 * (sortedValues.length - 1);
+    int lower = (int) Math.floor(position);
+    int upper = Math.min(lower + 1, sortedValues.length - 1);
+    double fraction = position - lower;
+    return sortedValues[lower] + fraction * (sortedValues[upper] - sortedValues[lower]);
+  }
+
+  /**
+   * Returns the 95% Wilson score interval {low, high} for successes out of trials. Unlike
+   * the textbook p +/- z*sqrt(p(1-p)/n), it still makes sense when p is close to 0 or 1.
+   */
+  public static double[] wilsonInterval(int successes, int trials) {
+    if (trials <= 0) {
+      throw new IllegalArgumentException("trials must be >0");
+    }
+
+    double p = (double) successes / trials;
+    double z2 = kConfidenceZ * kConfidenceZ;
+    double denominator = 1 + z2 / trials;
+    double center = (p + z2 / (2 * trials)) / denominator;
+    double halfWidth = kConfidenceZ
+        * Math.sqrt(p * (1 - p) / trials + z2 / (4.0 * trials * trials)) / denominator;
+    return new double[] {
+        Math.max(0, center - halfWidth), Math.min(1, center + halfWidth)
+    };
+  }
+
+  /**
+   * Formats the summaries as a fixed-width report: one table for completion and breaks,
+   * and one for the final pose.
+   */
+  public static String formatReport(List<ModeSummary> summaries) {
+    StringBuilder result = new StringBuilder();
+    result.append(String.format("%-42s %6s %17s %6s %6s %6s %6s %17s  %s%n", "mode", "runs",
+        "completed [95%]", "mean", "p5", "p50", "p95", "broken [95%]", "broken parts"));
+
+    for (ModeSummary summary : summaries) {
+      double[] completedInterval = wilsonInterval(summary.completedCount, summary.runs.size());
+      double[] brokenInterval = wilsonInterval(summary.brokenCount, summary.runs.size());
+      double mean = Arrays.stream(summary.completionSeconds).average().orElse(Double.NaN);
+
+      result.append(String.format("%-42s %6d %5.1f%% [%4.1f,%5.1f] %6.2f %6.2f %6.2f %6.2f "
+          + "%5.1f%% [%4.1f,%5.1f]  %s%n",
+          summary.autoMode,
+          summary.runs.size(),
+          100 * summary.getCompletionRate(),
+          100 * completedInterval[0],
+          100 * completedInterval[1],
+          mean,
+          summary.getCompletionPercentile(5),
+          summary.getCompletionPercentile(50),
+          summary.getCompletionPercentile(95),
+          100 * summary.getBreakRate(),
+          100 * brokenInterval[0],
+          100 * brokenInterval[1],
+          summary.brokenPartCounts.isEmpty() ? "-" : summary.brokenPartCounts.toString()));
+    }
+
+    result.append(String.format("%nFinal pose (mean +/- std dev)%n"));
+    result.append(String.format("%-42s %18s %18s %20s%n", "mode", "x (m)", "y (m)",
+        "heading (deg)"));
+    for (ModeSummary summary : summaries) {
+      double[] x = new double[summary.runs.size()];
+      double[] y = new double[summary.runs.size()];
+      double[] heading = new double[summary.runs.size()];
+      for (int i = 0; i < summary.runs.size(); i++) {
+        x[i] = summary.runs.get(i).result.finalXMeters;
+        y[i] = summary.runs.get(i).result.finalYMeters;
+        heading[i] = summary.runs.get(i).result.finalHeadingDegrees;
+      }
+
+      result.append(String.format("%-42s %8.3f +/- %5.3f %8.3f +/- %5.3f %9.2f +/- %6.2f%n",
+          summary.autoMode,
+          mean(x), stdDev(x),
+          mean(y), stdDev(y),
+          mean(heading), stdDev(heading)));
+    }
+
+    return result.toString();
+  }
+
+  private static double mean(double[] values) {
+    return Arrays.stream(values).average().orElse(Double.NaN);
+  }
+
+  private static double stdDev(double[] values) {
+    double mean = mean(values);
+    double sumSquares = 0;
+    for (double value : values) {
+      sumSquares += (value - mean) * (value - mean);
+    }
+
+    return Math.sqrt(sumSquares / Math.max(1, values.length - 1));
+  }
+
+  /**
+   * Writes one CSV row per run, with its start conditions and outcome. Handy for plotting
+   * the final pose scatter.
+   */
+  public static void writeCsv(List<ModeSummary> summaries, String path) throws IOException {
+    try (PrintWriter writer = new PrintWriter(path, "UTF-8")) {
+      writer.println("mode,run,startX,startY,startHeading,batteryVoltage,winchSpooled,"
+          + "completed,completionSeconds,brokenPart,breakSeconds,finalX,finalY,finalHeading,"
+          + "finalPlatformAngle");
+
+      for (ModeSummary summary : summaries) {
+        for (Run run : summary.runs) {
+          writer.println(String.format("\"%s\",%d,%.4f,%.4f,%.3f,%.3f,%.4f,%b,%.2f,%s,%.2f,"
+              + "%.4f,%.4f,%.3f,%.3f",
+              summary.autoMode,
+              run.runIndex,
+              run.params.startXMeters,
+              run.params.startYMeters,
+              run.params.startHeadingDegrees,
+              run.params.batteryVoltage,
+              run.params.winchInitialSpooledMeters,
+              run.result.isCompleted,
+              run.result.completionSeconds,
+              run.result.isBroken() ? run.result.brokenPartName : "",
+              run.result.breakSeconds,
+              run.result.finalXMeters,
+              run.result.finalYMeters,
+              run.result.finalHeadingDegrees,
+              run.result.finalPlatformAngleDegrees));
+        }
+      }
+    }
+  }
+
+  /**
+   * Runs every auto mode and prints the report.
+   * Optional arguments: runs per mode, thread count, CSV file for per-run results.
+   */
+  public static void main(String[] args) throws IOException {
+    int runsPerMode = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+    int threadCount = (args.length > 1) ? Integer.parseInt(args[1])
+        : Runtime.getRuntime().availableProcessors();
+    String csvPath = (args.length > 2) ? args[2] : null;
+
+    long startTime = System.nanoTime();
+    AutoMonteCarlo monteCarlo = new AutoMonteCarlo(threadCount, 9036);
+    List<ModeSummary> summaries = monteCarlo.simulate(Auto.getAllAutoModes(), runsPerMode);
+    double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+    System.out.print(formatReport(summaries));
+    System.out.println(String.format("Simulated %d runs per mode on %d threads in %.1f seconds",
+        runsPerMode,
+        threadCount,
+        elapsedSeconds));
+
+    if (csvPath != null) {
+      writeCsv(summaries, csvPath);
+      System.out.println("Per-run results written to " + csvPath);
+    }
+  }
+}
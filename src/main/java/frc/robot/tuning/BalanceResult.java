@@ -0,0 +1,31 @@
+package frc.robot.tuning;
+
+/**
+ * Outcome of running one BalanceScenario.
+ */
+public class BalanceResult {
+  @SuppressWarnings("checkstyle:MemberName")
+  public boolean isBalanced;
+
+  // Seconds from the start of AutoBalanceCommand until the platform was level for good.
+  // Only meaningful if isBalanced is true.
+  @SuppressWarnings("checkstyle:MemberName")
+  public double timeToBalancedSeconds;
+
+  // Largest platform angle seen after the platform first swung through level
+  @SuppressWarnings("checkstyle:MemberName")
+  public double overshootDegrees;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double finalPlatformAngleDegrees;
+
+  // Average of the absolute platform angle while AutoBalanceCommand ran
+  @SuppressWarnings("checkstyle:MemberName")
+  public double meanAbsPlatformAngleDegrees;
+
+  /**
+   * Constructor with 0 params.
+   */
+  public BalanceResult() {
+  }
+}
@@ -0,0 +1,176 @@
+package frc.robot.tuning;
+
+import edu.wpi.first.math.util.Units;
+import frc.robot.commands.AutoBalanceController;
+import frc.robot.commands.AutoBalanceParams;
+import frc.robot.headless.HeadlessDrivetrain;
+import simulationlib.Constants.SimConstants;
+import simulationlib.simulation.chargestation.ChargeStationParams;
+import simulationlib.simulation.chargestation.ChargeStationParamsBuilder;
+import simulationlib.simulation.chargestation.ChargeStationSimModel;
+import simulationlib.simulation.chargestation.ChargeStationState;
+
+/**
+ * Headless simulation of the "Auto Balance" auto mode: the robot starts in front of the grid
+ * facing it, backs up onto the charge station, then runs AutoBalanceController.
+ * <p>
+ * Unlike TankDriveSystemSim, this doesn't use the HAL or the command scheduler, so many
+ * scenarios can run at the same time on different threads. The drivetrain is a
+ * HeadlessDrivetrain, which turns percent output into speed the way the real robot does it,
+ * since the tuned values are meant for the real robot.
+ * </p>
+ */
+public class BalanceScenario {
+  public static final double kTickSeconds = HeadlessDrivetrain.kTickSeconds;
+
+  // Platform has to stay level for this long to count as balanced
+  private static final double kLevelToleranceDegrees = 2.5;
+  private static final double kLevelHoldSeconds = 2.0;
+
+  private final ChargeStationParams m_stationParams;
+  private final double m_startXMeters;
+  private final double m_approachDistanceMeters;
+  private final double m_approachOutput;
+  private final double m_balanceSeconds;
+
+  /**
+   * Constructor.
+   *
+   * @param stationParams          charge station to balance on
+   * @param startXMeters           field X where the robot starts, facing -X
+   * @param approachDistanceMeters how far the robot backs up before balancing
+   * @param approachOutput         percent output used to back up, as passed to DriveCommand
+   * @param balanceSeconds         how long AutoBalanceCommand gets to run
+   */
+  public BalanceScenario(ChargeStationParams stationParams,
+      double startXMeters,
+      double approachDistanceMeters,
+      double approachOutput,
+      double balanceSeconds) {
+
+    if (stationParams == null) {
+      throw new IllegalArgumentException("stationParams cannot be null");
+    }
+
+    if (approachDistanceMeters <= 0) {
+      throw new IllegalArgumentException("approachDistanceMeters must be >0");
+    }
+
+    if (balanceSeconds <= 0) {
+      throw new IllegalArgumentException("balanceSeconds must be >0");
+    }
+
+    m_stationParams = new ChargeStationParams(stationParams);
+    m_startXMeters = startXMeters;
+    m_approachDistanceMeters = approachDistanceMeters;
+    m_approachOutput = approachOutput;
+    m_balanceSeconds = balanceSeconds;
+  }
+
+  /**
+   * Returns the scenario that matches the "Auto Balance" auto mode in Auto.java, using the
+   * charge station from SimConstants.
+   */
+  public static BalanceScenario createDefault() {
+    return createWithStartOffset(0);
+  }
+
+  /**
+   * Same as createDefault(), but the robot starts startOffsetMeters further from the charge
+   * station. Used to check that a set of gains isn't tuned to one exact starting spot.
+   */
+  public static BalanceScenario createWithStartOffset(double startOffsetMeters) {
+    return new BalanceScenario(ChargeStationParamsBuilder.fromSimConstants().build(),
+        1.9 - startOffsetMeters,
+        Units.feetToMeters(8),
+        0.4,
+        12.0);
+  }
+
+  public double getBalanceSeconds() {
+    return m_balanceSeconds;
+  }
+
+  /**
+   * Runs the scenario from the beginning with the given tuning values. Safe to call from
+   * multiple threads at the same time.
+   */
+  public BalanceResult run(AutoBalanceParams params) {
+    ChargeStationSimModel station = new ChargeStationSimModel(m_stationParams);
+    AutoBalanceController controller = new AutoBalanceController(params);
+
+    // Robot faces the grid (-X), so backing up moves it toward +X
+    HeadlessDrivetrain drivetrain = new HeadlessDrivetrain(m_startXMeters,
+        m_stationParams.centerYMeters,
+        Math.PI,
+        12.0);
+    ChargeStationState state = updateStation(station, drivetrain);
+
+    // Approach, same as DriveCommand
+    double maxApproachSeconds = 10;
+    double travelled = 0;
+    for (double t = 0; t < maxApproachSeconds && travelled < m_approachDistanceMeters;
+        t += kTickSeconds) {
+
+      drivetrain.tankDrive(-m_approachOutput, -m_approachOutput, false);
+      drivetrain.step();
+      travelled += Math.abs(drivetrain.getVelocity()) * kTickSeconds;
+      state = updateStation(station, drivetrain);
+    }
+
+    // Balance, same as AutoBalanceCommand
+    BalanceResult result = new BalanceResult();
+    double prevGyroAngle = 0;
+    double levelSince = -1;
+    boolean hasCrossedLevel = false;
+    double initialSign = Math.signum(state.getPlatformAngleDegrees());
+    double totalAbsAngle = 0;
+    int tickCount = 0;
+
+    for (double t = 0; t < m_balanceSeconds; t += kTickSeconds) {
+      // Same gyro reading as TankDriveSystemSim.getGyroAngle()
+      double gyroAngle = SimConstants.kgyroRollMountOffsetDegrees - state.getRobotPitchDegrees();
+      double gyroRate = Math.abs(prevGyroAngle - gyroAngle);
+      double output = controller.calculate(gyroAngle, gyroRate, kTickSeconds);
+      prevGyroAngle = gyroAngle;
+
+      drivetrain.tankDrive(output, output, false);
+      drivetrain.step();
+      state = updateStation(station, drivetrain);
+
+      double platformAngle = state.getPlatformAngleDegrees();
+      totalAbsAngle += Math.abs(platformAngle);
+      tickCount++;
+
+      if (!hasCrossedLevel && initialSign != 0 && Math.signum(platformAngle) == -initialSign) {
+        hasCrossedLevel = true;
+      }
+
+      if (hasCrossedLevel) {
+        result.overshootDegrees = Math.max(result.overshootDegrees, Math.abs(platformAngle));
+      }
+
+      boolean isLevel = state.getIsRobotOnStation()
+          && Math.abs(platformAngle) <= kLevelToleranceDegrees;
+      if (!isLevel) {
+        levelSince = -1;
+      }
+      else if (levelSince < 0) {
+        levelSince = t;
+      }
+    }
+
+    result.finalPlatformAngleDegrees = state.getPlatformAngleDegrees();
+    result.meanAbsPlatformAngleDegrees = totalAbsAngle / tickCount;
+    result.isBalanced = levelSince >= 0 && (m_balanceSeconds - levelSince) >= kLevelHoldSeconds;
+    result.timeToBalancedSeconds = result.isBalanced ? levelSince : m_balanceSeconds;
+    return result;
+  }
+
+  private static ChargeStationState updateStation(ChargeStationSimModel station,
+      HeadlessDrivetrain drivetrain) {
+    return station.updateSimulation(drivetrain.getXMeters(),
+        drivetrain.getYMeters(),
+        drivetrain.getHeadingRadians());
+  }
+}
@@ -0,0 +1,443 @@
+package frc.robot.tuning;
+
+import frc.robot.commands.Auto;
+import frc.robot.headless.AutoRunResult;
+import frc.robot.headless.HeadlessAutoRunner;
+import frc.robot.headless.HeadlessRobotParams;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * Runs auto modes with HeadlessAutoRunner over every combination of a grid of parameter
+ * values, e.g. winch gear ratio x battery voltage, and streams one CSV row per run.
+ * <p>
+ * Parameters are set on a fresh HeadlessRobotParams (and its RobotSimParams) for every grid
+ * point, never on the statics in SimConstants, so grid points can run on separate threads.
+ * Parameter names are the HeadlessRobotParams and RobotSimParams field names, e.g.
+ * "winchSimGearRatio" or "batteryVoltage". Charge station fields are prefixed with
+ * "chargeStation.".
+ * </p>
+ * <p>
+ * The CSV has one column per parameter, then the auto mode, then one column per outcome, so
+ * it loads straight into a dataframe. Rows are written in grid order as soon as the points
+ * before them are done, so a big sweep doesn't have to fit in memory.
+ * </p>
+ * <p>
+ * Run from the command line with: ./gradlew runParameterSweep
+ * </p>
+ */
+public class ParameterSweep {
+  // Grid points in flight, per thread. Bounds memory while keeping every thread busy.
+  private static final int kPointsInFlightPerThread = 4;
+
+  private static final Map<String, BiConsumer<HeadlessRobotParams, Double>> kSetters =
+      createSetters();
+
+  private static final String kResultColumns = "mode,completed,completionSeconds,"
+      + "stepsCompleted,brokenPart,breakSeconds,finalX,finalY,finalHeading,finalPlatformAngle";
+
+  private final List<Axis> m_axes;
+  private final List<String> m_autoModes;
+  private final int m_threadCount;
+  private final long m_pointCount;
+
+  /**
+   * Values to sweep for one parameter.
+   */
+  public static class Axis {
+    private final String m_name;
+    private final double[] m_values;
+
+    private Axis(String name, double[] values) {
+      if (!kSetters.containsKey(name)) {
+        throw new IllegalArgumentException("Unknown parameter: " + name
+            + ". Known parameters: " + kSetters.keySet());
+      }
+
+      if (values == null || values.length == 0) {
+        throw new IllegalArgumentException("values cannot be null or empty");
+      }
+
+      m_name = name;
+      m_values = values.clone();
+    }
+
+    /**
+     * Sweeps the parameter over the given values.
+     */
+    public static Axis grid(String name, double... values) {
+      return new Axis(name, values);
+    }
+
+    /**
+     * Sweeps the parameter over steps evenly spaced values from min to max, inclusive.
+     */
+    public static Axis range(String name, double min, double max, int steps) {
+      if (steps < 1) {
+        throw new IllegalArgumentException("steps must be >0");
+      }
+
+      if (steps == 1 && min != max) {
+        throw new IllegalArgumentException("steps must be >1 when min != max");
+      }
+
+      double[] values = new double[steps];
+      for (int i = 0; i < steps; i++) {
+        values[i] = (steps == 1) ? min : min + (max - min) * i / (steps - 1);
+      }
+
+      return new Axis(name, values);
+    }
+
+    /**
+     * Parses "name=min:max:steps" or "name=value1,value2,...".
+     */
+    public static Axis parse(String text) {
+      int equals = text.indexOf('=');
+      if (equals <= 0) {
+        throw new IllegalArgumentException("Expected name=min:max:steps or name=v1,v2: "
+            + text);
+      }
+
+      String name = text.substring(0, equals);
+      String spec = text.substring(equals + 1);
+
+      try {
+        if (spec.contains(":")) {
+          String[] parts = spec.split(":");
+          if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected min:max:steps: " + text);
+          }
+
+          return range(name,
+              Double.parseDouble(parts[0]),
+              Double.parseDouble(parts[1]),
+              Integer.parseInt(parts[2]));
+        }
+
+        return grid(name, Arrays.stream(spec.split(",")).mapToDouble(Double::parseDouble)
+            .toArray());
+      }
+      catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Bad number in: " + text, e);
+      }
+    }
+
+    public String getName() {
+      return m_name;
+    }
+
+    public double[] getValues() {
+      return m_values.clone();
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param axes        parameters to sweep. The last one changes fastest.
+   * @param autoModes   auto modes to run at every grid point
+   * @param threadCount number of grid points to simulate at the same time
+   */
+  public ParameterSweep(List<Axis> axes, List<String> autoModes, int threadCount) {
+    if (axes == null || axes.isEmpty()) {
+      throw new IllegalArgumentException("axes cannot be null or empty");
+    }
+
+    if (autoModes == null || autoModes.isEmpty()) {
+      throw new IllegalArgumentException("autoModes cannot be null or empty");
+    }
+
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("threadCount must be >0");
+    }
+
+    long pointCount = 1;
+    for (Axis axis : axes) {
+      pointCount = Math.multiplyExact(pointCount, (long) axis.m_values.length);
+    }
+
+    for (String autoMode : autoModes) {
+      if (Auto.getAutoSteps(autoMode) == null) {
+        throw new IllegalArgumentException("Unknown auto mode: " + autoMode);
+      }
+    }
+
+    m_axes = new ArrayList<Axis>(axes);
+    m_autoModes = new ArrayList<String>(autoModes);
+    m_threadCount = threadCount;
+    m_pointCount = pointCount;
+  }
+
+  /**
+   * Names of the parameters that can be swept.
+   */
+  public static List<String> getParameterNames() {
+    return Collections.unmodifiableList(new ArrayList<String>(kSetters.keySet()));
+  }
+
+  /**
+   * Sets the named parameter (one of getParameterNames()) on params.
+   */
+  public static void setParameter(HeadlessRobotParams params, String name, double value) {
+    BiConsumer<HeadlessRobotParams, Double> setter = kSetters.get(name);
+    if (setter == null) {
+      throw new IllegalArgumentException("Unknown parameter: " + name
+          + ". Known parameters: " + kSetters.keySet());
+    }
+
+    setter.accept(params, value);
+  }
+
+  public long getPointCount() {
+    return m_pointCount;
+  }
+
+  /**
+   * Returns the parameter values of the given grid point, in axis order.
+   */
+  public double[] getPointValues(long pointIndex) {
+    if (pointIndex < 0 || pointIndex >= m_pointCount) {
+      throw new IllegalArgumentException("pointIndex out of range: " + pointIndex);
+    }
+
+    // Mixed radix, last axis is the least significant digit
+    double[] result = new double[m_axes.size()];
+    long remaining = pointIndex;
+    for (int i = m_axes.size() - 1; i >= 0; i--) {
+      double[] values = m_axes.get(i).m_values;
+      result[i] = values[(int) (remaining % values.length)];
+      remaining /= values.length;
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns simulator defaults with the given grid point's parameter values applied.
+   */
+  public HeadlessRobotParams createParams(long pointIndex) {
+    double[] values = getPointValues(pointIndex);
+    HeadlessRobotParams result = new HeadlessRobotParams();
+    for (int i = 0; i < m_axes.size(); i++) {
+      kSetters.get(m_axes.get(i).m_name).accept(result, values[i]);
+    }
+
+    return result;
+  }
+
+  /**
+   * Runs every grid point and auto mode, writing the CSV header and then one row per run as
+   * results come in.
+   *
+   * @return number of rows written, not counting the header
+   */
+  public long run(Writer out) {
+    PrintWriter writer = new PrintWriter(out);
+    writer.println(getCsvHeader());
+
+    List<HeadlessAutoRunner> runners = new ArrayList<HeadlessAutoRunner>();
+    for (String autoMode : m_autoModes) {
+      runners.add(new HeadlessAutoRunner(Auto.getAutoSteps(autoMode)));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(m_threadCount);
+    Deque<Future<List<String>>> inFlight = new ArrayDeque<Future<List<String>>>();
+    int maxInFlight = m_threadCount * kPointsInFlightPerThread;
+    long rowCount = 0;
+
+    try {
+      for (long point = 0; point < m_pointCount; point++) {
+        long pointIndex = point;
+        inFlight.addLast(executor.submit(() -> runPoint(runners, pointIndex)));
+
+        if (inFlight.size() >= maxInFlight) {
+          rowCount += writeRows(writer, inFlight.removeFirst().get());
+        }
+      }
+
+      while (!inFlight.isEmpty()) {
+        rowCount += writeRows(writer, inFlight.removeFirst().get());
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Sweep was interrupted", e);
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException("Simulation failed", e.getCause());
+    }
+    finally {
+      executor.shutdownNow();
+      writer.flush();
+    }
+
+    return rowCount;
+  }
+
+  private static int writeRows(PrintWriter writer, List<String> rows) {
+    for (String row : rows) {
+      writer.println(row);
+    }
+
+    return rows.size();
+  }
+
+  /**
+   * Returns the CSV header: point, then one column per parameter, then the outcome columns.
+   */
+  public String getCsvHeader() {
+    StringBuilder result = new StringBuilder("point");
+    for (Axis axis : m_axes) {
+      result.append(',').append(axis.m_name);
+    }
+
+    return result.append(',').append(kResultColumns).toString();
+  }
+
+  private List<String> runPoint(List<HeadlessAutoRunner> runners, long pointIndex) {
+    HeadlessRobotParams params = createParams(pointIndex);
+
+    StringBuilder prefix = new StringBuilder(Long.toString(pointIndex));
+    for (double value : getPointValues(pointIndex)) {
+      prefix.append(',').append(value);
+    }
+
+    // No noise in params, so no Random is needed and each run is deterministic
+    List<String> result = new ArrayList<String>();
+    for (int m = 0; m < runners.size(); m++) {
+      AutoRunResult run = runners.get(m).run(params, null);
+      result.add(String.format("%s,\"%s\",%b,%.2f,%d,%s,%.2f,%.4f,%.4f,%.3f,%.3f",
+          prefix,
+          m_autoModes.get(m),
+          run.isCompleted,
+          run.completionSeconds,
+          run.stepsCompleted,
+          run.isBroken() ? run.brokenPartName : "",
+          run.breakSeconds,
+          run.finalXMeters,
+          run.finalYMeters,
+          run.finalHeadingDegrees,
+          run.finalPlatformAngleDegrees));
+    }
+
+    return result;
+  }
+
+  private static Map<String, BiConsumer<HeadlessRobotParams, Double>> createSetters() {
+    Map<String, BiConsumer<HeadlessRobotParams, Double>> result =
+        new LinkedHashMap<String, BiConsumer<HeadlessRobotParams, Double>>();
+
+    // Start conditions
+    result.put("startXMeters", (p, v) -> p.startXMeters = v);
+    result.put("startYMeters", (p, v) -> p.startYMeters = v);
+    result.put("startHeadingDegrees", (p, v) -> p.startHeadingDegrees = v);
+    result.put("batteryVoltage", (p, v) -> p.batteryVoltage = v);
+    result.put("winchInitialSpooledMeters", (p, v) -> p.winchInitialSpooledMeters = v);
+
+    // Winch
+    result.put("totalStringLenMeters", (p, v) -> p.simParams.totalStringLenMeters = v);
+    result.put("winchSpoolDiameterMeters", (p, v) -> p.simParams.winchSpoolDiameterMeters = v);
+    result.put("winchSimGearRatio", (p, v) -> p.simParams.winchSimGearRatio = v);
+
+    // Extender
+    result.put("totalExtenderLenMeters", (p, v) -> p.simParams.totalExtenderLenMeters = v);
+    result.put("initialExtendedLen", (p, v) -> p.simParams.initialExtendedLen = v);
+    result.put("extenderSimGearRatio", (p, v) -> p.simParams.extenderSimGearRatio = v);
+    result.put("cylinderDiameterMeters", (p, v) -> p.simParams.cylinderDiameterMeters = v);
+
+    // Arm
+    result.put("armLengthFromEdgeToPivot",
+        (p, v) -> p.simParams.armLengthFromEdgeToPivot = v);
+    result.put("armHeightFromWinchToPivotPoint",
+        (p, v) -> p.simParams.armHeightFromWinchToPivotPoint = v);
+    result.put("armEncoderRotationsOffset",
+        (p, v) -> p.simParams.armEncoderRotationsOffset = v);
+    result.put("deltaRotationsBeforeBroken",
+        (p, v) -> p.simParams.deltaRotationsBeforeBroken = v);
+    result.put("grabberBreaksIfOpenBelowThisLimit",
+        (p, v) -> p.simParams.grabberBreaksIfOpenBelowThisLimit = v);
+    result.put("winchEncoderUpperLimit", (p, v) -> p.simParams.winchEncoderUpperLimit = v);
+    result.put("winchEncoderLowerLimit", (p, v) -> p.simParams.winchEncoderLowerLimit = v);
+
+    // Winch and extender motors
+    result.put("motorMomentOfInertia", (p, v) -> p.simParams.motorMomentOfInertia = v);
+
+    // Charge station
+    result.put("chargeStation.robotMassKg", (p, v) -> p.simParams.chargeStation.robotMassKg = v);
+    result.put("chargeStation.dampingCoefficient",
+        (p, v) -> p.simParams.chargeStation.dampingCoefficient = v);
+    result.put("chargeStation.frictionTorque",
+        (p, v) -> p.simParams.chargeStation.frictionTorque = v);
+    result.put("chargeStation.maxTiltDegrees",
+        (p, v) -> p.simParams.chargeStation.maxTiltDegrees = v);
+
+    return result;
+  }
+
+  /**
+   * Runs a sweep and writes the CSV.
+   * Arguments: one or more axes as name=min:max:steps or name=v1,v2,..., then optionally
+   * --modes=mode1;mode2 (default: every auto mode), --threads=N and --out=file.csv (default:
+   * sweep.csv).
+   */
+  public static void main(String[] args) throws IOException {
+    List<Axis> axes = new ArrayList<Axis>();
+    List<String> autoModes = Auto.getAllAutoModes();
+    int threadCount = Runtime.getRuntime().availableProcessors();
+    String outPath = "sweep.csv";
+
+    for (String arg : args) {
+      if (arg.startsWith("--modes=")) {
+        autoModes = Arrays.asList(arg.substring("--modes=".length()).split(";"));
+      }
+      else if (arg.startsWith("--threads=")) {
+        threadCount = Integer.parseInt(arg.substring("--threads=".length()));
+      }
+      else if (arg.startsWith("--out=")) {
+        outPath = arg.substring("--out=".length());
+      }
+      else {
+        axes.add(Axis.parse(arg));
+      }
+    }
+
+    if (axes.isEmpty()) {
+      System.out.println("Usage: ParameterSweep name=min:max:steps|name=v1,v2,... "
+          + "[--modes=mode1;mode2] [--threads=N] [--out=file.csv]");
+      System.out.println("Parameters: " + getParameterNames());
+      return;
+    }
+
+    ParameterSweep sweep = new ParameterSweep(axes, autoModes, threadCount);
+    long startTime = System.nanoTime();
+    long rowCount;
+    try (PrintWriter writer = new PrintWriter(outPath, "UTF-8")) {
+      rowCount = sweep.run(writer);
+    }
+    double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+    System.out.println(String.format("Wrote %d rows (%d grid points x %d modes) to %s "
+        + "on %d threads in %.1f seconds",
+        rowCount,
+        sweep.getPointCount(),
+        autoModes.size(),
+        outPath,
+        threadCount,
+        elapsedSeconds));
+  }
+}
@@ -0,0 +1,188 @@
+package frc.robot.tuning;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Separable CMA-ES (Ros and Hansen, 2008): a CMA-ES that only adapts the diagonal of the
+ * covariance matrix. With the handful of parameters we tune, this converges about as well as
+ * full CMA-ES, and doesn't need an eigen-decomposition every generation.
+ * <p>
+ * The search happens in [0, 1] for every dimension; callers map that to real parameter
+ * ranges. Usage is ask/tell, so that the caller decides how candidates are evaluated (e.g.
+ * on a thread pool). Lower fitness is better.
+ * </p>
+ */
+public class SepCmaEs {
+  private final int m_dimensions;
+  private final int m_populationSize;
+  private final int m_parentCount;
+  private final double[] m_weights;
+  private final double m_mueff;
+  private final double m_cs;
+  private final double m_cc;
+  private final double m_c1;
+  private final double m_cmu;
+  private final double m_damps;
+  private final double m_chiN;
+  private final Random m_random;
+
+  private final double[] m_mean;
+  private final double[] m_variances;
+  private final double[] m_ps;
+  private final double[] m_pc;
+  private double m_sigma;
+  private int m_generation;
+
+  /**
+   * Constructor.
+   *
+   * @param initialMean    starting point, each value in [0, 1]
+   * @param initialSigma   starting step size, as a fraction of the [0, 1] range
+   * @param populationSize candidates per generation, or 0 to use the CMA-ES default
+   * @param seed           random seed, so that runs are repeatable
+   */
+  public SepCmaEs(double[] initialMean, double initialSigma, int populationSize, long seed) {
+    if (initialMean == null || initialMean.length == 0) {
+      throw new IllegalArgumentException("initialMean cannot be null or empty");
+    }
+
+    if (initialSigma <= 0) {
+      throw new IllegalArgumentException("initialSigma must be >0");
+    }
+
+    int n = initialMean.length;
+    m_dimensions = n;
+    m_populationSize = (populationSize > 0) ? populationSize
+        : 4 + (int) Math.floor(3 * Math.log(n));
+    if (m_populationSize < 2) {
+      throw new IllegalArgumentException("populationSize must be >=2");
+    }
+
+    m_parentCount = m_populationSize / 2;
+    m_weights = new double[m_parentCount];
+    double sum = 0;
+    for (int i = 0; i < m_parentCount; i++) {
+      m_weights[i] = Math.log(m_parentCount + 0.5) - Math.log(i + 1);
+      sum += m_weights[i];
+    }
+
+    double sumSquares = 0;
+    for (int i = 0; i < m_parentCount; i++) {
+      m_weights[i] /= sum;
+      sumSquares += m_weights[i] * m_weights[i];
+    }
+    m_mueff = 1 / sumSquares;
+
+    m_cs = (m_mueff + 2) / (n + m_mueff + 5);
+    m_cc = (4 + m_mueff / n) / (n + 4 + 2 * m_mueff / n);
+    m_damps = 1 + 2 * Math.max(0, Math.sqrt((m_mueff - 1) / (n + 1)) - 1) + m_cs;
+
+    // Learning rates for the diagonal are (n + 2) / 3 times larger than for full CMA-ES
+    double c1 = 2 / ((n + 1.3) * (n + 1.3) + m_mueff);
+    double cmu = 2 * (m_mueff - 2 + 1 / m_mueff) / ((n + 2) * (n + 2) + m_mueff);
+    double sepFactor = (n + 2) / 3.0;
+    m_c1 = Math.min(1, c1 * sepFactor);
+    m_cmu = Math.min(1 - m_c1, cmu * sepFactor);
+    m_chiN = Math.sqrt(n) * (1 - 1.0 / (4 * n) + 1.0 / (21.0 * n * n));
+
+    m_random = new Random(seed);
+    m_mean = Arrays.copyOf(initialMean, n);
+    m_variances = new double[n];
+    Arrays.fill(m_variances, 1);
+    m_ps = new double[n];
+    m_pc = new double[n];
+    m_sigma = initialSigma;
+    m_generation = 0;
+  }
+
+  public int getPopulationSize() {
+    return m_populationSize;
+  }
+
+  public double getSigma() {
+    return m_sigma;
+  }
+
+  public int getGeneration() {
+    return m_generation;
+  }
+
+  public double[] getMean() {
+    return Arrays.copyOf(m_mean, m_dimensions);
+  }
+
+  /**
+   * Samples the next generation of candidates. Every value is clamped to [0, 1].
+   */
+  public double[][] ask() {
+    double[][] result = new double[m_populationSize][m_dimensions];
+    for (int k = 0; k < m_populationSize; k++) {
+      for (int i = 0; i < m_dimensions; i++) {
+        double value = m_mean[i]
+            + m_sigma * Math.sqrt(m_variances[i]) * m_random.nextGaussian();
+        result[k][i] = Math.max(0, Math.min(1, value));
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Updates the search distribution from the candidates returned by ask(), and their fitness.
+   */
+  public void tell(double[][] candidates, double[] fitness) {
+    if (candidates == null || fitness == null || candidates.length != m_populationSize
+        || fitness.length != m_populationSize) {
+      throw new IllegalArgumentException("Expected " + m_populationSize + " candidates");
+    }
+
+    Integer[] order = new Integer[m_populationSize];
+    for (int k = 0; k < m_populationSize; k++) {
+      order[k] = k;
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(fitness[a], fitness[b]));
+
+    // Weighted mean of the best steps. Steps are measured from the clamped candidates, so
+    // that the distribution learns from what was actually evaluated.
+    int n = m_dimensions;
+    double[] stepMean = new double[n];
+    double[][] steps = new double[m_parentCount][n];
+    for (int j = 0; j < m_parentCount; j++) {
+      double[] candidate = candidates[order[j]];
+      for (int i = 0; i < n; i++) {
+        steps[j][i] = (candidate[i] - m_mean[i]) / m_sigma;
+        stepMean[i] += m_weights[j] * steps[j][i];
+      }
+    }
+
+    double psNormSquared = 0;
+    for (int i = 0; i < n; i++) {
+      m_mean[i] += m_sigma * stepMean[i];
+      m_ps[i] = (1 - m_cs) * m_ps[i]
+          + Math.sqrt(m_cs * (2 - m_cs) * m_mueff) * stepMean[i] / Math.sqrt(m_variances[i]);
+      psNormSquared += m_ps[i] * m_ps[i];
+    }
+
+    m_generation++;
+    double psNorm = Math.sqrt(psNormSquared);
+    boolean hsig = psNorm / Math.sqrt(1 - Math.pow(1 - m_cs, 2 * m_generation)) / m_chiN
+        < 1.4 + 2.0 / (n + 1);
+
+    for (int i = 0; i < n; i++) {
+      m_pc[i] = (1 - m_cc) * m_pc[i]
+          + (hsig ? Math.sqrt(m_cc * (2 - m_cc) * m_mueff) * stepMean[i] : 0);
+
+      double rankMu = 0;
+      for (int j = 0; j < m_parentCount; j++) {
+        rankMu += m_weights[j] * steps[j][i] * steps[j][i];
+      }
+
+      double rankOne = m_pc[i] * m_pc[i]
+          + (hsig ? 0 : m_cc * (2 - m_cc) * m_variances[i]);
+      m_variances[i] = (1 - m_c1 - m_cmu) * m_variances[i] + m_c1 * rankOne + m_cmu * rankMu;
+    }
+
+    m_sigma *= Math.exp((m_cs / m_damps) * (psNorm / m_chiN - 1));
+  }
+}
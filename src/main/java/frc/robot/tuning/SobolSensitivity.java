@@ -0,0 +1,576 @@
+package frc.robot.tuning;
+
+import frc.robot.headless.HeadlessArm;
+import frc.robot.headless.HeadlessRobotParams;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Variance-based (Sobol) sensitivity analysis: which physical parameters the simulated
+ * outcomes actually depend on, and how much, so measurement effort on the real robot goes
+ * where it pays off.
+ * <p>
+ * Each factor is a ParameterSweep parameter, varied uniformly between a min and a max. The
+ * parameter space is sampled with Saltelli's scheme on a Sobol sequence: two matrices A and
+ * B of sampleCount points, plus one matrix per factor that is A with that factor's column
+ * taken from B. That's sampleCount * (factors + 2) model runs, spread over a thread pool.
+ * </p>
+ * <p>
+ * For every output, it reports the first-order index of each factor (the share of the
+ * output's variance explained by that factor alone, Saltelli 2010) and its total-effect
+ * index (the share that goes away if the factor is known exactly, including its
+ * interactions with the others, Jansen 1999). A total-effect index near 0 means the factor
+ * can be left at its nominal value. The +/- values are 95% bootstrap confidence intervals.
+ * </p>
+ * <p>
+ * Run from the command line with: ./gradlew runSobolSensitivity
+ * </p>
+ */
+public class SobolSensitivity {
+  // Outputs of armTiming()
+  public static final List<String> kArmTimingOutputs = List.of("raiseSeconds", "extendSeconds");
+
+  // armTiming(): raise the arm from its start to this absolute encoder reading, and extend
+  // to this fraction of the extender, timing out after kArmTimingMaxSeconds
+  private static final double kRaiseTargetRotations = 0.70;
+  private static final double kRaiseWinchSpeed = 0.5;
+  private static final double kExtendTargetPercent = 0.9;
+  // Negative extends
+  private static final double kExtendSpeed = -1.0;
+  private static final double kArmTimingMaxSeconds = 5.0;
+  private static final double kTickSeconds = 0.02;
+
+  // Samples per task submitted to the thread pool
+  private static final int kSamplesPerTask = 16;
+
+  private static final int kBootstrapResamples = 200;
+  private static final long kBootstrapSeed = 9036;
+  // z-score for 95% confidence intervals
+  private static final double kConfidenceZ = 1.96;
+
+  private final List<Factor> m_factors;
+  private final List<String> m_outputNames;
+  private final Model m_model;
+  private final int m_threadCount;
+
+  /**
+   * A parameter to vary, uniformly between min and max.
+   */
+  public static class Factor {
+    private final String m_name;
+    private final double m_min;
+    private final double m_max;
+
+    private Factor(String name, double min, double max) {
+      if (!ParameterSweep.getParameterNames().contains(name)) {
+        throw new IllegalArgumentException("Unknown parameter: " + name
+            + ". Known parameters: " + ParameterSweep.getParameterNames());
+      }
+
+      if (!(max > min)) {
+        throw new IllegalArgumentException("max must be > min");
+      }
+
+      m_name = name;
+      m_min = min;
+      m_max = max;
+    }
+
+    public static Factor uniform(String name, double min, double max) {
+      return new Factor(name, min, max);
+    }
+
+    /**
+     * Parses "name=min:max".
+     */
+    public static Factor parse(String text) {
+      int equals = text.indexOf('=');
+      String[] parts = (equals > 0) ? text.substring(equals + 1).split(":") : new String[0];
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Expected name=min:max: " + text);
+      }
+
+      try {
+        return uniform(text.substring(0, equals),
+            Double.parseDouble(parts[0]),
+            Double.parseDouble(parts[1]));
+      }
+      catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Bad number in: " + text, e);
+      }
+    }
+
+    public String getName() {
+      return m_name;
+    }
+
+    public double getMin() {
+      return m_min;
+    }
+
+    public double getMax() {
+      return m_max;
+    }
+
+    // Maps u in [0, 1) to the factor's range
+    double scale(double u) {
+      return m_min + u * (m_max - m_min);
+    }
+  }
+
+  /**
+   * What is analyzed: runs one simulation with the given params, and returns its outputs.
+   * Called from several threads at once, so it must not share state between calls.
+   */
+  @FunctionalInterface
+  public interface Model {
+    double[] evaluate(HeadlessRobotParams params);
+  }
+
+  /**
+   * Sensitivity indices of one output, one entry per factor, in factor order.
+   */
+  public static class OutputIndices {
+    @SuppressWarnings("checkstyle:MemberName")
+    public String outputName;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double mean;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double variance;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double[] firstOrder;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double[] firstOrderConfidence;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double[] totalEffect;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public double[] totalEffectConfidence;
+  }
+
+  /**
+   * Everything analyze() found.
+   */
+  public static class Result {
+    @SuppressWarnings("checkstyle:MemberName")
+    public List<String> factorNames = new ArrayList<String>();
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public int sampleCount;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public int evaluationCount;
+
+    @SuppressWarnings("checkstyle:MemberName")
+    public List<OutputIndices> outputs = new ArrayList<OutputIndices>();
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param factors     parameters to vary. Saltelli's scheme needs 2 Sobol dimensions per
+   *                    factor, so at most SobolSequence.kMaxDimensions / 2.
+   * @param outputNames names of the values model returns, in order
+   * @param model       the simulation to analyze, e.g. SobolSensitivity::armTiming
+   * @param threadCount number of model runs at the same time
+   */
+  public SobolSensitivity(List<Factor> factors,
+      List<String> outputNames,
+      Model model,
+      int threadCount) {
+    if (factors == null || factors.isEmpty()) {
+      throw new IllegalArgumentException("factors cannot be null or empty");
+    }
+
+    if (factors.size() * 2 > SobolSequence.kMaxDimensions) {
+      throw new IllegalArgumentException("At most " + SobolSequence.kMaxDimensions / 2
+          + " factors are supported");
+    }
+
+    if (outputNames == null || outputNames.isEmpty()) {
+      throw new IllegalArgumentException("outputNames cannot be null or empty");
+    }
+
+    if (model == null) {
+      throw new IllegalArgumentException("model cannot be null");
+    }
+
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("threadCount must be >0");
+    }
+
+    m_factors = new ArrayList<Factor>(factors);
+    m_outputNames = new ArrayList<String>(outputNames);
+    m_model = model;
+    m_threadCount = threadCount;
+  }
+
+  /**
+   * Times the arm chain (HeadlessArm) from its start position: how long the winch takes to
+   * raise the arm to 0.70 on the absolute encoder at half speed, and how long the extender
+   * takes to extend to 90% at full speed. Both run at the same time, and each stops once it
+   * gets there. A part that breaks or doesn't get there counts as kArmTimingMaxSeconds.
+   * Outputs are named in kArmTimingOutputs.
+   */
+  public static double[] armTiming(HeadlessRobotParams params) {
+    HeadlessArm arm = new HeadlessArm(params.simParams,
+        params.winchInitialSpooledMeters,
+        params.batteryVoltage);
+
+    double raiseSeconds = Double.NaN;
+    double extendSeconds = Double.NaN;
+    arm.setWinchSpeed(kRaiseWinchSpeed);
+    arm.setExtenderSpeed(kExtendSpeed);
+
+    int maxTicks = (int) Math.round(kArmTimingMaxSeconds / kTickSeconds);
+    for (int tick = 1; tick <= maxTicks; tick++) {
+      arm.step();
+      if (arm.getBrokenPartName() != null) {
+        break;
+      }
+
+      double seconds = tick * kTickSeconds;
+      if (Double.isNaN(raiseSeconds) && arm.getWinchAbsoluteEncoder() >= kRaiseTargetRotations) {
+        raiseSeconds = seconds;
+        arm.setWinchSpeed(0);
+      }
+
+      if (Double.isNaN(extendSeconds) && arm.getExtendedPercent() >= kExtendTargetPercent) {
+        extendSeconds = seconds;
+        arm.setExtenderSpeed(0);
+      }
+
+      if (!Double.isNaN(raiseSeconds) && !Double.isNaN(extendSeconds)) {
+        break;
+      }
+    }
+
+    return new double[] {
+        Double.isNaN(raiseSeconds) ? kArmTimingMaxSeconds : raiseSeconds,
+        Double.isNaN(extendSeconds) ? kArmTimingMaxSeconds : extendSeconds
+    };
+  }
+
+  /**
+   * Returns simulator defaults with the factors set to the given values, in factor order.
+   */
+  public HeadlessRobotParams createParams(double[] factorValues) {
+    HeadlessRobotParams result = new HeadlessRobotParams();
+    for (int i = 0; i < m_factors.size(); i++) {
+      ParameterSweep.setParameter(result, m_factors.get(i).m_name, factorValues[i]);
+    }
+
+    return result;
+  }
+
+  /**
+   * Runs the model sampleCount * (factors + 2) times and computes the indices. sampleCount
+   * is best a power of 2, where the Sobol points are the most even.
+   */
+  public Result analyze(int sampleCount) {
+    if (sampleCount < 2) {
+      throw new IllegalArgumentException("sampleCount must be >1");
+    }
+
+    int factorCount = m_factors.size();
+    int outputCount = m_outputNames.size();
+
+    // Row j of A is the first half of Sobol point j, row j of B the second half
+    double[][] matrixA = new double[sampleCount][factorCount];
+    double[][] matrixB = new double[sampleCount][factorCount];
+    SobolSequence sequence = new SobolSequence(2 * factorCount);
+    double[] point = new double[2 * factorCount];
+    for (int j = 0; j < sampleCount; j++) {
+      sequence.next(point);
+      for (int i = 0; i < factorCount; i++) {
+        matrixA[j][i] = m_factors.get(i).scale(point[i]);
+        matrixB[j][i] = m_factors.get(i).scale(point[factorCount + i]);
+      }
+    }
+
+    // outputs[j][0] is f(A_j), [1] is f(B_j), [2 + i] is f(A_j with column i from B_j)
+    double[][][] outputs = new double[sampleCount][][];
+    ExecutorService executor = Executors.newFixedThreadPool(m_threadCount);
+    try {
+      List<Future<double[][][]>> futures = new ArrayList<Future<double[][][]>>();
+      for (int first = 0; first < sampleCount; first += kSamplesPerTask) {
+        int start = first;
+        int end = Math.min(sampleCount, first + kSamplesPerTask);
+        futures.add(executor.submit(() -> evaluateRange(matrixA, matrixB, start, end)));
+      }
+
+      int j = 0;
+      for (Future<double[][][]> future : futures) {
+        for (double[][] sampleOutputs : future.get()) {
+          outputs[j++] = sampleOutputs;
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Sensitivity analysis was interrupted", e);
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException("Simulation failed", e.getCause());
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    Result result = new Result();
+    for (Factor factor : m_factors) {
+      result.factorNames.add(factor.m_name);
+    }
+    result.sampleCount = sampleCount;
+    result.evaluationCount = sampleCount * (factorCount + 2);
+
+    for (int k = 0; k < outputCount; k++) {
+      double[][] values = new double[factorCount + 2][sampleCount];
+      for (int j = 0; j < sampleCount; j++) {
+        for (int m = 0; m < factorCount + 2; m++) {
+          values[m][j] = outputs[j][m][k];
+        }
+      }
+
+      result.outputs.add(computeIndices(m_outputNames.get(k), values));
+    }
+
+    return result;
+  }
+
+  private double[][][] evaluateRange(double[][] matrixA, double[][] matrixB, int start,
+      int end) {
+    int factorCount = m_factors.size();
+    double[][][] result = new double[end - start][factorCount + 2][];
+    double[] mixed = new double[factorCount];
+
+    for (int j = start; j < end; j++) {
+      double[][] sampleOutputs = result[j - start];
+      sampleOutputs[0] = evaluate(matrixA[j]);
+      sampleOutputs[1] = evaluate(matrixB[j]);
+
+      for (int i = 0; i < factorCount; i++) {
+        System.arraycopy(matrixA[j], 0, mixed, 0, factorCount);
+        mixed[i] = matrixB[j][i];
+        sampleOutputs[2 + i] = evaluate(mixed);
+      }
+    }
+
+    return result;
+  }
+
+  private double[] evaluate(double[] factorValues) {
+    double[] result = m_model.evaluate(createParams(factorValues));
+    if (result == null || result.length != m_outputNames.size()) {
+      throw new IllegalStateException("model must return " + m_outputNames.size()
+          + " outputs");
+    }
+
+    return result;
+  }
+
+  // values[0] is f(A), values[1] is f(B), values[2 + i] is f(A with column i from B)
+  private static OutputIndices computeIndices(String outputName, double[][] values) {
+    int factorCount = values.length - 2;
+    int sampleCount = values[0].length;
+
+    OutputIndices result = new OutputIndices();
+    result.outputName = outputName;
+    result.firstOrder = new double[factorCount];
+    result.totalEffect = new double[factorCount];
+    result.firstOrderConfidence = new double[factorCount];
+    result.totalEffectConfidence = new double[factorCount];
+
+    int[] allSamples = new int[sampleCount];
+    for (int j = 0; j < sampleCount; j++) {
+      allSamples[j] = j;
+    }
+
+    double[] meanAndVariance = meanAndVariance(values, allSamples);
+    result.mean = meanAndVariance[0];
+    result.variance = meanAndVariance[1];
+
+    // Same resamples for every factor, from a fixed seed, so reports are repeatable
+    Random random = new Random(kBootstrapSeed);
+    int[][] resamples = new int[kBootstrapResamples][sampleCount];
+    for (int[] resample : resamples) {
+      for (int j = 0; j < sampleCount; j++) {
+        resample[j] = random.nextInt(sampleCount);
+      }
+    }
+
+    double[][] bootstrapMeansAndVariances = new double[kBootstrapResamples][];
+    for (int r = 0; r < kBootstrapResamples; r++) {
+      bootstrapMeansAndVariances[r] = meanAndVariance(values, resamples[r]);
+    }
+
+    double[] firstOrders = new double[kBootstrapResamples];
+    double[] totalEffects = new double[kBootstrapResamples];
+    for (int i = 0; i < factorCount; i++) {
+      double[] indices = indices(values, i, allSamples, meanAndVariance);
+      result.firstOrder[i] = indices[0];
+      result.totalEffect[i] = indices[1];
+
+      for (int r = 0; r < kBootstrapResamples; r++) {
+        indices = indices(values, i, resamples[r], bootstrapMeansAndVariances[r]);
+        firstOrders[r] = indices[0];
+        totalEffects[r] = indices[1];
+      }
+      result.firstOrderConfidence[i] = kConfidenceZ * stdDev(firstOrders);
+      result.totalEffectConfidence[i] = kConfidenceZ * stdDev(totalEffects);
+    }
+
+    return result;
+  }
+
+  // Mean and variance of f(A) and f(B) together, over the given samples
+  private static double[] meanAndVariance(double[][] values, int[] samples) {
+    double sum = 0;
+    for (int j : samples) {
+      sum += values[0][j] + values[1][j];
+    }
+    double mean = sum / (2 * samples.length);
+
+    double sumSquares = 0;
+    for (int j : samples) {
+      sumSquares += (values[0][j] - mean) * (values[0][j] - mean)
+          + (values[1][j] - mean) * (values[1][j] - mean);
+    }
+
+    return new double[] {
+        mean, sumSquares / (2 * samples.length)
+    };
+  }
+
+  // {first-order, total-effect} of factor i over the given samples. NaN if the output
+  // doesn't vary at all.
+  private static double[] indices(double[][] values,
+      int i,
+      int[] samples,
+      double[] meanAndVariance) {
+    double mean = meanAndVariance[0];
+    double variance = meanAndVariance[1];
+    if (variance == 0) {
+      return new double[] {
+          Double.NaN, Double.NaN
+      };
+    }
+
+    double[] outputA = values[0];
+    double[] outputB = values[1];
+    double[] outputAB = values[2 + i];
+    double firstOrderSum = 0;
+    double totalEffectSum = 0;
+    for (int j : samples) {
+      // Centering f(B) doesn't change what this estimates, but makes it much less noisy
+      // when the output's mean is large compared to how much it varies
+      firstOrderSum += (outputB[j] - mean) * (outputAB[j] - outputA[j]);
+      totalEffectSum += (outputA[j] - outputAB[j]) * (outputA[j] - outputAB[j]);
+    }
+
+    return new double[] {
+        firstOrderSum / samples.length / variance,
+        totalEffectSum / (2 * samples.length) / variance
+    };
+  }
+
+  private static double stdDev(double[] values) {
+    double mean = Arrays.stream(values).average().orElse(Double.NaN);
+    double sumSquares = 0;
+    for (double value : values) {
+      sumSquares += (value - mean) * (value - mean);
+    }
+
+    return Math.sqrt(sumSquares / Math.max(1, values.length - 1));
+  }
+
+  /**
+   * Formats the result as one table per output, factors sorted by total effect, largest
+   * first.
+   */
+  public static String formatReport(Result result) {
+    StringBuilder report = new StringBuilder();
+    report.append(String.format("Sobol sensitivity: %d samples, %d model runs%n",
+        result.sampleCount, result.evaluationCount));
+
+    for (OutputIndices output : result.outputs) {
+      report.append(String.format("%n%s (mean %.3f, std dev %.3f)%n", output.outputName,
+          output.mean, Math.sqrt(output.variance)));
+      report.append(String.format("  %-32s %18s %18s%n", "factor", "first order",
+          "total effect"));
+
+      Integer[] order = new Integer[output.totalEffect.length];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> Double.compare(output.totalEffect[b],
+          output.totalEffect[a]));
+
+      for (int i : order) {
+        report.append(String.format("  %-32s %7.3f +/- %6.3f %7.3f +/- %6.3f%n",
+            result.factorNames.get(i),
+            output.firstOrder[i],
+            output.firstOrderConfidence[i],
+            output.totalEffect[i],
+            output.totalEffectConfidence[i]));
+      }
+    }
+
+    return report.toString();
+  }
+
+  /**
+   * Analyzes armTiming() and prints the report.
+   * Arguments: factors as name=min:max (default: winch gear ratio and spool diameter, arm
+   * length, motor inertia and battery voltage, around their nominal values), then optionally
+   * --samples=N (default: 1024) and --threads=N.
+   */
+  public static void main(String[] args) {
+    List<Factor> factors = new ArrayList<Factor>();
+    int sampleCount = 1024;
+    int threadCount = Runtime.getRuntime().availableProcessors();
+
+    for (String arg : args) {
+      if (arg.startsWith("--samples=")) {
+        sampleCount = Integer.parseInt(arg.substring("--samples=".length()));
+      }
+      else if (arg.startsWith("--threads=")) {
+        threadCount = Integer.parseInt(arg.substring("--threads=".length()));
+      }
+      else {
+        factors.add(Factor.parse(arg));
+      }
+    }
+
+    if (factors.isEmpty()) {
+      factors.add(Factor.uniform("winchSimGearRatio", 16, 24));
+      factors.add(Factor.uniform("winchSpoolDiameterMeters", 0.0229, 0.0279));
+      factors.add(Factor.uniform("armLengthFromEdgeToPivot", 0.225, 0.275));
+      factors.add(Factor.uniform("motorMomentOfInertia", 0.00025, 0.001));
+      factors.add(Factor.uniform("batteryVoltage", 11.5, 12.8));
+    }
+
+    long startTime = System.nanoTime();
+    SobolSensitivity sensitivity = new SobolSensitivity(factors, kArmTimingOutputs,
+        SobolSensitivity::armTiming, threadCount);
+    Result result = sensitivity.analyze(sampleCount);
+    double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+    System.out.print(formatReport(result));
+    System.out.println(String.format("%nRan %d simulations on %d threads in %.1f seconds",
+        result.evaluationCount,
+        threadCount,
+        elapsedSeconds));
+  }
+}
@@ -0,0 +1,116 @@
+package frc.robot.tuning;
+
+/**
+ * Quasi-random points in the unit hypercube, from the Sobol sequence. Unlike random points,
+ * the first 2^m points cover every dimension evenly (exactly one point in each of 2^m
+ * equal slices), so averages over them converge much faster than Monte Carlo.
+ * <p>
+ * Direction numbers are the first 16 dimensions of Joe and Kuo's new-joe-kuo-6.21201 table.
+ * Points are generated in Gray code order, and the first point (all 0s) is skipped.
+ * </p>
+ */
+public class SobolSequence {
+  public static final int kMaxDimensions = 16;
+
+  private static final int kBits = 31;
+  private static final double kScale = 1.0 / (1L << kBits);
+
+  // Per dimension after the first: degree s and coefficients a of the primitive polynomial,
+  // then the initial direction numbers m_1 to m_s
+  private static final int[][] kDirectionNumbers = {
+      {1, 0, 1},
+      {2, 1, 1, 3},
+      {3, 1, 1, 3, 1},
+      {3, 2, 1, 1, 1},
+      {4, 1, 1, 1, 3, 3},
+      {4, 4, 1, 3, 5, 13},
+      {5, 2, 1, 1, 5, 5, 17},
+      {5, 4, 1, 1, 5, 5, 5},
+      {5, 7, 1, 1, 7, 11, 19},
+      {5, 11, 1, 1, 5, 1, 1},
+      {5, 13, 1, 1, 1, 3, 11},
+      {5, 14, 1, 3, 5, 5, 31},
+      {6, 1, 1, 3, 3, 9, 7, 49},
+      {6, 13, 1, 1, 1, 15, 21, 21},
+      {6, 16, 1, 3, 1, 13, 27, 49}
+  };
+
+  private final int m_dimensions;
+  // m_directions[d][k] is XORed in when bit k is the lowest bit that changes
+  private final int[][] m_directions;
+  private final int[] m_current;
+  private long m_index = 0;
+
+  /**
+   * Constructor.
+   *
+   * @param dimensions number of coordinates of each point, from 1 to kMaxDimensions
+   */
+  public SobolSequence(int dimensions) {
+    if (dimensions < 1 || dimensions > kMaxDimensions) {
+      throw new IllegalArgumentException("dimensions must be between 1 and " + kMaxDimensions);
+    }
+
+    m_dimensions = dimensions;
+    m_directions = new int[dimensions][kBits];
+    m_current = new int[dimensions];
+
+    for (int k = 0; k < kBits; k++) {
+      m_directions[0][k] = 1 << (kBits - 1 - k);
+    }
+
+    for (int d = 1; d < dimensions; d++) {
+      int[] numbers = kDirectionNumbers[d - 1];
+      int degree = numbers[0];
+      int coefficients = numbers[1];
+      int[] directions = m_directions[d];
+
+      for (int k = 0; k < degree; k++) {
+        directions[k] = numbers[2 + k] << (kBits - 1 - k);
+      }
+
+      for (int k = degree; k < kBits; k++) {
+        int value = directions[k - degree] ^ (directions[k - degree] >>> degree);
+        for (int j = 1; j < degree; j++) {
+          if (((coefficients >>> (degree - 1 - j)) & 1) != 0) {
+            value ^= directions[k - j];
+          }
+        }
+        directions[k] = value;
+      }
+    }
+  }
+
+  public int getDimensions() {
+    return m_dimensions;
+  }
+
+  /**
+   * Writes the next point into point, each coordinate in [0, 1).
+   */
+  public void next(double[] point) {
+    if (point == null || point.length < m_dimensions) {
+      throw new IllegalArgumentException("point must hold at least getDimensions() values");
+    }
+
+    if (m_index == (1L << kBits) - 1) {
+      throw new IllegalStateException("No more points in the sequence");
+    }
+
+    m_index++;
+    int bit = Long.numberOfTrailingZeros(m_index);
+    for (int d = 0; d < m_dimensions; d++) {
+      m_current[d] ^= m_directions[d][bit];
+      point[d] = m_current[d] * kScale;
+    }
+  }
+
+  /**
+   * Returns the next point, each coordinate in [0, 1).
+   */
+  public double[] next() {
+    double[] result = new double[m_dimensions];
+    next(result);
+    return result;
+  }
+}
@@ -0,0 +1,47 @@
+package frc.robot.whatif;
+
+/**
+ * How one what-if branch ended.
+ */
+public class BranchOutcome {
+  @SuppressWarnings("checkstyle:MemberName")
+  public String branchName;
+
+  // Simulated seconds since the fork
+  @SuppressWarnings("checkstyle:MemberName")
+  public double seconds;
+
+  // Name of the first part that broke ("Winch", "Extender" or "Arm"), or null
+  @SuppressWarnings("checkstyle:MemberName")
+  public String brokenPartName;
+
+  // Seconds since the fork when it broke, or NaN
+  @SuppressWarnings("checkstyle:MemberName")
+  public double brokenAtSeconds = Double.NaN;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double xMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double yMeters;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double headingDegrees;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double winchAbsoluteEncoder;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public double extendedPercent;
+
+  @SuppressWarnings("checkstyle:MemberName")
+  public boolean isGrabberOpen;
+
+  // How long the branch took to simulate
+  @SuppressWarnings("checkstyle:MemberName")
+  public double wallSeconds;
+
+  public boolean isBroken() {
+    return brokenPartName != null;
+  }
+}
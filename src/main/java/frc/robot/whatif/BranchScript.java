@@ -0,0 +1,15 @@
+package frc.robot.whatif;
+
+import frc.robot.headless.HeadlessRobot;
+
+/**
+ * What the robot code does in one what-if branch, e.g. a TimedBranchScript.
+ */
+@FunctionalInterface
+public interface BranchScript {
+  /**
+   * Sets the robot's motors and grabber for the tick at branchSeconds (since the fork).
+   * Called once per 20ms tick, before the robot steps.
+   */
+  void apply(double branchSeconds, HeadlessRobot robot);
+}
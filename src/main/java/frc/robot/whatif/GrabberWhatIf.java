@@ -0,0 +1,113 @@
+package frc.robot.whatif;
+
+import frc.robot.headless.HeadlessRobotParams;
+import frc.robot.headless.RobotSnapshot;
+import frc.robot.helpers.DashboardToggles;
+import frc.robot.subsystems.ArmSystemSim;
+import frc.robot.subsystems.TankDriveSystemSim;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import simulationlib.simulation.framework.SimClock;
+
+/**
+ * A dashboard button that forks the simulated robot into what-if branches that open the
+ * grabber now, half a second later, or not at all, and prints how each one ended up once
+ * they're done. The robot keeps running while they do.
+ * <p>
+ * It only exists in simulation, since it forks the sim models. RobotContainer creates it
+ * with the simulated subsystems.
+ * </p>
+ */
+public class GrabberWhatIf {
+  private static final String kForkKey = "WhatIf/Fork grabber timing";
+  private static final double kSeconds = 3.0;
+
+  private final ArmSystemSim m_armSystem;
+  private final TankDriveSystemSim m_driveSystem;
+  private final SimClock m_clock;
+
+  // Created on the first fork, so the worker threads only exist once they're needed
+  private WhatIfBrancher m_brancher = null;
+
+  // Branches running in the background, otherwise null
+  private RobotSnapshot m_snapshot = null;
+  private Future<List<BranchOutcome>> m_outcomes = null;
+
+  /**
+   * Constructor.
+   *
+   * @param armSystem   the simulated arm and grabber
+   * @param driveSystem the simulated drivetrain
+   * @param clock       the clock of the robot program
+   */
+  public GrabberWhatIf(ArmSystemSim armSystem, TankDriveSystemSim driveSystem, SimClock clock) {
+    if (armSystem == null) {
+      throw new IllegalArgumentException("armSystem cannot be null");
+    }
+
+    if (driveSystem == null) {
+      throw new IllegalArgumentException("driveSystem cannot be null");
+    }
+
+    if (clock == null) {
+      throw new IllegalArgumentException("clock cannot be null");
+    }
+
+    m_armSystem = armSystem;
+    m_driveSystem = driveSystem;
+    m_clock = clock;
+  }
+
+  /**
+   * Adds the dashboard button that forks the branches.
+   */
+  public void addToggles(DashboardToggles toggles) {
+    toggles.addButton(kForkKey, this::fork);
+  }
+
+  /**
+   * Call every loop. Prints how the branches ended up, once they're done.
+   */
+  public void periodic() {
+    if (m_outcomes == null || !m_outcomes.isDone()) {
+      return;
+    }
+
+    try {
+      System.out.print(WhatIfBrancher.formatReport(m_snapshot, m_outcomes.get()));
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    catch (ExecutionException e) {
+      System.out.println("WARNING: What-if branches failed: " + e.getCause());
+    }
+
+    m_outcomes = null;
+  }
+
+  /**
+   * Forks the branches from where the simulated robot is now, unless the last ones are still
+   * running.
+   */
+  public void fork() {
+    if (m_outcomes != null) {
+      return;
+    }
+
+    if (m_brancher == null) {
+      m_brancher = new WhatIfBrancher(
+          Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+          new HeadlessRobotParams());
+    }
+
+    m_snapshot = WhatIfBrancher.capture(m_armSystem, m_driveSystem, m_clock);
+    m_outcomes = m_brancher.fork(m_snapshot, List.of(
+        new WhatIfBranch("As is", new TimedBranchScript()),
+        new WhatIfBranch("Open grabber now", new TimedBranchScript().openGrabberAt(0)),
+        new WhatIfBranch("Open grabber +0.5s", new TimedBranchScript().openGrabberAt(0.5)),
+        new WhatIfBranch("Close grabber now", new TimedBranchScript().closeGrabberAt(0))),
+        kSeconds);
+  }
+}
@@ -0,0 +1,104 @@
+package frc.robot.whatif;
+
+import frc.robot.headless.HeadlessDrivetrain;
+import frc.robot.headless.HeadlessRobot;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A BranchScript written as a list of timed actions, e.g. "open the grabber at 0.5s" and
+ * "run the winch at -0.3 from 0s to 2s". Outside of the actions, the robot keeps doing what
+ * it was last told, starting with what the robot code was doing when the branch was forked.
+ */
+public class TimedBranchScript implements BranchScript {
+  // Ticks land on multiples of 20ms, give or take rounding
+  private static final double kEpsilon = 1e-9;
+
+  private static class TimedAction {
+    private final double m_startSeconds;
+    private final double m_endSeconds;
+    private final Consumer<HeadlessRobot> m_action;
+
+    TimedAction(double startSeconds, double endSeconds, Consumer<HeadlessRobot> action) {
+      m_startSeconds = startSeconds;
+      m_endSeconds = endSeconds;
+      m_action = action;
+    }
+  }
+
+  private final List<TimedAction> m_actions = new ArrayList<TimedAction>();
+
+  /**
+   * Runs action every tick from startSeconds until endSeconds (since the fork). Returns this,
+   * so calls can be chained.
+   */
+  public TimedBranchScript during(double startSeconds,
+      double endSeconds,
+      Consumer<HeadlessRobot> action) {
+    if (endSeconds < startSeconds) {
+      throw new IllegalArgumentException("endSeconds must be >= startSeconds");
+    }
+
+    if (action == null) {
+      throw new IllegalArgumentException("action cannot be null");
+    }
+
+    m_actions.add(new TimedAction(startSeconds, endSeconds, action));
+    return this;
+  }
+
+  /**
+   * Runs action once, on the first tick at or after seconds.
+   */
+  public TimedBranchScript at(double seconds, Consumer<HeadlessRobot> action) {
+    return during(seconds, seconds + HeadlessDrivetrain.kTickSeconds, action);
+  }
+
+  public TimedBranchScript openGrabberAt(double seconds) {
+    return at(seconds, robot -> robot.openGrabber());
+  }
+
+  public TimedBranchScript closeGrabberAt(double seconds) {
+    return at(seconds, robot -> robot.closeGrabber());
+  }
+
+  /**
+   * Runs the winch at speed from startSeconds until endSeconds, and stops it after.
+   */
+  public TimedBranchScript holdWinchSpeed(double startSeconds, double endSeconds, double speed) {
+    during(startSeconds, endSeconds, robot -> robot.setWinchSpeed(speed));
+    return at(endSeconds, robot -> robot.setWinchSpeed(0));
+  }
+
+  /**
+   * Runs the extender at speed from startSeconds until endSeconds, and stops it after.
+   */
+  public TimedBranchScript holdExtenderSpeed(double startSeconds,
+      double endSeconds,
+      double speed) {
+    during(startSeconds, endSeconds, robot -> robot.setExtenderSpeed(speed));
+    return at(endSeconds, robot -> robot.setExtenderSpeed(0));
+  }
+
+  /**
+   * Drives at the given tank speeds from startSeconds until endSeconds, and stops after.
+   */
+  public TimedBranchScript holdTankDrive(double startSeconds,
+      double endSeconds,
+      double leftSpeed,
+      double rightSpeed) {
+    during(startSeconds, endSeconds, robot -> robot.tankDrive(leftSpeed, rightSpeed, false));
+    return at(endSeconds, robot -> robot.tankDrive(0, 0, false));
+  }
+
+  @Override
+  public void apply(double branchSeconds, HeadlessRobot robot) {
+    for (TimedAction action : m_actions) {
+      if (branchSeconds >= action.m_startSeconds - kEpsilon
+          && branchSeconds < action.m_endSeconds - kEpsilon) {
+        action.m_action.accept(robot);
+      }
+    }
+  }
+}
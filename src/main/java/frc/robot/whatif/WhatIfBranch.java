@@ -0,0 +1,34 @@
+package frc.robot.whatif;
+
+/**
+ * One alternative to try from a snapshot: a name for the report, and what the robot code
+ * does in it.
+ */
+public class WhatIfBranch {
+  private final String m_name;
+  private final BranchScript m_script;
+
+  /**
+   * Constructor.
+   */
+  public WhatIfBranch(String name, BranchScript script) {
+    if (name == null || name.isEmpty()) {
+      throw new IllegalArgumentException("name cannot be null or empty");
+    }
+
+    if (script == null) {
+      throw new IllegalArgumentException("script cannot be null");
+    }
+
+    m_name = name;
+    m_script = script;
+  }
+
+  public String getName() {
+    return m_name;
+  }
+
+  public BranchScript getScript() {
+    return m_script;
+  }
+}
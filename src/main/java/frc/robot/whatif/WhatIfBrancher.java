@@ -0,0 +1,243 @@
+package frc.robot.whatif;
+
+import frc.robot.headless.HeadlessDrivetrain;
+import frc.robot.headless.HeadlessRobot;
+import frc.robot.headless.HeadlessRobotParams;
+import frc.robot.headless.RobotSnapshot;
+import frc.robot.subsystems.ArmSystemSim;
+import frc.robot.subsystems.TankDriveSystemSim;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import simulationlib.simulation.drive.DriveState;
+import simulationlib.simulation.drive.MutablePose2d;
+import simulationlib.simulation.framework.SimClock;
+import simulationlib.simulation.framework.SimManager;
+
+/**
+ * Answers "what if I had done this instead?" while the simulator keeps running. capture()
+ * takes a snapshot of the simulated robot between two ticks, and fork() runs each branch from
+ * that snapshot on a HeadlessRobot, in the background, as fast as the CPU allows.
+ * <p>
+ * Branches continue the arm models (winch motor, winch, arm angle, arm, extender motor,
+ * extender) and the charge station exactly where the simulator left them, including the
+ * grabber and whether something broke. The drivetrain continues from the same pose and
+ * wheel speeds, but on HeadlessDrivetrain, which is simpler than DriveSimModel.
+ * </p>
+ * <p>
+ * The worker threads are daemon threads at the lowest priority, so they don't hold up the
+ * robot program or keep it from exiting.
+ * </p>
+ */
+public class WhatIfBrancher implements AutoCloseable {
+  private final HeadlessRobotParams m_params;
+  private final ExecutorService m_executor;
+
+  /**
+   * Constructor.
+   *
+   * @param threadCount number of branches to simulate at the same time
+   * @param params      physical constants and battery voltage of the branches. The start
+   *                    pose comes from the snapshot, and the sensors have no noise.
+   */
+  public WhatIfBrancher(int threadCount, HeadlessRobotParams params) {
+    if (threadCount < 1) {
+      throw new IllegalArgumentException("threadCount must be >0");
+    }
+
+    if (params == null) {
+      throw new IllegalArgumentException("params cannot be null");
+    }
+
+    m_params = new HeadlessRobotParams(params);
+    m_params.driveEncoderNoiseRotations = 0;
+    m_params.absoluteEncoderNoiseRotations = 0;
+
+    m_executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+      Thread thread = new Thread(runnable, "WhatIfBrancher");
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    });
+  }
+
+  /**
+   * Takes a snapshot of the simulated robot. Call from the robot thread, between two ticks,
+   * e.g. in robotPeriodic(). Only copies a few dozen doubles.
+   */
+  public static RobotSnapshot capture(ArmSystemSim armSystem,
+      TankDriveSystemSim driveSystem,
+      SimClock clock) {
+    if (armSystem == null || driveSystem == null || clock == null) {
+      throw new IllegalArgumentException("armSystem, driveSystem and clock cannot be null");
+    }
+
+    RobotSnapshot result = new RobotSnapshot();
+    result.seconds = clock.getSeconds();
+
+    DriveState driveState = driveSystem.getDriveState();
+    MutablePose2d pose = driveState.getPhysicalWorldMutablePose();
+    result.xMeters = pose.getXMeters();
+    result.yMeters = pose.getYMeters();
+    result.headingRadians = pose.getHeadingRadians();
+    result.leftVelocity = driveState.getLeftVelocity();
+    result.rightVelocity = driveState.getRightVelocity();
+
+    List<SimManager<?, ?>> armSimManagers = armSystem.getSimManagersInStepOrder();
+    int stateSize = 0;
+    for (SimManager<?, ?> simManager : armSimManagers) {
+      stateSize += simManager.getStateSize();
+    }
+
+    result.armState = new double[stateSize];
+    int offset = 0;
+    for (SimManager<?, ?> simManager : armSimManagers) {
+      simManager.saveState(result.armState, offset);
+      offset += simManager.getStateSize();
+    }
+
+    result.winchSpeed = armSystem.getWinchSpeed();
+    result.extenderSpeed = armSystem.getExtenderSpeed();
+    result.isGrabberOpen = armSystem.isGrabberOpen();
+
+    SimManager<?, ?> chargeStationSimManager = driveSystem.getChargeStationSimManager();
+    result.chargeStationState = new double[chargeStationSimManager.getStateSize()];
+    chargeStationSimManager.saveState(result.chargeStationState, 0);
+
+    return result;
+  }
+
+  /**
+   * Starts running every branch from the snapshot for the given number of seconds, and
+   * returns right away. The future gives the outcomes in the same order as branches.
+   */
+  public Future<List<BranchOutcome>> fork(RobotSnapshot snapshot,
+      List<WhatIfBranch> branches,
+      double seconds) {
+    if (snapshot == null) {
+      throw new IllegalArgumentException("snapshot cannot be null");
+    }
+
+    if (branches == null || branches.isEmpty()) {
+      throw new IllegalArgumentException("branches cannot be null or empty");
+    }
+
+    if (seconds <= 0) {
+      throw new IllegalArgumentException("seconds must be >0");
+    }
+
+    // The branches only read the snapshot, so they can share this copy
+    RobotSnapshot snapshotCopy = new RobotSnapshot(snapshot);
+
+    List<CompletableFuture<BranchOutcome>> futures =
+        new ArrayList<CompletableFuture<BranchOutcome>>();
+    for (WhatIfBranch branch : branches) {
+      futures.add(CompletableFuture.supplyAsync(
+          () -> runBranch(m_params, snapshotCopy, branch, seconds), m_executor));
+    }
+
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+        .thenApply(unused -> {
+          List<BranchOutcome> result = new ArrayList<BranchOutcome>();
+          for (CompletableFuture<BranchOutcome> future : futures) {
+            result.add(future.join());
+          }
+
+          return result;
+        });
+  }
+
+  /**
+   * Same as fork(), but waits for the outcomes.
+   */
+  public List<BranchOutcome> run(RobotSnapshot snapshot,
+      List<WhatIfBranch> branches,
+      double seconds) {
+    try {
+      return fork(snapshot, branches, seconds).get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("What-if branches were interrupted", e);
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException("Simulation failed", e.getCause());
+    }
+  }
+
+  /**
+   * Runs one branch on its own HeadlessRobot.
+   */
+  public static BranchOutcome runBranch(HeadlessRobotParams params,
+      RobotSnapshot snapshot,
+      WhatIfBranch branch,
+      double seconds) {
+    long startNanos = System.nanoTime();
+    HeadlessRobot robot = new HeadlessRobot(params, null);
+    robot.restoreSnapshot(snapshot);
+
+    BranchOutcome result = new BranchOutcome();
+    result.branchName = branch.getName();
+    result.brokenPartName = robot.getArm().getBrokenPartName();
+    if (result.isBroken()) {
+      result.brokenAtSeconds = 0;
+    }
+
+    int ticks = (int) Math.round(seconds / HeadlessDrivetrain.kTickSeconds);
+    for (int tick = 0; tick < ticks; tick++) {
+      branch.getScript().apply(tick * HeadlessDrivetrain.kTickSeconds, robot);
+      robot.step();
+
+      if (!result.isBroken()) {
+        result.brokenPartName = robot.getArm().getBrokenPartName();
+        if (result.isBroken()) {
+          result.brokenAtSeconds = (tick + 1) * HeadlessDrivetrain.kTickSeconds;
+        }
+      }
+    }
+
+    result.seconds = ticks * HeadlessDrivetrain.kTickSeconds;
+    result.xMeters = robot.getDrivetrain().getXMeters();
+    result.yMeters = robot.getDrivetrain().getYMeters();
+    result.headingDegrees = Math.toDegrees(robot.getDrivetrain().getHeadingRadians());
+    result.winchAbsoluteEncoder = robot.getArm().getWinchAbsoluteEncoder();
+    result.extendedPercent = robot.getArm().getExtendedPercent();
+    result.isGrabberOpen = robot.getArm().isGrabberOpen();
+    result.wallSeconds = (System.nanoTime() - startNanos) / 1e9;
+    return result;
+  }
+
+  /**
+   * Returns the outcomes as a table, one row per branch, to print side by side.
+   */
+  public static String formatReport(RobotSnapshot snapshot, List<BranchOutcome> outcomes) {
+    StringBuilder result = new StringBuilder();
+    result.append(String.format("What-if branches from %.2fs%n", snapshot.seconds));
+    result.append(String.format("  %-24s %8s %8s %8s %8s %9s %8s  %s%n", "Branch", "X (m)",
+        "Y (m)", "Heading", "Winch", "Extended", "Grabber", "Broken"));
+
+    for (BranchOutcome outcome : outcomes) {
+      String broken = outcome.isBroken()
+          ? String.format("%s at +%.2fs", outcome.brokenPartName, outcome.brokenAtSeconds)
+          : "-";
+      result.append(String.format("  %-24s %8.2f %8.2f %8.1f %8.3f %8.0f%% %8s  %s%n",
+          outcome.branchName, outcome.xMeters, outcome.yMeters, outcome.headingDegrees,
+          outcome.winchAbsoluteEncoder, outcome.extendedPercent * 100,
+          outcome.isGrabberOpen ? "open" : "closed", broken));
+    }
+
+    return result.toString();
+  }
+
+  /**
+   * Stops the worker threads. Branches still running are interrupted.
+   */
+  @Override
+  public void close() {
+    m_executor.shutdownNow();
+  }
+}
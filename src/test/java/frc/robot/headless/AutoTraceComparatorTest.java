@@ -0,0 +1,124 @@
+package frc.robot.headless;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.commands.Auto;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the AutoTrace and AutoTraceComparator classes.
+ */
+public class AutoTraceComparatorTest {
+  // A robot that drives 1 m/s in x for 2 seconds, starting at startSeconds
+  private static AutoTrace createTrace(double startSeconds, double xOffset) {
+    AutoTrace trace = new AutoTrace();
+    for (int i = 1; i <= 50; i++) {
+      double seconds = i * 0.1;
+      double x = Math.min(2, Math.max(0, seconds - startSeconds)) + xOffset;
+      trace.addSample(seconds, x, 0, 0, 0.56, 0);
+    }
+
+    return trace;
+  }
+
+  @Test
+  public void sameTraceShouldMatch() {
+    AutoTraceComparator.SignalDiff[] diffs = new AutoTraceComparator()
+        .compare(createTrace(1, 0), createTrace(1, 0));
+
+    assertTrue(AutoTraceComparator.isMatch(diffs));
+    assertEquals(0, diffs[0].maxDifference, 1e-9);
+  }
+
+  @Test
+  public void smallTimeShiftShouldMatch() {
+    // Starts driving 100ms late, which the time warp allows
+    AutoTraceComparator.SignalDiff[] diffs = new AutoTraceComparator()
+        .compare(createTrace(1, 0), createTrace(1.1, 0));
+
+    assertTrue(AutoTraceComparator.isMatch(diffs));
+  }
+
+  @Test
+  public void largeTimeShiftShouldNotMatch() {
+    AutoTraceComparator.SignalDiff[] diffs = new AutoTraceComparator()
+        .compare(createTrace(1, 0), createTrace(2, 0));
+
+    assertFalse(AutoTraceComparator.isMatch(diffs));
+    assertFalse(diffs[0].isWithinTolerance());
+    assertTrue(diffs[1].isWithinTolerance());
+  }
+
+  @Test
+  public void motionInADifferentOrderShouldNotMatch() {
+    // Every value is still within the time warp of the same value in the golden trace, but
+    // the robot backs up for a sample, which no alignment can hide
+    AutoTrace golden = createTrace(1, 0);
+    AutoTrace actual = new AutoTrace();
+    for (int i = 0; i < golden.getSampleCount(); i++) {
+      int swapped = i == 20 ? 21 : i == 21 ? 20 : i;
+      actual.addSample(golden.getSeconds(i), golden.getValue(swapped, 0), 0, 0, 0.56, 0);
+    }
+
+    AutoTraceComparator.SignalDiff[] diffs = new AutoTraceComparator().compare(golden, actual);
+
+    assertFalse(diffs[0].isWithinTolerance());
+    assertEquals(0.1, diffs[0].maxDifference, 1e-9);
+  }
+
+  @Test
+  public void traceThatEndsLaterShouldNotMatch() {
+    AutoTrace actual = createTrace(1, 0);
+    actual.addSample(5.5, 2, 0, 0, 0.56, 0);
+
+    AutoTraceComparator.SignalDiff[] diffs = new AutoTraceComparator()
+        .compare(createTrace(1, 0), actual);
+
+    assertFalse(AutoTraceComparator.isMatch(diffs));
+    assertTrue(AutoTraceComparator.formatReport("Drive", diffs).contains("can't be aligned"));
+  }
+
+  @Test
+  public void offsetShouldBeReported() {
+    AutoTraceComparator.SignalDiff[] diffs = new AutoTraceComparator()
+        .compare(createTrace(1, 0), createTrace(1, 0.3));
+
+    assertEquals(0.3, diffs[0].maxDifference, 1e-9);
+    String report = AutoTraceComparator.formatReport("Drive", diffs);
+    assertTrue(report.contains("CHANGED"));
+    assertTrue(report.contains("xMeters"));
+    assertFalse(report.contains("yMeters"));
+  }
+
+  @Test
+  public void traceShouldReadBackWhatWasWritten() throws IOException {
+    AutoTrace trace = AutoTrace.record(Auto.getAutoSteps(Auto.kOnlyScore),
+        new HeadlessRobotParams());
+    assertEquals(150, trace.getSampleCount());
+
+    StringWriter writer = new StringWriter();
+    trace.write(writer);
+    AutoTrace result = AutoTrace.read(new StringReader(writer.toString()));
+
+    assertEquals(trace.getSampleCount(), result.getSampleCount());
+    assertTrue(AutoTraceComparator.isMatch(new AutoTraceComparator(0, 1e-4, 1e-4, 1e-4, 1e-4,
+        1e-4).compare(trace, result)));
+  }
+
+  @Test
+  public void invalidArgumentsShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> new AutoTraceComparator(-1, 1, 1, 1, 1,
+        1));
+    assertThrows(IllegalArgumentException.class, () -> new AutoTraceComparator(0.1, 1));
+    assertThrows(IllegalArgumentException.class, () -> new AutoTraceComparator(0.1, 1, 1, 0, 1,
+        1));
+    assertThrows(IllegalArgumentException.class, () -> new AutoTrace().addSample(0, 1));
+    assertThrows(IOException.class, () -> AutoTrace.read(new StringReader("a,b\n1,2\n")));
+  }
+}
@@ -0,0 +1,68 @@
+package frc.robot.headless;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.commands.Auto;
+import java.io.File;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs every auto mode headless, and compares its trace with the golden trace checked in
+ * under src/test/resources/golden-traces. The test fails if a change alters what an auto
+ * mode does, with a report of which signals changed, and when. That covers a change to the
+ * steps of an auto mode (Auto.getAutoSteps()), a sim model, or the logic the auto commands
+ * share with HeadlessAutoRunner: the controllers in frc.robot.commands, e.g.
+ * MoveToPositionController and TurnDegreesController, and WaitSecondsCommand.
+ * <p>
+ * The runner doesn't run the command classes themselves, so this doesn't cover the few lines
+ * in each command that read the subsystem's sensors into its controller and write the output
+ * to the motors. Those only run against the simulated subsystems, e.g. in MatchDriverTest.
+ * </p>
+ * <p>
+ * If the change is intended, update the golden traces with
+ * ./gradlew test -PupdateGoldenTraces, and check in the new files.
+ * </p>
+ */
+public class GoldenAutoTracesTest {
+  private static final File kGoldenDirectory = new File("src/test/resources/golden-traces");
+
+  // E.g. "Score and Move" is in score-and-move.csv
+  private static File getGoldenFile(String autoMode) {
+    String name = autoMode.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+    return new File(kGoldenDirectory, name + ".csv");
+  }
+
+  @Test
+  public void everyAutoModeShouldMatchItsGoldenTrace() throws IOException {
+    boolean isUpdating = Boolean.getBoolean("updateGoldenTraces");
+    AutoTraceComparator comparator = new AutoTraceComparator();
+    StringBuilder report = new StringBuilder();
+    boolean isAllMatching = true;
+
+    for (String autoMode : Auto.getAllAutoModes()) {
+      AutoTrace trace = AutoTrace.record(Auto.getAutoSteps(autoMode), new HeadlessRobotParams());
+      File goldenFile = getGoldenFile(autoMode);
+
+      if (isUpdating) {
+        kGoldenDirectory.mkdirs();
+        trace.write(goldenFile);
+        continue;
+      }
+
+      if (!goldenFile.exists()) {
+        report.append(String.format("%-42s MISSING %s%n", autoMode, goldenFile));
+        isAllMatching = false;
+        continue;
+      }
+
+      AutoTraceComparator.SignalDiff[] diffs = comparator.compare(AutoTrace.read(goldenFile),
+          trace);
+      report.append(AutoTraceComparator.formatReport(autoMode, diffs));
+      isAllMatching &= AutoTraceComparator.isMatch(diffs);
+    }
+
+    assertTrue(isAllMatching, "Auto modes changed. If intended, run "
+        + "./gradlew test -PupdateGoldenTraces\n" + report);
+  }
+}
@@ -0,0 +1,137 @@
+package frc.robot.headless;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.util.Units;
+import frc.robot.commands.Auto;
+import frc.robot.commands.AutoStep;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the HeadlessAutoRunner class, and the HeadlessRobot it drives.
+ */
+public class HeadlessAutoRunnerTest {
+  private AutoRunResult runSteps(HeadlessRobotParams params, AutoStep... steps) {
+    return new HeadlessAutoRunner(Arrays.asList(steps)).run(params, null);
+  }
+
+  @Test
+  public void everyAutoModeShouldHaveSteps() {
+    for (String autoMode : Auto.getAllAutoModes()) {
+      assertNotNull(Auto.getAutoSteps(autoMode));
+      assertFalse(Auto.getAutoSteps(autoMode).isEmpty());
+    }
+
+    assertNull(Auto.getAutoSteps("Not an auto mode"));
+  }
+
+  @Test
+  public void onlyScoreShouldFinishWithoutBreakingAnything() {
+    AutoRunResult result = new HeadlessAutoRunner(Auto.getAutoSteps(Auto.kOnlyScore))
+        .run(new HeadlessRobotParams(), null);
+
+    assertTrue(result.isCompleted);
+    assertFalse(result.isBroken());
+    assertTrue(result.completionSeconds > 0.5);
+    assertTrue(result.completionSeconds < HeadlessAutoRunner.kAutoSeconds);
+  }
+
+  @Test
+  public void setWinchToAngleShouldFinishWithoutBreaking() {
+    HeadlessRobot robot = new HeadlessRobot(new HeadlessRobotParams(), null);
+    double initialPosition = robot.getWinchAbsoluteEncoder();
+
+    // Arm starts level, which is just above the lower limit
+    assertEquals(0.56, initialPosition, 0.01);
+
+    AutoRunResult result = runSteps(new HeadlessRobotParams(),
+        AutoStep.setWinchToAngle(0.70, 0.5));
+
+    assertTrue(result.isCompleted);
+    assertFalse(result.isBroken());
+  }
+
+  @Test
+  public void winchPastUpperLimitShouldBreakArm() {
+    AutoRunResult result = runSteps(new HeadlessRobotParams(),
+        AutoStep.setWinchToAngle(0.95, 0.5));
+
+    assertFalse(result.isCompleted);
+    assertTrue(result.isBroken());
+  }
+
+  @Test
+  public void driveShouldTravelRequestedDistance() {
+    HeadlessRobotParams params = new HeadlessRobotParams();
+    AutoRunResult result = runSteps(params, AutoStep.drive(5 * 12, 0.4));
+
+    // Robot faces -X, so driving forward decreases X. It coasts a little after stopping.
+    double travelled = params.startXMeters - result.finalXMeters;
+    assertTrue(result.isCompleted);
+    assertTrue(travelled >= Units.feetToMeters(5));
+    assertTrue(travelled < Units.feetToMeters(5) + 0.2);
+    assertEquals(params.startYMeters, result.finalYMeters, 1e-6);
+  }
+
+  @Test
+  public void turnDegreesShouldTurnCounterClockwise() {
+    HeadlessRobotParams params = new HeadlessRobotParams();
+    AutoRunResult result = runSteps(params, AutoStep.turnDegrees(0.6, 90));
+
+    // The robot keeps turning a little after the command stops the motors
+    double turned = result.finalHeadingDegrees - params.startHeadingDegrees;
+    assertTrue(result.isCompleted);
+    assertTrue(turned > 88);
+    assertTrue(turned < 90 + 45);
+  }
+
+  @Test
+  public void waitShouldTakeRequestedTime() {
+    AutoRunResult result = runSteps(new HeadlessRobotParams(), AutoStep.waitSeconds(0.5));
+
+    assertTrue(result.isCompleted);
+    assertEquals(0.5, result.completionSeconds, 1e-9);
+  }
+
+  @Test
+  public void lowBatteryShouldBeSlower() {
+    HeadlessRobotParams fullBattery = new HeadlessRobotParams();
+    HeadlessRobotParams lowBattery = new HeadlessRobotParams();
+    lowBattery.batteryVoltage = 10.5;
+
+    AutoRunResult fullResult = runSteps(fullBattery, AutoStep.drive(5 * 12, 0.5));
+    AutoRunResult lowResult = runSteps(lowBattery, AutoStep.drive(5 * 12, 0.5));
+
+    assertTrue(lowResult.completionSeconds > fullResult.completionSeconds);
+  }
+
+  @Test
+  public void autoBalanceModeShouldBalanceFromDefaultStart() {
+    AutoRunResult result = new HeadlessAutoRunner(Auto.getAutoSteps(Auto.kAutoBalanceMode))
+        .run(new HeadlessRobotParams(), null);
+
+    assertTrue(result.isCompleted);
+    assertTrue(Math.abs(result.finalPlatformAngleDegrees) <= 2.5);
+  }
+
+  @Test
+  public void runsWithSameSeedShouldGiveSameResult() {
+    HeadlessRobotParams params = new HeadlessRobotParams();
+    params.driveEncoderNoiseRotations = 0.05;
+    params.absoluteEncoderNoiseRotations = 0.001;
+
+    HeadlessAutoRunner runner = new HeadlessAutoRunner(
+        Auto.getAutoSteps(Auto.kDropAndDriveMode));
+    AutoRunResult first = runner.run(params, new Random(42));
+    AutoRunResult second = runner.run(params, new Random(42));
+
+    assertEquals(first.completionSeconds, second.completionSeconds, 0);
+    assertEquals(first.finalXMeters, second.finalXMeters, 0);
+  }
+}
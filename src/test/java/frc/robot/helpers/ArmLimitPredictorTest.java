@@ -0,0 +1,160 @@
+package frc.robot.helpers;
+
+import static frc.robot.helpers.ArmTestFixtures.createArm;
+import static frc.robot.helpers.ArmTestFixtures.driveArm;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static simulationlib.testing.AllocationBudget.assertWithinBudget;
+import static simulationlib.testing.AllocationBudget.measureBytesPerTick;
+
+import frc.robot.Constants;
+import frc.robot.headless.HeadlessArm;
+import frc.robot.headless.HeadlessArmTeleop;
+import frc.robot.headless.RobotSimParams;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the ArmLimitPredictor class, with a HeadlessArm standing in for the real arm.
+ */
+public class ArmLimitPredictorTest {
+  // Bytes per tick, after warming up for kWarmupTicks. Measured 0 when this was set, the
+  // rest is headroom for other JVMs.
+  private static final int kWarmupTicks = 10000;
+  private static final int kMeasuredTicks = 10000;
+  private static final double kTickBudget = 16;
+
+  private static final double kGrabberOpenLowerLimit =
+      Constants.OperatorConstants.kWinchGrabberOpenLowerLimit;
+
+  // Holds the left stick for ticks with the same mapping as ArmSystem, optionally limited by
+  // the predictor. Returns the highest and lowest absolute encoder readings.
+  private static double[] holdStick(HeadlessArm arm, ArmLimitPredictor predictor, double leftY,
+      int ticks) {
+    return driveArm(arm, ticks, tick -> {
+      HeadlessArmTeleop.apply(arm, leftY, 0, false, false);
+      if (predictor != null) {
+        predictor.addMeasurement(arm.getWinchAbsoluteEncoder());
+        arm.setWinchSpeed(predictor.limitWinchSpeed(arm.getWinchSpeed(), arm.isGrabberOpen()));
+      }
+    });
+  }
+
+  @Test
+  public void raisingShouldStopBeforeUpperLimit() {
+    RobotSimParams params = new RobotSimParams();
+
+    double reactiveMax = holdStick(createArm(params), null, -1, 150)[0];
+    double predictiveMax = holdStick(createArm(params), new ArmLimitPredictor(5), -1,
+        150)[0];
+
+    // Stopping once past the limit overshoots it, predicting doesn't
+    assertTrue(reactiveMax > params.winchEncoderUpperLimit);
+    assertTrue(predictiveMax <= params.winchEncoderUpperLimit);
+    assertTrue(predictiveMax > params.winchEncoderUpperLimit - 0.005);
+  }
+
+  @Test
+  public void loweringWithGrabberOpenShouldStopAboveBreakLimit() {
+    RobotSimParams params = new RobotSimParams();
+    HeadlessArm arm = createArm(params);
+    ArmLimitPredictor predictor = new ArmLimitPredictor(5);
+
+    holdStick(arm, predictor, -1, 40);
+    arm.openGrabber();
+    double lowest = holdStick(arm, predictor, 1, 100)[1];
+
+    assertTrue(lowest >= kGrabberOpenLowerLimit);
+    assertTrue(lowest < kGrabberOpenLowerLimit + 0.005);
+
+    // Once closed, the arm goes on down to the lower limit
+    arm.closeGrabber();
+    lowest = holdStick(arm, predictor, 1, 100)[1];
+    assertTrue(lowest < kGrabberOpenLowerLimit);
+    assertTrue(lowest >= params.winchEncoderLowerLimit);
+  }
+
+  @Test
+  public void speedShouldPassThroughAwayFromLimitsOrWithoutMeasurement() {
+    RobotSimParams params = new RobotSimParams();
+    ArmLimitPredictor predictor = new ArmLimitPredictor(5);
+    double middle = (params.winchEncoderUpperLimit + params.winchEncoderLowerLimit) / 2;
+
+    assertEquals(0.8, predictor.limitWinchSpeed(0.8, false), 0);
+    assertTrue(Double.isNaN(predictor.predictAbsoluteEncoder(0.8)));
+
+    predictor.addMeasurement(middle);
+    assertEquals(0.3, predictor.limitWinchSpeed(0.3, true), 0);
+    assertEquals(-0.3, predictor.limitWinchSpeed(-0.3, false), 0);
+    assertEquals(middle, predictor.predictAbsoluteEncoder(0), 1e-9);
+    assertTrue(predictor.predictAbsoluteEncoder(0.5) > middle);
+
+    // Past the upper limit, only moving back down is allowed
+    predictor.addMeasurement(params.winchEncoderUpperLimit + 0.001);
+    assertEquals(0, predictor.limitWinchSpeed(0.5, false), 0);
+    assertEquals(-0.5, predictor.limitWinchSpeed(-0.5, false), 0);
+
+    // A disconnected encoder reads 0
+    predictor.addMeasurement(0.0);
+    assertEquals(0.5, predictor.limitWinchSpeed(0.5, false), 0);
+
+    assertThrows(IllegalArgumentException.class, () -> new ArmLimitPredictor(0));
+  }
+
+  @Test
+  public void speedShouldFollowTheArmAndAverageOutNoise() {
+    RobotSimParams params = new RobotSimParams();
+    HeadlessArm arm = createArm(params);
+    ArmLimitPredictor predictor = new ArmLimitPredictor(5);
+
+    // The speed only goes up while the arm speeds up
+    double[] speeds = {
+        0
+    };
+    driveArm(arm, 20, tick -> {
+      predictor.addMeasurement(arm.getWinchAbsoluteEncoder());
+      assertTrue(predictor.getMotorRotationsPerSecond() >= speeds[0] - 1e-9);
+      speeds[0] = predictor.getMotorRotationsPerSecond();
+      arm.setWinchSpeed(0.3);
+    });
+    double lastSpeed = speeds[0];
+
+    // Raising at a steady speed
+    assertTrue(lastSpeed > 1);
+    predictor.addMeasurement(arm.getWinchAbsoluteEncoder());
+    assertEquals(lastSpeed, predictor.getMotorRotationsPerSecond(), lastSpeed * 0.01);
+
+    // A still arm with a noisy encoder. The difference over a single tick reaches about
+    // 2.9 rotations per second here.
+    predictor.addMeasurement(0.0);
+    assertEquals(0, predictor.getMotorRotationsPerSecond(), 0);
+
+    Random random = new Random(42);
+    double middle = (params.winchEncoderUpperLimit + params.winchEncoderLowerLimit) / 2;
+    double fastestNoise = 0;
+    for (int tick = 0; tick < 500; tick++) {
+      predictor.addMeasurement(middle + random.nextGaussian() * 0.001);
+      fastestNoise = Math.max(fastestNoise, Math.abs(predictor.getMotorRotationsPerSecond()));
+    }
+
+    assertTrue(fastestNoise < 1.5);
+  }
+
+  @Test
+  public void limitingShouldStayWithinAllocationBudget() {
+    RobotSimParams params = new RobotSimParams();
+    ArmLimitPredictor predictor = new ArmLimitPredictor(5);
+    double[] sum = {
+        0
+    };
+
+    double bytesPerTick = measureBytesPerTick(kWarmupTicks, kMeasuredTicks, tick -> {
+      predictor.addMeasurement(params.winchEncoderUpperLimit - 0.001 * (tick % 3));
+      sum[0] += predictor.limitWinchSpeed(0.8, (tick % 2) == 0);
+    });
+
+    assertWithinBudget("ArmLimitPredictor", bytesPerTick, kTickBudget);
+    assertTrue(sum[0] > 0);
+  }
+}
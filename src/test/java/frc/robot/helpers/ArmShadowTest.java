@@ -0,0 +1,155 @@
+package frc.robot.helpers;
+
+import static frc.robot.helpers.ArmTestFixtures.createArm;
+import static frc.robot.helpers.ArmTestFixtures.driveArm;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static simulationlib.testing.AllocationBudget.assertWithinBudget;
+import static simulationlib.testing.AllocationBudget.measureBytesPerTick;
+
+import frc.robot.headless.HeadlessArm;
+import frc.robot.headless.RobotSimParams;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the ArmShadow class, with a HeadlessArm standing in for the real arm.
+ */
+public class ArmShadowTest {
+  private static final int kFreezeNone = 0;
+  private static final int kFreezeWinch = 1;
+  private static final int kFreezeExtender = 2;
+  private static final int kFreezeAbsolute = 3;
+
+  // Bytes per tick, after warming up for kWarmupTicks. Measured 0 when this was set, the
+  // rest is headroom for other JVMs.
+  private static final int kWarmupTicks = 10000;
+  private static final int kMeasuredTicks = 10000;
+  private static final double kTickBudget = 16;
+
+  // Drives the arm up and down and the extender in and out, like an operator would, and
+  // feeds the shadow. The frozen encoder keeps reading what it read at freezeTick.
+  private static void operateArm(HeadlessArm arm, ArmShadow shadow, int ticks, int freeze,
+      int freezeTick) {
+    double[] frozenValue = {
+        0
+    };
+
+    driveArm(arm, ticks, tick -> {
+      double winchEncoder = arm.getWinchEncoder();
+      double extenderEncoder = arm.getExtenderEncoder();
+      double absoluteEncoder = arm.getWinchAbsoluteEncoder();
+
+      if (tick == freezeTick) {
+        frozenValue[0] = (freeze == kFreezeWinch) ? winchEncoder
+            : (freeze == kFreezeExtender) ? extenderEncoder : absoluteEncoder;
+      }
+
+      if (tick >= freezeTick) {
+        if (freeze == kFreezeWinch) {
+          winchEncoder = frozenValue[0];
+        }
+        else if (freeze == kFreezeExtender) {
+          extenderEncoder = frozenValue[0];
+        }
+        else if (freeze == kFreezeAbsolute) {
+          absoluteEncoder = frozenValue[0];
+        }
+      }
+
+      shadow.addSample(arm.getWinchSpeed(), winchEncoder, arm.getExtenderSpeed(),
+          extenderEncoder, absoluteEncoder);
+
+      // Changes direction every half second, with the speed changing in between, which keeps
+      // the arm within its limits
+      boolean forward = (tick / 25) % 2 == 0;
+      double speed = 0.2 + 0.6 * ((tick % 25) / 25.0);
+      arm.setWinchSpeed(forward ? speed : -speed);
+      arm.setExtenderSpeed(forward ? -speed : speed);
+    });
+  }
+
+  @Test
+  public void healthyArmShouldNotDiverge() {
+    RobotSimParams params = new RobotSimParams();
+    HeadlessArm arm = createArm(params);
+    ArmShadow shadow = new ArmShadow(params);
+
+    for (int second = 0; second < 4; second++) {
+      operateArm(arm, shadow, 50, kFreezeNone, 0);
+      assertFalse(shadow.isDiverging());
+    }
+
+    assertTrue(arm.getBrokenPartName() == null);
+    // 10 Hz for each of the two motors, less the first interval
+    assertTrue(shadow.getCheckCount() >= 2 * 10 * 4 - 2);
+    assertTrue(shadow.getCheckCount() <= 2 * 10 * 4);
+  }
+
+  @Test
+  public void stalledExtenderShouldOnlyFlagExtender() {
+    RobotSimParams params = new RobotSimParams();
+    ArmShadow shadow = new ArmShadow(params);
+
+    operateArm(createArm(params), shadow, 100, kFreezeExtender, 20);
+
+    assertTrue(shadow.isExtenderMotorDiverging());
+    assertFalse(shadow.isWinchMotorDiverging());
+    assertFalse(shadow.isWinchCableDiverging());
+    assertTrue(Math.abs(shadow.getExtenderMotorResidual()) > 0.1);
+  }
+
+  @Test
+  public void jammedWinchShouldFlagWinchMotor() {
+    RobotSimParams params = new RobotSimParams();
+    ArmShadow shadow = new ArmShadow(params);
+
+    operateArm(createArm(params), shadow, 100, kFreezeWinch, 20);
+
+    assertTrue(shadow.isWinchMotorDiverging());
+    assertFalse(shadow.isExtenderMotorDiverging());
+  }
+
+  @Test
+  public void slippingCableShouldFlagCable() {
+    RobotSimParams params = new RobotSimParams();
+    ArmShadow shadow = new ArmShadow(params);
+
+    // The winch turns, but the arm doesn't move
+    operateArm(createArm(params), shadow, 100, kFreezeAbsolute, 20);
+
+    assertTrue(shadow.isWinchCableDiverging());
+    assertFalse(shadow.isWinchMotorDiverging());
+    assertFalse(shadow.isExtenderMotorDiverging());
+    assertTrue(Math.abs(shadow.getWinchCableResidual()) > 0.005);
+  }
+
+  @Test
+  public void disconnectedAbsoluteEncoderShouldSkipCableCheck() {
+    RobotSimParams params = new RobotSimParams();
+    ArmShadow shadow = new ArmShadow(params);
+    HeadlessArm arm = createArm(params);
+
+    driveArm(arm, 50, tick -> {
+      shadow.addSample(arm.getWinchSpeed(), arm.getWinchEncoder(), 0, 0, 0.0);
+      arm.setWinchSpeed(0.3);
+    });
+
+    assertFalse(shadow.isDiverging());
+    assertEquals(0, shadow.getWinchCableResidual(), 0);
+    assertThrows(IllegalArgumentException.class, () -> new ArmShadow(null));
+  }
+
+  @Test
+  public void samplingShouldStayWithinAllocationBudget() {
+    ArmShadow shadow = new ArmShadow(new RobotSimParams());
+
+    double bytesPerTick = measureBytesPerTick(kWarmupTicks, kMeasuredTicks,
+        tick -> shadow.addSample(0.5, 0.01 * tick, -0.5, -0.05 * tick,
+            0.7 - 0.00001 * (tick % 1000)));
+
+    assertWithinBudget("ArmShadow", bytesPerTick, kTickBudget);
+    assertTrue(shadow.getCheckCount() > 0);
+  }
+}
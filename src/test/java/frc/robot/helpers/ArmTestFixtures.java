@@ -0,0 +1,42 @@
+package frc.robot.helpers;
+
+import frc.robot.headless.HeadlessArm;
+import frc.robot.headless.RobotSimParams;
+import java.util.function.IntConsumer;
+
+/**
+ * Fixtures shared by the tests of the arm helpers: a HeadlessArm standing in for the real arm.
+ */
+final class ArmTestFixtures {
+  private ArmTestFixtures() {
+  }
+
+  /**
+   * Returns an arm a quarter extended, with a full battery and the grabber closed.
+   */
+  static HeadlessArm createArm(RobotSimParams params) {
+    HeadlessArm arm = new HeadlessArm(params, 0.25, 12);
+    arm.closeGrabber();
+    return arm;
+  }
+
+  /**
+   * Steps the arm for ticks, calling beforeStep with the tick number before each step, which
+   * reads the sensors and sets the motors. Returns the highest and lowest absolute encoder
+   * readings.
+   */
+  static double[] driveArm(HeadlessArm arm, int ticks, IntConsumer beforeStep) {
+    double[] result = {
+        arm.getWinchAbsoluteEncoder(), arm.getWinchAbsoluteEncoder()
+    };
+
+    for (int tick = 0; tick < ticks; tick++) {
+      beforeStep.accept(tick);
+      arm.step();
+      result[0] = Math.max(result[0], arm.getWinchAbsoluteEncoder());
+      result[1] = Math.min(result[1], arm.getWinchAbsoluteEncoder());
+    }
+
+    return result;
+  }
+}
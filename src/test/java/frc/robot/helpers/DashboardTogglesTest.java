@@ -0,0 +1,102 @@
+package frc.robot.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the DashboardToggles class.
+ */
+public class DashboardTogglesTest {
+  // Dashboard that counts how often it's read
+  private static class FakeDashboard implements DashboardToggles.Dashboard {
+    private final Map<String, Boolean> m_values = new HashMap<String, Boolean>();
+    private int m_readCount = 0;
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+      m_readCount++;
+      return m_values.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public void putBoolean(String key, boolean value) {
+      m_values.put(key, value);
+    }
+  }
+
+  @Test
+  public void togglesShouldOnlyBeReadEveryFewLoops() {
+    FakeDashboard dashboard = new FakeDashboard();
+    DashboardToggles toggles = new DashboardToggles(50, dashboard);
+    int[] presses = {
+        0
+    };
+    toggles.addButton("Button", () -> presses[0]++);
+    toggles.addSwitch("Switch", isSet -> { });
+
+    for (int loop = 0; loop < 150; loop++) {
+      toggles.poll();
+    }
+
+    // Loops 0, 50 and 100, two toggles each
+    assertEquals(6, dashboard.m_readCount);
+    assertEquals(0, presses[0]);
+  }
+
+  @Test
+  public void buttonShouldRunOnceAndClearItself() {
+    FakeDashboard dashboard = new FakeDashboard();
+    DashboardToggles toggles = new DashboardToggles(1, dashboard);
+    int[] presses = {
+        0
+    };
+    toggles.addButton("Button", () -> presses[0]++);
+    assertFalse(dashboard.m_values.get("Button"));
+
+    dashboard.putBoolean("Button", true);
+    toggles.poll();
+    toggles.poll();
+
+    assertEquals(1, presses[0]);
+    assertFalse(dashboard.m_values.get("Button"));
+  }
+
+  @Test
+  public void switchShouldReportEachChange() {
+    FakeDashboard dashboard = new FakeDashboard();
+    DashboardToggles toggles = new DashboardToggles(2, dashboard);
+    List<Boolean> changes = new ArrayList<Boolean>();
+    toggles.addSwitch("Switch", changes::add);
+
+    toggles.poll();
+    dashboard.putBoolean("Switch", true);
+    toggles.poll();
+    toggles.poll();
+    toggles.poll();
+    dashboard.putBoolean("Switch", false);
+    toggles.poll();
+    toggles.poll();
+
+    assertEquals(List.of(true, false), changes);
+  }
+
+  @Test
+  public void invalidArgumentsShouldThrow() {
+    FakeDashboard dashboard = new FakeDashboard();
+    DashboardToggles toggles = new DashboardToggles(1, dashboard);
+    toggles.addButton("Button", () -> { });
+
+    assertThrows(IllegalArgumentException.class, () -> new DashboardToggles(0, dashboard));
+    assertThrows(IllegalArgumentException.class, () -> new DashboardToggles(1, null));
+    assertThrows(IllegalArgumentException.class, () -> toggles.addButton("Other", null));
+    assertThrows(IllegalArgumentException.class, () -> toggles.addSwitch("Other", null));
+    assertThrows(IllegalArgumentException.class, () -> toggles.addSwitch("Button", isSet -> { }));
+  }
+}
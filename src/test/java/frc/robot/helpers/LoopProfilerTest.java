@@ -0,0 +1,178 @@
+package frc.robot.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import simulationlib.helpers.SpanTracer;
+
+/**
+ * Test LoopProfiler class, with a fake clock.
+ */
+public class LoopProfilerTest {
+  private long m_nowNanos;
+  private LoopProfiler m_profiler;
+
+  @BeforeEach
+  public void setUp() {
+    m_nowNanos = 0;
+    m_profiler = new LoopProfiler(100, 0.02, () -> m_nowNanos);
+  }
+
+  private void advanceMillis(double millis) {
+    m_nowNanos += (long) (millis * 1e6);
+  }
+
+  @Test
+  public void nestedSectionsShouldOnlyBeChargedTheirOwnTime() {
+    LoopProfiler.Section scheduler = m_profiler.getSection("CommandScheduler.run");
+    LoopProfiler.Section arm = m_profiler.getSection("ArmSystem.periodic");
+
+    m_profiler.startLoop();
+    scheduler.start();
+    advanceMillis(1);
+    arm.start();
+    advanceMillis(3);
+    arm.stop();
+    advanceMillis(2);
+    scheduler.stop();
+    assertFalse(m_profiler.endLoop());
+
+    assertEquals(3, arm.getPercentileMillis(50), 1e-9);
+    assertEquals(3, scheduler.getPercentileMillis(50), 1e-9);
+    assertEquals(6, m_profiler.getLastLoopMillis(), 1e-9);
+  }
+
+  @Test
+  public void commandExecuteShouldBeChargedTimeSinceLastMark() {
+    LoopProfiler.Section scheduler = m_profiler.getSection("CommandScheduler.run");
+    Command command = new Command() {
+      @Override
+      public String getName() {
+        return "DriveCommand";
+      }
+    };
+
+    m_profiler.startLoop();
+    scheduler.start();
+    advanceMillis(4);
+    m_profiler.commandExecuted(command);
+    advanceMillis(1);
+    scheduler.stop();
+    m_profiler.endLoop();
+
+    LoopProfiler.Section execute = m_profiler.getSection("DriveCommand.execute");
+    assertEquals(1, execute.getSampleCount());
+    assertEquals(4, execute.getPercentileMillis(50), 1e-9);
+    assertEquals(1, scheduler.getPercentileMillis(50), 1e-9);
+  }
+
+  @Test
+  public void tracerShouldGetSectionAndCommandSpans() throws IOException {
+    SpanTracer tracer = new SpanTracer(100, () -> m_nowNanos);
+    m_profiler.setTracer(tracer);
+    LoopProfiler.Section scheduler = m_profiler.getSection("CommandScheduler.run");
+    Command command = new Command() {
+      @Override
+      public String getName() {
+        return "SetWinchToAngle";
+      }
+    };
+
+    m_profiler.startLoop();
+    scheduler.start();
+    advanceMillis(1);
+    m_profiler.commandInitialized(command);
+    advanceMillis(2);
+    m_profiler.commandExecuted(command);
+    advanceMillis(3);
+    m_profiler.commandEnded(command);
+    scheduler.stop();
+    m_profiler.endLoop();
+
+    StringWriter writer = new StringWriter();
+    tracer.writeChromeTrace(writer);
+    String trace = writer.toString();
+
+    assertEquals(4, tracer.getEventCount());
+    assertTrue(trace.contains("\"name\":\"SetWinchToAngle.initialize\""));
+    assertTrue(trace.contains("\"name\":\"SetWinchToAngle.execute\""));
+    assertTrue(trace.contains("\"name\":\"SetWinchToAngle.end\""));
+    assertTrue(trace.contains("\"name\":\"CommandScheduler.run\""));
+    assertEquals(3, m_profiler.getSection("SetWinchToAngle.end").getPercentileMillis(50), 1e-9);
+  }
+
+  @Test
+  public void overrunShouldBlameSlowestSection() {
+    LoopProfiler.Section fast = m_profiler.getSection("Fast");
+    LoopProfiler.Section slow = m_profiler.getSection("Slow");
+
+    for (int i = 0; i < 10; i++) {
+      m_profiler.startLoop();
+      fast.start();
+      advanceMillis(2);
+      fast.stop();
+      slow.start();
+      advanceMillis((i % 2 == 0) ? 25 : 5);
+      slow.stop();
+      m_profiler.endLoop();
+    }
+
+    assertEquals(5, m_profiler.getOverrunCount());
+    assertEquals(5, slow.getOverrunBlameCount());
+    assertEquals(0, fast.getOverrunBlameCount());
+    assertEquals(25, slow.getMaxMillis(), 1e-9);
+
+    List<LoopProfiler.Section> top = m_profiler.getTopOffenders(1);
+    assertEquals(1, top.size());
+    assertEquals("Slow", top.get(0).getName());
+  }
+
+  @Test
+  public void percentilesShouldOnlyCoverRecentWindow() {
+    LoopProfiler.Section section = m_profiler.getSection("Section");
+
+    // 100 slow samples, then 100 fast ones push them out of the window
+    for (int i = 0; i < 200; i++) {
+      section.start();
+      advanceMillis((i < 100) ? 10 : 1);
+      section.stop();
+    }
+
+    assertEquals(100, section.getSampleCount());
+    assertEquals(1, section.getPercentileMillis(95), 1e-9);
+    assertEquals(10, section.getMaxMillis(), 1e-9);
+  }
+
+  @Test
+  public void sectionLeftOpenShouldNotBreakProfiler() {
+    LoopProfiler.Section outer = m_profiler.getSection("Outer");
+    LoopProfiler.Section inner = m_profiler.getSection("Inner");
+
+    // Inner never stops, e.g. because of an exception
+    outer.start();
+    inner.start();
+    advanceMillis(2);
+    outer.stop();
+    inner.stop();
+
+    assertEquals(1, outer.getSampleCount());
+    assertEquals(0, inner.getSampleCount());
+    assertTrue(m_profiler.getSection("Outer") == outer);
+  }
+
+  @Test
+  public void badArgumentsShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> new LoopProfiler(0, 0.02, () -> 0));
+    assertThrows(IllegalArgumentException.class, () -> new LoopProfiler(10, 0, () -> 0));
+    assertThrows(IllegalArgumentException.class, () -> new LoopProfiler(10, 0.02, null));
+    assertThrows(IllegalArgumentException.class, () -> m_profiler.getSection(""));
+  }
+}
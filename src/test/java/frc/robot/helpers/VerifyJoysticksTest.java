@@ -7,6 +7,7 @@ import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import simulationlib.simulation.framework.SimWorld;
 
 /**
  * Test VerifyJoysticks class.
@@ -371,4 +372,45 @@ public class VerifyJoysticksTest {
     assertTrue(verifyTemp.getIsPovCountCorrect(0));
     assertTrue(verifyTemp.getIsJoystickNameCorrect(0));
   }
+
+  @Test
+  void simulatedClockShouldRequeryOnlyAfterPeriod() {
+    int port = 1;
+    SimWorld world = new SimWorld();
+
+    DriverStationFunctions mockDriverStationFunctions = mock(DriverStationFunctions.class);
+    when(mockDriverStationFunctions.isJoystickConnected(port)).thenReturn(false);
+
+    VerifyJoysticks verifyTemp = new VerifyJoysticks(getTestJoystickConfigs(),
+        mockDriverStationFunctions, 1, world);
+
+    verifyTemp.verifyJoysticksPeriodically();
+    assertTrue(!verifyTemp.getAreAllJoysticksHealth());
+
+    // The joystick gets plugged in, but less than a second of simulated time has passed
+    when(mockDriverStationFunctions.isJoystickConnected(port)).thenReturn(true);
+    when(mockDriverStationFunctions.getStickAxisCount(port)).thenReturn(6);
+    when(mockDriverStationFunctions.getStickButtonCount(port)).thenReturn(16);
+    when(mockDriverStationFunctions.getStickPovCount(port)).thenReturn(1);
+    when(mockDriverStationFunctions.getJoystickName(port))
+        .thenReturn("Controller (Xbox One For Windows)");
+    when(mockDriverStationFunctions.getJoystickType(port)).thenReturn(1);
+
+    for (int i = 0; i < 49; i++) {
+      world.advanceTick();
+    }
+    verifyTemp.verifyJoysticksPeriodically();
+    assertTrue(!verifyTemp.getAreAllJoysticksHealth());
+
+    world.advanceTick();
+    verifyTemp.verifyJoysticksPeriodically();
+    assertTrue(verifyTemp.getAreAllJoysticksHealth());
+  }
+
+  @Test
+  void createVerifyJoysticksWithNullClockShouldFail() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new VerifyJoysticks(getTestJoystickConfigs(), new DriverStationFunctions(), 0,
+            null));
+  }
 }
@@ -0,0 +1,101 @@
+package frc.robot.match;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the ControllerRecording class.
+ */
+public class ControllerRecordingTest {
+  // Axes are stored as 16 bit fixed point
+  private static final double kAxisEpsilon = 1.0 / Short.MAX_VALUE;
+
+  private static ControllerRecording createRecording(int tickCount) {
+    ControllerRecording recording = new ControllerRecording(0, 1);
+    for (int i = 0; i < tickCount; i++) {
+      int tick = recording.addTick();
+      recording.setAxis(tick, 0, 1, -i / (double) tickCount);
+      recording.setAxis(tick, 1, 3, 0.5);
+      recording.setButtons(tick, 1, i % 1024);
+      recording.setPov(tick, 0, (i % 2 == 0) ? 90 : -1);
+    }
+
+    return recording;
+  }
+
+  @Test
+  public void newTicksShouldBeNeutral() {
+    ControllerRecording recording = new ControllerRecording(0);
+    int tick = recording.addTick();
+
+    assertEquals(0, tick);
+    assertEquals(0, recording.getAxis(tick, 0, 2), 0);
+    assertEquals(0, recording.getButtons(tick, 0));
+    assertEquals(-1, recording.getPov(tick, 0));
+  }
+
+  @Test
+  public void valuesShouldSurviveGrowing() {
+    ControllerRecording recording = createRecording(1000);
+
+    assertEquals(1000, recording.getTickCount());
+    assertEquals(-0.5, recording.getAxis(500, 0, 1), kAxisEpsilon);
+    assertEquals(0.5, recording.getAxis(999, 1, 3), kAxisEpsilon);
+    assertEquals(999, recording.getButtons(999, 1));
+    assertEquals(90, recording.getPov(998, 0));
+  }
+
+  @Test
+  public void axesShouldBeClamped() {
+    ControllerRecording recording = new ControllerRecording(0);
+    int tick = recording.addTick();
+    recording.setAxis(tick, 0, 0, 2);
+
+    assertEquals(1, recording.getAxis(tick, 0, 0), kAxisEpsilon);
+  }
+
+  @Test
+  public void readShouldReturnWhatWasWritten() throws IOException {
+    ControllerRecording recording = createRecording(300);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    recording.write(output);
+
+    // 16 bytes per controller and tick, plus the header
+    assertEquals(300 * 2 * 16 + 13, output.size());
+
+    ControllerRecording result = ControllerRecording.read(
+        new ByteArrayInputStream(output.toByteArray()));
+    assertEquals(2, result.getControllerCount());
+    assertEquals(1, result.getPort(1));
+    assertEquals(300, result.getTickCount());
+    for (int tick = 0; tick < 300; tick++) {
+      assertEquals(recording.getAxis(tick, 0, 1), result.getAxis(tick, 0, 1), 0);
+      assertEquals(recording.getButtons(tick, 1), result.getButtons(tick, 1));
+      assertEquals(recording.getPov(tick, 0), result.getPov(tick, 0));
+    }
+  }
+
+  @Test
+  public void readShouldRejectOtherFiles() {
+    assertThrows(IOException.class, () -> ControllerRecording.read(
+        new ByteArrayInputStream(new byte[] {
+            1, 2, 3, 4, 5, 6, 7, 8
+        })));
+  }
+
+  @Test
+  public void invalidArgumentsShouldThrow() {
+    ControllerRecording recording = createRecording(1);
+
+    assertThrows(IllegalArgumentException.class, () -> new ControllerRecording());
+    assertThrows(IllegalArgumentException.class, () -> recording.getAxis(1, 0, 0));
+    assertThrows(IllegalArgumentException.class, () -> recording.getAxis(0, 2, 0));
+    assertThrows(IllegalArgumentException.class, () -> recording.setAxis(0, 0, 6, 0));
+    assertThrows(IllegalArgumentException.class, () -> recording.getScript(2, 0));
+  }
+}
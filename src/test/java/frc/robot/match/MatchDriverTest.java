@@ -0,0 +1,74 @@
+package frc.robot.match;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.XboxController;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Robot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import simulationlib.simulation.framework.SimWorld;
+
+/**
+ * Test the MatchDriver class, on a short match against the simulated robot.
+ * <p>
+ * The match builds the whole Robot, which allocates its HAL channels for good, so that test
+ * is tagged fullRobot, and runs in its own JVM (see the fullRobotTest task in build.gradle).
+ * </p>
+ */
+public class MatchDriverTest {
+  /**
+   * Leaves the scheduler and the driver station the way the next test expects them.
+   */
+  @AfterEach
+  public void tearDown() {
+    SimWorld.getGlobalInstance().setStepsHalTiming(false);
+
+    CommandScheduler scheduler = CommandScheduler.getInstance();
+    scheduler.cancelAll();
+    scheduler.unregisterAllSubsystems();
+    scheduler.getActiveButtonLoop().clear();
+
+    DriverStationSim.resetData();
+  }
+
+  @Test
+  @Tag("fullRobot")
+  public void shortMatchShouldRunAutoAndTeleop() {
+    HAL.initialize(500, 0);
+
+    TimedControllerScript operator = new TimedControllerScript()
+        .holdAxis(4, 4.5, XboxController.Axis.kLeftY, -0.5);
+    MatchDriver driver = new MatchDriver(new MatchTimeline(2, 1, 2),
+        new TimedControllerScript(), operator, MatchDriver.kAsFastAsPossible);
+
+    MatchReport report = driver.run(new Robot());
+
+    assertTrue(report.isCompleted);
+    assertEquals(250, report.ticks);
+    assertEquals(5, report.matchSeconds, 1e-9);
+
+    // teleopInit() retracts the arm
+    assertTrue(report.wasScheduled("RetractArmCommand", MatchPhase.Teleop));
+  }
+
+  @Test
+  public void invalidArgumentsShouldThrow() {
+    MatchTimeline timeline = MatchTimeline.createStandard();
+    ControllerScript idle = new TimedControllerScript();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new MatchDriver(null, idle, idle, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new MatchDriver(timeline, null, idle, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new MatchDriver(timeline, idle, idle, 0));
+    assertThrows(IllegalArgumentException.class,
+        () -> new TimedControllerScript().during(2, 1, controller -> { }));
+  }
+}
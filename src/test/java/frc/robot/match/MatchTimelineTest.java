@@ -0,0 +1,63 @@
+package frc.robot.match;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the MatchTimeline class.
+ */
+public class MatchTimelineTest {
+  @Test
+  public void standardMatchShouldHaveAutoThenTransitionThenTeleop() {
+    MatchTimeline timeline = MatchTimeline.createStandard();
+
+    assertEquals(153, timeline.getTotalSeconds(), 1e-9);
+    assertEquals(MatchPhase.Autonomous, timeline.getPhaseAt(0));
+    assertEquals(MatchPhase.Autonomous, timeline.getPhaseAt(14.98));
+    assertEquals(MatchPhase.Transition, timeline.getPhaseAt(15));
+    assertEquals(MatchPhase.Teleop, timeline.getPhaseAt(18));
+    assertEquals(MatchPhase.Teleop, timeline.getPhaseAt(152.98));
+  }
+
+  @Test
+  public void phaseBoundariesShouldIgnoreFloatingPointNoise() {
+    MatchTimeline timeline = MatchTimeline.createStandard();
+
+    // 750 ticks of 20ms, added up the way a loop would
+    double matchSeconds = 0;
+    for (int i = 0; i < 750; i++) {
+      matchSeconds += 0.02;
+    }
+
+    assertEquals(MatchPhase.Transition, timeline.getPhaseAt(matchSeconds));
+  }
+
+  @Test
+  public void phaseSecondsRemainingShouldCountDownEachPhase() {
+    MatchTimeline timeline = MatchTimeline.createStandard();
+
+    assertEquals(15, timeline.getPhaseSecondsRemaining(0), 1e-9);
+    assertEquals(5, timeline.getPhaseSecondsRemaining(10), 1e-9);
+    assertEquals(135, timeline.getPhaseSecondsRemaining(18), 1e-9);
+    assertEquals(1, timeline.getPhaseSecondsRemaining(152), 1e-9);
+  }
+
+  @Test
+  public void emptyPhasesShouldBeSkipped() {
+    MatchTimeline timeline = new MatchTimeline(0, 0, 10);
+
+    assertEquals(MatchPhase.Teleop, timeline.getPhaseAt(0));
+  }
+
+  @Test
+  public void invalidArgumentsShouldThrow() {
+    MatchTimeline timeline = MatchTimeline.createStandard();
+
+    assertThrows(IllegalArgumentException.class, () -> new MatchTimeline(-1, 3, 135));
+    assertThrows(IllegalArgumentException.class, () -> timeline.getPhaseAt(-1));
+    assertThrows(IllegalArgumentException.class, () -> timeline.getPhaseAt(153));
+    assertThrows(IllegalArgumentException.class, () -> timeline.getPhaseStartSeconds(null));
+  }
+}
@@ -0,0 +1,80 @@
+package frc.robot.tuning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.headless.HeadlessRobotParams;
+import frc.robot.match.ControllerRecording;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the ArmBreakRisk class.
+ */
+public class ArmBreakRiskTest {
+  private static ArmBreakRisk create(ControllerRecording recording, int threadCount) {
+    return new ArmBreakRisk(recording, 0, new HeadlessRobotParams(),
+        new ArmBreakRisk.OperatorNoise(), threadCount);
+  }
+
+  @Test
+  public void splittingShouldAgreeWithMonteCarlo() {
+    // Opens the grabber just above the break limit: breaks often enough for Monte Carlo
+    ArmBreakRisk risk = create(ArmBreakRisk.createScoreMacro(0.5), 1);
+
+    ArmBreakRisk.Estimate monteCarlo = risk.estimateMonteCarlo(2000, 1);
+    ArmBreakRisk.Estimate splitting = risk.estimateSplitting(100, 4, 1);
+
+    assertTrue(monteCarlo.probability > 0.02 && monteCarlo.probability < 0.3);
+    assertTrue(splitting.confidenceLow <= monteCarlo.confidenceHigh);
+    assertTrue(splitting.confidenceHigh >= monteCarlo.confidenceLow);
+    assertEquals(4, splitting.sampleCount);
+    assertTrue(ArmBreakRisk.formatReport(List.of(splitting, monteCarlo),
+        ArmBreakRisk.createScoreMacro(0.5).getTickCount()).contains("Splitting"));
+  }
+
+  @Test
+  public void resultsShouldNotDependOnThreadCount() {
+    ControllerRecording recording = ArmBreakRisk.createScoreMacro(0.5);
+
+    ArmBreakRisk.Estimate single = create(recording, 1).estimateSplitting(50, 3, 7);
+    ArmBreakRisk.Estimate multi = create(recording, 3).estimateSplitting(50, 3, 7);
+
+    assertEquals(single.probability, multi.probability, 0);
+    assertEquals(single.simulatedTicks, multi.simulatedTicks);
+  }
+
+  @Test
+  public void grabberThatNeverOpensShouldNotBreak() {
+    ControllerRecording recording = new ControllerRecording(1);
+    for (int tick = 0; tick < 50; tick++) {
+      recording.addTick();
+    }
+
+    ArmBreakRisk risk = create(recording, 1);
+
+    assertEquals(0, risk.estimateMonteCarlo(100, 1).probability, 0);
+    assertEquals(0, risk.estimateSplitting(20, 2, 1).probability, 0);
+  }
+
+  @Test
+  public void invalidArgumentsShouldThrow() {
+    ControllerRecording recording = ArmBreakRisk.createScoreMacro(0.5);
+    HeadlessRobotParams params = new HeadlessRobotParams();
+    ArmBreakRisk.OperatorNoise noise = new ArmBreakRisk.OperatorNoise();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new ArmBreakRisk(new ControllerRecording(1), 0, params, noise, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ArmBreakRisk(recording, 1, params, noise, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ArmBreakRisk(recording, 0, params, noise, 0));
+    assertThrows(IllegalArgumentException.class, () -> ArmBreakRisk.createScoreMacro(0));
+
+    ArmBreakRisk risk = new ArmBreakRisk(recording, 0, params, noise, 1);
+    assertThrows(IllegalArgumentException.class, () -> risk.estimateMonteCarlo(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> risk.estimateSplitting(1, 2, 1));
+    assertThrows(IllegalArgumentException.class, () -> risk.estimateSplitting(10, 1, 1));
+  }
+}
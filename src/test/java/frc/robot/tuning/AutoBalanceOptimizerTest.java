@@ -0,0 +1,108 @@
+package frc.robot.tuning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.commands.AutoBalanceParams;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the AutoBalanceOptimizer class, and the headless BalanceScenario it runs.
+ */
+public class AutoBalanceOptimizerTest {
+  @Test
+  public void handTunedParamsShouldBalanceDefaultScenario() {
+    BalanceResult result = BalanceScenario.createDefault().run(new AutoBalanceParams());
+
+    assertTrue(result.isBalanced);
+    assertTrue(result.timeToBalancedSeconds < BalanceScenario.createDefault()
+        .getBalanceSeconds());
+  }
+
+  @Test
+  public void runningScenarioTwiceShouldGiveSameResult() {
+    BalanceScenario scenario = BalanceScenario.createDefault();
+    BalanceResult first = scenario.run(new AutoBalanceParams());
+    BalanceResult second = scenario.run(new AutoBalanceParams());
+
+    assertEquals(first.timeToBalancedSeconds, second.timeToBalancedSeconds, 0);
+    assertEquals(first.overshootDegrees, second.overshootDegrees, 0);
+  }
+
+  @Test
+  public void optimizeShouldReturnCandidatesBestFirst() {
+    AutoBalanceOptimizer optimizer = new AutoBalanceOptimizer(
+        AutoBalanceOptimizer.createDefaultScenarios(),
+        2,
+        1);
+    List<AutoBalanceOptimizer.Candidate> ranked = optimizer.optimize(3, 6);
+
+    // Hand-tuned values, plus 3 generations of 6
+    assertEquals(1 + 3 * 6, ranked.size());
+
+    int handTunedCount = 0;
+    for (int i = 0; i < ranked.size(); i++) {
+      if (i > 0) {
+        assertTrue(ranked.get(i - 1).score <= ranked.get(i).score);
+      }
+
+      if (ranked.get(i).isHandTuned) {
+        handTunedCount++;
+      }
+    }
+    assertEquals(1, handTunedCount);
+  }
+
+  @Test
+  public void optimizeWithSameSeedShouldGiveSameResult() {
+    List<BalanceScenario> scenarios = new ArrayList<BalanceScenario>();
+    scenarios.add(BalanceScenario.createDefault());
+
+    double firstScore = new AutoBalanceOptimizer(scenarios, 1, 42).optimize(2, 6).get(0).score;
+    double secondScore = new AutoBalanceOptimizer(scenarios, 3, 42).optimize(2, 6).get(0).score;
+
+    assertEquals(firstScore, secondScore, 0);
+  }
+
+  @Test
+  public void formatTableShouldIncludeHandTunedRow() {
+    AutoBalanceOptimizer optimizer = new AutoBalanceOptimizer(
+        AutoBalanceOptimizer.createDefaultScenarios(),
+        1,
+        1);
+    String table = AutoBalanceOptimizer.formatTable(optimizer.optimize(1, 6), 1);
+
+    assertTrue(table.contains("*"));
+    assertTrue(table.startsWith("rank"));
+  }
+
+  @Test
+  public void sepCmaEsShouldMinimizeSimpleFunction() {
+    SepCmaEs cmaEs = new SepCmaEs(new double[] {0.9, 0.9, 0.9}, 0.3, 0, 7);
+
+    for (int g = 0; g < 100; g++) {
+      double[][] samples = cmaEs.ask();
+      double[] fitness = new double[samples.length];
+      for (int k = 0; k < samples.length; k++) {
+        for (double value : samples[k]) {
+          fitness[k] += (value - 0.25) * (value - 0.25);
+        }
+      }
+      cmaEs.tell(samples, fitness);
+    }
+
+    for (double value : cmaEs.getMean()) {
+      assertEquals(0.25, value, 0.01);
+    }
+  }
+
+  @Test
+  public void emptyScenarioListShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new AutoBalanceOptimizer(new ArrayList<BalanceScenario>(), 1, 1);
+    });
+  }
+}
@@ -0,0 +1,75 @@
+package frc.robot.tuning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.commands.Auto;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the AutoMonteCarlo class.
+ */
+public class AutoMonteCarloTest {
+  @Test
+  public void resultsShouldNotDependOnThreadCount() {
+    List<String> modes = Arrays.asList(Auto.kOnlyScore, Auto.kAutoBalanceMode);
+    List<AutoMonteCarlo.ModeSummary> single = new AutoMonteCarlo(1, 5).simulate(modes, 150);
+    List<AutoMonteCarlo.ModeSummary> multi = new AutoMonteCarlo(3, 5).simulate(modes, 150);
+
+    for (int m = 0; m < modes.size(); m++) {
+      assertEquals(150, single.get(m).runs.size());
+      assertEquals(single.get(m).completedCount, multi.get(m).completedCount);
+      assertEquals(single.get(m).brokenCount, multi.get(m).brokenCount);
+      for (int i = 0; i < single.get(m).runs.size(); i++) {
+        assertEquals(single.get(m).runs.get(i).result.finalXMeters,
+            multi.get(m).runs.get(i).result.finalXMeters,
+            0);
+      }
+    }
+  }
+
+  @Test
+  public void onlyScoreShouldAlmostAlwaysComplete() {
+    AutoMonteCarlo.ModeSummary summary = new AutoMonteCarlo(2, 1)
+        .simulate(Arrays.asList(Auto.kOnlyScore), 200)
+        .get(0);
+
+    assertTrue(summary.getCompletionRate() > 0.95);
+    assertTrue(summary.getCompletionPercentile(5) <= summary.getCompletionPercentile(95));
+  }
+
+  @Test
+  public void unknownAutoModeShouldThrow() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new AutoMonteCarlo(1, 1).simulate(Arrays.asList("Not an auto mode"), 10));
+  }
+
+  @Test
+  public void percentileShouldInterpolate() {
+    double[] values = {
+        1, 2, 3, 4, 5
+    };
+
+    assertEquals(1, AutoMonteCarlo.percentile(values, 0), 1e-9);
+    assertEquals(3, AutoMonteCarlo.percentile(values, 50), 1e-9);
+    assertEquals(4.5, AutoMonteCarlo.percentile(values, 87.5), 1e-9);
+    assertEquals(5, AutoMonteCarlo.percentile(values, 100), 1e-9);
+    assertTrue(Double.isNaN(AutoMonteCarlo.percentile(new double[0], 50)));
+  }
+
+  @Test
+  public void wilsonIntervalShouldContainRateAndStayInRange() {
+    double[] none = AutoMonteCarlo.wilsonInterval(0, 100);
+    double[] half = AutoMonteCarlo.wilsonInterval(50, 100);
+    double[] all = AutoMonteCarlo.wilsonInterval(100, 100);
+
+    assertEquals(0, none[0], 1e-9);
+    assertTrue(none[1] > 0 && none[1] < 0.05);
+    assertTrue(half[0] < 0.5 && half[1] > 0.5);
+    assertEquals(1, all[1], 1e-9);
+    assertTrue(all[0] > 0.95);
+  }
+}
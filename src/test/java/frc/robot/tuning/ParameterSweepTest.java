@@ -0,0 +1,118 @@
+package frc.robot.tuning;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.commands.Auto;
+import frc.robot.headless.HeadlessRobotParams;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import simulationlib.Constants.SimConstants;
+
+/**
+ * Test the ParameterSweep class.
+ */
+public class ParameterSweepTest {
+  @Test
+  public void rangeShouldIncludeBothEnds() {
+    ParameterSweep.Axis axis = ParameterSweep.Axis.range("batteryVoltage", 11, 13, 5);
+    assertArrayEquals(new double[] {
+        11, 11.5, 12, 12.5, 13
+    }, axis.getValues(), 1e-9);
+  }
+
+  @Test
+  public void parseShouldAcceptRangesAndLists() {
+    ParameterSweep.Axis range = ParameterSweep.Axis.parse("winchSimGearRatio=10:30:3");
+    ParameterSweep.Axis list = ParameterSweep.Axis.parse("batteryVoltage=11,12.5");
+
+    assertEquals("winchSimGearRatio", range.getName());
+    assertArrayEquals(new double[] {
+        10, 20, 30
+    }, range.getValues(), 1e-9);
+    assertArrayEquals(new double[] {
+        11, 12.5
+    }, list.getValues(), 1e-9);
+  }
+
+  @Test
+  public void unknownParameterShouldThrow() {
+    assertThrows(IllegalArgumentException.class,
+        () -> ParameterSweep.Axis.grid("kNotAParameter", 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> ParameterSweep.Axis.parse("batteryVoltage=twelve"));
+  }
+
+  @Test
+  public void lastAxisShouldChangeFastest() {
+    ParameterSweep sweep = new ParameterSweep(
+        Arrays.asList(ParameterSweep.Axis.grid("batteryVoltage", 11, 12),
+            ParameterSweep.Axis.grid("winchSimGearRatio", 10, 20, 30)),
+        Arrays.asList(Auto.kOnlyScore),
+        1);
+
+    assertEquals(6, sweep.getPointCount());
+    assertArrayEquals(new double[] {
+        11, 10
+    }, sweep.getPointValues(0), 0);
+    assertArrayEquals(new double[] {
+        11, 30
+    }, sweep.getPointValues(2), 0);
+    assertArrayEquals(new double[] {
+        12, 20
+    }, sweep.getPointValues(4), 0);
+  }
+
+  @Test
+  public void paramsShouldBeAppliedWithoutChangingStatics() {
+    double gearRatio = SimConstants.kwinchSimGearRatio;
+    ParameterSweep sweep = new ParameterSweep(
+        Arrays.asList(ParameterSweep.Axis.grid("winchSimGearRatio", gearRatio * 2),
+            ParameterSweep.Axis.grid("chargeStation.robotMassKg", 40)),
+        Arrays.asList(Auto.kOnlyScore),
+        1);
+
+    HeadlessRobotParams params = sweep.createParams(0);
+    assertEquals(gearRatio * 2, params.simParams.winchSimGearRatio, 0);
+    assertEquals(40, params.simParams.chargeStation.robotMassKg, 0);
+    assertEquals(gearRatio, SimConstants.kwinchSimGearRatio, 0);
+    assertEquals(gearRatio, new HeadlessRobotParams().simParams.winchSimGearRatio, 0);
+  }
+
+  @Test
+  public void csvShouldHaveOneRowPerPointAndModeInOrder() {
+    ParameterSweep sweep = new ParameterSweep(
+        Arrays.asList(ParameterSweep.Axis.grid("batteryVoltage", 11, 12.5)),
+        Arrays.asList(Auto.kOnlyScore, Auto.kScoreLow),
+        2);
+
+    StringWriter out = new StringWriter();
+    assertEquals(4, sweep.run(out));
+
+    List<String> lines = Arrays.asList(out.toString().split("\\R"));
+    assertEquals(5, lines.size());
+    assertTrue(lines.get(0).startsWith("point,batteryVoltage,mode,completed,"));
+    assertTrue(lines.get(1).startsWith("0,11.0,\"" + Auto.kOnlyScore + "\",true,"));
+    assertTrue(lines.get(2).startsWith("0,11.0,\"" + Auto.kScoreLow + "\","));
+    assertTrue(lines.get(3).startsWith("1,12.5,\"" + Auto.kOnlyScore + "\",true,"));
+  }
+
+  @Test
+  public void resultsShouldNotDependOnThreadCount() {
+    List<ParameterSweep.Axis> axes = Arrays.asList(
+        ParameterSweep.Axis.range("winchSimGearRatio", 10, 40, 4),
+        ParameterSweep.Axis.grid("batteryVoltage", 11, 12.5));
+    List<String> modes = Arrays.asList(Auto.kOnlyScore);
+
+    StringWriter single = new StringWriter();
+    StringWriter multi = new StringWriter();
+    new ParameterSweep(axes, modes, 1).run(single);
+    new ParameterSweep(axes, modes, 3).run(multi);
+
+    assertEquals(single.toString(), multi.toString());
+  }
+}
@@ -0,0 +1,97 @@
+package frc.robot.tuning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.headless.HeadlessRobotParams;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the SobolSensitivity class.
+ */
+public class SobolSensitivityTest {
+  // y = x1 + 2 * x2 with x1 and x2 uniform in [0, 1], and a third factor that does nothing.
+  // Var(y) = 1/12 + 4/12, so x1 explains 1/5 of it and x2 4/5.
+  private static SobolSensitivity createAdditive(int threadCount) {
+    return new SobolSensitivity(
+        Arrays.asList(SobolSensitivity.Factor.uniform("startXMeters", 0, 1),
+            SobolSensitivity.Factor.uniform("startYMeters", 0, 1),
+            SobolSensitivity.Factor.uniform("startHeadingDegrees", 0, 360)),
+        List.of("y"),
+        params -> new double[] {
+            params.startXMeters + 2 * params.startYMeters
+        },
+        threadCount);
+  }
+
+  @Test
+  public void additiveModelShouldMatchAnalyticIndices() {
+    SobolSensitivity.Result result = createAdditive(1).analyze(1024);
+    SobolSensitivity.OutputIndices y = result.outputs.get(0);
+
+    assertEquals(1024 * 5, result.evaluationCount);
+    assertEquals(1.5, y.mean, 0.01);
+    assertEquals(5.0 / 12, y.variance, 0.01);
+    assertEquals(0.2, y.firstOrder[0], 0.02);
+    assertEquals(0.8, y.firstOrder[1], 0.02);
+    assertEquals(0.2, y.totalEffect[0], 0.02);
+    assertEquals(0.8, y.totalEffect[1], 0.02);
+
+    // A factor the model doesn't read changes nothing at all
+    assertEquals(0, y.firstOrder[2], 0);
+    assertEquals(0, y.totalEffect[2], 0);
+    assertTrue(y.totalEffectConfidence[1] > 0);
+    assertTrue(y.totalEffectConfidence[1] < 0.1);
+  }
+
+  @Test
+  public void resultsShouldNotDependOnThreadCount() {
+    SobolSensitivity.Result single = createAdditive(1).analyze(100);
+    SobolSensitivity.Result multi = createAdditive(3).analyze(100);
+
+    assertEquals(SobolSensitivity.formatReport(single), SobolSensitivity.formatReport(multi));
+  }
+
+  @Test
+  public void winchGearRatioShouldDriveRaiseTimeButNotExtendTime() {
+    SobolSensitivity sensitivity = new SobolSensitivity(
+        Arrays.asList(SobolSensitivity.Factor.uniform("winchSimGearRatio", 16, 24),
+            SobolSensitivity.Factor.uniform("motorMomentOfInertia", 0.00025, 0.001)),
+        SobolSensitivity.kArmTimingOutputs,
+        SobolSensitivity::armTiming,
+        2);
+
+    SobolSensitivity.Result result = sensitivity.analyze(64);
+    SobolSensitivity.OutputIndices raise = result.outputs.get(0);
+    SobolSensitivity.OutputIndices extend = result.outputs.get(1);
+
+    assertEquals("raiseSeconds", raise.outputName);
+    assertTrue(raise.totalEffect[0] > 0.9);
+    assertTrue(raise.totalEffect[1] < 0.05);
+    assertEquals(0, extend.totalEffect[0], 0);
+  }
+
+  @Test
+  public void armTimingShouldReachBothTargets() {
+    double[] outputs = SobolSensitivity.armTiming(new HeadlessRobotParams());
+
+    assertEquals(SobolSensitivity.kArmTimingOutputs.size(), outputs.length);
+    assertTrue(outputs[0] > 0.5 && outputs[0] < 2);
+    assertTrue(outputs[1] > 1 && outputs[1] < 3);
+  }
+
+  @Test
+  public void invalidArgumentsShouldThrow() {
+    assertThrows(IllegalArgumentException.class,
+        () -> SobolSensitivity.Factor.uniform("kNotAParameter", 0, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> SobolSensitivity.Factor.uniform("batteryVoltage", 12, 11));
+    assertThrows(IllegalArgumentException.class,
+        () -> SobolSensitivity.Factor.parse("batteryVoltage=11"));
+    assertEquals(12.8, SobolSensitivity.Factor.parse("batteryVoltage=11.5:12.8").getMax(), 0);
+    assertThrows(IllegalArgumentException.class, () -> createAdditive(1).analyze(1));
+  }
+}
@@ -0,0 +1,62 @@
+package frc.robot.tuning;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test the SobolSequence class.
+ */
+public class SobolSequenceTest {
+  @Test
+  public void firstPointsShouldMatchReferenceSequence() {
+    SobolSequence sequence = new SobolSequence(3);
+
+    assertArrayEquals(new double[] {
+        0.5, 0.5, 0.5
+    }, sequence.next(), 0);
+    assertArrayEquals(new double[] {
+        0.75, 0.25, 0.25
+    }, sequence.next(), 0);
+    assertArrayEquals(new double[] {
+        0.25, 0.75, 0.75
+    }, sequence.next(), 0);
+    assertArrayEquals(new double[] {
+        0.375, 0.375, 0.625
+    }, sequence.next(), 0);
+  }
+
+  @Test
+  public void everyDimensionShouldBeEvenlyCovered() {
+    // With the skipped 0 point, 2^m points put one point in each of 2^m slices
+    SobolSequence sequence = new SobolSequence(SobolSequence.kMaxDimensions);
+    int pointCount = 256;
+    int[][] counts = new int[SobolSequence.kMaxDimensions][pointCount];
+    for (int[] dimensionCounts : counts) {
+      dimensionCounts[0]++;
+    }
+
+    for (int i = 1; i < pointCount; i++) {
+      double[] point = sequence.next();
+      for (int d = 0; d < point.length; d++) {
+        counts[d][(int) (point[d] * pointCount)]++;
+      }
+    }
+
+    for (int[] dimensionCounts : counts) {
+      for (int count : dimensionCounts) {
+        assertEquals(1, count);
+      }
+    }
+  }
+
+  @Test
+  public void invalidDimensionsShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> new SobolSequence(0));
+    assertThrows(IllegalArgumentException.class,
+        () -> new SobolSequence(SobolSequence.kMaxDimensions + 1));
+    assertThrows(IllegalArgumentException.class, () -> new SobolSequence(2).next(new double[1]));
+  }
+}
@@ -0,0 +1,113 @@
+package frc.robot.whatif;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.headless.HeadlessRobot;
+import frc.robot.headless.HeadlessRobotParams;
+import frc.robot.headless.RobotSnapshot;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the WhatIfBrancher class.
+ */
+public class WhatIfBrancherTest {
+  // Drives for a second and lets the drivetrain coast to a stop, while the arm keeps moving,
+  // so the snapshot isn't taken at rest. The branches hold the wheel speeds they start with,
+  // which only matches the original robot once it stopped driving.
+  private static HeadlessRobot createMovingRobot(HeadlessRobotParams params) {
+    HeadlessRobot robot = new HeadlessRobot(params, null);
+    robot.setWinchSpeed(0.3);
+    robot.setExtenderSpeed(0.5);
+    for (int tick = 0; tick < 200; tick++) {
+      robot.tankDrive((tick < 50) ? 0.5 : 0, (tick < 50) ? 0.4 : 0, false);
+      robot.step();
+    }
+
+    return robot;
+  }
+
+  @Test
+  public void branchWithoutActionsShouldContinueLikeTheOriginal() {
+    HeadlessRobotParams params = new HeadlessRobotParams();
+    HeadlessRobot robot = createMovingRobot(params);
+    RobotSnapshot snapshot = robot.saveSnapshot();
+
+    BranchOutcome outcome = WhatIfBrancher.runBranch(params, snapshot,
+        new WhatIfBranch("As is", new TimedBranchScript()), 1.0);
+
+    for (int tick = 0; tick < 50; tick++) {
+      robot.step();
+    }
+
+    assertEquals(robot.getDrivetrain().getXMeters(), outcome.xMeters, 1e-6);
+    assertEquals(robot.getDrivetrain().getYMeters(), outcome.yMeters, 1e-6);
+    assertEquals(robot.getArm().getWinchAbsoluteEncoder(), outcome.winchAbsoluteEncoder, 1e-9);
+    assertEquals(robot.getArm().getExtendedPercent(), outcome.extendedPercent, 1e-9);
+    assertEquals(1.0, outcome.seconds, 1e-9);
+  }
+
+  @Test
+  public void outcomesShouldFollowBranchOrder() {
+    HeadlessRobotParams params = new HeadlessRobotParams();
+    RobotSnapshot snapshot = new HeadlessRobot(params, null).saveSnapshot();
+
+    List<BranchOutcome> outcomes;
+    try (WhatIfBrancher brancher = new WhatIfBrancher(2, params)) {
+      outcomes = brancher.run(snapshot, List.of(
+          new WhatIfBranch("As is", new TimedBranchScript()),
+          new WhatIfBranch("Drive", new TimedBranchScript().holdTankDrive(0, 0.5, 0.5, 0.5)),
+          new WhatIfBranch("Close grabber", new TimedBranchScript().closeGrabberAt(0.2))), 1.0);
+    }
+
+    assertEquals(3, outcomes.size());
+    assertEquals("As is", outcomes.get(0).branchName);
+    assertEquals("Drive", outcomes.get(1).branchName);
+    assertEquals("Close grabber", outcomes.get(2).branchName);
+
+    assertEquals(params.startXMeters, outcomes.get(0).xMeters, 1e-9);
+    assertTrue(Math.abs(outcomes.get(1).xMeters - params.startXMeters) > 0.1);
+    assertFalse(outcomes.get(2).isGrabberOpen);
+  }
+
+  @Test
+  public void openingGrabberWithArmLowShouldBreakInThatBranchOnly() {
+    HeadlessRobotParams params = new HeadlessRobotParams();
+    RobotSnapshot snapshot = new HeadlessRobot(params, null).saveSnapshot();
+    snapshot.isGrabberOpen = false;
+
+    List<BranchOutcome> outcomes;
+    try (WhatIfBrancher brancher = new WhatIfBrancher(1, params)) {
+      outcomes = brancher.run(snapshot, List.of(
+          new WhatIfBranch("As is", new TimedBranchScript()),
+          new WhatIfBranch("Open grabber", new TimedBranchScript().openGrabberAt(0.5))), 1.0);
+    }
+
+    assertFalse(outcomes.get(0).isBroken());
+    assertTrue(outcomes.get(1).isBroken());
+    assertEquals(0.52, outcomes.get(1).brokenAtSeconds, 1e-6);
+    assertTrue(WhatIfBrancher.formatReport(snapshot, outcomes).contains("Open grabber"));
+  }
+
+  @Test
+  public void invalidArgumentsShouldThrow() {
+    HeadlessRobotParams params = new HeadlessRobotParams();
+    RobotSnapshot snapshot = new HeadlessRobot(params, null).saveSnapshot();
+    List<WhatIfBranch> branches = List.of(new WhatIfBranch("As is", new TimedBranchScript()));
+
+    assertThrows(IllegalArgumentException.class, () -> new WhatIfBrancher(0, params));
+    try (WhatIfBrancher brancher = new WhatIfBrancher(1, params)) {
+      assertThrows(IllegalArgumentException.class, () -> brancher.fork(null, branches, 1.0));
+      assertThrows(IllegalArgumentException.class,
+          () -> brancher.fork(snapshot, List.of(), 1.0));
+      assertThrows(IllegalArgumentException.class, () -> brancher.fork(snapshot, branches, 0));
+    }
+
+    snapshot.armState = new double[1];
+    assertThrows(IllegalArgumentException.class,
+        () -> new HeadlessRobot(params, null).restoreSnapshot(snapshot));
+  }
+}